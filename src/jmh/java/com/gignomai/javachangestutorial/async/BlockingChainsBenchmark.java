@@ -0,0 +1,99 @@
+package com.gignomai.javachangestutorial.async;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans out chains shaped like {@code shouldChainMoreThanOneCompletionStagesWithAsyncMethods} and waits for all of
+ * them, once on the platform io pool and once on virtual threads. The peak number of platform threads is printed
+ * after each iteration; virtual threads are not counted by {@link ThreadMXBean}, only their carriers.
+ * <p>
+ * The tests sleep 500 ms per stage. With 100k chains and a 64 thread pool that is close to an hour per
+ * iteration in platform mode, so the default sleep here is shorter.
+ * <p>
+ * {@code VIRTUAL} needs Java 21: {@code ./gradlew jmh -PruntimeJava=21 -PjmhInclude=BlockingChainsBenchmark}.
+ * On older runtimes the {@code jmh} task only runs {@code PLATFORM}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockingChainsBenchmark {
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private ExecutionMode mode;
+
+    @Param({"1000", "100000"})
+    private int chains;
+
+    @Param({"10"})
+    private long sleepMillis;
+
+    private AsyncExecutors executors;
+    private Executor blocking;
+    private ThreadMXBean threads;
+
+    @Setup
+    public void setUp() {
+        if (mode == ExecutionMode.VIRTUAL && !VirtualThreads.isSupported()) {
+            throw new IllegalStateException("Virtual threads need Java 21 or newer, run with -PruntimeJava=21");
+        }
+        executors = new AsyncExecutors(0, 1000, 64, chains, ExecutionMode.PLATFORM);
+        blocking = executors.blocking(mode);
+        threads = ManagementFactory.getThreadMXBean();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeakThreads() {
+        threads.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printPeakThreads() {
+        System.out.println("Peak platform threads (" + mode + "): " + threads.getPeakThreadCount());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executors.destroy();
+    }
+
+    @Benchmark
+    public void fanOutChains() {
+        final CompletableFuture<?>[] futures = new CompletableFuture<?>[chains];
+        for (int i = 0; i < chains; i++) {
+            futures[i] = CompletableFuture.supplyAsync(() -> blockingString("Hello"), blocking)
+                    .thenApplyAsync(message -> blockingString(message + " world!"), blocking)
+                    .thenAcceptAsync(this::blockingString, blocking);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private String blockingString(String message) {
+        try {
+            Thread.sleep(sleepMillis);
+            return message;
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e.getLocalizedMessage());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.gignomai.javachangestutorial.async;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Fan-in of 10k futures: the {@code allOf} plus {@code join} stream from {@code shouldRunMultipleFuturesInParallel}
+ * against {@link Futures#allOfList(List)}. In the pending case the futures are completed after the combinator has
+ * been built, so callback registration and completion are both measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FuturesBenchmark {
+
+    @Param({"10000"})
+    private int futures;
+
+    @Param({"true", "false"})
+    private boolean completed;
+
+    @Benchmark
+    public List<Integer> naiveAllOfJoin() {
+        final List<CompletableFuture<Integer>> list = createFutures();
+        final CompletableFuture<List<Integer>> result = CompletableFuture.allOf(list.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> list.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList()));
+        completeAll(list);
+        return result.join();
+    }
+
+    @Benchmark
+    public List<Integer> allOfList() {
+        final List<CompletableFuture<Integer>> list = createFutures();
+        final CompletableFuture<List<Integer>> result = Futures.allOfList(list);
+        completeAll(list);
+        return result.join();
+    }
+
+    private List<CompletableFuture<Integer>> createFutures() {
+        final List<CompletableFuture<Integer>> list = new ArrayList<>(futures);
+        for (int i = 0; i < futures; i++) {
+            list.add(completed ? CompletableFuture.completedFuture(i) : new CompletableFuture<>());
+        }
+        return list;
+    }
+
+    private void completeAll(List<CompletableFuture<Integer>> list) {
+        for (int i = 0; i < list.size(); i++) {
+            list.get(i).complete(i);
+        }
+    }
+}
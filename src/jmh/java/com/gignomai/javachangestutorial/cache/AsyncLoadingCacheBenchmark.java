@@ -0,0 +1,112 @@
+package com.gignomai.javachangestutorial.cache;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Lookups with Zipf-distributed keys, as seen by a popular remote lookup, straight to the backend and through
+ * {@link AsyncLoadingCache} with each eviction policy. The {@code backendCalls} counter shows how many lookups
+ * still reached the backend.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class AsyncLoadingCacheBenchmark {
+
+    private static final int KEY_SPACE = 100_000;
+    private static final int SAMPLES = 1 << 20;
+
+    @Param({"1000"})
+    private int maximumSize;
+
+    private final LongAdder backend = new LongAdder();
+    private int[] keys;
+    private AsyncLoadingCache<Integer, String> lru;
+    private AsyncLoadingCache<Integer, String> tinyLfu;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        keys = zipf(KEY_SPACE, 0.99, SAMPLES, new Random(42));
+        lru = AsyncLoadingCache.builder().maximumSize(maximumSize).eviction(Eviction.LRU).build(this::lookup);
+        tinyLfu = AsyncLoadingCache.builder().maximumSize(maximumSize).eviction(Eviction.TINY_LFU).build(this::lookup);
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Calls {
+        private int next;
+        public long backendCalls;
+        public long lookups;
+
+        int nextIndex() {
+            lookups++;
+            next = (next + 1) & (SAMPLES - 1);
+            return next;
+        }
+    }
+
+    @Benchmark
+    public String noCache(Calls calls) {
+        return count(calls, () -> lookup(keys[calls.nextIndex()]).join());
+    }
+
+    @Benchmark
+    public String lru(Calls calls) {
+        return count(calls, () -> lru.get(keys[calls.nextIndex()]).join());
+    }
+
+    @Benchmark
+    public String tinyLfu(Calls calls) {
+        return count(calls, () -> tinyLfu.get(keys[calls.nextIndex()]).join());
+    }
+
+    private String count(Calls calls, Supplier<String> lookup) {
+        final long before = backend.sum();
+        final String result = lookup.get();
+        calls.backendCalls += backend.sum() - before;
+        return result;
+    }
+
+    private CompletableFuture<String> lookup(int key) {
+        backend.increment();
+        return CompletableFuture.completedFuture("Hello " + key);
+    }
+
+    // Inverse-CDF sampling of a Zipf distribution with the given exponent
+    private static int[] zipf(int keySpace, double exponent, int samples, Random random) {
+        final double[] cumulative = new double[keySpace];
+        double sum = 0;
+        for (int rank = 0; rank < keySpace; rank++) {
+            sum += 1 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        final int[] keys = new int[samples];
+        for (int i = 0; i < samples; i++) {
+            final double target = random.nextDouble() * sum;
+            final int index = Arrays.binarySearch(cumulative, target);
+            keys[i] = index >= 0 ? index : -index - 1;
+        }
+        return keys;
+    }
+}
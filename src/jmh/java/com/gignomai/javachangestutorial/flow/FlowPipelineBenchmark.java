@@ -0,0 +1,139 @@
+package com.gignomai.javachangestutorial.flow;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Throughput of {@link FlowPipeline} against a plain stream, and a slow subscriber that requests one element at a
+ * time against mapping everything up front with {@code CompletableFuture}. Run with {@code -prof gc} to compare
+ * how much each keeps alive while the subscriber catches up.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class FlowPipelineBenchmark {
+
+    private static final String[] CITIES = {"Barcelona", "Girona", "LLeida", "Tarragona"};
+    private static final int SLOW_SUBSCRIBER_TOKENS = 500;
+
+    @Param({"100000"})
+    private int size;
+
+    private List<String> names;
+    private ExecutorService executor;
+
+    @Setup
+    public void setUp() {
+        names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add((i % 1024) + CITIES[i % CITIES.length]);
+        }
+        executor = Executors.newFixedThreadPool(2);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<Integer> mapStream() {
+        return names.stream()
+                .map(String::length)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> mapFlow() {
+        return FlowPipeline.fromIterable(names)
+                .map(String::length)
+                .toList()
+                .join();
+    }
+
+    @Benchmark
+    public List<Integer> mapAsyncFlow() {
+        return FlowPipeline.fromIterable(names)
+                .mapAsync(String::length, 16, executor)
+                .toList()
+                .join();
+    }
+
+    @Benchmark
+    public long slowSubscriberFlow() {
+        final SlowSubscriber subscriber = new SlowSubscriber();
+        FlowPipeline.fromIterable(names)
+                .mapAsync(String::length, 16, executor)
+                .buffer(64)
+                .subscribe(subscriber);
+        return subscriber.result.join();
+    }
+
+    @Benchmark
+    public long slowSubscriberFutures() {
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>(size);
+        for (String name : names) {
+            futures.add(CompletableFuture.supplyAsync(name::length, executor));
+        }
+        long total = 0;
+        for (CompletableFuture<Integer> future : futures) {
+            Blackhole.consumeCPU(SLOW_SUBSCRIBER_TOKENS);
+            total += future.join();
+        }
+        return total;
+    }
+
+    // Burns some CPU for every element and only then asks for the next one
+    private static final class SlowSubscriber implements Flow.Subscriber<Integer> {
+
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+        private long total;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            Blackhole.consumeCPU(SLOW_SUBSCRIBER_TOKENS);
+            total += item;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(total);
+        }
+    }
+}
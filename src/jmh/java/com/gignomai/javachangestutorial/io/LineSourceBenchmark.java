@@ -0,0 +1,105 @@
+package com.gignomai.javachangestutorial.io;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Blank filter plus strip over a generated log file, summing the stripped lengths so every line is touched.
+ * The file is written once to {@code java.io.tmpdir} and reused by later runs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LineSourceBenchmark {
+
+    private static final String[] LINES = {"First line ", " ", " second line ", " third line.",
+            "2022-05-16T10:15:30 INFO  [main] c.g.j.JavaChangesTutorialApplication : Started in 2.77 seconds"};
+
+    @Param({"2048"})
+    private long fileSizeMb;
+
+    private Path file;
+
+    @Setup
+    public void setUp() throws IOException {
+        file = Paths.get(System.getProperty("java.io.tmpdir"), "line-source-" + fileSizeMb + "mb.log");
+        final long targetSize = fileSizeMb * 1024 * 1024;
+        if (Files.exists(file) && Files.size(file) >= targetSize) {
+            return;
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            long written = 0;
+            for (int i = 0; written < targetSize; i++) {
+                final String line = LINES[i % LINES.length];
+                writer.write(line);
+                writer.write('\n');
+                written += line.length() + 1;
+            }
+        }
+    }
+
+    @Benchmark
+    public long filesLines() throws IOException {
+        try (Stream<String> lines = Files.lines(file)) {
+            return lines.filter(line -> !line.isBlank())
+                    .map(String::strip)
+                    .mapToLong(String::length)
+                    .sum();
+        }
+    }
+
+    @Benchmark
+    public long bufferedReaderLines() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            return reader.lines()
+                    .filter(line -> !line.isBlank())
+                    .map(String::strip)
+                    .mapToLong(String::length)
+                    .sum();
+        }
+    }
+
+    @Benchmark
+    public long lineSource() throws IOException {
+        try (LineSource source = LineSource.open(file)) {
+            return source.lines()
+                    .filter(line -> !line.isBlank())
+                    .map(LineView::strip)
+                    .mapToLong(LineView::length)
+                    .sum();
+        }
+    }
+
+    @Benchmark
+    public long lineSourceParallel() throws IOException {
+        try (LineSource source = LineSource.open(file)) {
+            return source.parallelLines()
+                    .filter(line -> !line.isBlank())
+                    .map(LineView::strip)
+                    .mapToLong(LineView::length)
+                    .sum();
+        }
+    }
+}
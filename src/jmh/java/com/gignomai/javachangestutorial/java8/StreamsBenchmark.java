@@ -0,0 +1,241 @@
+package com.gignomai.javachangestutorial.java8;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Measures the pipelines from {@link StreamsTest} in sequential, parallel and hand-written loop form,
+ * so we can see at which input size a parallel stream starts to pay off.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StreamsBenchmark {
+
+    private static final String[] CITIES = {"Barcelona", "Girona", "LLeida", "Tarragona"};
+    private static final int INNER_LIST_SIZE = 100;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    private List<String> names;
+    private List<List<String>> nestedNames;
+
+    @Setup
+    public void setUp() {
+        names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // A numeric prefix keeps the suffixes intact while giving distinct() and the length comparators some work
+            names.add((i % 1024) + CITIES[i % CITIES.length]);
+        }
+        nestedNames = new ArrayList<>();
+        for (int from = 0; from < size; from += INNER_LIST_SIZE) {
+            nestedNames.add(names.subList(from, Math.min(size, from + INNER_LIST_SIZE)));
+        }
+    }
+
+    @Benchmark
+    public List<String> filterSequential() {
+        return names.stream()
+                .filter(name -> name.endsWith("ona"))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> filterParallel() {
+        return names.stream()
+                .parallel()
+                .filter(name -> name.endsWith("ona"))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> filterLoop() {
+        final List<String> result = new ArrayList<>();
+        for (String name : names) {
+            if (name.endsWith("ona")) {
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<String> mapSequential() {
+        return names.stream()
+                .map(String::toUpperCase)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> mapParallel() {
+        return names.stream()
+                .parallel()
+                .map(String::toUpperCase)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> mapLoop() {
+        final List<String> result = new ArrayList<>(names.size());
+        for (String name : names) {
+            result.add(name.toUpperCase());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<String> flatMapSequential() {
+        return nestedNames.stream()
+                .flatMap(List::stream)
+                .map(String::toUpperCase)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> flatMapParallel() {
+        return nestedNames.stream()
+                .parallel()
+                .flatMap(List::stream)
+                .map(String::toUpperCase)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> flatMapLoop() {
+        final List<String> result = new ArrayList<>(size);
+        for (List<String> inner : nestedNames) {
+            for (String name : inner) {
+                result.add(name.toUpperCase());
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<String> distinctSequential() {
+        return names.stream()
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> distinctParallel() {
+        return names.stream()
+                .parallel()
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<String> distinctLoop() {
+        final Set<String> seen = new HashSet<>();
+        final List<String> result = new ArrayList<>();
+        for (String name : names) {
+            if (seen.add(name)) {
+                result.add(name);
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public Optional<String> maxByLengthSequential() {
+        return names.stream()
+                .max(Comparator.comparingInt(String::length));
+    }
+
+    @Benchmark
+    public Optional<String> maxByLengthParallel() {
+        return names.stream()
+                .parallel()
+                .max(Comparator.comparingInt(String::length));
+    }
+
+    @Benchmark
+    public String maxByLengthLoop() {
+        String max = null;
+        for (String name : names) {
+            if (max == null || name.length() > max.length()) {
+                max = name;
+            }
+        }
+        return max;
+    }
+
+    @Benchmark
+    public Optional<String> minByLengthSequential() {
+        return names.stream()
+                .min(Comparator.comparingInt(String::length));
+    }
+
+    @Benchmark
+    public Optional<String> minByLengthParallel() {
+        return names.stream()
+                .parallel()
+                .min(Comparator.comparingInt(String::length));
+    }
+
+    @Benchmark
+    public String minByLengthLoop() {
+        String min = null;
+        for (String name : names) {
+            if (min == null || name.length() < min.length()) {
+                min = name;
+            }
+        }
+        return min;
+    }
+
+    @Benchmark
+    public Optional<String> reduceShortestSequential() {
+        return names.stream()
+                .reduce(getShortestString());
+    }
+
+    @Benchmark
+    public Optional<String> reduceShortestParallel() {
+        return names.stream()
+                .parallel()
+                .reduce(getShortestString());
+    }
+
+    @Benchmark
+    public String reduceShortestLoop() {
+        String shortest = null;
+        for (String name : names) {
+            if (shortest == null || name.length() < shortest.length()) {
+                shortest = name;
+            }
+        }
+        return shortest;
+    }
+
+    private static BinaryOperator<String> getShortestString() {
+        return (word1, word2)
+                -> word1.length() <= word2.length()
+                ? word1 : word2;
+    }
+}
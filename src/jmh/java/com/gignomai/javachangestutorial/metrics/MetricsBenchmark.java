@@ -0,0 +1,73 @@
+package com.gignomai.javachangestutorial.metrics;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Cost of recording one event. {@code nanoTime} is the floor every timed stage pays for reading the clock twice;
+ * the target is under 50 ns per recorded event on top of the work itself.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1)
+@State(Scope.Benchmark)
+public class MetricsBenchmark {
+
+    private Timer timer;
+    private Counter counter;
+    private Function<String, Integer> plain;
+    private Function<String, Integer> timed;
+    private long value;
+
+    @Setup
+    public void setUp() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        timer = registry.timer("stage");
+        counter = registry.counter("events");
+        plain = String::length;
+        timed = timer.timed(plain);
+    }
+
+    @Benchmark
+    public long nanoTime() {
+        return System.nanoTime() - System.nanoTime();
+    }
+
+    @Benchmark
+    public void timerRecord() {
+        timer.record(value++ & 0xffff);
+    }
+
+    @Benchmark
+    public void timerRecordSince() {
+        timer.recordSince(System.nanoTime());
+    }
+
+    @Benchmark
+    public void counterIncrement() {
+        counter.increment();
+    }
+
+    @Benchmark
+    public Integer plainFunction() {
+        return plain.apply("Barcelona");
+    }
+
+    @Benchmark
+    public Integer timedFunction() {
+        return timed.apply("Barcelona");
+    }
+}
@@ -0,0 +1,140 @@
+package com.gignomai.javachangestutorial.offheap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap lists of strings against {@link RecordStore} for the same filter/map/flatMap/count pipelines, plus a full
+ * collection with each as the live set, which is the pause the heap lists add to every old generation collection.
+ * Each side has its own state, so the heap lists are only built for the heap benchmarks. For the sizes the store
+ * is meant for, run with {@code -prof gc -p size=50000000}; the heap lists then need about 4 GB.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g", "-XX:MaxDirectMemorySize=4g"})
+public class RecordStoreBenchmark {
+
+    private static final String[] CITIES = {"Barcelona", "Girona", "LLeida", "Tarragona"};
+    private static final int GROUP_SIZE = 100;
+    private static final byte[] ONA = "ona".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] ONE = "1".getBytes(StandardCharsets.UTF_8);
+
+    @State(Scope.Benchmark)
+    public static class HeapData {
+        @Param({"1000000"})
+        private int size;
+
+        private List<String> names;
+        private List<List<String>> nestedNames;
+
+        @Setup
+        public void setUp() {
+            names = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                names.add(name(i));
+            }
+            nestedNames = new ArrayList<>();
+            for (int from = 0; from < size; from += GROUP_SIZE) {
+                nestedNames.add(names.subList(from, Math.min(size, from + GROUP_SIZE)));
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OffHeapData {
+        @Param({"1000000"})
+        private int size;
+
+        private OffHeapArena arena;
+        private RecordStore names;
+        // The same names as comma separated groups of GROUP_SIZE, the off-heap form of a List<List<String>>
+        private RecordStore nestedNames;
+
+        @Setup
+        public void setUp() {
+            arena = OffHeapArena.open();
+            names = RecordStore.variableLength(arena);
+            nestedNames = RecordStore.variableLength(arena);
+            final StringBuilder group = new StringBuilder();
+            for (int i = 0; i < size; i++) {
+                final String name = name(i);
+                names.append(name);
+                group.append(group.length() == 0 ? "" : ",").append(name);
+                if ((i + 1) % GROUP_SIZE == 0 || i == size - 1) {
+                    nestedNames.append(group.toString());
+                    group.setLength(0);
+                }
+            }
+        }
+
+        @TearDown
+        public void tearDown() {
+            arena.close();
+        }
+    }
+
+    @Benchmark
+    public int filterMapSumHeap(HeapData data) {
+        return data.names.stream()
+                .filter(name -> name.endsWith("ona"))
+                .mapToInt(String::length)
+                .sum();
+    }
+
+    @Benchmark
+    public int filterMapSumOffHeap(OffHeapData data) {
+        return data.names.stream()
+                .filter(name -> name.endsWith(ONA))
+                .mapToInt(RecordView::length)
+                .sum();
+    }
+
+    @Benchmark
+    public long flatMapCountHeap(HeapData data) {
+        return data.nestedNames.stream()
+                .flatMap(List::stream)
+                .filter(name -> name.startsWith("1"))
+                .count();
+    }
+
+    @Benchmark
+    public long flatMapCountOffHeap(OffHeapData data) {
+        return data.nestedNames.stream()
+                .flatMap(group -> group.fields((byte) ','))
+                .filter(name -> name.startsWith(ONE))
+                .count();
+    }
+
+    @Benchmark
+    public long fullGcHeap(HeapData data) {
+        System.gc();
+        return data.names.size();
+    }
+
+    @Benchmark
+    public long fullGcOffHeap(OffHeapData data) {
+        System.gc();
+        return data.names.size();
+    }
+
+    private static String name(int i) {
+        return (i % 1024) + CITIES[i % CITIES.length];
+    }
+}
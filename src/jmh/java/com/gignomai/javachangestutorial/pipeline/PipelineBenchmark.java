@@ -0,0 +1,122 @@
+package com.gignomai.javachangestutorial.pipeline;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@link Pipeline} against the same {@code Stream} pipelines, sequential and parallel, with and without stats.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class PipelineBenchmark {
+
+    private static final String[] CITIES = {"Barcelona", "Girona", "LLeida", "Tarragona"};
+
+    @Param({"1000000"})
+    private int size;
+
+    private List<String> names;
+    private List<List<String>> nestedNames;
+
+    @Setup
+    public void setUp() {
+        names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add((i % 1024) + CITIES[i % CITIES.length]);
+        }
+        nestedNames = new ArrayList<>();
+        for (int from = 0; from < size; from += 100) {
+            nestedNames.add(names.subList(from, Math.min(size, from + 100)));
+        }
+    }
+
+    @Benchmark
+    public List<Integer> filterMapStream() {
+        return names.stream()
+                .filter(name -> name.endsWith("ona"))
+                .map(String::length)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> filterMapPipeline() {
+        return Pipeline.of(names)
+                .filter(name -> name.endsWith("ona"))
+                .map(String::length)
+                .toList();
+    }
+
+    @Benchmark
+    public List<Integer> filterMapPipelineWithStats() {
+        return Pipeline.of(names)
+                .recordStats(new PipelineStats())
+                .filter(name -> name.endsWith("ona"))
+                .map(String::length)
+                .toList();
+    }
+
+    @Benchmark
+    public List<Integer> filterMapParallelStream() {
+        return names.parallelStream()
+                .filter(name -> name.endsWith("ona"))
+                .map(String::length)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Integer> filterMapParallelPipeline() {
+        return Pipeline.of(names)
+                .parallel()
+                .filter(name -> name.endsWith("ona"))
+                .map(String::length)
+                .toList();
+    }
+
+    @Benchmark
+    public long flatMapCountStream() {
+        return nestedNames.stream()
+                .flatMap(List::stream)
+                .filter(name -> name.startsWith("1"))
+                .count();
+    }
+
+    @Benchmark
+    public long flatMapCountPipeline() {
+        return Pipeline.of(nestedNames)
+                .flatMap(list -> list)
+                .filter(name -> name.startsWith("1"))
+                .count();
+    }
+
+    @Benchmark
+    public int sumLengthsStream() {
+        return names.stream()
+                .map(String::length)
+                .reduce(0, Integer::sum);
+    }
+
+    @Benchmark
+    public int sumLengthsPipeline() {
+        return Pipeline.of(names)
+                .map(String::length)
+                .reduce(0, Integer::sum);
+    }
+}
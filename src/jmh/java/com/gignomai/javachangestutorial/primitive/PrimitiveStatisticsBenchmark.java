@@ -0,0 +1,92 @@
+package com.gignomai.javachangestutorial.primitive;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The boxed {@code List<Integer>} max/min/sum paths from {@code StreamsTest} against {@link IntArrayList} streams
+ * and a single {@link IntStatistics} pass. Run with the GC profiler (the default for the jmh task) to get bytes
+ * allocated per operation next to ns/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx6g")
+@State(Scope.Benchmark)
+public class PrimitiveStatisticsBenchmark {
+
+    @Param({"1000000", "100000000"})
+    private int size;
+
+    private List<Integer> boxed;
+    private IntArrayList primitive;
+
+    @Setup
+    public void setUp() {
+        final SplittableRandom random = new SplittableRandom(42);
+        boxed = new ArrayList<>(size);
+        primitive = new IntArrayList(size);
+        for (int i = 0; i < size; i++) {
+            final int value = random.nextInt(1_000_000);
+            boxed.add(value);
+            primitive.add(value);
+        }
+    }
+
+    @Benchmark
+    public Optional<Integer> boxedMax() {
+        return boxed.stream().max(Integer::compareTo);
+    }
+
+    @Benchmark
+    public Optional<Integer> boxedMin() {
+        return boxed.stream().min(Integer::compareTo);
+    }
+
+    @Benchmark
+    public Integer boxedSum() {
+        return boxed.stream().reduce(0, Integer::sum);
+    }
+
+    @Benchmark
+    public OptionalInt primitiveMax() {
+        return primitive.stream().max();
+    }
+
+    @Benchmark
+    public OptionalInt primitiveMin() {
+        return primitive.stream().min();
+    }
+
+    @Benchmark
+    public int primitiveSum() {
+        return primitive.stream().sum();
+    }
+
+    @Benchmark
+    public IntStatistics primitiveStatistics() {
+        return primitive.stream().collect(IntStatistics::withoutPercentiles, IntStatistics::accept, IntStatistics::combine);
+    }
+
+    @Benchmark
+    public int primitiveP99() {
+        return IntStatistics.of(primitive.stream()).getPercentile(0.99);
+    }
+}
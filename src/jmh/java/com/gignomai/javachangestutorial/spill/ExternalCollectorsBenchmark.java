@@ -0,0 +1,102 @@
+package com.gignomai.javachangestutorial.spill;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link ExternalCollectors} against {@code sorted()} and {@code Collectors.groupingBy}, with a budget that holds
+ * every name (in memory) and one of 4 MB (spilled). The results are consumed rather than counted, since counting
+ * a sized stream skips the merge.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ExternalCollectorsBenchmark {
+
+    private static final String[] CITIES = {"Barcelona", "Girona", "LLeida", "Tarragona"};
+    private static final ExternalCollectors IN_MEMORY = ExternalCollectors.withMemoryBudget(1L << 30);
+    private static final ExternalCollectors SPILLED = ExternalCollectors.withMemoryBudget(4L << 20);
+
+    @Param({"1000000"})
+    private int size;
+
+    private List<String> names;
+
+    @Setup
+    public void setUp() {
+        names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(CITIES[i % CITIES.length] + (i * 7919L % size));
+        }
+    }
+
+    @Benchmark
+    public int sortedStream() {
+        return names.stream()
+                .sorted()
+                .mapToInt(String::length)
+                .sum();
+    }
+
+    @Benchmark
+    public int externalSortInMemory() {
+        return externalSort(IN_MEMORY);
+    }
+
+    @Benchmark
+    public int externalSortSpilled() {
+        return externalSort(SPILLED);
+    }
+
+    @Benchmark
+    public int groupingByCounting() {
+        return names.stream()
+                .collect(Collectors.groupingBy(String::length, TreeMap::new, Collectors.counting()))
+                .size();
+    }
+
+    @Benchmark
+    public int externalGroupingInMemory() {
+        return externalGrouping(IN_MEMORY);
+    }
+
+    @Benchmark
+    public int externalGroupingSpilled() {
+        return externalGrouping(SPILLED);
+    }
+
+    private int externalSort(ExternalCollectors collectors) {
+        try (Stream<String> sorted = names.stream()
+                .collect(collectors.sorted(Comparator.naturalOrder(), Codec.strings()))) {
+            return sorted.mapToInt(String::length).sum();
+        }
+    }
+
+    private int externalGrouping(ExternalCollectors collectors) {
+        try (Stream<Map.Entry<Integer, Long>> groups = names.stream().collect(collectors.groupingBy(String::length,
+                Comparator.naturalOrder(), Codec.integers(), Codec.strings(), Collectors.counting()))) {
+            return groups.mapToInt(entry -> entry.getValue().intValue()).sum();
+        }
+    }
+}
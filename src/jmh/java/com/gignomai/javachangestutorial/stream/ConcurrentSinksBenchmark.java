@@ -0,0 +1,81 @@
+package com.gignomai.javachangestutorial.stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Parallel sinks for a filter pipeline. Contention only shows on machines with many cores; compare runs on 16 or
+ * more, optionally limiting the pool with {@code -Djava.util.concurrent.ForkJoinPool.common.parallelism=N}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class ConcurrentSinksBenchmark {
+
+    private static final String[] CITIES = {"Barcelona", "Girona", "LLeida", "Tarragona"};
+
+    @Param({"1000000", "10000000"})
+    private int size;
+
+    private List<String> names;
+
+    @Setup
+    public void setUp() {
+        names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(CITIES[i % CITIES.length]);
+        }
+    }
+
+    @Benchmark
+    public int forEachIntoSynchronizedList() {
+        final List<String> result = Collections.synchronizedList(new ArrayList<>());
+        names.parallelStream()
+                .filter(name -> name.endsWith("ona"))
+                .forEach(result::add);
+        return result.size();
+    }
+
+    @Benchmark
+    public int forEachIntoStripedBuffer() {
+        final StripedAppendBuffer<String> result = new StripedAppendBuffer<>();
+        names.parallelStream()
+                .filter(name -> name.endsWith("ona"))
+                .forEach(result);
+        return result.size();
+    }
+
+    @Benchmark
+    public int collectToList() {
+        return names.parallelStream()
+                .filter(name -> name.endsWith("ona"))
+                .collect(Collectors.toList())
+                .size();
+    }
+
+    @Benchmark
+    public int collectToChunkedList() {
+        return names.parallelStream()
+                .filter(name -> name.endsWith("ona"))
+                .collect(ConcurrentSinks.toChunkedList())
+                .size();
+    }
+}
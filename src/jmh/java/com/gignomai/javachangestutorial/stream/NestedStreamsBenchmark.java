@@ -0,0 +1,91 @@
+package com.gignomai.javachangestutorial.stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link NestedStreams#parallelFlatStream(List)} against {@code parallelStream().flatMap(List::stream)} over ten
+ * million names, either spread over 10,000 lists of 1,000 or almost all in one list among 10,000 lists of 10. The
+ * skewed shape only shows a difference with several cores, as {@code flatMap} leaves the big list to one of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class NestedStreamsBenchmark {
+
+    private static final String[] CITIES = {"Barcelona", "Girona", "LLeida", "Tarragona"};
+    private static final int SIZE = 10_000_000;
+    private static final int LISTS = 10_000;
+
+    @Param({"balanced", "skewed"})
+    private String shape;
+
+    private List<List<String>> nestedNames;
+
+    @Setup
+    public void setUp() {
+        nestedNames = new ArrayList<>(LISTS + 1);
+        if (shape.equals("balanced")) {
+            for (int i = 0; i < LISTS; i++) {
+                nestedNames.add(names(SIZE / LISTS));
+            }
+        } else {
+            for (int i = 0; i < LISTS; i++) {
+                nestedNames.add(names(10));
+                if (i == LISTS / 2) {
+                    nestedNames.add(names(SIZE - LISTS * 10));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int flatMapSequential() {
+        return nestedNames.stream()
+                .flatMap(List::stream)
+                .filter(name -> name.endsWith("ona"))
+                .mapToInt(String::length)
+                .sum();
+    }
+
+    @Benchmark
+    public int flatMapParallel() {
+        return nestedNames.parallelStream()
+                .flatMap(List::stream)
+                .filter(name -> name.endsWith("ona"))
+                .mapToInt(String::length)
+                .sum();
+    }
+
+    @Benchmark
+    public int nestedSpliteratorParallel() {
+        return NestedStreams.parallelFlatStream(nestedNames)
+                .filter(name -> name.endsWith("ona"))
+                .mapToInt(String::length)
+                .sum();
+    }
+
+    private static List<String> names(int count) {
+        final List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(CITIES[i % CITIES.length]);
+        }
+        return names;
+    }
+}
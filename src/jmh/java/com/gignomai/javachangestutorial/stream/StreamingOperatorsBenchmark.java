@@ -0,0 +1,85 @@
+package com.gignomai.javachangestutorial.stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@link StreamingOperators} against {@code distinct()}, {@code distinct().count()} and {@code sorted().limit(k)}.
+ * Run with {@code -prof gc} (the default of the {@code jmh} task) to compare allocation as well as time.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class StreamingOperatorsBenchmark {
+
+    private static final int TOP_K = 10;
+
+    @Param({"1000000"})
+    private int size;
+
+    private List<Long> ids;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // About half of the ids repeat
+            ids.add((long) random.nextInt(size));
+        }
+    }
+
+    @Benchmark
+    public long streamDistinct() {
+        return ids.stream().distinct().count();
+    }
+
+    @Benchmark
+    public long distinctByOnHeap() {
+        return ids.stream().filter(StreamingOperators.distinctBy(Long::longValue)).count();
+    }
+
+    @Benchmark
+    public long distinctByOffHeap() {
+        return ids.stream().filter(StreamingOperators.distinctByOffHeap(Long::longValue)).count();
+    }
+
+    @Benchmark
+    public long bloomFilterDistinct() {
+        return ids.stream().filter(StreamingOperators.approximateDistinct(size, 0.01)).count();
+    }
+
+    @Benchmark
+    public long hyperLogLogCount() {
+        return ids.stream().collect(StreamingOperators.approximateDistinctCount());
+    }
+
+    @Benchmark
+    public List<Long> sortedLimit() {
+        return ids.stream().sorted(Comparator.reverseOrder()).limit(TOP_K).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<Long> topK() {
+        return ids.stream().collect(StreamingOperators.topK(Comparator.naturalOrder(), TOP_K));
+    }
+}
@@ -0,0 +1,100 @@
+package com.gignomai.javachangestutorial.text;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.MatchResult;
+import java.util.regex.Pattern;
+
+/**
+ * Searching a 16 KB text for 1, 100 or 10k words: the inline compile of {@code shouldCreateStreamFromMatcher},
+ * {@code Scanner.findAll} from {@code shouldCreateStreamFromScanner}, a {@link PatternCache} lookup per pattern and
+ * one {@link AhoCorasick} pass for all of them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatternSearchBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int patternCount;
+
+    private String text;
+    private List<String> patterns;
+    private PatternCache cache;
+
+    @Setup
+    public void setUp() {
+        final SplittableRandom random = new SplittableRandom(42);
+        final List<String> vocabulary = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            vocabulary.add(randomWord(random));
+        }
+        final StringBuilder builder = new StringBuilder();
+        while (builder.length() < 16 * 1024) {
+            builder.append(vocabulary.get(random.nextInt(vocabulary.size()))).append(' ');
+        }
+        text = builder.toString();
+        patterns = new ArrayList<>(vocabulary.subList(0, patternCount));
+        cache = new PatternCache(patternCount);
+        cache.matchStarts(patterns, text).count();
+        patterns.forEach(pattern -> cache.matchStarts(pattern, text).count());
+    }
+
+    @Benchmark
+    public long inlineCompile() {
+        long matches = 0;
+        for (String pattern : patterns) {
+            matches += Pattern.compile(pattern).matcher(text).results().mapToInt(MatchResult::start).count();
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public long scannerFindAll() {
+        long matches = 0;
+        for (String pattern : patterns) {
+            matches += new Scanner(text).findAll(pattern).mapToInt(MatchResult::start).count();
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public long cachedPatterns() {
+        long matches = 0;
+        for (String pattern : patterns) {
+            matches += cache.matchStarts(pattern, text).count();
+        }
+        return matches;
+    }
+
+    @Benchmark
+    public long ahoCorasick() {
+        return cache.matchStarts(patterns, text).count();
+    }
+
+    private static String randomWord(SplittableRandom random) {
+        final char[] word = new char[3 + random.nextInt(6)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+}
@@ -0,0 +1,150 @@
+package com.gignomai.javachangestutorial.text;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Scans over a {@link StringColumn}, plain and dictionary-encoded, against the same pipelines on a
+ * {@code List<String>}.
+ * <p>
+ * The {@code load*} benchmarks build each representation from the same newline-separated UTF-8 bytes. With
+ * {@code -prof gc}, their {@code gc.alloc.rate.norm} shows the heap each representation needs; the column figure
+ * also includes the buffers it outgrew while loading.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class StringColumnBenchmark {
+
+    private static final String[] CITIES = {"Barcelona", "Girona", "LLeida", "Tarragona", "Reus", "Sabadell",
+            "Terrassa", "Badalona"};
+
+    @Param({"1000000"})
+    private int size;
+
+    private byte[] lines;
+    private List<String> list;
+    private StringColumn plain;
+    private StringColumn dictionary;
+
+    @Setup
+    public void setUp() {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < size; i++) {
+            out.writeBytes(CITIES[(i * 7) % CITIES.length].getBytes(StandardCharsets.UTF_8));
+            out.write('\n');
+        }
+        lines = out.toByteArray();
+        list = loadList();
+        plain = loadColumn();
+        dictionary = loadDictionary();
+    }
+
+    @Benchmark
+    public List<String> loadList() {
+        final List<String> result = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i] == '\n') {
+                result.add(new String(lines, start, i - start, StandardCharsets.UTF_8));
+                start = i + 1;
+            }
+        }
+        return result;
+    }
+
+    @Benchmark
+    public StringColumn loadColumn() {
+        return load(StringColumn.builder());
+    }
+
+    @Benchmark
+    public StringColumn loadDictionary() {
+        return load(StringColumn.builder().dictionaryEncoded());
+    }
+
+    @Benchmark
+    public long endsWithCountList() {
+        return list.stream().filter(name -> name.endsWith("ona")).count();
+    }
+
+    @Benchmark
+    public long endsWithCountColumn() {
+        return plain.count(plain.endsWith("ona"));
+    }
+
+    @Benchmark
+    public long endsWithCountDictionary() {
+        return dictionary.count(dictionary.endsWith("ona"));
+    }
+
+    @Benchmark
+    public long startsWithCountList() {
+        return list.stream().filter(name -> name.startsWith("Bar")).count();
+    }
+
+    @Benchmark
+    public long startsWithCountColumn() {
+        return plain.count(plain.startsWith("Bar"));
+    }
+
+    @Benchmark
+    public List<String> upperCaseList() {
+        return list.stream().map(String::toUpperCase).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public StringColumn upperCaseColumn() {
+        return plain.toUpperCase();
+    }
+
+    @Benchmark
+    public StringColumn upperCaseDictionary() {
+        return dictionary.toUpperCase();
+    }
+
+    @Benchmark
+    public long distinctList() {
+        return list.stream().distinct().count();
+    }
+
+    @Benchmark
+    public long distinctColumn() {
+        return plain.countDistinct();
+    }
+
+    @Benchmark
+    public long distinctDictionary() {
+        return dictionary.countDistinct();
+    }
+
+    private StringColumn load(StringColumn.Builder builder) {
+        int start = 0;
+        for (int i = 0; i < lines.length; i++) {
+            if (lines[i] == '\n') {
+                builder.add(lines, start, i);
+                start = i + 1;
+            }
+        }
+        return builder.build();
+    }
+}
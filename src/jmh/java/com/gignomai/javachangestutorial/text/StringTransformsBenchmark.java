@@ -0,0 +1,96 @@
+package com.gignomai.javachangestutorial.text;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link StringTransforms} into a reused {@link TextArena} against a {@code String} per element, for ASCII input
+ * (the fast path) and input with accented names (the fallback).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StringTransformsBenchmark {
+
+    private static final String[] ASCII_CITIES = {"Barcelona", "Girona", "LLeida", "Tarragona", " Sabadell "};
+    private static final String[] ACCENTED_CITIES = {"Barcelona", "Girona", "L\u00e9rida", "Matar\u00f3", " Sabadell "};
+    private static final int BATCH_SIZE = 10_000;
+
+    @Param({"ascii", "accented"})
+    private String input;
+
+    private List<String> batch;
+    private TextArena arena;
+
+    @Setup
+    public void setUp() {
+        final String[] cities = input.equals("ascii") ? ASCII_CITIES : ACCENTED_CITIES;
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(cities[i % cities.length] + i);
+        }
+        arena = new TextArena();
+    }
+
+    @Benchmark
+    public List<String> upperCaseJdk() {
+        final List<String> result = new ArrayList<>(batch.size());
+        for (String value : batch) {
+            result.add(value.toUpperCase(Locale.ROOT));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public TextArena upperCaseArena() {
+        arena.clear();
+        return StringTransforms.toUpperCase(batch, arena);
+    }
+
+    @Benchmark
+    public List<String> stripJdk() {
+        final List<String> result = new ArrayList<>(batch.size());
+        for (String value : batch) {
+            result.add(value.strip());
+        }
+        return result;
+    }
+
+    @Benchmark
+    public TextArena stripArena() {
+        arena.clear();
+        return StringTransforms.strip(batch, arena);
+    }
+
+    @Benchmark
+    public List<String> repeatJdk() {
+        final List<String> result = new ArrayList<>(batch.size());
+        for (String value : batch) {
+            result.add(value.repeat(3));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public TextArena repeatArena() {
+        arena.clear();
+        return StringTransforms.repeat(batch, 3, arena);
+    }
+}
@@ -0,0 +1,87 @@
+package com.gignomai.javachangestutorial.time;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bucketing a million timestamps with {@link CalendarBuckets} against allocating a {@link LocalDate} per event and
+ * counting into a {@link HashMap}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CalendarBucketsBenchmark {
+
+    private static final int EVENTS = 1_000_000;
+
+    @Param({"DAY", "WEEK", "MONTH"})
+    private BucketUnit unit;
+
+    private long[] epochSeconds;
+    private CalendarBuckets buckets;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        final long from = LocalDate.parse("2020-01-01").toEpochDay() * 86_400;
+        final long span = 3L * 365 * 86_400;
+        epochSeconds = new long[EVENTS];
+        for (int i = 0; i < EVENTS; i++) {
+            epochSeconds[i] = from + (long) (random.nextDouble() * span);
+        }
+        buckets = CalendarBuckets.of(unit);
+    }
+
+    @Benchmark
+    public Map<LocalDate, Long> localDatePerEvent() {
+        final Map<LocalDate, Long> counts = new HashMap<>();
+        for (long epochSecond : epochSeconds) {
+            final LocalDate date = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC).toLocalDate();
+            counts.merge(startOf(date), 1L, Long::sum);
+        }
+        return counts;
+    }
+
+    @Benchmark
+    public BucketAggregation bucketsSequential() {
+        return buckets.count(epochSeconds);
+    }
+
+    @Benchmark
+    public BucketAggregation bucketsParallel() {
+        return buckets.countParallel(epochSeconds);
+    }
+
+    private LocalDate startOf(LocalDate date) {
+        switch (unit) {
+            case DAY:
+                return date;
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            default:
+                return date.with(TemporalAdjusters.firstDayOfMonth());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.gignomai.javachangestutorial.time;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading "now" from each {@link ClockMode}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClockBenchmark {
+
+    private Clock system;
+    private CachedClock cached;
+    private MutableClock mutable;
+
+    @Setup
+    public void setUp() {
+        system = Clock.systemDefaultZone();
+        cached = new CachedClock(ZoneId.systemDefault(), 1);
+        mutable = new MutableClock(Instant.now(), ZoneId.systemDefault());
+    }
+
+    @TearDown
+    public void tearDown() {
+        cached.close();
+    }
+
+    @Benchmark
+    public long systemMillis() {
+        return system.millis();
+    }
+
+    @Benchmark
+    public Instant systemInstant() {
+        return system.instant();
+    }
+
+    @Benchmark
+    public Instant cachedInstant() {
+        return cached.instant();
+    }
+
+    @Benchmark
+    public long cachedMillis() {
+        return cached.millis();
+    }
+
+    @Benchmark
+    public Instant mutableInstant() {
+        return mutable.instant();
+    }
+
+    @Benchmark
+    public LocalDateTime systemLocalDateTime() {
+        return LocalDateTime.now(system);
+    }
+
+    @Benchmark
+    public LocalDateTime cachedLocalDateTime() {
+        return LocalDateTime.now(cached);
+    }
+}
@@ -0,0 +1,93 @@
+package com.gignomai.javachangestutorial.time;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code LocalDate.parse}/{@code LocalDateTime.parse} against {@link IsoDates}. Each call picks the next of 1024
+ * dates spread over about three years, which is how ingest traffic looks: few distinct days, many events each.
+ * The GC profiler reports bytes/op.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IsoDatesBenchmark {
+
+    private static final int DATES = 1024;
+
+    private final String[] dates = new String[DATES];
+    private final byte[][] dateBytes = new byte[DATES][];
+    private final String[] dateTimes = new String[DATES];
+    private final LocalDate[] parsedDates = new LocalDate[DATES];
+    private final StringBuilder out = new StringBuilder(32);
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < DATES; i++) {
+            final LocalDate date = LocalDate.of(2022, 5, 16).plusDays(i);
+            dates[i] = date.toString();
+            dateBytes[i] = dates[i].getBytes(StandardCharsets.US_ASCII);
+            dateTimes[i] = date.atTime(10, 15, 30, (i % 1000) * 1_000_000).toString();
+            parsedDates[i] = date;
+        }
+    }
+
+    @Benchmark
+    public LocalDate jdkParseLocalDate() {
+        return LocalDate.parse(dates[nextIndex()]);
+    }
+
+    @Benchmark
+    public LocalDate isoDatesParseLocalDate() {
+        return IsoDates.parseLocalDate(dates[nextIndex()]);
+    }
+
+    @Benchmark
+    public LocalDate isoDatesParseLocalDateBytes() {
+        final byte[] bytes = dateBytes[nextIndex()];
+        return IsoDates.parseLocalDate(bytes, 0, bytes.length);
+    }
+
+    @Benchmark
+    public LocalDateTime jdkParseLocalDateTime() {
+        return LocalDateTime.parse(dateTimes[nextIndex()]);
+    }
+
+    @Benchmark
+    public LocalDateTime isoDatesParseLocalDateTime() {
+        return IsoDates.parseLocalDateTime(dateTimes[nextIndex()]);
+    }
+
+    @Benchmark
+    public String jdkFormatLocalDate() {
+        return parsedDates[nextIndex()].toString();
+    }
+
+    @Benchmark
+    public int isoDatesFormatLocalDateInPlace() {
+        out.setLength(0);
+        return IsoDates.formatTo(parsedDates[nextIndex()], out).length();
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (DATES - 1);
+        return next;
+    }
+}
@@ -0,0 +1,85 @@
+package com.gignomai.javachangestutorial.view;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The count, longest, shortest and custom-reduce queries of {@code StreamsTest}, answered from a
+ * {@link MaterializedView} snapshot and recomputed with streams, as the data set grows. {@code updateView} is the
+ * price paid instead: one remove and one insert.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class MaterializedViewBenchmark {
+
+    private static final String[] CITIES = {"Barcelona", "Girona", "LLeida", "Tarragona"};
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private List<String> names;
+    private MaterializedView<String> view;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        names = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            names.add(name(i));
+        }
+        view = new MaterializedView<String>()
+                .count("ona", name -> name.endsWith("ona"))
+                .longest("longest", String::length)
+                .shortest("shortest", String::length);
+        view.addAll(names);
+        next = size;
+    }
+
+    @Benchmark
+    public void recomputeWithStreams(Blackhole blackhole) {
+        blackhole.consume(names.stream().filter(name -> name.endsWith("ona")).count());
+        blackhole.consume(names.stream().max(Comparator.comparingInt(String::length)));
+        blackhole.consume(names.stream().min(Comparator.comparingInt(String::length)));
+        blackhole.consume(names.stream().reduce((word1, word2) -> word1.length() <= word2.length() ? word1 : word2));
+    }
+
+    @Benchmark
+    public void readSnapshot(Blackhole blackhole) {
+        final ViewSnapshot<String> snapshot = view.snapshot();
+        blackhole.consume(snapshot.count("ona"));
+        blackhole.consume(snapshot.get("longest"));
+        blackhole.consume(snapshot.get("shortest"));
+        blackhole.consume(snapshot.get("shortest"));
+    }
+
+    @Benchmark
+    public ViewSnapshot<String> updateView() {
+        view.remove(name(next - size));
+        view.add(name(next++));
+        return view.snapshot();
+    }
+
+    // Suffixes keep the values distinct, so lengths vary with i
+    private static String name(int i) {
+        return CITIES[i & 3] + (i >>> 2);
+    }
+}
@@ -0,0 +1,50 @@
+package com.gignomai.javachangestutorial;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * With {@code startup.exit-on-ready=true}, logs the time from JVM start to ready and the resident memory at that
+ * point, then shuts the application down. The {@code startupBenchmark} Gradle task parses this line.
+ */
+@Component
+@ConditionalOnProperty(name = "startup.exit-on-ready", havingValue = "true")
+public class StartupProbe implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StartupProbe.class);
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        final long readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        LOGGER.info("Startup ready-millis={} rss-kb={}", readyMillis, residentKilobytes());
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+
+    // VmRSS from /proc, or -1 where it does not exist
+    static long residentKilobytes() {
+        if (!Files.isReadable(PROC_STATUS)) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(PROC_STATUS)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring("VmRSS:".length()).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+}
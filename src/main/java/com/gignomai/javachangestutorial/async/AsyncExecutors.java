@@ -0,0 +1,85 @@
+package com.gignomai.javachangestutorial.async;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Named executors to pass explicitly to the {@code *Async} methods of {@link java.util.concurrent.CompletableFuture}.
+ * <p>
+ * CPU bound work goes to {@link #cpu()}, sized to the number of cores; when it is full the caller runs the task
+ * itself, which slows producers down instead of dropping work. Blocking work (sleeps, remote calls, file access)
+ * goes to {@link #io()}, a larger pool that fails fast with a {@link java.util.concurrent.RejectedExecutionException}
+ * once its queue is full, so it never starves the CPU pool or the common pool.
+ * <p>
+ * Chains can opt into virtual threads for blocking stages with {@link #blocking(ExecutionMode)}, or switch every
+ * {@link #blocking()} caller at once with {@code async.blocking-mode=virtual}.
+ */
+@Component
+public class AsyncExecutors implements DisposableBean {
+
+    private final BoundedExecutor cpu;
+    private final BoundedExecutor io;
+    private final ExecutorService virtual;
+    private final ExecutionMode blockingMode;
+
+    public AsyncExecutors(@Value("${async.cpu.threads:0}") int cpuThreads,
+                          @Value("${async.cpu.queue-capacity:1000}") int cpuQueueCapacity,
+                          @Value("${async.io.threads:64}") int ioThreads,
+                          @Value("${async.io.queue-capacity:10000}") int ioQueueCapacity,
+                          @Value("${async.blocking-mode:platform}") ExecutionMode blockingMode) {
+        final int cpuPoolSize = cpuThreads > 0 ? cpuThreads : Runtime.getRuntime().availableProcessors();
+        this.cpu = new BoundedExecutor("async-cpu", cpuPoolSize, cpuQueueCapacity,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.io = new BoundedExecutor("async-io", ioThreads, ioQueueCapacity,
+                new ThreadPoolExecutor.AbortPolicy());
+        this.virtual = VirtualThreads.isSupported() ? VirtualThreads.newVirtualThreadPerTaskExecutor() : null;
+        this.blockingMode = blockingMode;
+    }
+
+    public static AsyncExecutors withDefaults() {
+        return new AsyncExecutors(0, 1000, 64, 10000, ExecutionMode.PLATFORM);
+    }
+
+    public BoundedExecutor cpu() {
+        return cpu;
+    }
+
+    public BoundedExecutor io() {
+        return io;
+    }
+
+    /**
+     * Executor for blocking stages in the configured {@code async.blocking-mode}.
+     */
+    public Executor blocking() {
+        return blocking(blockingMode);
+    }
+
+    /**
+     * Executor for blocking stages in the given mode. {@link ExecutionMode#VIRTUAL} returns {@link #io()} when
+     * the JVM does not support virtual threads.
+     */
+    public Executor blocking(ExecutionMode mode) {
+        return mode == ExecutionMode.VIRTUAL && virtual != null ? virtual : io;
+    }
+
+    public List<ExecutorMetrics> metrics() {
+        return Arrays.asList(cpu.metrics(), io.metrics());
+    }
+
+    @Override
+    public void destroy() {
+        cpu.shutdown();
+        io.shutdown();
+        if (virtual != null) {
+            virtual.shutdown();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.gignomai.javachangestutorial.async;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Wrapper around a {@link CompletableFuture} chain that adds per-stage deadlines, hedged calls and cancellation
+ * that travels upstream.
+ * <p>
+ * Cancelling a plain {@code CompletableFuture} only cancels that future: the stage it depends on and the future
+ * returned inside {@code thenCompose} keep going. Cancelling {@link #toCompletableFuture()} of a pipeline cancels
+ * every upstream stage still pending, so no further calls are started. Work that is already running on a thread
+ * is not interrupted, like with {@link CompletableFuture#cancel(boolean)}.
+ * <p>
+ * Deadlines run on {@link Timers#shared()}.
+ */
+public final class AsyncPipeline<T> {
+
+    private static final Executor DEFAULT_EXECUTOR = new CompletableFuture<Void>().defaultExecutor();
+
+    private final CompletableFuture<T> future;
+
+    private AsyncPipeline(CompletableFuture<T> future) {
+        this.future = future;
+    }
+
+    public static <T> AsyncPipeline<T> from(CompletableFuture<T> future) {
+        return new AsyncPipeline<>(future);
+    }
+
+    public static <T> AsyncPipeline<T> start(Supplier<CompletableFuture<T>> call) {
+        return new AsyncPipeline<>(call.get());
+    }
+
+    /**
+     * Starts {@code call} and, if it has not finished after the tracker's 95th percentile latency, starts it once
+     * more. The first successful answer wins and the other call is cancelled. Until the tracker has enough samples
+     * no duplicate is sent. The second call starts on the default {@code CompletableFuture} async executor.
+     */
+    public static <T> AsyncPipeline<T> hedged(Supplier<CompletableFuture<T>> call, LatencyTracker tracker) {
+        return hedged(call, tracker, DEFAULT_EXECUTOR);
+    }
+
+    /**
+     * Like {@link #hedged(Supplier, LatencyTracker)}, starting the second call on {@code executor} rather than on
+     * the timer thread. A call that throws counts as a failed attempt.
+     */
+    public static <T> AsyncPipeline<T> hedged(Supplier<CompletableFuture<T>> call, LatencyTracker tracker,
+            Executor executor) {
+        return new AsyncPipeline<>(new Hedge<>(call, tracker, Objects.requireNonNull(executor, "executor"))
+                .start(tracker.percentile(0.95)));
+    }
+
+    public <U> AsyncPipeline<U> thenApply(Function<? super T, ? extends U> function) {
+        return downstream(future.thenApply(function));
+    }
+
+    /**
+     * Like {@link CompletableFuture#thenCompose(Function)}, but cancelling the result also cancels this stage and
+     * the future returned by {@code function}.
+     */
+    public <U> AsyncPipeline<U> thenCompose(Function<? super T, ? extends CompletableFuture<U>> function) {
+        final CompletableFuture<U> result = new CompletableFuture<>();
+        final AtomicReference<CompletableFuture<U>> inner = new AtomicReference<>();
+        future.whenComplete((value, error) -> {
+            if (error != null) {
+                result.completeExceptionally(error);
+                return;
+            }
+            if (result.isDone()) {
+                return;
+            }
+            final CompletableFuture<U> next;
+            try {
+                next = function.apply(value);
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            inner.set(next);
+            next.whenComplete((innerValue, innerError) -> complete(result, innerValue, innerError));
+            if (result.isCancelled()) {
+                next.cancel(false);
+            }
+        });
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                future.cancel(false);
+                final CompletableFuture<U> next = inner.get();
+                if (next != null) {
+                    next.cancel(false);
+                }
+            }
+        });
+        return new AsyncPipeline<>(result);
+    }
+
+    /**
+     * Fails this stage with a {@link TimeoutException} if it is not done within {@code timeout}, and cancels
+     * everything upstream of it.
+     */
+    public AsyncPipeline<T> deadline(Duration timeout) {
+        return withTimer(timeout, result -> result.completeExceptionally(
+                new TimeoutException("Stage did not complete within " + timeout)));
+    }
+
+    /**
+     * Completes this stage with {@code fallback} if it is not done within {@code timeout}, and cancels everything
+     * upstream of it.
+     */
+    public AsyncPipeline<T> completeOnTimeout(T fallback, Duration timeout) {
+        return withTimer(timeout, result -> result.complete(fallback));
+    }
+
+    public CompletableFuture<T> toCompletableFuture() {
+        return future;
+    }
+
+    private AsyncPipeline<T> withTimer(Duration timeout, Consumer<CompletableFuture<T>> onTimeout) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final AtomicBoolean timedOut = new AtomicBoolean();
+        // Upstream is cancelled before the result completes, so callers never see a timed out stage still running
+        final ScheduledFuture<?> timer = Timers.shared().schedule(() -> {
+            timedOut.set(true);
+            future.cancel(false);
+            onTimeout.accept(result);
+        }, timeout.toNanos(), TimeUnit.NANOSECONDS);
+        future.whenComplete((value, error) -> {
+            timer.cancel(false);
+            if (!timedOut.get()) {
+                complete(result, value, error);
+            }
+        });
+        return downstream(result);
+    }
+
+    // Links a stage built with the CompletableFuture API back to this one so cancellation reaches it
+    private <U> AsyncPipeline<U> downstream(CompletableFuture<U> next) {
+        next.whenComplete((value, error) -> {
+            if (next.isCancelled()) {
+                future.cancel(false);
+            }
+        });
+        return new AsyncPipeline<>(next);
+    }
+
+    private static <V> void complete(CompletableFuture<V> target, V value, Throwable error) {
+        if (error != null) {
+            target.completeExceptionally(error);
+        } else {
+            target.complete(value);
+        }
+    }
+
+    private static final class Hedge<T> {
+        private final Supplier<CompletableFuture<T>> call;
+        private final LatencyTracker tracker;
+        private final Executor executor;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicReference<CompletableFuture<T>> primary = new AtomicReference<>();
+        private final AtomicReference<CompletableFuture<T>> secondary = new AtomicReference<>();
+        // Attempts that were sent or are still scheduled and have not failed yet
+        private final AtomicInteger remainingAttempts = new AtomicInteger();
+
+        private Hedge(Supplier<CompletableFuture<T>> call, LatencyTracker tracker, Executor executor) {
+            this.call = call;
+            this.tracker = tracker;
+            this.executor = executor;
+        }
+
+        private CompletableFuture<T> start(long hedgeDelayNanos) {
+            remainingAttempts.set(hedgeDelayNanos < 0 ? 1 : 2);
+            result.whenComplete((value, error) -> {
+                cancel(primary.get());
+                cancel(secondary.get());
+            });
+            primary.set(attempt());
+            if (hedgeDelayNanos >= 0 && !result.isDone()) {
+                // The timer thread must not run the call itself, it only hands it over
+                final ScheduledFuture<?> timer = Timers.shared().schedule(() -> {
+                    if (!result.isDone()) {
+                        try {
+                            executor.execute(this::startSecondary);
+                        } catch (RejectedExecutionException e) {
+                            failed(e);
+                        }
+                    }
+                }, hedgeDelayNanos, TimeUnit.NANOSECONDS);
+                result.whenComplete((value, error) -> timer.cancel(false));
+            }
+            return result;
+        }
+
+        private void startSecondary() {
+            if (result.isDone()) {
+                return;
+            }
+            secondary.set(attempt());
+            // The result may have completed while the call was starting, after its handler looked for this one
+            if (result.isDone()) {
+                cancel(secondary.get());
+            }
+        }
+
+        // Returns null when the call itself failed
+        private CompletableFuture<T> attempt() {
+            final long start = System.nanoTime();
+            final CompletableFuture<T> attempt;
+            try {
+                attempt = Objects.requireNonNull(call.get(), "call returned null");
+            } catch (Throwable e) {
+                failed(e);
+                return null;
+            }
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    tracker.record(System.nanoTime() - start);
+                    result.complete(value);
+                } else {
+                    failed(error);
+                }
+            });
+            return attempt;
+        }
+
+        private void failed(Throwable error) {
+            if (remainingAttempts.decrementAndGet() == 0) {
+                result.completeExceptionally(error);
+            }
+        }
+
+        private static void cancel(CompletableFuture<?> future) {
+            if (future != null) {
+                future.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.gignomai.javachangestutorial.async;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Groups single requests into one backend call. A batch is sent when it reaches {@code maxBatchSize} requests
+ * or when its oldest request has waited {@code maxDelay}, whichever comes first.
+ * <p>
+ * The backend must answer with one value per request, in request order.
+ */
+public class Batcher<K, V> implements AutoCloseable {
+
+    private final Function<List<K>, CompletableFuture<List<V>>> backend;
+    private final int maxBatchSize;
+    private final Duration maxDelay;
+    private final ScheduledExecutorService scheduler;
+    private Batch<K, V> current;
+
+    public Batcher(Function<List<K>, CompletableFuture<List<V>>> backend, int maxBatchSize, Duration maxDelay,
+                   ScheduledExecutorService scheduler) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.backend = backend;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelay = maxDelay;
+        this.scheduler = scheduler;
+    }
+
+    public CompletableFuture<V> submit(K request) {
+        final CompletableFuture<V> response = new CompletableFuture<>();
+        Batch<K, V> full = null;
+        synchronized (this) {
+            if (current == null) {
+                final Batch<K, V> batch = new Batch<>(maxBatchSize);
+                batch.timer = scheduler.schedule(() -> flush(batch), maxDelay.toNanos(), TimeUnit.NANOSECONDS);
+                current = batch;
+            }
+            current.requests.add(request);
+            current.responses.add(response);
+            if (current.requests.size() == maxBatchSize) {
+                full = current;
+                current = null;
+            }
+        }
+        if (full != null) {
+            full.timer.cancel(false);
+            send(full);
+        }
+        return response;
+    }
+
+    /**
+     * Sends the pending batch, if any, without waiting for it to fill up.
+     */
+    public void flush() {
+        final Batch<K, V> batch;
+        synchronized (this) {
+            batch = current;
+            current = null;
+        }
+        if (batch != null) {
+            batch.timer.cancel(false);
+            send(batch);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void flush(Batch<K, V> expected) {
+        synchronized (this) {
+            if (current != expected) {
+                return;
+            }
+            current = null;
+        }
+        send(expected);
+    }
+
+    private void send(Batch<K, V> batch) {
+        final CompletableFuture<List<V>> call;
+        try {
+            call = Objects.requireNonNull(backend.apply(batch.requests), "backend returned null");
+        } catch (RuntimeException e) {
+            batch.responses.forEach(response -> response.completeExceptionally(e));
+            return;
+        }
+        call.whenComplete((values, error) -> {
+            final Throwable failure = error != null ? error : checkValues(values, batch.responses.size());
+            for (int i = 0; i < batch.responses.size(); i++) {
+                if (failure != null) {
+                    batch.responses.get(i).completeExceptionally(failure);
+                } else {
+                    batch.responses.get(i).complete(values.get(i));
+                }
+            }
+        });
+    }
+
+    private static IllegalStateException checkValues(List<?> values, int requests) {
+        if (values == null) {
+            return new IllegalStateException("Backend returned null values for " + requests + " requests");
+        }
+        if (values.size() != requests) {
+            return new IllegalStateException("Backend returned " + values.size() + " values for " + requests
+                    + " requests");
+        }
+        return null;
+    }
+
+    private static final class Batch<K, V> {
+        private final List<K> requests;
+        private final List<CompletableFuture<V>> responses;
+        private ScheduledFuture<?> timer;
+
+        private Batch(int capacity) {
+            this.requests = new ArrayList<>(capacity);
+            this.responses = new ArrayList<>(capacity);
+        }
+    }
+}
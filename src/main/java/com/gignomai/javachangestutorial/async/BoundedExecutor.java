@@ -0,0 +1,94 @@
+package com.gignomai.javachangestutorial.async;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed size thread pool with a bounded queue that keeps track of queue depth, active threads and task latency.
+ * Unlike {@link java.util.concurrent.ForkJoinPool#commonPool()}, tasks are rejected through the given policy
+ * once both the threads and the queue are busy instead of piling up without limit.
+ */
+public class BoundedExecutor extends ThreadPoolExecutor {
+
+    private final String name;
+    private final int queueCapacity;
+    private final LongAdder completedTasks = new LongAdder();
+    private final LongAdder rejectedTasks = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    public BoundedExecutor(String name, int threads, int queueCapacity, RejectedExecutionHandler rejectionPolicy) {
+        super(threads, threads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                namedDaemonThreads(name), rejectionPolicy);
+        this.name = name;
+        this.queueCapacity = queueCapacity;
+        setRejectedExecutionHandler(countingRejections(rejectionPolicy));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        super.execute(new TimedTask(command, System.nanoTime()));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ExecutorMetrics metrics() {
+        final long completed = completedTasks.sum();
+        return new ExecutorMetrics(
+                name,
+                getPoolSize(),
+                getActiveCount(),
+                getQueue().size(),
+                queueCapacity,
+                completed,
+                rejectedTasks.sum(),
+                completed == 0 ? 0 : totalLatencyNanos.sum() / completed,
+                maxLatencyNanos.get());
+    }
+
+    private RejectedExecutionHandler countingRejections(RejectedExecutionHandler delegate) {
+        return (task, executor) -> {
+            rejectedTasks.increment();
+            delegate.rejectedExecution(task, executor);
+        };
+    }
+
+    private static ThreadFactory namedDaemonThreads(String name) {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private final class TimedTask implements Runnable {
+        private final Runnable delegate;
+        private final long submittedAt;
+
+        private TimedTask(Runnable delegate, long submittedAt) {
+            this.delegate = delegate;
+            this.submittedAt = submittedAt;
+        }
+
+        @Override
+        public void run() {
+            try {
+                delegate.run();
+            } finally {
+                final long latency = System.nanoTime() - submittedAt;
+                completedTasks.increment();
+                totalLatencyNanos.add(latency);
+                maxLatencyNanos.accumulate(latency);
+            }
+        }
+    }
+}
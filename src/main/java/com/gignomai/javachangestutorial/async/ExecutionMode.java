@@ -0,0 +1,16 @@
+package com.gignomai.javachangestutorial.async;
+
+/**
+ * Where blocking {@link java.util.concurrent.CompletableFuture} stages run.
+ */
+public enum ExecutionMode {
+    /**
+     * The bounded {@link AsyncExecutors#io()} pool of platform threads.
+     */
+    PLATFORM,
+    /**
+     * A new virtual thread per task, so a sleeping stage does not pin a platform thread.
+     * Falls back to {@link #PLATFORM} when the running JVM has no virtual threads, see {@link VirtualThreads}.
+     */
+    VIRTUAL
+}
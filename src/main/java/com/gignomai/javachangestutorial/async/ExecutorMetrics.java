@@ -0,0 +1,20 @@
+package com.gignomai.javachangestutorial.async;
+
+import lombok.Value;
+
+/**
+ * Point-in-time view of a {@link BoundedExecutor}. Latencies are measured from submission to completion,
+ * so they include the time a task spent waiting in the queue.
+ */
+@Value
+public class ExecutorMetrics {
+    String name;
+    int poolSize;
+    int activeThreads;
+    int queueDepth;
+    int queueCapacity;
+    long completedTasks;
+    long rejectedTasks;
+    long averageLatencyNanos;
+    long maxLatencyNanos;
+}
@@ -0,0 +1,194 @@
+package com.gignomai.javachangestutorial.async;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Fan-out/fan-in helpers for lists of {@link CompletableFuture}s.
+ * <p>
+ * {@code CompletableFuture.allOf(...)} followed by a stream of {@code join()} calls builds a tree of relay futures
+ * and an intermediate stream for every fan-in. These helpers write each value straight into a pre-sized array
+ * that becomes the result list. Futures that are already complete are read in place; a callback is registered
+ * only for the ones still pending.
+ */
+public final class Futures {
+
+    private Futures() {
+    }
+
+    /**
+     * Completes with the values of all futures, in list order, or exceptionally as soon as any of them fails.
+     */
+    public static <T> CompletableFuture<List<T>> allOfList(List<? extends CompletableFuture<? extends T>> futures) {
+        final int size = futures.size();
+        if (size == 0) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        final Collector<T> collector = new Collector<>(size);
+        for (int i = 0; i < size; i++) {
+            final CompletableFuture<? extends T> future = futures.get(i);
+            if (future.isDone() && !future.isCompletedExceptionally()) {
+                collector.set(i, future.getNow(null));
+            } else {
+                final int index = i;
+                future.whenComplete((value, error) -> collector.accept(index, value, error));
+            }
+        }
+        return collector.result;
+    }
+
+    /**
+     * Applies {@code function} to every item with at most {@code parallelism} futures in flight at once.
+     * The result keeps the order of {@code items}. After the first failure no new items are started.
+     */
+    public static <T, R> CompletableFuture<List<R>> mapAsync(List<T> items,
+                                                            Function<? super T, ? extends CompletableFuture<R>> function,
+                                                            int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        }
+        if (items.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        final MapAsync<T, R> mapAsync = new MapAsync<>(items, function);
+        for (int slot = 0; slot < Math.min(parallelism, items.size()); slot++) {
+            mapAsync.runSlot();
+        }
+        return mapAsync.collector.result;
+    }
+
+    /**
+     * Completes with the first {@code k} successful values in completion order. Fails once so many futures have
+     * failed that {@code k} successes are no longer possible. The futures that are still running are left alone.
+     */
+    public static <T> CompletableFuture<List<T>> firstOf(List<? extends CompletableFuture<? extends T>> futures, int k) {
+        if (k < 0 || k > futures.size()) {
+            throw new IllegalArgumentException("k must be between 0 and " + futures.size() + ": " + k);
+        }
+        if (k == 0) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
+        }
+        final FirstOf<T> firstOf = new FirstOf<>(k, futures.size() - k);
+        for (CompletableFuture<? extends T> future : futures) {
+            future.whenComplete(firstOf::accept);
+            if (firstOf.result.isDone()) {
+                break;
+            }
+        }
+        return firstOf.result;
+    }
+
+    private static final class Collector<T> {
+        private final Object[] values;
+        private final AtomicInteger remaining;
+        private final CompletableFuture<List<T>> result = new CompletableFuture<>();
+
+        private Collector(int size) {
+            this.values = new Object[size];
+            this.remaining = new AtomicInteger(size);
+        }
+
+        private void accept(int index, T value, Throwable error) {
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                set(index, value);
+            }
+        }
+
+        // The decrement publishes the write, so the thread that reaches zero sees every value
+        @SuppressWarnings("unchecked")
+        private void set(int index, T value) {
+            values[index] = value;
+            if (remaining.decrementAndGet() == 0) {
+                result.complete((List<T>) Arrays.asList(values));
+            }
+        }
+    }
+
+    private static final class MapAsync<T, R> {
+        private final List<T> items;
+        private final Function<? super T, ? extends CompletableFuture<R>> function;
+        private final AtomicInteger next = new AtomicInteger();
+        private final Collector<R> collector;
+
+        private MapAsync(List<T> items, Function<? super T, ? extends CompletableFuture<R>> function) {
+            this.items = items;
+            this.function = function;
+            this.collector = new Collector<>(items.size());
+        }
+
+        // Loops while futures complete synchronously, so a run of completed futures does not grow the stack
+        private void runSlot() {
+            while (!collector.result.isDone()) {
+                final int index = next.getAndIncrement();
+                if (index >= items.size()) {
+                    return;
+                }
+                final CompletableFuture<R> future;
+                try {
+                    future = Objects.requireNonNull(function.apply(items.get(index)), "function returned null");
+                } catch (RuntimeException e) {
+                    collector.result.completeExceptionally(e);
+                    return;
+                }
+                if (future.isDone() && !future.isCompletedExceptionally()) {
+                    collector.set(index, future.getNow(null));
+                } else {
+                    future.whenComplete((value, error) -> {
+                        collector.accept(index, value, error);
+                        if (error == null) {
+                            runSlot();
+                        }
+                    });
+                    return;
+                }
+            }
+        }
+    }
+
+    private static final class FirstOf<T> {
+        private final Object[] values;
+        private final int allowedFailures;
+        private int successes;
+        private int failures;
+        // Set under the lock once the outcome is decided, before the result is completed outside it
+        private boolean done;
+        private final CompletableFuture<List<T>> result = new CompletableFuture<>();
+
+        private FirstOf(int k, int allowedFailures) {
+            this.values = new Object[k];
+            this.allowedFailures = allowedFailures;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void accept(T value, Throwable error) {
+            synchronized (this) {
+                if (done) {
+                    return;
+                }
+                if (error != null) {
+                    if (++failures <= allowedFailures) {
+                        return;
+                    }
+                } else {
+                    values[successes++] = value;
+                    if (successes < values.length) {
+                        return;
+                    }
+                }
+                done = true;
+            }
+            if (error != null) {
+                result.completeExceptionally(error);
+            } else {
+                result.complete((List<T>) Arrays.asList(values));
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.gignomai.javachangestutorial.async;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the last {@code capacity} latencies of an operation and answers percentile queries over them.
+ * Percentiles are recomputed at most once every {@code capacity / 16} recordings, so reading them is cheap.
+ */
+public class LatencyTracker {
+
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private final int minSamples;
+    private final long refreshEvery;
+    private volatile Snapshot snapshot = new Snapshot(new long[0], 0);
+
+    public LatencyTracker(int capacity, int minSamples) {
+        if (capacity < 1 || minSamples < 1 || minSamples > capacity) {
+            throw new IllegalArgumentException("Expected 0 < minSamples <= capacity");
+        }
+        this.samples = new AtomicLongArray(capacity);
+        this.minSamples = minSamples;
+        this.refreshEvery = Math.max(1, capacity / 16);
+    }
+
+    public void record(long latencyNanos) {
+        final long count = recorded.getAndIncrement();
+        samples.set((int) (count % samples.length()), latencyNanos);
+    }
+
+    /**
+     * Returns the given percentile (between 0 and 1) in nanoseconds, or -1 while fewer than {@code minSamples}
+     * latencies have been recorded.
+     */
+    public long percentile(double percentile) {
+        final long count = recorded.get();
+        if (count < minSamples) {
+            return -1;
+        }
+        Snapshot current = snapshot;
+        if (count - current.recordedAt >= refreshEvery || current.sorted.length == 0) {
+            current = takeSnapshot(count);
+            snapshot = current;
+        }
+        final int index = (int) Math.ceil(percentile * current.sorted.length) - 1;
+        return current.sorted[Math.max(0, Math.min(index, current.sorted.length - 1))];
+    }
+
+    private Snapshot takeSnapshot(long count) {
+        final int size = (int) Math.min(count, samples.length());
+        final long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        return new Snapshot(sorted, count);
+    }
+
+    private static final class Snapshot {
+        private final long[] sorted;
+        private final long recordedAt;
+
+        private Snapshot(long[] sorted, long recordedAt) {
+            this.sorted = sorted;
+            this.recordedAt = recordedAt;
+        }
+    }
+}
@@ -0,0 +1,495 @@
+package com.gignomai.javachangestutorial.async;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Structured concurrency for Java 17, modelled on {@code StructuredTaskScope} from later JDKs: subtasks are forked
+ * inside a try-with-resources block and none of them outlives it.
+ * <pre>
+ * try (TaskScope.ShutdownOnFailure scope = new TaskScope.ShutdownOnFailure(executor)) {
+ *     Subtask&lt;String&gt; user = scope.fork(() -&gt; findUser(id));
+ *     Subtask&lt;Integer&gt; order = scope.fork(() -&gt; fetchOrder(id));
+ *     scope.join().throwIfFailed();
+ *     return new Response(user.get(), order.get());
+ * }
+ * </pre>
+ * Unlike {@code CompletableFuture.allOf}, which leaves siblings running when one of them fails, a scope that is
+ * shut down (by its policy, {@link #shutdown()}, its deadline or {@link #close()}) interrupts every subtask still
+ * running and cancels every future forked with {@link #forkFuture(Supplier)}. Results that arrive after the shutdown
+ * are ignored. {@link #close()} then waits until every subtask has actually returned.
+ * <p>
+ * A scope opened inside a subtask inherits the deadline of the enclosing scope when its own is later or missing, so
+ * a timeout set at the top bounds the whole tree. Subtasks run on the given executor, or by default on a new
+ * virtual thread each (a new platform thread on JVMs without them, see {@link VirtualThreads}). Shutdown relies on
+ * interruption, so subtasks must respond to it, as blocking JDK calls do.
+ *
+ * @param <T> the result type of the subtasks
+ */
+public class TaskScope<T> implements AutoCloseable {
+
+    private static final ThreadLocal<TaskScope<?>> CURRENT = new ThreadLocal<>();
+    private static final Executor THREAD_PER_TASK = VirtualThreads.isSupported()
+            ? VirtualThreads.newVirtualThreadPerTaskExecutor()
+            : runnable -> {
+                final Thread thread = new Thread(runnable, "task-scope");
+                thread.setDaemon(true);
+                thread.start();
+            };
+
+    private final Executor executor;
+    private final Instant deadline;
+    private final ScheduledFuture<?> deadlineTimer;
+    private final Set<Subtask<?>> pending = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    // Guarded by lock
+    private int running;
+    // Only set under lock, so a subtask is either refused or in pending before shutdown walks it
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+    private volatile boolean timedOut;
+    private volatile boolean closed;
+
+    protected TaskScope(Executor executor, Duration timeout) {
+        this.executor = executor != null ? executor : THREAD_PER_TASK;
+        this.deadline = earliest(timeout == null ? null : Instant.now().plus(timeout), currentDeadline().orElse(null));
+        this.deadlineTimer = deadline == null ? null : Timers.shared().schedule(this::expire,
+                Math.max(0, Duration.between(Instant.now(), deadline).toNanos()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Deadline of the scope the calling subtask belongs to, to bound calls that take a timeout.
+     */
+    public static Optional<Instant> currentDeadline() {
+        final TaskScope<?> scope = CURRENT.get();
+        return scope == null ? Optional.empty() : scope.deadline();
+    }
+
+    public Optional<Instant> deadline() {
+        return Optional.ofNullable(deadline);
+    }
+
+    /**
+     * Starts {@code task} in the scope. After a shutdown nothing is started and the subtask stays
+     * {@link Subtask.State#UNAVAILABLE}.
+     */
+    public <U extends T> Subtask<U> fork(Callable<? extends U> task) {
+        Objects.requireNonNull(task, "task");
+        final Subtask<U> subtask = new Subtask<>();
+        if (!started(subtask)) {
+            return subtask;
+        }
+        try {
+            executor.execute(() -> run(subtask, task));
+        } catch (RejectedExecutionException e) {
+            complete(subtask, null, e);
+            finished(subtask);
+        }
+        return subtask;
+    }
+
+    /**
+     * Adds a stage started through the {@code CompletableFuture} API to the scope. Shutting the scope down cancels
+     * the future, which also cancels everything upstream when it comes from an {@link AsyncPipeline}.
+     */
+    public <U extends T> Subtask<U> forkFuture(Supplier<? extends CompletableFuture<? extends U>> stage) {
+        Objects.requireNonNull(stage, "stage");
+        final Subtask<U> subtask = new Subtask<>();
+        if (!started(subtask)) {
+            return subtask;
+        }
+        final CompletableFuture<? extends U> future;
+        try {
+            future = Objects.requireNonNull(stage.get(), "stage returned null");
+        } catch (RuntimeException e) {
+            complete(subtask, null, e);
+            finished(subtask);
+            return subtask;
+        }
+        subtask.cancellation = () -> future.cancel(true);
+        future.whenComplete((value, error) -> {
+            complete(subtask, value, error);
+            finished(subtask);
+        });
+        if (shutdown.get()) {
+            future.cancel(true);
+        }
+        return subtask;
+    }
+
+    /**
+     * Waits until every subtask has finished or the scope is shut down.
+     *
+     * @throws TimeoutException if the deadline has passed; the scope is shut down
+     */
+    public TaskScope<T> join() throws InterruptedException, TimeoutException {
+        lock.lock();
+        try {
+            while (running > 0 && !shutdown.get()) {
+                changed.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+        // A nested scope sharing the deadline can time out first and shut this one down through its policy
+        if (!timedOut && deadline != null && !Instant.now().isBefore(deadline)) {
+            expire();
+        }
+        if (timedOut) {
+            throw new TimeoutException("Task scope did not complete before " + deadline);
+        }
+        return this;
+    }
+
+    /**
+     * Stops the scope: no new subtasks start, running ones are interrupted and forked futures are cancelled.
+     */
+    public void shutdown() {
+        lock.lock();
+        try {
+            if (!shutdown.compareAndSet(false, true)) {
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (deadlineTimer != null) {
+            deadlineTimer.cancel(false);
+        }
+        for (Subtask<?> subtask : pending) {
+            subtask.cancel();
+        }
+        signal();
+    }
+
+    public boolean isShutdown() {
+        return shutdown.get();
+    }
+
+    /**
+     * Shuts the scope down and waits until every subtask has returned, so none of them outlives the block.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        shutdown();
+        boolean interrupted = false;
+        lock.lock();
+        try {
+            while (running > 0) {
+                try {
+                    changed.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Called once for every subtask that succeeds or fails before the scope is shut down, on the thread that ran
+     * it. Policies override it to decide when to shut down.
+     */
+    protected void handleComplete(Subtask<? extends T> subtask) {
+    }
+
+    private boolean started(Subtask<?> subtask) {
+        if (closed) {
+            throw new IllegalStateException("Task scope is closed");
+        }
+        lock.lock();
+        try {
+            if (shutdown.get()) {
+                subtask.future.cancel(false);
+                return false;
+            }
+            running++;
+            pending.add(subtask);
+        } finally {
+            lock.unlock();
+        }
+        return true;
+    }
+
+    private <U extends T> void run(Subtask<U> subtask, Callable<? extends U> task) {
+        final TaskScope<?> previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            if (subtask.attach(Thread.currentThread())) {
+                U value = null;
+                Throwable error = null;
+                try {
+                    value = task.call();
+                } catch (Throwable e) {
+                    error = e;
+                }
+                subtask.detach();
+                complete(subtask, value, error);
+            } else {
+                subtask.future.cancel(false);
+            }
+        } finally {
+            CURRENT.set(previous);
+            finished(subtask);
+        }
+    }
+
+    private <U extends T> void complete(Subtask<U> subtask, U value, Throwable error) {
+        if (shutdown.get()) {
+            subtask.future.cancel(false);
+            return;
+        }
+        if (error != null) {
+            subtask.fail(error);
+        } else {
+            subtask.succeed(value);
+        }
+        handleComplete(subtask);
+    }
+
+    private void finished(Subtask<?> subtask) {
+        pending.remove(subtask);
+        lock.lock();
+        try {
+            running--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void signal() {
+        lock.lock();
+        try {
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void expire() {
+        timedOut = true;
+        shutdown();
+    }
+
+    private static Instant earliest(Instant first, Instant second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null || first.isBefore(second) ? first : second;
+    }
+
+    /**
+     * A task forked in a {@link TaskScope}. Its result can be read once the scope has been joined.
+     */
+    public static final class Subtask<U> {
+
+        public enum State {
+            /**
+             * Still running, or never reported because the scope was shut down first.
+             */
+            UNAVAILABLE,
+            SUCCESS,
+            FAILED
+        }
+
+        private final CompletableFuture<U> future = new CompletableFuture<>();
+        private volatile State state = State.UNAVAILABLE;
+        private volatile U value;
+        private volatile Throwable exception;
+        // The thread running the task, interrupted on shutdown; guarded by this
+        private Thread runner;
+        private boolean cancelled;
+        private volatile Runnable cancellation;
+
+        private Subtask() {
+        }
+
+        public State state() {
+            return state;
+        }
+
+        public U get() {
+            if (state != State.SUCCESS) {
+                throw new IllegalStateException("Subtask is " + state);
+            }
+            return value;
+        }
+
+        public Throwable exception() {
+            if (state != State.FAILED) {
+                throw new IllegalStateException("Subtask is " + state);
+            }
+            return exception;
+        }
+
+        /**
+         * Completes with the result of the subtask, or is cancelled if the scope shuts down before it finishes.
+         */
+        public CompletableFuture<U> toCompletableFuture() {
+            return future;
+        }
+
+        private void succeed(U result) {
+            value = result;
+            state = State.SUCCESS;
+            future.complete(result);
+        }
+
+        private void fail(Throwable error) {
+            exception = error;
+            state = State.FAILED;
+            future.completeExceptionally(error);
+        }
+
+        private synchronized boolean attach(Thread thread) {
+            if (cancelled) {
+                return false;
+            }
+            runner = thread;
+            return true;
+        }
+
+        // Clears an interrupt meant for this subtask, so it does not leak into the next task of a pooled thread
+        private void detach() {
+            synchronized (this) {
+                runner = null;
+            }
+            Thread.interrupted();
+        }
+
+        private void cancel() {
+            final Runnable futureCancellation = cancellation;
+            synchronized (this) {
+                cancelled = true;
+                if (runner != null) {
+                    runner.interrupt();
+                }
+            }
+            if (futureCancellation != null) {
+                futureCancellation.run();
+            }
+        }
+    }
+
+    /**
+     * Shuts down at the first failure, so the remaining subtasks stop as soon as the result is known to fail.
+     */
+    public static class ShutdownOnFailure extends TaskScope<Object> {
+
+        private final AtomicReference<Throwable> firstException = new AtomicReference<>();
+
+        public ShutdownOnFailure() {
+            this(null, null);
+        }
+
+        public ShutdownOnFailure(Executor executor) {
+            this(executor, null);
+        }
+
+        public ShutdownOnFailure(Executor executor, Duration timeout) {
+            super(executor, timeout);
+        }
+
+        @Override
+        protected void handleComplete(Subtask<?> subtask) {
+            if (subtask.state() == Subtask.State.FAILED && firstException.compareAndSet(null, subtask.exception())) {
+                shutdown();
+            }
+        }
+
+        @Override
+        public ShutdownOnFailure join() throws InterruptedException, TimeoutException {
+            super.join();
+            return this;
+        }
+
+        public Optional<Throwable> exception() {
+            return Optional.ofNullable(firstException.get());
+        }
+
+        public void throwIfFailed() throws ExecutionException {
+            final Throwable failure = firstException.get();
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+        }
+    }
+
+    /**
+     * Shuts down at the first success, for redundant calls where any answer will do.
+     */
+    public static class ShutdownOnSuccess<T> extends TaskScope<T> {
+
+        private final AtomicReference<Subtask<? extends T>> firstSuccess = new AtomicReference<>();
+        private final AtomicReference<Throwable> firstException = new AtomicReference<>();
+
+        public ShutdownOnSuccess() {
+            this(null, null);
+        }
+
+        public ShutdownOnSuccess(Executor executor) {
+            this(executor, null);
+        }
+
+        public ShutdownOnSuccess(Executor executor, Duration timeout) {
+            super(executor, timeout);
+        }
+
+        @Override
+        protected void handleComplete(Subtask<? extends T> subtask) {
+            if (subtask.state() == Subtask.State.SUCCESS) {
+                if (firstSuccess.compareAndSet(null, subtask)) {
+                    shutdown();
+                }
+            } else {
+                firstException.compareAndSet(null, subtask.exception());
+            }
+        }
+
+        @Override
+        public ShutdownOnSuccess<T> join() throws InterruptedException, TimeoutException {
+            super.join();
+            return this;
+        }
+
+        /**
+         * The first successful result.
+         *
+         * @throws ExecutionException if every subtask failed, with the first failure as cause
+         */
+        public T result() throws ExecutionException {
+            final Subtask<? extends T> success = firstSuccess.get();
+            if (success != null) {
+                return success.get();
+            }
+            final Throwable failure = firstException.get();
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+            throw new IllegalStateException("No subtask completed");
+        }
+    }
+}
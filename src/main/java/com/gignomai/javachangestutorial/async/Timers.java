@@ -0,0 +1,32 @@
+package com.gignomai.javachangestutorial.async;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+/**
+ * Single timer thread shared by every deadline and hedge in the application.
+ * <p>
+ * Cancelled timers are removed from the queue straight away, so stages that finish well before their deadline
+ * (the normal case) do not leave garbage behind. Timer tasks only complete futures; they must never block.
+ */
+public final class Timers {
+
+    private static final ScheduledThreadPoolExecutor SHARED = createShared();
+
+    private Timers() {
+    }
+
+    public static ScheduledExecutorService shared() {
+        return SHARED;
+    }
+
+    private static ScheduledThreadPoolExecutor createShared() {
+        final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "async-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+        return executor;
+    }
+}
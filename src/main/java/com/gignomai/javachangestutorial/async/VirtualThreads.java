@@ -0,0 +1,49 @@
+package com.gignomai.javachangestutorial.async;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to {@code Executors.newVirtualThreadPerTaskExecutor()}.
+ * <p>
+ * The project is compiled for Java 17, where virtual threads do not exist yet, so the factory is looked up
+ * at runtime. On Java 21 (or 19/20 with {@code --enable-preview}) {@link #isSupported()} returns true.
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findFactory();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException("Virtual threads are not available in Java "
+                    + System.getProperty("java.specification.version"));
+        }
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not create a virtual thread executor", e);
+        }
+    }
+
+    private static MethodHandle findFactory() {
+        try {
+            final MethodHandle factory = MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+            // On Java 19 and 20 the method exists but throws unless preview features are enabled
+            ((ExecutorService) factory.invoke()).shutdown();
+            return factory;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+}
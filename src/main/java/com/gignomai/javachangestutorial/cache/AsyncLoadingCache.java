@@ -0,0 +1,289 @@
+package com.gignomai.javachangestutorial.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Cache of {@link CompletableFuture} results of an asynchronous loader. The future itself is stored as soon as a
+ * load starts, so concurrent misses for the same key all get that one future and the backend is called once.
+ * <p>
+ * A load that completes exceptionally, or a future that a caller cancels, is dropped from the cache straight away:
+ * the next {@link #get(Object)} loads again instead of returning the same failure until it expires.
+ * <p>
+ * Options, all set through {@link #builder()}:
+ * <ul>
+ *     <li>{@code maximumSize}: entries beyond it are evicted with {@link Eviction#LRU} or
+ *     {@link Eviction#TINY_LFU}. Reads that find the eviction lock busy skip updating the policy rather than
+ *     wait, so under heavy contention recency and frequency are sampled, not exact.</li>
+ *     <li>{@code expireAfterWrite}: an entry older than this is reloaded on the next read. Expired entries are
+ *     dropped lazily, when read or evicted.</li>
+ *     <li>{@code refreshAfterWrite}: the first read of an entry older than this starts a reload in the background
+ *     and still gets the current value. Failed refreshes keep the current value.</li>
+ * </ul>
+ * Ages are measured with the given {@link Clock}, so tests can use a
+ * {@link com.gignomai.javachangestutorial.time.MutableClock}.
+ */
+public final class AsyncLoadingCache<K, V> {
+
+    private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+    private final Function<? super K, ? extends CompletableFuture<? extends V>> loader;
+    private final Clock clock;
+    private final long maximumSize;
+    private final long expireAfterWriteMillis;
+    private final long refreshAfterWriteMillis;
+    // Guards the policy and keeps its keys in step with the map; null when the cache is unbounded
+    private final Policy<K> policy;
+    private final ReentrantLock policyLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loadSuccesses = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private AsyncLoadingCache(Builder builder, Function<? super K, ? extends CompletableFuture<? extends V>> loader) {
+        this.loader = loader;
+        this.clock = builder.clock;
+        this.maximumSize = builder.maximumSize;
+        this.expireAfterWriteMillis = builder.expireAfterWriteMillis;
+        this.refreshAfterWriteMillis = builder.refreshAfterWriteMillis;
+        this.policy = builder.maximumSize == Long.MAX_VALUE ? null : Policy.of(builder.eviction, builder.maximumSize);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the cached future for {@code key}, starting a load if there is none. The returned future is shared
+     * with every other caller of the same key.
+     */
+    public CompletableFuture<V> get(K key) {
+        Objects.requireNonNull(key, "key");
+        final long now = clock.millis();
+        final Entry<V> cached = entries.get(key);
+        if (cached != null) {
+            if (!isExpired(cached, now)) {
+                hits.increment();
+                recordAccess(key);
+                refreshIfStale(key, cached, now);
+                return cached.future;
+            }
+            removeEntry(key, cached);
+        }
+        final Entry<V> created = new Entry<>();
+        final Entry<V> current = entries.computeIfAbsent(key, ignored -> created);
+        if (current != created) {
+            hits.increment();
+            recordAccess(key);
+            return current.future;
+        }
+        misses.increment();
+        addToPolicy(key, created);
+        load(key, created);
+        return created.future;
+    }
+
+    /**
+     * Returns the cached future for {@code key} without loading, or {@code null}. Does not count towards the stats.
+     */
+    public CompletableFuture<V> getIfPresent(K key) {
+        final Entry<V> cached = entries.get(key);
+        return cached == null || isExpired(cached, clock.millis()) ? null : cached.future;
+    }
+
+    public void invalidate(K key) {
+        final Entry<V> cached = entries.get(key);
+        if (cached != null) {
+            removeEntry(key, cached);
+        }
+    }
+
+    public void invalidateAll() {
+        entries.keySet().forEach(this::invalidate);
+    }
+
+    /**
+     * Number of entries, including loads still in flight and expired entries not read since.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    public CacheStats stats() {
+        return new CacheStats(hits.sum(), misses.sum(), loadSuccesses.sum(), loadFailures.sum(), totalLoadTime.sum(),
+                refreshes.sum(), evictions.sum());
+    }
+
+    private void load(K key, Entry<V> entry) {
+        final long start = System.nanoTime();
+        entry.future.whenComplete((value, error) -> {
+            if (error != null) {
+                removeEntry(key, entry);
+            } else {
+                entry.writtenAt = clock.millis();
+            }
+        });
+        callLoader(key).whenComplete((value, error) -> {
+            recordLoad(start, error);
+            if (error != null) {
+                entry.future.completeExceptionally(error);
+            } else {
+                entry.future.complete(value);
+            }
+        });
+    }
+
+    private void refreshIfStale(K key, Entry<V> entry, long now) {
+        if (refreshAfterWriteMillis == Long.MAX_VALUE || now - entry.writtenAt < refreshAfterWriteMillis
+                || !entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        refreshes.increment();
+        final long start = System.nanoTime();
+        callLoader(key).whenComplete((value, error) -> {
+            recordLoad(start, error);
+            if (error != null) {
+                entry.refreshing.set(false);
+                return;
+            }
+            final Entry<V> refreshed = new Entry<>();
+            refreshed.writtenAt = clock.millis();
+            refreshed.future.complete(value);
+            entries.replace(key, entry, refreshed);
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletableFuture<V> callLoader(K key) {
+        try {
+            return (CompletableFuture<V>) Objects.requireNonNull(loader.apply(key), "loader returned null");
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private void recordLoad(long start, Throwable error) {
+        totalLoadTime.add(System.nanoTime() - start);
+        if (error != null) {
+            loadFailures.increment();
+        } else {
+            loadSuccesses.increment();
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        return expireAfterWriteMillis != Long.MAX_VALUE && now - entry.writtenAt >= expireAfterWriteMillis;
+    }
+
+    private void recordAccess(K key) {
+        if (policy != null && policyLock.tryLock()) {
+            try {
+                policy.recordAccess(key);
+            } finally {
+                policyLock.unlock();
+            }
+        }
+    }
+
+    private void addToPolicy(K key, Entry<V> entry) {
+        if (policy == null) {
+            return;
+        }
+        policyLock.lock();
+        try {
+            if (entries.get(key) != entry) {
+                return;
+            }
+            policy.add(key);
+            while (policy.size() > maximumSize) {
+                final K victim = policy.evict();
+                entries.remove(victim);
+                evictions.increment();
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private void removeEntry(K key, Entry<V> entry) {
+        if (policy == null) {
+            entries.remove(key, entry);
+            return;
+        }
+        policyLock.lock();
+        try {
+            if (entries.remove(key, entry)) {
+                policy.remove(key);
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        // Pending loads never expire nor refresh
+        private volatile long writtenAt = Long.MAX_VALUE;
+    }
+
+    public static final class Builder {
+        private Clock clock = Clock.systemUTC();
+        private long maximumSize = Long.MAX_VALUE;
+        private Eviction eviction = Eviction.TINY_LFU;
+        private long expireAfterWriteMillis = Long.MAX_VALUE;
+        private long refreshAfterWriteMillis = Long.MAX_VALUE;
+
+        private Builder() {
+        }
+
+        public Builder maximumSize(long maximumSize) {
+            if (maximumSize <= 0) {
+                throw new IllegalArgumentException("maximumSize must be positive but was " + maximumSize);
+            }
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        public Builder eviction(Eviction eviction) {
+            this.eviction = Objects.requireNonNull(eviction, "eviction");
+            return this;
+        }
+
+        public Builder expireAfterWrite(Duration duration) {
+            this.expireAfterWriteMillis = positiveMillis(duration);
+            return this;
+        }
+
+        public Builder refreshAfterWrite(Duration duration) {
+            this.refreshAfterWriteMillis = positiveMillis(duration);
+            return this;
+        }
+
+        public Builder clock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "clock");
+            return this;
+        }
+
+        public <K, V> AsyncLoadingCache<K, V> build(
+                Function<? super K, ? extends CompletableFuture<? extends V>> loader) {
+            return new AsyncLoadingCache<>(this, Objects.requireNonNull(loader, "loader"));
+        }
+
+        private static long positiveMillis(Duration duration) {
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("duration must be positive but was " + duration);
+            }
+            return Math.max(1, duration.toMillis());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.gignomai.javachangestutorial.cache;
+
+import lombok.Value;
+
+/**
+ * Point-in-time counters of an {@link AsyncLoadingCache}. A request that joins a load already in flight counts as
+ * a hit, so {@link #getLoadCount()} is the number of calls that actually reached the backend.
+ */
+@Value
+public class CacheStats {
+    long hitCount;
+    long missCount;
+    long loadSuccessCount;
+    long loadFailureCount;
+    long totalLoadTimeNanos;
+    long refreshCount;
+    long evictionCount;
+
+    public long getRequestCount() {
+        return hitCount + missCount;
+    }
+
+    public long getLoadCount() {
+        return loadSuccessCount + loadFailureCount;
+    }
+
+    public double getHitRate() {
+        final long requests = getRequestCount();
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    public long getAverageLoadPenaltyNanos() {
+        final long loads = getLoadCount();
+        return loads == 0 ? 0 : totalLoadTimeNanos / loads;
+    }
+}
@@ -0,0 +1,17 @@
+package com.gignomai.javachangestutorial.cache;
+
+/**
+ * How an {@link AsyncLoadingCache} picks the entry to drop once it is full.
+ */
+public enum Eviction {
+    /**
+     * Drops the least recently used entry. Cheap and predictable, but a single scan over many cold keys flushes
+     * every hot one.
+     */
+    LRU,
+    /**
+     * W-TinyLFU: new keys enter a small LRU window and only make it into the main space if they have been asked for
+     * more often than the entry they would replace, so scans and one-off keys do not push out popular ones.
+     */
+    TINY_LFU
+}
@@ -0,0 +1,80 @@
+package com.gignomai.javachangestutorial.cache;
+
+/**
+ * Count-min sketch of 4-bit counters that estimates how often each key has been seen recently. Once
+ * {@code 10 * maximumSize} keys have been counted every counter is halved, so old popularity fades.
+ * <p>
+ * The table has one {@code long} of sixteen counters per entry, rounded up to a power of two, so collisions stay
+ * rare: tracking a cache of a million entries takes 8 MB.
+ */
+final class FrequencySketch {
+
+    private static final long RESET_MASK = 0x7777_7777_7777_7777L;
+    private static final long[] SEEDS = {
+            0xc3a5_c85c_97cb_3127L, 0xb492_b66f_be98_f273L, 0x9ae1_6a3b_2f90_404fL, 0xcbf2_9ce4_8422_2325L};
+
+    private final long[] table;
+    private final int tableMask;
+    private final long sampleSize;
+    private long additions;
+
+    FrequencySketch(long maximumSize) {
+        final int length = (int) Math.min(1 << 26, Math.max(1, Long.highestOneBit(Math.max(1, maximumSize - 1)) << 1));
+        this.table = new long[length];
+        this.tableMask = table.length - 1;
+        this.sampleSize = 10 * Math.max(1, maximumSize);
+    }
+
+    void increment(Object key) {
+        final long hash = spread(key.hashCode());
+        boolean added = false;
+        for (int i = 0; i < SEEDS.length; i++) {
+            added |= incrementAt(indexOf(hash, i), counterOf(hash, i));
+        }
+        if (added && ++additions == sampleSize) {
+            halve();
+        }
+    }
+
+    int frequency(Object key) {
+        final long hash = spread(key.hashCode());
+        int frequency = Integer.MAX_VALUE;
+        for (int i = 0; i < SEEDS.length; i++) {
+            final int shift = counterOf(hash, i) << 2;
+            frequency = Math.min(frequency, (int) ((table[indexOf(hash, i)] >>> shift) & 0xf));
+        }
+        return frequency;
+    }
+
+    private boolean incrementAt(int index, int counter) {
+        final int shift = counter << 2;
+        final long mask = 0xfL << shift;
+        if ((table[index] & mask) == mask) {
+            return false;
+        }
+        table[index] += 1L << shift;
+        return true;
+    }
+
+    private int indexOf(long hash, int i) {
+        final long mixed = (hash + SEEDS[i]) * SEEDS[i];
+        return (int) (mixed >>> 32) & tableMask;
+    }
+
+    private static int counterOf(long hash, int i) {
+        return (int) (hash >>> (i << 3)) & 0xf;
+    }
+
+    private void halve() {
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & RESET_MASK;
+        }
+        additions /= 2;
+    }
+
+    private static long spread(int hashCode) {
+        long hash = hashCode * 0x9e37_79b9_7f4a_7c15L;
+        hash ^= hash >>> 32;
+        return hash * 0xbf58_476d_1ce4_e5b9L;
+    }
+}
@@ -0,0 +1,41 @@
+package com.gignomai.javachangestutorial.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+final class LruPolicy<K> implements Policy<K> {
+
+    // Access order: the first key is the least recently used
+    private final LinkedHashMap<K, Boolean> order = new LinkedHashMap<>(16, 0.75f, true);
+
+    @Override
+    public void recordAccess(K key) {
+        order.get(key);
+    }
+
+    @Override
+    public void add(K key) {
+        order.put(key, Boolean.TRUE);
+    }
+
+    @Override
+    public void remove(K key) {
+        order.remove(key);
+    }
+
+    @Override
+    public K evict() {
+        final Iterator<K> iterator = order.keySet().iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        final K victim = iterator.next();
+        iterator.remove();
+        return victim;
+    }
+
+    @Override
+    public int size() {
+        return order.size();
+    }
+}
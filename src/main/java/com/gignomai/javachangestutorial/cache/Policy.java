@@ -0,0 +1,25 @@
+package com.gignomai.javachangestutorial.cache;
+
+/**
+ * Bookkeeping behind an {@link Eviction} choice. Implementations are not thread-safe; the cache calls them under
+ * its own lock.
+ */
+interface Policy<K> {
+
+    void recordAccess(K key);
+
+    void add(K key);
+
+    void remove(K key);
+
+    /**
+     * Removes and returns the key to drop, or {@code null} when the policy holds nothing.
+     */
+    K evict();
+
+    int size();
+
+    static <K> Policy<K> of(Eviction eviction, long maximumSize) {
+        return eviction == Eviction.LRU ? new LruPolicy<>() : new TinyLfuPolicy<>(maximumSize);
+    }
+}
@@ -0,0 +1,92 @@
+package com.gignomai.javachangestutorial.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * W-TinyLFU: an LRU window of 1% of the capacity in front of a segmented LRU split into probation (20%) and
+ * protected (80%). A key leaving the window competes with the probation victim, and the {@link FrequencySketch}
+ * decides which one stays. A key read again while on probation is promoted to protected.
+ */
+final class TinyLfuPolicy<K> implements Policy<K> {
+
+    private final LinkedHashMap<K, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Boolean> probation = new LinkedHashMap<>(16, 0.75f, true);
+    private final LinkedHashMap<K, Boolean> protectedSpace = new LinkedHashMap<>(16, 0.75f, true);
+    private final FrequencySketch sketch;
+    private final long maxWindow;
+    private final long maxProtected;
+    // Last key moved out of the window, still waiting to be compared against the probation victim
+    private K candidate;
+
+    TinyLfuPolicy(long maximumSize) {
+        this.sketch = new FrequencySketch(maximumSize);
+        this.maxWindow = Math.max(1, maximumSize / 100);
+        this.maxProtected = (long) ((maximumSize - maxWindow) * 0.8);
+    }
+
+    @Override
+    public void recordAccess(K key) {
+        sketch.increment(key);
+        if (window.get(key) != null || protectedSpace.get(key) != null) {
+            return;
+        }
+        if (probation.remove(key) != null) {
+            protectedSpace.put(key, Boolean.TRUE);
+            if (protectedSpace.size() > maxProtected) {
+                probation.put(removeFirst(protectedSpace), Boolean.TRUE);
+            }
+        }
+    }
+
+    @Override
+    public void add(K key) {
+        sketch.increment(key);
+        window.put(key, Boolean.TRUE);
+        if (window.size() > maxWindow) {
+            candidate = removeFirst(window);
+            probation.put(candidate, Boolean.TRUE);
+        }
+    }
+
+    @Override
+    public void remove(K key) {
+        if (window.remove(key) == null && probation.remove(key) == null) {
+            protectedSpace.remove(key);
+        }
+        if (key.equals(candidate)) {
+            candidate = null;
+        }
+    }
+
+    @Override
+    public K evict() {
+        if (probation.isEmpty()) {
+            return !protectedSpace.isEmpty() ? removeFirst(protectedSpace) : removeFirst(window);
+        }
+        final K victim = probation.keySet().iterator().next();
+        final K challenger = candidate;
+        candidate = null;
+        if (challenger == null || challenger.equals(victim) || !probation.containsKey(challenger)) {
+            return removeFirst(probation);
+        }
+        final K loser = sketch.frequency(challenger) > sketch.frequency(victim) ? victim : challenger;
+        probation.remove(loser);
+        return loser;
+    }
+
+    @Override
+    public int size() {
+        return window.size() + probation.size() + protectedSpace.size();
+    }
+
+    private static <K> K removeFirst(LinkedHashMap<K, Boolean> map) {
+        final Iterator<K> iterator = map.keySet().iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        final K first = iterator.next();
+        iterator.remove();
+        return first;
+    }
+}
@@ -0,0 +1,101 @@
+package com.gignomai.javachangestutorial.flow;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+
+/**
+ * Requests up to {@code capacity} elements ahead of downstream demand and holds them until they are asked for.
+ * Consumed slots are requested again in batches of three quarters of the capacity, so upstream sees a few large
+ * requests instead of one per element.
+ */
+final class BufferOperator<T> implements Flow.Publisher<T> {
+
+    private final Flow.Publisher<? extends T> upstream;
+    private final int capacity;
+
+    BufferOperator(Flow.Publisher<? extends T> upstream, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive but was " + capacity);
+        }
+        this.upstream = upstream;
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "Rule 1.9: subscriber must not be null");
+        upstream.subscribe(new BufferSubscriber<>(subscriber, capacity));
+    }
+
+    private static final class BufferSubscriber<T> extends DrainSubscription<T> implements Flow.Subscriber<T> {
+
+        private final Queue<T> queue = new ConcurrentLinkedQueue<>();
+        private final int capacity;
+        private final int replenishAt;
+        private Flow.Subscription upstream;
+        private int consumed;
+
+        BufferSubscriber(Flow.Subscriber<? super T> downstream, int capacity) {
+            super(downstream);
+            this.capacity = capacity;
+            this.replenishAt = Math.max(1, capacity - capacity / 4);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            start();
+            subscription.request(capacity);
+        }
+
+        @Override
+        public void onNext(T item) {
+            queue.offer(requireElement(item));
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            complete();
+        }
+
+        @Override
+        T poll() {
+            return queue.poll();
+        }
+
+        @Override
+        boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        @Override
+        void onEmitted() {
+            if (++consumed == replenishAt) {
+                consumed = 0;
+                upstream.request(replenishAt);
+            }
+        }
+
+        @Override
+        void cancelUpstream() {
+            upstream.cancel();
+        }
+
+        @Override
+        void clear() {
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.gignomai.javachangestutorial.flow;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outstanding demand arithmetic. Demand saturates at {@link Long#MAX_VALUE}, which means unbounded (rule 3.17).
+ */
+final class Demand {
+
+    private Demand() {
+    }
+
+    static long add(AtomicLong requested, long n) {
+        while (true) {
+            final long current = requested.get();
+            if (current == Long.MAX_VALUE) {
+                return current;
+            }
+            final long next = current + n < 0 ? Long.MAX_VALUE : current + n;
+            if (requested.compareAndSet(current, next)) {
+                return current;
+            }
+        }
+    }
+
+    static void produced(AtomicLong requested, long n) {
+        while (true) {
+            final long current = requested.get();
+            if (current == Long.MAX_VALUE || requested.compareAndSet(current, current - n)) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.gignomai.javachangestutorial.flow;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Subscription handed to a downstream subscriber by the operators that queue elements. Every signal to the
+ * subscriber goes through {@link #drain()}, which only one thread runs at a time, so signals are serial even when
+ * elements arrive from several threads. A {@code request} made from inside {@code onNext} is picked up by the
+ * running loop instead of recursing.
+ *
+ * @param <R> the element type emitted downstream
+ */
+abstract class DrainSubscription<R> implements Flow.Subscription {
+
+    private final Flow.Subscriber<? super R> downstream;
+    private final AtomicLong requested = new AtomicLong();
+    private final AtomicInteger wip = new AtomicInteger();
+    private volatile boolean cancelled;
+    private volatile boolean done;
+    private volatile Throwable error;
+
+    DrainSubscription(Flow.Subscriber<? super R> downstream) {
+        this.downstream = downstream;
+    }
+
+    /**
+     * Next element ready to go downstream, or {@code null} when none is ready yet.
+     */
+    abstract R poll();
+
+    abstract boolean isEmpty();
+
+    /**
+     * Called after every element sent downstream, to ask upstream for more.
+     */
+    abstract void onEmitted();
+
+    abstract void cancelUpstream();
+
+    void clear() {
+    }
+
+    @Override
+    public void request(long n) {
+        if (n <= 0) {
+            fail(new IllegalArgumentException("Rule 3.9: request must be positive but was " + n));
+            return;
+        }
+        Demand.add(requested, n);
+        drain();
+    }
+
+    @Override
+    public void cancel() {
+        if (!cancelled) {
+            cancelled = true;
+            cancelUpstream();
+            if (wip.getAndIncrement() == 0) {
+                clear();
+            }
+        }
+    }
+
+    final void start() {
+        downstream.onSubscribe(this);
+    }
+
+    final void complete() {
+        done = true;
+        drain();
+    }
+
+    /**
+     * Like {@link #complete()} for subclasses that find the end inside {@link #poll()}, where the loop is running.
+     */
+    final void markDone() {
+        done = true;
+    }
+
+    /**
+     * Stops upstream and sends {@code failure} downstream ahead of any element still queued.
+     */
+    final void fail(Throwable failure) {
+        if (error == null) {
+            error = failure;
+        }
+        done = true;
+        cancelUpstream();
+        drain();
+    }
+
+    final boolean isCancelled() {
+        return cancelled;
+    }
+
+    final void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            final long demand = requested.get();
+            long emitted = 0;
+            while (emitted != demand) {
+                if (terminated()) {
+                    return;
+                }
+                final R value = poll();
+                if (value == null) {
+                    break;
+                }
+                downstream.onNext(value);
+                emitted++;
+                onEmitted();
+            }
+            if (terminated()) {
+                return;
+            }
+            if (emitted != 0) {
+                Demand.produced(requested, emitted);
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    // Checks for cancellation and for the end of the stream; once it returns true nothing else is ever signalled
+    private boolean terminated() {
+        if (cancelled) {
+            clear();
+            return true;
+        }
+        if (done) {
+            final Throwable failure = error;
+            if (failure != null) {
+                cancelled = true;
+                clear();
+                downstream.onError(failure);
+                return true;
+            }
+            if (isEmpty()) {
+                cancelled = true;
+                downstream.onComplete();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static <T> T requireElement(T value) {
+        return Objects.requireNonNull(value, "Rule 2.13: elements must not be null");
+    }
+}
@@ -0,0 +1,133 @@
+package com.gignomai.javachangestutorial.flow;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Backpressured pipeline over {@link Flow.Publisher}, for sources that are too large or too slow to collect
+ * before processing them.
+ * <p>
+ * Every operator asks upstream only for what it can hand on, so a slow subscriber slows the whole chain down
+ * instead of letting elements pile up: {@link #mapAsync} holds at most {@code concurrency} elements,
+ * {@link #buffer} at most {@code capacity} and {@link #window} at most one window. Elements are never dropped.
+ * <p>
+ * Subscriptions follow the Reactive Streams rules: signals are serial, {@code request} may be called from inside
+ * {@code onNext} without recursion, a non-positive request fails the subscription, and nothing is signalled after
+ * {@code cancel} or a terminal signal.
+ */
+public final class FlowPipeline<T> implements Flow.Publisher<T> {
+
+    private static final int MERGE_PREFETCH = 32;
+
+    private final Flow.Publisher<T> publisher;
+
+    private FlowPipeline(Flow.Publisher<T> publisher) {
+        this.publisher = publisher;
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> FlowPipeline<T> from(Flow.Publisher<? extends T> publisher) {
+        Objects.requireNonNull(publisher, "publisher");
+        if (publisher instanceof FlowPipeline) {
+            return (FlowPipeline<T>) publisher;
+        }
+        return new FlowPipeline<>((Flow.Publisher<T>) publisher);
+    }
+
+    public static <T> FlowPipeline<T> fromIterable(Iterable<? extends T> iterable) {
+        return new FlowPipeline<>(IteratorPublisher.ofIterable(Objects.requireNonNull(iterable, "iterable")));
+    }
+
+    /**
+     * Publishes {@code stream} lazily, closing it once it is exhausted or the subscription is cancelled. Like the
+     * stream itself, the result can only be subscribed to once.
+     */
+    public static <T> FlowPipeline<T> fromStream(Stream<? extends T> stream) {
+        return new FlowPipeline<>(IteratorPublisher.ofStream(Objects.requireNonNull(stream, "stream")));
+    }
+
+    /**
+     * Interleaves the elements of {@code sources} as they arrive. Each source has at most 32 elements requested
+     * ahead of downstream demand.
+     */
+    @SafeVarargs
+    public static <T> FlowPipeline<T> merge(Flow.Publisher<? extends T>... sources) {
+        // Null-checks each source while copying out of the varargs array
+        final List<Flow.Publisher<? extends T>> list = new ArrayList<>(sources.length);
+        for (Flow.Publisher<? extends T> source : sources) {
+            list.add(Objects.requireNonNull(source, "source"));
+        }
+        return new FlowPipeline<>(new MergePublisher<>(list, MERGE_PREFETCH));
+    }
+
+    public <R> FlowPipeline<R> map(Function<? super T, ? extends R> mapper) {
+        return new FlowPipeline<>(new MapOperator<>(publisher, mapper));
+    }
+
+    /**
+     * Same as {@link #mapAsync(Function, int, Executor)} on the common pool.
+     */
+    public <R> FlowPipeline<R> mapAsync(Function<? super T, ? extends R> mapper, int concurrency) {
+        return mapAsync(mapper, concurrency, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Applies {@code mapper} on {@code executor} to up to {@code concurrency} elements at a time and emits the
+     * results in the original order.
+     */
+    public <R> FlowPipeline<R> mapAsync(Function<? super T, ? extends R> mapper, int concurrency,
+                                        Executor executor) {
+        return new FlowPipeline<>(new MapAsyncOperator<>(publisher, mapper, concurrency, executor));
+    }
+
+    /**
+     * Requests up to {@code capacity} elements ahead of the subscriber, to smooth out a bursty consumer.
+     */
+    public FlowPipeline<T> buffer(int capacity) {
+        return new FlowPipeline<>(new BufferOperator<>(publisher, capacity));
+    }
+
+    public FlowPipeline<List<T>> window(int count) {
+        return new FlowPipeline<>(new WindowOperator<>(publisher, count, null, ForkJoinPool.commonPool()));
+    }
+
+    /**
+     * Emits what arrived during each {@code timespan}, skipping empty windows. A window also closes early when it
+     * reaches {@link Flow#defaultBufferSize()} elements, so a fast source cannot grow it without limit.
+     */
+    public FlowPipeline<List<T>> window(Duration timespan) {
+        return window(Flow.defaultBufferSize(), timespan);
+    }
+
+    /**
+     * Emits a window when it reaches {@code maxCount} elements or when a timer firing every {@code timespan} finds
+     * it non-empty, whichever comes first. Windows closed by the timer are handed to the common pool.
+     */
+    public FlowPipeline<List<T>> window(int maxCount, Duration timespan) {
+        Objects.requireNonNull(timespan, "timespan");
+        return new FlowPipeline<>(new WindowOperator<>(publisher, maxCount, timespan, ForkJoinPool.commonPool()));
+    }
+
+    /**
+     * Subscribes and collects every element. Cancelling the returned future cancels the subscription.
+     */
+    public CompletableFuture<List<T>> toList() {
+        final ListSubscriber<T> subscriber = new ListSubscriber<>();
+        publisher.subscribe(subscriber);
+        return subscriber.result();
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "Rule 1.9: subscriber must not be null");
+        publisher.subscribe(subscriber);
+    }
+}
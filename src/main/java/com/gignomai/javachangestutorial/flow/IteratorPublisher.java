@@ -0,0 +1,105 @@
+package com.gignomai.javachangestutorial.flow;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Publishes the elements of an iterator, reading only as many as have been requested. An {@link Iterable} gives
+ * every subscriber its own iterator; a {@link java.util.stream.Stream} can only be subscribed to once.
+ */
+final class IteratorPublisher<T> implements Flow.Publisher<T> {
+
+    private final Supplier<? extends Iterator<? extends T>> iterators;
+    private final Runnable onClose;
+    private final AtomicBoolean subscribed;
+
+    private IteratorPublisher(Supplier<? extends Iterator<? extends T>> iterators, Runnable onClose,
+                              boolean singleUse) {
+        this.iterators = iterators;
+        this.onClose = onClose;
+        this.subscribed = singleUse ? new AtomicBoolean() : null;
+    }
+
+    static <T> IteratorPublisher<T> ofIterable(Iterable<? extends T> iterable) {
+        return new IteratorPublisher<>(iterable::iterator, () -> { }, false);
+    }
+
+    static <T> IteratorPublisher<T> ofStream(Stream<? extends T> stream) {
+        return new IteratorPublisher<>(stream::iterator, stream::close, true);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "Rule 1.9: subscriber must not be null");
+        final IteratorSubscription<T> subscription = new IteratorSubscription<>(subscriber, onClose);
+        subscription.start();
+        if (subscribed != null && !subscribed.compareAndSet(false, true)) {
+            subscription.fail(new IllegalStateException("A stream publisher can only be subscribed to once"));
+            return;
+        }
+        try {
+            subscription.iterator = iterators.get();
+        } catch (RuntimeException e) {
+            subscription.fail(e);
+            return;
+        }
+        subscription.drain();
+    }
+
+    private static final class IteratorSubscription<T> extends DrainSubscription<T> {
+
+        private final Runnable onClose;
+        private volatile Iterator<? extends T> iterator;
+        private boolean exhausted;
+
+        IteratorSubscription(Flow.Subscriber<? super T> downstream, Runnable onClose) {
+            super(downstream);
+            this.onClose = onClose;
+        }
+
+        @Override
+        T poll() {
+            final Iterator<? extends T> source = iterator;
+            if (source == null || exhausted) {
+                return null;
+            }
+            try {
+                if (!source.hasNext()) {
+                    exhausted = true;
+                    onClose.run();
+                    markDone();
+                    return null;
+                }
+                return requireElement(source.next());
+            } catch (RuntimeException e) {
+                fail(e);
+                return null;
+            }
+        }
+
+        @Override
+        boolean isEmpty() {
+            return exhausted;
+        }
+
+        @Override
+        void onEmitted() {
+        }
+
+        @Override
+        void cancelUpstream() {
+        }
+
+        @Override
+        void clear() {
+            if (!exhausted) {
+                exhausted = true;
+                onClose.run();
+            }
+        }
+    }
+}
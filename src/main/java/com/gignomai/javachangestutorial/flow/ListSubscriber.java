@@ -0,0 +1,51 @@
+package com.gignomai.javachangestutorial.flow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+
+/**
+ * Requests everything and collects it into the list returned by {@link #result()}. Cancelling that future cancels
+ * the subscription.
+ */
+final class ListSubscriber<T> implements Flow.Subscriber<T> {
+
+    private final CompletableFuture<List<T>> result = new CompletableFuture<>();
+    private final List<T> elements = new ArrayList<>();
+    private Flow.Subscription subscription;
+
+    CompletableFuture<List<T>> result() {
+        return result;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        this.subscription = subscription;
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                subscription.cancel();
+            }
+        });
+        subscription.request(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void onNext(T item) {
+        elements.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        result.completeExceptionally(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        result.complete(elements);
+    }
+}
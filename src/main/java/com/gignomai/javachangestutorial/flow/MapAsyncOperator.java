@@ -0,0 +1,145 @@
+package com.gignomai.javachangestutorial.flow;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * Runs {@code mapper} on {@code executor} for up to {@code concurrency} elements at a time and emits the results in
+ * upstream order. A new element is only requested from upstream once a result has gone downstream, so at most
+ * {@code concurrency} elements are in flight or waiting, however slow the subscriber is.
+ * <p>
+ * Tasks are handed to the executor directly rather than through {@code CompletableFuture.supplyAsync}, which
+ * swaps the common pool for a new thread per task on single-core machines.
+ */
+final class MapAsyncOperator<T, R> implements Flow.Publisher<R> {
+
+    private final Flow.Publisher<? extends T> upstream;
+    private final Function<? super T, ? extends R> mapper;
+    private final int concurrency;
+    private final Executor executor;
+
+    MapAsyncOperator(Flow.Publisher<? extends T> upstream, Function<? super T, ? extends R> mapper,
+                     int concurrency, Executor executor) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency must be positive but was " + concurrency);
+        }
+        this.upstream = upstream;
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+        this.concurrency = concurrency;
+        this.executor = Objects.requireNonNull(executor, "executor");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        Objects.requireNonNull(subscriber, "Rule 1.9: subscriber must not be null");
+        upstream.subscribe(new MapAsyncSubscriber<T, R>(subscriber, mapper, concurrency, executor));
+    }
+
+    private static final class MapAsyncSubscriber<T, R> extends DrainSubscription<R> implements Flow.Subscriber<T> {
+
+        // In upstream order; only the head is ever emitted, once it is done
+        private final Queue<CompletableFuture<R>> inFlight = new ConcurrentLinkedQueue<>();
+        private final Function<? super T, ? extends R> mapper;
+        private final int concurrency;
+        private final Executor executor;
+        private Flow.Subscription upstream;
+
+        MapAsyncSubscriber(Flow.Subscriber<? super R> downstream, Function<? super T, ? extends R> mapper,
+                           int concurrency, Executor executor) {
+            super(downstream);
+            this.mapper = mapper;
+            this.concurrency = concurrency;
+            this.executor = executor;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            start();
+            subscription.request(concurrency);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (isCancelled()) {
+                return;
+            }
+            final CompletableFuture<R> result = new CompletableFuture<>();
+            inFlight.offer(result);
+            result.whenComplete((value, error) -> drain());
+            try {
+                executor.execute(() -> {
+                    // Errors too: a result left incomplete would stall the queue of in-flight results for good
+                    try {
+                        result.complete(mapper.apply(item));
+                    } catch (Throwable e) {
+                        result.completeExceptionally(e);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            complete();
+        }
+
+        @Override
+        R poll() {
+            final CompletableFuture<R> head = inFlight.peek();
+            if (head == null || !head.isDone()) {
+                return null;
+            }
+            inFlight.poll();
+            try {
+                return requireElement(head.join());
+            } catch (CompletionException e) {
+                fail(e.getCause());
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+            return null;
+        }
+
+        @Override
+        boolean isEmpty() {
+            return inFlight.isEmpty();
+        }
+
+        @Override
+        void onEmitted() {
+            upstream.request(1);
+        }
+
+        @Override
+        void cancelUpstream() {
+            upstream.cancel();
+        }
+
+        @Override
+        void clear() {
+            CompletableFuture<R> pending;
+            while ((pending = inFlight.poll()) != null) {
+                pending.cancel(false);
+            }
+        }
+    }
+}
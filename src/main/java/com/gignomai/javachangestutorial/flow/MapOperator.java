@@ -0,0 +1,92 @@
+package com.gignomai.javachangestutorial.flow;
+
+import java.util.Objects;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+/**
+ * Applies {@code mapper} on the thread that delivers each element. Demand and cancellation pass straight through;
+ * if the mapper throws, upstream is cancelled and the exception goes downstream through {@code onError}.
+ */
+final class MapOperator<T, R> implements Flow.Publisher<R> {
+
+    private final Flow.Publisher<? extends T> upstream;
+    private final Function<? super T, ? extends R> mapper;
+
+    MapOperator(Flow.Publisher<? extends T> upstream, Function<? super T, ? extends R> mapper) {
+        this.upstream = upstream;
+        this.mapper = Objects.requireNonNull(mapper, "mapper");
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super R> subscriber) {
+        Objects.requireNonNull(subscriber, "Rule 1.9: subscriber must not be null");
+        upstream.subscribe(new MapSubscriber<T, R>(subscriber, mapper));
+    }
+
+    private static final class MapSubscriber<T, R> implements Flow.Subscriber<T>, Flow.Subscription {
+
+        private final Flow.Subscriber<? super R> downstream;
+        private final Function<? super T, ? extends R> mapper;
+        private Flow.Subscription upstream;
+        private boolean done;
+
+        MapSubscriber(Flow.Subscriber<? super R> downstream, Function<? super T, ? extends R> mapper) {
+            this.downstream = downstream;
+            this.mapper = mapper;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            downstream.onSubscribe(this);
+        }
+
+        @Override
+        public void onNext(T item) {
+            if (done) {
+                return;
+            }
+            final R value;
+            try {
+                value = DrainSubscription.requireElement(mapper.apply(item));
+            } catch (RuntimeException e) {
+                done = true;
+                upstream.cancel();
+                downstream.onError(e);
+                return;
+            }
+            downstream.onNext(value);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (!done) {
+                done = true;
+                downstream.onError(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (!done) {
+                done = true;
+                downstream.onComplete();
+            }
+        }
+
+        @Override
+        public void request(long n) {
+            upstream.request(n);
+        }
+
+        @Override
+        public void cancel() {
+            upstream.cancel();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.gignomai.javachangestutorial.flow;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Interleaves the elements of several publishers in arrival order. Each source has up to {@code prefetch} elements
+ * requested at a time and gets one more request every time one of its elements goes downstream, so a fast source
+ * cannot fill the queue while the subscriber is slow. The merge completes once every source has, and fails as soon
+ * as one of them does, cancelling the others.
+ */
+final class MergePublisher<T> implements Flow.Publisher<T> {
+
+    private final List<? extends Flow.Publisher<? extends T>> sources;
+    private final int prefetch;
+
+    MergePublisher(List<? extends Flow.Publisher<? extends T>> sources, int prefetch) {
+        this.sources = List.copyOf(sources);
+        this.prefetch = prefetch;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber, "Rule 1.9: subscriber must not be null");
+        final MergeSubscription<T> subscription = new MergeSubscription<>(subscriber, sources.size(), prefetch);
+        subscription.start();
+        if (sources.isEmpty()) {
+            subscription.complete();
+            return;
+        }
+        for (int i = 0; i < sources.size() && !subscription.isCancelled(); i++) {
+            sources.get(i).subscribe(subscription.inners[i]);
+        }
+    }
+
+    private static final class MergeSubscription<T> extends DrainSubscription<T> {
+
+        private final Queue<Item<T>> queue = new ConcurrentLinkedQueue<>();
+        private final Inner<T>[] inners;
+        private final AtomicInteger active;
+        // Source of the element being emitted, which gets the replacement request; only touched by the drain loop
+        private Inner<T> lastSource;
+
+        @SuppressWarnings("unchecked")
+        MergeSubscription(Flow.Subscriber<? super T> downstream, int sources, int prefetch) {
+            super(downstream);
+            this.inners = (Inner<T>[]) new Inner<?>[sources];
+            for (int i = 0; i < sources; i++) {
+                inners[i] = new Inner<>(this, prefetch);
+            }
+            this.active = new AtomicInteger(sources);
+        }
+
+        @Override
+        T poll() {
+            final Item<T> item = queue.poll();
+            if (item == null) {
+                return null;
+            }
+            lastSource = item.source;
+            return item.value;
+        }
+
+        @Override
+        boolean isEmpty() {
+            return queue.isEmpty();
+        }
+
+        @Override
+        void onEmitted() {
+            lastSource.request(1);
+        }
+
+        @Override
+        void cancelUpstream() {
+            for (Inner<T> inner : inners) {
+                inner.cancel();
+            }
+        }
+
+        @Override
+        void clear() {
+            queue.clear();
+        }
+
+        void sourceCompleted() {
+            if (active.decrementAndGet() == 0) {
+                complete();
+            }
+        }
+    }
+
+    private static final class Inner<T> implements Flow.Subscriber<T> {
+
+        private final MergeSubscription<T> parent;
+        private final int prefetch;
+        private volatile Flow.Subscription subscription;
+        private volatile boolean cancelled;
+
+        Inner(MergeSubscription<T> parent, int prefetch) {
+            this.parent = parent;
+            this.prefetch = prefetch;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (this.subscription != null || cancelled) {
+                subscription.cancel();
+                return;
+            }
+            this.subscription = subscription;
+            subscription.request(prefetch);
+            if (cancelled) {
+                subscription.cancel();
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            parent.queue.offer(new Item<>(DrainSubscription.requireElement(item), this));
+            parent.drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            parent.fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            parent.sourceCompleted();
+        }
+
+        void request(long n) {
+            final Flow.Subscription current = subscription;
+            if (current != null) {
+                current.request(n);
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            final Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+    }
+
+    private static final class Item<T> {
+        final T value;
+        final Inner<T> source;
+
+        Item(T value, Inner<T> source) {
+            this.value = value;
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.gignomai.javachangestutorial.flow;
+
+import com.gignomai.javachangestutorial.async.Timers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups elements into lists of at most {@code maxCount}, closing a list early on every tick of a timer firing
+ * each {@code timespan} if it holds at least one element.
+ * <p>
+ * Upstream is only asked for more once every closed window has gone downstream, and then just enough to fill the
+ * open window, so no more than {@code maxCount} elements are ever held. The timer runs on {@link Timers#shared()}
+ * and hands the closed window to {@code executor}, so a slow subscriber never blocks the timer thread.
+ */
+final class WindowOperator<T> implements Flow.Publisher<List<T>> {
+
+    private final Flow.Publisher<? extends T> upstream;
+    private final int maxCount;
+    private final Duration timespan;
+    private final Executor executor;
+
+    WindowOperator(Flow.Publisher<? extends T> upstream, int maxCount, Duration timespan, Executor executor) {
+        if (maxCount <= 0) {
+            throw new IllegalArgumentException("maxCount must be positive but was " + maxCount);
+        }
+        if (timespan != null && (timespan.isNegative() || timespan.isZero())) {
+            throw new IllegalArgumentException("timespan must be positive but was " + timespan);
+        }
+        this.upstream = upstream;
+        this.maxCount = maxCount;
+        this.timespan = timespan;
+        this.executor = executor;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super List<T>> subscriber) {
+        Objects.requireNonNull(subscriber, "Rule 1.9: subscriber must not be null");
+        upstream.subscribe(new WindowSubscriber<>(subscriber, maxCount, timespan, executor));
+    }
+
+    private static final class WindowSubscriber<T> extends DrainSubscription<List<T>>
+            implements Flow.Subscriber<T> {
+
+        private final Queue<List<T>> closed = new ConcurrentLinkedQueue<>();
+        private final int maxCount;
+        private final Duration timespan;
+        private final Executor executor;
+        private Flow.Subscription upstream;
+        private ScheduledFuture<?> timer;
+        // Guarded by this
+        private List<T> open;
+        private long outstanding;
+
+        WindowSubscriber(Flow.Subscriber<? super List<T>> downstream, int maxCount, Duration timespan,
+                         Executor executor) {
+            super(downstream);
+            this.maxCount = maxCount;
+            this.timespan = timespan;
+            this.executor = executor;
+            this.open = new ArrayList<>();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            if (upstream != null) {
+                subscription.cancel();
+                return;
+            }
+            upstream = subscription;
+            start();
+            if (timespan != null) {
+                final long nanos = timespan.toNanos();
+                timer = Timers.shared().scheduleAtFixedRate(() -> executor.execute(this::closeOnTime), nanos, nanos,
+                        TimeUnit.NANOSECONDS);
+            }
+            synchronized (this) {
+                outstanding = maxCount;
+            }
+            subscription.request(maxCount);
+        }
+
+        @Override
+        public void onNext(T item) {
+            synchronized (this) {
+                open.add(requireElement(item));
+                outstanding--;
+                if (open.size() == maxCount) {
+                    close();
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            fail(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                if (!open.isEmpty()) {
+                    close();
+                }
+            }
+            complete();
+        }
+
+        @Override
+        List<T> poll() {
+            return closed.poll();
+        }
+
+        @Override
+        boolean isEmpty() {
+            return closed.isEmpty();
+        }
+
+        @Override
+        void onEmitted() {
+            final long request;
+            synchronized (this) {
+                if (!closed.isEmpty()) {
+                    return;
+                }
+                request = maxCount - open.size() - outstanding;
+                outstanding += Math.max(0, request);
+            }
+            if (request > 0) {
+                upstream.request(request);
+            }
+        }
+
+        @Override
+        void cancelUpstream() {
+            stopTimer();
+            upstream.cancel();
+        }
+
+        @Override
+        void clear() {
+            stopTimer();
+            closed.clear();
+        }
+
+        private void closeOnTime() {
+            synchronized (this) {
+                if (open.isEmpty()) {
+                    return;
+                }
+                close();
+            }
+            drain();
+        }
+
+        private void close() {
+            closed.offer(open);
+            open = new ArrayList<>();
+        }
+
+        private void stopTimer() {
+            if (timer != null) {
+                timer.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.gignomai.javachangestutorial.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lines of a file read through {@link FileChannel#map}, for running the {@code String.lines()} pipelines of
+ * {@code StringMethodsTest} over files of several gigabytes.
+ * <p>
+ * The file is mapped in regions of at most {@code maxRegionSize} bytes, each ending on a line break. The stream
+ * splits first by region and then inside a region at the nearest {@code '\n'}, so parallel streams get
+ * line-aligned chunks. Lines are handed out as reused {@link LineView}s, so no {@code String} is created unless the
+ * caller asks for one. Line breaks follow {@link String#lines()}: {@code \n}, {@code \r} and {@code \r\n}.
+ */
+public final class LineSource implements Closeable {
+
+    private static final int DEFAULT_MAX_REGION_SIZE = Integer.MAX_VALUE - 8;
+    private static final int MIN_SPLIT_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final List<ByteBuffer> regions;
+    private final int minSplitSize;
+
+    private LineSource(FileChannel channel, List<ByteBuffer> regions, int minSplitSize) {
+        this.channel = channel;
+        this.regions = regions;
+        this.minSplitSize = minSplitSize;
+    }
+
+    public static LineSource open(Path file) throws IOException {
+        return open(file, DEFAULT_MAX_REGION_SIZE, MIN_SPLIT_SIZE);
+    }
+
+    static LineSource open(Path file, int maxRegionSize, int minSplitSize) throws IOException {
+        final FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            return new LineSource(channel, mapRegions(channel, maxRegionSize), minSplitSize);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Stream<LineView> lines() {
+        return StreamSupport.stream(new RegionSpliterator(0, regions.size()), false);
+    }
+
+    public Stream<LineView> parallelLines() {
+        return lines().parallel();
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static List<ByteBuffer> mapRegions(FileChannel channel, int maxRegionSize) throws IOException {
+        final List<ByteBuffer> regions = new ArrayList<>();
+        final long size = channel.size();
+        long position = 0;
+        while (position < size) {
+            final int length = (int) Math.min(maxRegionSize, size - position);
+            final MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            int regionEnd = length;
+            if (position + length < size) {
+                regionEnd = lastLineBreak(mapped, length) + 1;
+                if (regionEnd == 0) {
+                    throw new IOException("Line at offset " + position + " is longer than " + maxRegionSize + " bytes");
+                }
+            }
+            regions.add(mapped.slice(0, regionEnd));
+            position += regionEnd;
+        }
+        return regions;
+    }
+
+    private static int lastLineBreak(ByteBuffer buffer, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            if (buffer.get(i) == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private final class RegionSpliterator implements Spliterator<LineView> {
+        private int from;
+        private final int to;
+        private ChunkSpliterator current;
+
+        private RegionSpliterator(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super LineView> action) {
+            while (true) {
+                if (current == null) {
+                    if (from >= to) {
+                        return false;
+                    }
+                    final ByteBuffer region = regions.get(from);
+                    current = new ChunkSpliterator(region, 0, region.limit(), minSplitSize);
+                }
+                if (current.tryAdvance(action)) {
+                    return true;
+                }
+                current = null;
+                from++;
+            }
+        }
+
+        @Override
+        public Spliterator<LineView> trySplit() {
+            if (current == null && to - from > 1) {
+                final int middle = (from + to) >>> 1;
+                final RegionSpliterator prefix = new RegionSpliterator(from, middle);
+                from = middle;
+                return prefix;
+            }
+            if (current == null && from < to) {
+                final ByteBuffer region = regions.get(from);
+                current = new ChunkSpliterator(region, 0, region.limit(), minSplitSize);
+            }
+            return current == null ? null : current.trySplit();
+        }
+
+        @Override
+        public long estimateSize() {
+            long bytes = current == null ? 0 : current.estimateSize();
+            for (int i = current == null ? from : from + 1; i < to; i++) {
+                bytes += regions.get(i).limit();
+            }
+            return bytes;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Lines between two byte offsets of one region. Estimates are in bytes, which is what the stream framework
+     * needs to balance the splits.
+     */
+    private static final class ChunkSpliterator implements Spliterator<LineView> {
+        private final ByteBuffer region;
+        private final int minSplitSize;
+        private final LineView view = new LineView();
+        private int position;
+        private final int end;
+
+        private ChunkSpliterator(ByteBuffer region, int position, int end, int minSplitSize) {
+            this.region = region;
+            this.position = position;
+            this.end = end;
+            this.minSplitSize = minSplitSize;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super LineView> action) {
+            if (position >= end) {
+                return false;
+            }
+            int lineEnd = position;
+            while (lineEnd < end && region.get(lineEnd) != '\n' && region.get(lineEnd) != '\r') {
+                lineEnd++;
+            }
+            action.accept(view.reset(region, position, lineEnd));
+            position = lineEnd + 1;
+            if (lineEnd + 1 < end && region.get(lineEnd) == '\r' && region.get(lineEnd + 1) == '\n') {
+                position++;
+            }
+            return true;
+        }
+
+        // Splits only after '\n', so a "\r\n" pair is never cut in two
+        @Override
+        public Spliterator<LineView> trySplit() {
+            if (end - position < minSplitSize) {
+                return null;
+            }
+            int split = position + (end - position) / 2;
+            while (split < end && region.get(split) != '\n') {
+                split++;
+            }
+            if (split >= end - 1) {
+                return null;
+            }
+            final ChunkSpliterator prefix = new ChunkSpliterator(region, position, split + 1, minSplitSize);
+            position = split + 1;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - position;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+}
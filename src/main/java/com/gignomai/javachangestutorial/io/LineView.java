@@ -0,0 +1,118 @@
+package com.gignomai.javachangestutorial.io;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Line of a {@link LineSource} read straight from the mapped file, without creating a {@code String}.
+ * <p>
+ * A view is reused for every line its spliterator emits, so it is only valid inside the stream stage that
+ * receives it. Call {@link #toString()} to keep the text or {@link #copy()} to keep the view itself.
+ * <p>
+ * {@link #charAt(int)} and {@link #length()} work on bytes, which equals characters for ASCII text such as most
+ * logs. {@link #toString()} always decodes UTF-8 correctly. {@link #isBlank()} and the strip methods only treat
+ * ASCII whitespace as blank, while {@link String#strip()} also removes Unicode spaces.
+ */
+public final class LineView implements CharSequence {
+
+    private ByteBuffer buffer;
+    private int start;
+    private int end;
+
+    LineView() {
+    }
+
+    private LineView(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+    }
+
+    LineView reset(ByteBuffer buffer, int start, int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.end = end;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length());
+        }
+        return (char) (buffer.get(start + index) & 0xFF);
+    }
+
+    @Override
+    public LineView subSequence(int from, int to) {
+        if (from < 0 || to > length() || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") out of length " + length());
+        }
+        return new LineView(buffer, start + from, start + to);
+    }
+
+    public boolean isBlank() {
+        for (int i = start; i < end; i++) {
+            if (!isWhitespace(buffer.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Narrows this view to drop leading and trailing whitespace and returns it.
+     */
+    public LineView strip() {
+        return stripLeading().stripTrailing();
+    }
+
+    public LineView stripLeading() {
+        while (start < end && isWhitespace(buffer.get(start))) {
+            start++;
+        }
+        return this;
+    }
+
+    public LineView stripTrailing() {
+        while (end > start && isWhitespace(buffer.get(end - 1))) {
+            end--;
+        }
+        return this;
+    }
+
+    public boolean contentEquals(CharSequence other) {
+        if (other.length() != length()) {
+            return false;
+        }
+        for (int i = 0; i < other.length(); i++) {
+            if (charAt(i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a view of the same bytes that is not reused by the spliterator.
+     */
+    public LineView copy() {
+        return new LineView(buffer, start, end);
+    }
+
+    @Override
+    public String toString() {
+        final byte[] bytes = new byte[length()];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isWhitespace(byte value) {
+        return value == ' ' || (value >= '\t' && value <= '\r') || (value >= 0x1C && value <= 0x1F);
+    }
+}
@@ -0,0 +1,33 @@
+package com.gignomai.javachangestutorial.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Striped counter: threads updating it at the same time hit different cells, so increments do not contend. It can
+ * go down as well, to track things like tasks in progress.
+ */
+public final class Counter {
+
+    private final String name;
+    private final LongAdder value = new LongAdder();
+
+    Counter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void increment() {
+        value.increment();
+    }
+
+    public void add(long delta) {
+        value.add(delta);
+    }
+
+    public long sum() {
+        return value.sum();
+    }
+}
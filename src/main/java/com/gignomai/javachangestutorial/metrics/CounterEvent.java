@@ -0,0 +1,24 @@
+package com.gignomai.javachangestutorial.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+
+@Name("com.gignomai.Counter")
+@Label("Counter")
+@Description("Current value of a metrics counter")
+@Category({"Java Changes Tutorial", "Metrics"})
+@Period("1 s")
+@StackTrace(false)
+class CounterEvent extends Event {
+
+    @Label("Counter")
+    String counter;
+
+    @Label("Value")
+    long value;
+}
@@ -0,0 +1,45 @@
+package com.gignomai.javachangestutorial.metrics;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Executor decorator that records, per task, how long it waited for a thread ({@code <name>.queue}) and how long it
+ * ran ({@code <name>.run}), and keeps the number of tasks running right now in {@code <name>.active}. Tasks that
+ * throw are counted as failures of the run timer.
+ */
+final class InstrumentedExecutor implements Executor {
+
+    private final Executor delegate;
+    private final Timer queue;
+    private final Timer run;
+    private final Counter active;
+
+    InstrumentedExecutor(Executor delegate, Timer queue, Timer run, Counter active) {
+        this.delegate = delegate;
+        this.queue = queue;
+        this.run = run;
+        this.active = active;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        final long submitted = System.nanoTime();
+        delegate.execute(() -> {
+            final long start = System.nanoTime();
+            queue.record(start - submitted);
+            active.increment();
+            boolean failed = true;
+            try {
+                command.run();
+                failed = false;
+            } finally {
+                active.add(-1);
+                if (failed) {
+                    run.recordFailure(System.nanoTime() - start);
+                } else {
+                    run.recordSince(start);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,51 @@
+package com.gignomai.javachangestutorial.metrics;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Publishes every timer and counter of a {@link MetricsRegistry} as periodic JFR events, once per second by
+ * default. The hooks only run while a recording has the events enabled, so this costs nothing otherwise:
+ * <pre>
+ * jcmd &lt;pid&gt; JFR.start name=metrics settings=profile
+ * jfr print --events com.gignomai.StageLatency,com.gignomai.Counter recording.jfr
+ * </pre>
+ * Thread usage and allocation come with the same recording from the JDK's own events, e.g.
+ * {@code jdk.ThreadCPULoad} and {@code jdk.ObjectAllocationSample}.
+ */
+public class JfrMetricsExporter implements AutoCloseable {
+
+    private final Runnable timersHook;
+    private final Runnable countersHook;
+
+    public JfrMetricsExporter(MetricsRegistry registry) {
+        this.timersHook = () -> registry.timers().forEach(JfrMetricsExporter::emit);
+        this.countersHook = () -> registry.counters().forEach(counter -> {
+            final CounterEvent event = new CounterEvent();
+            event.counter = counter.getName();
+            event.value = counter.sum();
+            event.commit();
+        });
+        FlightRecorder.addPeriodicEvent(StageLatencyEvent.class, timersHook);
+        FlightRecorder.addPeriodicEvent(CounterEvent.class, countersHook);
+    }
+
+    @Override
+    public void close() {
+        FlightRecorder.removePeriodicEvent(timersHook);
+        FlightRecorder.removePeriodicEvent(countersHook);
+    }
+
+    private static void emit(Timer timer) {
+        final TimerSnapshot snapshot = timer.snapshot();
+        final StageLatencyEvent event = new StageLatencyEvent();
+        event.stage = snapshot.getName();
+        event.count = snapshot.getCount();
+        event.failures = snapshot.getFailures();
+        event.mean = snapshot.getMeanNanos();
+        event.p50 = snapshot.getP50Nanos();
+        event.p99 = snapshot.getP99Nanos();
+        event.p999 = snapshot.getP999Nanos();
+        event.max = snapshot.getMaxNanos();
+        event.commit();
+    }
+}
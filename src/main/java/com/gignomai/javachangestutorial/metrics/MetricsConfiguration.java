@@ -0,0 +1,27 @@
+package com.gignomai.javachangestutorial.metrics;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+
+/**
+ * Provides the application's {@link MetricsRegistry} and, unless {@code metrics.jfr.enabled=false}, exports it as
+ * JFR events. Nothing injects the exporter, so it opts out of lazy initialization, or the {@code fast} profile
+ * would never create it.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public MetricsRegistry metricsRegistry() {
+        return new MetricsRegistry();
+    }
+
+    @Bean(destroyMethod = "close")
+    @Lazy(false)
+    @ConditionalOnProperty(name = "metrics.jfr.enabled", havingValue = "true", matchIfMissing = true)
+    public JfrMetricsExporter jfrMetricsExporter(MetricsRegistry registry) {
+        return new JfrMetricsExporter(registry);
+    }
+}
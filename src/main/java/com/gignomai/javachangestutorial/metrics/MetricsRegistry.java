@@ -0,0 +1,56 @@
+package com.gignomai.javachangestutorial.metrics;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+/**
+ * Named {@link Timer}s and {@link Counter}s of the application. Look a metric up once and keep the reference;
+ * recording on it is cheap, looking it up by name is a map access.
+ */
+public class MetricsRegistry {
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public Timer timer(String name) {
+        final Timer timer = timers.get(name);
+        return timer != null ? timer : timers.computeIfAbsent(name, Timer::new);
+    }
+
+    public Counter counter(String name) {
+        final Counter counter = counters.get(name);
+        return counter != null ? counter : counters.computeIfAbsent(name, Counter::new);
+    }
+
+    /**
+     * Wraps {@code executor} so queue wait, run time and running tasks are recorded under {@code name}. Use the
+     * result in place of the executor, e.g. as the second argument of {@code supplyAsync}.
+     */
+    public Executor executor(String name, Executor executor) {
+        return new InstrumentedExecutor(executor, timer(name + ".queue"), timer(name + ".run"),
+                counter(name + ".active"));
+    }
+
+    public Collection<Timer> timers() {
+        return timers.values();
+    }
+
+    public Collection<Counter> counters() {
+        return counters.values();
+    }
+
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(
+                timers.values().stream()
+                        .map(Timer::snapshot)
+                        .sorted(Comparator.comparing(TimerSnapshot::getName))
+                        .collect(Collectors.toList()),
+                counters.values().stream()
+                        .collect(Collectors.toMap(Counter::getName, Counter::sum, Long::sum, TreeMap::new)));
+    }
+}
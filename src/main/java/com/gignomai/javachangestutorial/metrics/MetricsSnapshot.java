@@ -0,0 +1,15 @@
+package com.gignomai.javachangestutorial.metrics;
+
+import lombok.Value;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Point-in-time view of a {@link MetricsRegistry}, sorted by name.
+ */
+@Value
+public class MetricsSnapshot {
+    List<TimerSnapshot> timers;
+    Map<String, Long> counters;
+}
@@ -0,0 +1,48 @@
+package com.gignomai.javachangestutorial.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Period;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+@Name("com.gignomai.StageLatency")
+@Label("Stage Latency")
+@Description("Latency distribution of a timed stage since the application started")
+@Category({"Java Changes Tutorial", "Metrics"})
+@Period("1 s")
+@StackTrace(false)
+class StageLatencyEvent extends Event {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("Count")
+    long count;
+
+    @Label("Failures")
+    long failures;
+
+    @Label("Mean")
+    @Timespan(Timespan.NANOSECONDS)
+    long mean;
+
+    @Label("P50")
+    @Timespan(Timespan.NANOSECONDS)
+    long p50;
+
+    @Label("P99")
+    @Timespan(Timespan.NANOSECONDS)
+    long p99;
+
+    @Label("P99.9")
+    @Timespan(Timespan.NANOSECONDS)
+    long p999;
+
+    @Label("Max")
+    @Timespan(Timespan.NANOSECONDS)
+    long max;
+}
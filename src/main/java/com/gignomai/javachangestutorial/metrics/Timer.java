@@ -0,0 +1,96 @@
+package com.gignomai.javachangestutorial.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Latency histogram of one named stage, from 1 ns to one hour with two significant digits.
+ * <p>
+ * Recording goes to an HdrHistogram {@link Recorder}, which is wait-free and never allocates, so it can sit on a
+ * hot path. {@link #snapshot()} swaps the recorder's interval histogram out and adds it to a running total; values
+ * above one hour are recorded as one hour.
+ */
+public final class Timer {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.HOURS.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final String name;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+    private final LongAdder failures = new LongAdder();
+    // Guarded by this
+    private final Histogram total = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+    private Histogram interval;
+
+    Timer(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos) {
+        recorder.recordValue(Math.max(0, Math.min(nanos, HIGHEST_TRACKABLE_NANOS)));
+    }
+
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public void recordFailure(long nanos) {
+        failures.increment();
+        record(nanos);
+    }
+
+    /**
+     * Starts {@code stage} and records the time until the returned future completes, counting exceptional
+     * completions as failures. The future is returned as is, so cancelling it still reaches the stage.
+     */
+    public <T> CompletableFuture<T> timeAsync(Supplier<? extends CompletableFuture<T>> stage) {
+        final long start = System.nanoTime();
+        final CompletableFuture<T> future;
+        try {
+            future = stage.get();
+        } catch (RuntimeException e) {
+            recordFailure(System.nanoTime() - start);
+            throw e;
+        }
+        future.whenComplete((value, error) -> {
+            if (error != null) {
+                recordFailure(System.nanoTime() - start);
+            } else {
+                recordSince(start);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Wraps a stream or pipeline stage so every call is timed, e.g. {@code stream.map(timer.timed(this::parse))}.
+     */
+    public <T, R> Function<T, R> timed(Function<? super T, ? extends R> function) {
+        return value -> {
+            final long start = System.nanoTime();
+            try {
+                return function.apply(value);
+            } finally {
+                recordSince(start);
+            }
+        };
+    }
+
+    public synchronized TimerSnapshot snapshot() {
+        interval = recorder.getIntervalHistogram(interval);
+        total.add(interval);
+        return new TimerSnapshot(name, total.getTotalCount(), failures.sum(), (long) total.getMean(),
+                total.getValueAtPercentile(50), total.getValueAtPercentile(99), total.getValueAtPercentile(99.9),
+                total.getMaxValue());
+    }
+}
@@ -0,0 +1,18 @@
+package com.gignomai.javachangestutorial.metrics;
+
+import lombok.Value;
+
+/**
+ * Everything a {@link Timer} recorded since it was created. Latencies are in nanoseconds.
+ */
+@Value
+public class TimerSnapshot {
+    String name;
+    long count;
+    long failures;
+    long meanNanos;
+    long p50Nanos;
+    long p99Nanos;
+    long p999Nanos;
+    long maxNanos;
+}
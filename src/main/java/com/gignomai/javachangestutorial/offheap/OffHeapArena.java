@@ -0,0 +1,116 @@
+package com.gignomai.javachangestutorial.offheap;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Owner of the direct memory used by one or more {@link RecordStore}s. Memory is handed out in chunks of
+ * {@code chunkBytes} and only given back, all at once, by {@link #close()}.
+ * <p>
+ * Direct buffers are normally freed when the garbage collector finds them unreachable, which for a store that lived
+ * long enough to be promoted can take until the next old generation collection. {@link #close()} frees them
+ * straight away through {@code sun.misc.Unsafe#invokeCleaner}, and only falls back to dropping the references when
+ * that method cannot be found.
+ * <p>
+ * Reading a store after its arena is closed throws {@link IllegalStateException}. Closing an arena while another
+ * thread still reads from it is not supported, as the memory could be freed under that read.
+ */
+public final class OffHeapArena implements AutoCloseable {
+
+    public static final int DEFAULT_CHUNK_BYTES = 1 << 24;
+    private static final int MIN_CHUNK_BYTES = 1 << 10;
+    private static final int MAX_CHUNK_BYTES = 1 << 30;
+    private static final MethodHandle INVOKE_CLEANER = findInvokeCleaner();
+
+    private final int chunkBytes;
+    private final List<ByteBuffer> chunks = new ArrayList<>();
+    private volatile boolean open = true;
+
+    private OffHeapArena(int chunkBytes) {
+        this.chunkBytes = chunkBytes;
+    }
+
+    public static OffHeapArena open() {
+        return open(DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Opens an arena that allocates {@code chunkBytes} at a time, which must be a power of two between 1 KiB and
+     * 1 GiB. It is also the largest record a store of this arena can hold.
+     */
+    public static OffHeapArena open(int chunkBytes) {
+        if (chunkBytes < MIN_CHUNK_BYTES || chunkBytes > MAX_CHUNK_BYTES || Integer.bitCount(chunkBytes) != 1) {
+            throw new IllegalArgumentException(
+                    "chunkBytes must be a power of two between 1 KiB and 1 GiB but was " + chunkBytes);
+        }
+        return new OffHeapArena(chunkBytes);
+    }
+
+    public int chunkBytes() {
+        return chunkBytes;
+    }
+
+    /**
+     * Direct memory held by the arena, zero once it is closed.
+     */
+    public synchronized long allocatedBytes() {
+        return (long) chunks.size() * chunkBytes;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!open) {
+            return;
+        }
+        open = false;
+        chunks.forEach(OffHeapArena::free);
+        chunks.clear();
+    }
+
+    synchronized ByteBuffer allocateChunk() {
+        checkOpen();
+        final ByteBuffer chunk = ByteBuffer.allocateDirect(chunkBytes);
+        chunks.add(chunk);
+        return chunk;
+    }
+
+    void checkOpen() {
+        if (!open) {
+            throw new IllegalStateException("Arena is closed");
+        }
+    }
+
+    private static void free(ByteBuffer chunk) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact(chunk);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Could not free direct buffer", e);
+        }
+    }
+
+    // jdk.unsupported opens sun.misc, so this works without any --add-opens flag
+    private static MethodHandle findInvokeCleaner() {
+        try {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, "invokeCleaner", MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(theUnsafe.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
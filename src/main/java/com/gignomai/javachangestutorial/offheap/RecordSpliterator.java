@@ -0,0 +1,61 @@
+package com.gignomai.javachangestutorial.offheap;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over a range of record indexes of a {@link RecordStore}. Splitting halves the range and gives the new
+ * half its own view, so parallel tasks never share a flyweight.
+ */
+final class RecordSpliterator implements Spliterator<RecordView> {
+
+    private final RecordStore store;
+    private final RecordView view;
+    private final long end;
+    private long index;
+
+    RecordSpliterator(RecordStore store, RecordView view, long from, long end) {
+        this.store = store;
+        this.view = view;
+        this.index = from;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super RecordView> action) {
+        if (index >= end) {
+            return false;
+        }
+        store.moveTo(view, index++);
+        action.accept(view);
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super RecordView> action) {
+        final long from = index;
+        index = end;
+        store.forEach(view, from, end, action);
+    }
+
+    @Override
+    public Spliterator<RecordView> trySplit() {
+        final long middle = (index + end) >>> 1;
+        if (middle <= index) {
+            return null;
+        }
+        final RecordSpliterator prefix = new RecordSpliterator(store, view.sibling(), index, middle);
+        index = middle;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return end - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
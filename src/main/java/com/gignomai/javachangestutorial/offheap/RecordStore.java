@@ -0,0 +1,236 @@
+package com.gignomai.javachangestutorial.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Append-only list of byte records kept in direct memory taken from an {@link OffHeapArena}. Tens of millions of
+ * records add a handful of chunk objects to the heap, instead of one {@code String} and one {@code byte[]} each for
+ * the garbage collector to trace.
+ * <p>
+ * A variable-length store writes every record as an {@code int} length followed by its bytes, and keeps one
+ * {@code long} per record in an off-heap index. A fixed-length store needs no index, as record {@code i} is found
+ * by arithmetic. Records never span two chunks, so one can be at most the arena's chunk size, minus the length
+ * prefix when variable. Sequential reads walk the records one after the other and only use the index to find the
+ * first one.
+ * <p>
+ * {@link #stream()} hands every record to the pipeline through one {@link RecordView} per spliterator, moved from
+ * record to record rather than copied onto the heap. Map views to values before any operation that keeps elements,
+ * such as {@code sorted}, {@code distinct} or {@code collect}, or every kept element ends up being the last record.
+ * <p>
+ * Appending is not thread-safe and must not overlap with reads. A stream covers the records appended before it was
+ * created; parallel streams split them by index.
+ */
+public final class RecordStore {
+
+    private static final int LENGTH_BYTES = Integer.BYTES;
+    private static final int VARIABLE_LENGTH = -1;
+    // Written in place of a length where a variable-length chunk was left for the next one
+    private static final int END_OF_CHUNK = -1;
+
+    private final OffHeapArena arena;
+    private final int recordBytes;
+    // Fixed-length stores only
+    private final int recordsPerChunk;
+    // Variable-length stores only: every index chunk holds 2^indexShift entries of chunk << 32 | offset
+    private final int indexShift;
+    private ByteBuffer[] dataChunks = new ByteBuffer[0];
+    private ByteBuffer[] indexChunks = new ByteBuffer[0];
+    private int dataChunkCount;
+    private int indexChunkCount;
+    private int writeOffset;
+    private long size;
+
+    private RecordStore(OffHeapArena arena, int recordBytes) {
+        this.arena = arena;
+        this.recordBytes = recordBytes;
+        this.recordsPerChunk = recordBytes == VARIABLE_LENGTH ? 0 : arena.chunkBytes() / recordBytes;
+        this.indexShift = Integer.numberOfTrailingZeros(arena.chunkBytes() / Long.BYTES);
+    }
+
+    public static RecordStore variableLength(OffHeapArena arena) {
+        return new RecordStore(Objects.requireNonNull(arena, "arena"), VARIABLE_LENGTH);
+    }
+
+    public static RecordStore fixedLength(OffHeapArena arena, int recordBytes) {
+        Objects.requireNonNull(arena, "arena");
+        if (recordBytes <= 0 || recordBytes > arena.chunkBytes()) {
+            throw new IllegalArgumentException(
+                    "recordBytes must be between 1 and " + arena.chunkBytes() + " but was " + recordBytes);
+        }
+        return new RecordStore(arena, recordBytes);
+    }
+
+    /**
+     * Appends {@code value} encoded as UTF-8 and returns its index.
+     */
+    public long append(String value) {
+        return append(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public long append(byte[] record) {
+        return append(record, 0, record.length);
+    }
+
+    public long append(byte[] bytes, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        final int start = reserve(length);
+        currentChunk().put(start, bytes, offset, length);
+        return commit(start, length);
+    }
+
+    /**
+     * Appends the remaining bytes of {@code record} without moving its position, so a scratch buffer filled with
+     * {@code putInt}/{@code putLong} and flipped can be appended and cleared for the next record.
+     */
+    public long append(ByteBuffer record) {
+        final int length = record.remaining();
+        final int start = reserve(length);
+        currentChunk().put(start, record, record.position(), length);
+        return commit(start, length);
+    }
+
+    /**
+     * Returns a new view of record {@code index}. Streams are the cheaper way to read many records, as they reuse
+     * one view.
+     */
+    public RecordView get(long index) {
+        Objects.checkIndex(index, size);
+        final RecordView view = new RecordView(arena);
+        moveTo(view, index);
+        return view;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public boolean isFixedLength() {
+        return recordBytes != VARIABLE_LENGTH;
+    }
+
+    /**
+     * Direct memory held by the chunks of this store, including the index and the unused end of the last chunk.
+     */
+    public long sizeInBytes() {
+        return (long) (dataChunkCount + indexChunkCount) * arena.chunkBytes();
+    }
+
+    public Stream<RecordView> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Stream<RecordView> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    public Spliterator<RecordView> spliterator() {
+        arena.checkOpen();
+        return new RecordSpliterator(this, new RecordView(arena), 0, size);
+    }
+
+    // Points view at record index; checks the arena first, as the index itself lives in arena memory
+    void moveTo(RecordView view, long index) {
+        arena.checkOpen();
+        if (isFixedLength()) {
+            final ByteBuffer chunk = dataChunks[(int) (index / recordsPerChunk)];
+            view.set(index, chunk, (int) (index % recordsPerChunk) * recordBytes, recordBytes);
+            return;
+        }
+        final long entry = indexEntry(index);
+        final ByteBuffer chunk = dataChunks[(int) (entry >>> 32)];
+        final int offset = (int) entry;
+        view.set(index, chunk, offset + LENGTH_BYTES, chunk.getInt(offset));
+    }
+
+    // Moves view over records from (inclusive) to end (exclusive) in order, handing each to action
+    void forEach(RecordView view, long from, long end, Consumer<? super RecordView> action) {
+        if (from >= end) {
+            return;
+        }
+        arena.checkOpen();
+        if (isFixedLength()) {
+            for (long index = from; index < end; index++) {
+                moveTo(view, index);
+                action.accept(view);
+            }
+            return;
+        }
+        final long first = indexEntry(from);
+        int chunkIndex = (int) (first >>> 32);
+        int offset = (int) first;
+        ByteBuffer chunk = dataChunks[chunkIndex];
+        final int lastLengthOffset = arena.chunkBytes() - LENGTH_BYTES;
+        for (long index = from; index < end; index++) {
+            arena.checkOpen();
+            int length = offset > lastLengthOffset ? END_OF_CHUNK : chunk.getInt(offset);
+            if (length == END_OF_CHUNK) {
+                chunk = dataChunks[++chunkIndex];
+                offset = 0;
+                length = chunk.getInt(0);
+            }
+            view.set(index, chunk, offset + LENGTH_BYTES, length);
+            action.accept(view);
+            offset += LENGTH_BYTES + length;
+        }
+    }
+
+    private long indexEntry(long index) {
+        final long mask = (1L << indexShift) - 1;
+        return indexChunks[(int) (index >>> indexShift)].getLong((int) (index & mask) * Long.BYTES);
+    }
+
+    // Returns where the record's bytes go in the current chunk, opening a new chunk when they do not fit
+    private int reserve(int length) {
+        arena.checkOpen();
+        if (isFixedLength() && length != recordBytes) {
+            throw new IllegalArgumentException("Record must be " + recordBytes + " bytes but was " + length);
+        }
+        final int needed = isFixedLength() ? length : LENGTH_BYTES + length;
+        if (needed > arena.chunkBytes()) {
+            throw new IllegalArgumentException(
+                    "Record of " + length + " bytes does not fit in a chunk of " + arena.chunkBytes());
+        }
+        if (dataChunkCount == 0 || writeOffset + needed > arena.chunkBytes()) {
+            if (dataChunkCount > 0 && !isFixedLength() && writeOffset + LENGTH_BYTES <= arena.chunkBytes()) {
+                currentChunk().putInt(writeOffset, END_OF_CHUNK);
+            }
+            dataChunks = add(dataChunks, dataChunkCount++, arena.allocateChunk());
+            writeOffset = 0;
+        }
+        if (isFixedLength()) {
+            return writeOffset;
+        }
+        currentChunk().putInt(writeOffset, length);
+        return writeOffset + LENGTH_BYTES;
+    }
+
+    private long commit(int start, int length) {
+        if (!isFixedLength()) {
+            final int slot = (int) (size & ((1L << indexShift) - 1));
+            if (slot == 0) {
+                indexChunks = add(indexChunks, indexChunkCount++, arena.allocateChunk());
+            }
+            final long entry = ((long) (dataChunkCount - 1) << 32) | (start - LENGTH_BYTES);
+            indexChunks[indexChunkCount - 1].putLong(slot * Long.BYTES, entry);
+        }
+        writeOffset = start + length;
+        return size++;
+    }
+
+    private ByteBuffer currentChunk() {
+        return dataChunks[dataChunkCount - 1];
+    }
+
+    private static ByteBuffer[] add(ByteBuffer[] chunks, int count, ByteBuffer chunk) {
+        final ByteBuffer[] grown = count < chunks.length ? chunks : Arrays.copyOf(chunks, Math.max(4, count * 2));
+        grown[count] = chunk;
+        return grown;
+    }
+}
@@ -0,0 +1,200 @@
+package com.gignomai.javachangestutorial.offheap;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Flyweight over one record of a {@link RecordStore}, read in place from direct memory. A stream hands the same view
+ * to every stage for every record, so a view must not be kept once the next record is read: copy what is needed
+ * with {@link #toString()} or {@link #toByteArray()}.
+ * <p>
+ * {@link #getInt(int)} and {@link #getLong(int)} read in {@link ByteBuffer}'s default big-endian order, the order
+ * a heap buffer filled with {@code putInt}/{@code putLong} writes in. Views keep identity {@code equals}, since
+ * their content changes as they move.
+ */
+public final class RecordView {
+
+    private final OffHeapArena arena;
+    private ByteBuffer buffer;
+    private int offset;
+    private int length;
+    private long index;
+
+    RecordView(OffHeapArena arena) {
+        this.arena = arena;
+    }
+
+    /**
+     * Index of the record in its store. Fields keep the index of the record they were split from.
+     */
+    public long index() {
+        return index;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public byte byteAt(int position) {
+        Objects.checkIndex(position, length);
+        arena.checkOpen();
+        return buffer.get(offset + position);
+    }
+
+    public int getInt(int position) {
+        Objects.checkFromIndexSize(position, Integer.BYTES, length);
+        arena.checkOpen();
+        return buffer.getInt(offset + position);
+    }
+
+    public long getLong(int position) {
+        Objects.checkFromIndexSize(position, Long.BYTES, length);
+        arena.checkOpen();
+        return buffer.getLong(offset + position);
+    }
+
+    public boolean startsWith(byte[] prefix) {
+        return prefix.length <= length && regionMatches(0, prefix);
+    }
+
+    public boolean endsWith(byte[] suffix) {
+        return suffix.length <= length && regionMatches(length - suffix.length, suffix);
+    }
+
+    public boolean contentEquals(byte[] bytes) {
+        return bytes.length == length && regionMatches(0, bytes);
+    }
+
+    /**
+     * Splits the record on {@code separator} into views of every field, empty ones included, for use in
+     * {@code flatMap}. The fields share one view of their own, so the record view may move on while they are read.
+     */
+    public Stream<RecordView> fields(byte separator) {
+        arena.checkOpen();
+        return StreamSupport.stream(new FieldSpliterator(this, separator), false);
+    }
+
+    public byte[] toByteArray() {
+        arena.checkOpen();
+        final byte[] copy = new byte[length];
+        buffer.get(offset, copy);
+        return copy;
+    }
+
+    /**
+     * Decodes the record as UTF-8 into a new string.
+     */
+    @Override
+    public String toString() {
+        return new String(toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    void set(long index, ByteBuffer buffer, int offset, int length) {
+        this.index = index;
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    RecordView sibling() {
+        return new RecordView(arena);
+    }
+
+    private boolean regionMatches(int from, byte[] bytes) {
+        arena.checkOpen();
+        final int start = offset + from;
+        for (int i = 0; i < bytes.length; i++) {
+            if (buffer.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Never splits: buffering fields for another thread would copy the same flyweight over and over
+    private static final class FieldSpliterator implements Spliterator<RecordView> {
+        private static final long LOW_BITS = 0x0101010101010101L;
+        private static final long HIGH_BITS = 0x8080808080808080L;
+
+        private final RecordView field;
+        private final ByteBuffer buffer;
+        private final long index;
+        private final int end;
+        private final byte separator;
+        // The separator repeated in every byte of a long
+        private final long separators;
+        // Start of the next field; past end once the last field has been returned
+        private int position;
+
+        private FieldSpliterator(RecordView record, byte separator) {
+            this.field = record.sibling();
+            this.buffer = record.buffer;
+            this.index = record.index;
+            this.end = record.offset + record.length;
+            this.separator = separator;
+            this.separators = (separator & 0xFFL) * LOW_BITS;
+            this.position = record.offset;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super RecordView> action) {
+            if (position > end) {
+                return false;
+            }
+            field.arena.checkOpen();
+            final int stop = indexOfSeparator(position);
+            field.set(index, buffer, position, stop - position);
+            position = stop + 1;
+            action.accept(field);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super RecordView> action) {
+            field.arena.checkOpen();
+            while (position <= end) {
+                final int stop = indexOfSeparator(position);
+                field.set(index, buffer, position, stop - position);
+                position = stop + 1;
+                action.accept(field);
+            }
+        }
+
+        @Override
+        public Spliterator<RecordView> trySplit() {
+            return null;
+        }
+
+        // Tests eight bytes at a time for a zero byte in word ^ separators. Bytes are reversed to little-endian
+        // order, as only the lowest flagged byte of the test is exact: a borrow can flag the bytes above it.
+        private int indexOfSeparator(int from) {
+            int index = from;
+            for (; index + Long.BYTES <= end; index += Long.BYTES) {
+                final long word = Long.reverseBytes(buffer.getLong(index)) ^ separators;
+                final long zeros = (word - LOW_BITS) & ~word & HIGH_BITS;
+                if (zeros != 0) {
+                    return index + Long.numberOfTrailingZeros(zeros) / Byte.SIZE;
+                }
+            }
+            while (index < end && buffer.get(index) != separator) {
+                index++;
+            }
+            return index;
+        }
+
+        @Override
+        public long estimateSize() {
+            return position > end ? 0 : Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+}
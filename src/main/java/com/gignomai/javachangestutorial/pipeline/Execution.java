@@ -0,0 +1,412 @@
+package com.gignomai.javachangestutorial.pipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+
+/**
+ * A {@link Pipeline} plan compiled into a chain of sinks, ready to push the source elements through.
+ */
+final class Execution<T> {
+
+    static final Object NOT_FOUND = new Object();
+    // Marks a filtered-out element inside a fused run of stages
+    private static final Object SKIP = new Object();
+    private static final Object NULL = new Object();
+    // Time one element in 64 in every stage
+    private static final int SAMPLE_MASK = 63;
+    private static final int MIN_LEAF_SIZE = 1024;
+
+    private final List<?> source;
+    private final List<Segment> segments;
+    private final ForkJoinPool pool;
+    private final PipelineStats stats;
+    private final String[] names;
+
+    Execution(List<?> source, List<Pipeline.Stage> stages, ForkJoinPool pool, PipelineStats stats) {
+        this.source = source;
+        this.segments = fuse(stages);
+        this.pool = pool;
+        this.stats = stats;
+        this.names = new String[stages.size() + 1];
+        names[0] = "source";
+        for (int i = 0; i < stages.size(); i++) {
+            names[i + 1] = stages.get(i).name();
+        }
+    }
+
+    String explain() {
+        final StringBuilder plan = new StringBuilder("source(").append(source.size()).append(')');
+        for (Segment segment : segments) {
+            plan.append(" -> ");
+            if (segment.flatMapper != null) {
+                plan.append("flatMap");
+            } else {
+                plan.append('[');
+                for (int i = 0; i < segment.steps.length; i++) {
+                    plan.append(i == 0 ? "" : ", ").append(names[segment.firstStage + i]);
+                }
+                plan.append(']');
+            }
+        }
+        return plan.toString();
+    }
+
+    <R, A> R collect(Collector<? super T, A, R> collector) {
+        @SuppressWarnings("unchecked") final BiConsumer<A, Object> accumulator =
+                (BiConsumer<A, Object>) collector.accumulator();
+        final A container = run(new Terminal<A>() {
+            @Override
+            A newContainer() {
+                return collector.supplier().get();
+            }
+
+            @Override
+            Sink sink(A container) {
+                return new Sink() {
+                    @Override
+                    void accept(Object value) {
+                        accumulator.accept(container, value);
+                    }
+                };
+            }
+
+            @Override
+            A combine(A left, A right) {
+                return collector.combiner().apply(left, right);
+            }
+        });
+        return collector.finisher().apply(container);
+    }
+
+    /**
+     * @return the first matching element found, or {@link #NOT_FOUND}
+     */
+    Object find(Predicate<? super T> predicate) {
+        final AtomicReference<Object> found = new AtomicReference<>();
+        final Sink sink = new Sink() {
+            @Override
+            @SuppressWarnings("unchecked")
+            void accept(Object value) {
+                if (found.get() == null && predicate.test((T) value)) {
+                    found.compareAndSet(null, value == null ? NULL : value);
+                }
+            }
+
+            @Override
+            boolean isDone() {
+                return found.get() != null;
+            }
+        };
+        run(new Terminal<Void>() {
+            @Override
+            Void newContainer() {
+                return null;
+            }
+
+            @Override
+            Sink sink(Void container) {
+                return sink;
+            }
+
+            @Override
+            Void combine(Void left, Void right) {
+                return null;
+            }
+
+            @Override
+            boolean isShortCircuit() {
+                return true;
+            }
+        });
+        final Object result = found.get();
+        return result == null ? NOT_FOUND : result == NULL ? null : result;
+    }
+
+    private <A> A run(Terminal<A> terminal) {
+        if (stats != null) {
+            stats.begin(names);
+        }
+        if (pool == null) {
+            return runLeaf(terminal, 0, source.size());
+        }
+        final int threshold = Math.max(MIN_LEAF_SIZE, source.size() / (pool.getParallelism() * 4));
+        return pool.invoke(new RangeTask<>(terminal, 0, source.size(), threshold));
+    }
+
+    private <A> A runLeaf(Terminal<A> terminal, int from, int to) {
+        final A container = terminal.newContainer();
+        final Sink last = terminal.sink(container);
+        final PipelineStats.Counters counters = stats == null ? null : new PipelineStats.Counters(names.length);
+        Sink head = last;
+        for (int i = segments.size() - 1; i >= 0; i--) {
+            head = segments.get(i).sink(head, last, counters, terminal.isShortCircuit());
+        }
+        // The spliterator of an ArrayList range walks its array directly, which List.get(int) does not
+        final Spliterator<?> range = source.subList(from, to).spliterator();
+        final Sink first = head;
+        long read;
+        if (terminal.isShortCircuit()) {
+            read = 0;
+            while (!last.isDone() && range.tryAdvance(first::accept)) {
+                read++;
+            }
+        } else {
+            range.forEachRemaining(first::accept);
+            read = to - from;
+        }
+        if (counters != null) {
+            counters.input[0] += read;
+            counters.output[0] += read;
+            stats.add(counters);
+        }
+        return container;
+    }
+
+    private static List<Segment> fuse(List<Pipeline.Stage> stages) {
+        final List<Segment> segments = new ArrayList<>();
+        int i = 0;
+        while (i < stages.size()) {
+            final Pipeline.Stage stage = stages.get(i);
+            if (stage.kind == Pipeline.Stage.Kind.FLAT_MAP) {
+                segments.add(Segment.flatMap(i + 1, toFunction(stage.function)));
+                i++;
+                continue;
+            }
+            final List<Step> steps = new ArrayList<>();
+            final int first = i + 1;
+            for (; i < stages.size() && stages.get(i).kind != Pipeline.Stage.Kind.FLAT_MAP; i++) {
+                steps.add(toStep(stages.get(i)));
+            }
+            segments.add(Segment.fused(first, steps.toArray(new Step[0])));
+        }
+        return segments;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Step toStep(Pipeline.Stage stage) {
+        if (stage.kind == Pipeline.Stage.Kind.FILTER) {
+            final Predicate<Object> predicate = (Predicate<Object>) stage.function;
+            return value -> predicate.test(value) ? value : SKIP;
+        }
+        final Function<Object, Object> mapper = toFunction(stage.function);
+        return mapper::apply;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> toFunction(Object function) {
+        return (Function<Object, Object>) function;
+    }
+
+    private interface Step {
+        Object apply(Object value);
+    }
+
+    private abstract static class Sink {
+
+        abstract void accept(Object value);
+
+        boolean isDone() {
+            return false;
+        }
+    }
+
+    private abstract static class Terminal<A> {
+
+        abstract A newContainer();
+
+        abstract Sink sink(A container);
+
+        abstract A combine(A left, A right);
+
+        boolean isShortCircuit() {
+            return false;
+        }
+    }
+
+    /**
+     * Either a fused run of filter and map stages or a single flatMap. Stage numbers count the source as 0.
+     */
+    private static final class Segment {
+
+        final int firstStage;
+        final Step[] steps;
+        final Function<Object, Object> flatMapper;
+
+        private Segment(int firstStage, Step[] steps, Function<Object, Object> flatMapper) {
+            this.firstStage = firstStage;
+            this.steps = steps;
+            this.flatMapper = flatMapper;
+        }
+
+        static Segment fused(int firstStage, Step[] steps) {
+            return new Segment(firstStage, steps, null);
+        }
+
+        static Segment flatMap(int stage, Function<Object, Object> flatMapper) {
+            return new Segment(stage, null, flatMapper);
+        }
+
+        Sink sink(Sink downstream, Sink terminal, PipelineStats.Counters counters, boolean shortCircuit) {
+            if (flatMapper != null) {
+                return new FlatMapSink(firstStage, flatMapper, downstream, terminal, counters, shortCircuit);
+            }
+            return counters == null ? new FusedSink(steps, downstream)
+                    : new CountingFusedSink(firstStage, steps, downstream, counters);
+        }
+    }
+
+    private static final class FusedSink extends Sink {
+
+        private final Step[] steps;
+        private final Sink downstream;
+
+        FusedSink(Step[] steps, Sink downstream) {
+            this.steps = steps;
+            this.downstream = downstream;
+        }
+
+        @Override
+        void accept(Object value) {
+            Object current = value;
+            for (Step step : steps) {
+                current = step.apply(current);
+                if (current == SKIP) {
+                    return;
+                }
+            }
+            downstream.accept(current);
+        }
+    }
+
+    private static final class CountingFusedSink extends Sink {
+
+        private final int firstStage;
+        private final Step[] steps;
+        private final Sink downstream;
+        private final PipelineStats.Counters counters;
+        private int tick;
+
+        CountingFusedSink(int firstStage, Step[] steps, Sink downstream, PipelineStats.Counters counters) {
+            this.firstStage = firstStage;
+            this.steps = steps;
+            this.downstream = downstream;
+            this.counters = counters;
+        }
+
+        @Override
+        void accept(Object value) {
+            final boolean sample = (tick++ & SAMPLE_MASK) == 0;
+            Object current = value;
+            for (int i = 0; i < steps.length; i++) {
+                final int stage = firstStage + i;
+                counters.input[stage]++;
+                if (sample) {
+                    final long start = System.nanoTime();
+                    current = steps[i].apply(current);
+                    counters.sampledNanos[stage] += System.nanoTime() - start;
+                    counters.samples[stage]++;
+                } else {
+                    current = steps[i].apply(current);
+                }
+                if (current == SKIP) {
+                    return;
+                }
+                counters.output[stage]++;
+            }
+            downstream.accept(current);
+        }
+    }
+
+    private static final class FlatMapSink extends Sink {
+
+        private final int stage;
+        private final Function<Object, Object> flatMapper;
+        private final Sink downstream;
+        private final Sink terminal;
+        private final PipelineStats.Counters counters;
+        private final boolean shortCircuit;
+        private int tick;
+
+        FlatMapSink(int stage, Function<Object, Object> flatMapper, Sink downstream, Sink terminal,
+                    PipelineStats.Counters counters, boolean shortCircuit) {
+            this.shortCircuit = shortCircuit;
+            this.stage = stage;
+            this.flatMapper = flatMapper;
+            this.downstream = downstream;
+            this.terminal = terminal;
+            this.counters = counters;
+        }
+
+        @Override
+        void accept(Object value) {
+            final Iterable<?> values;
+            if (counters == null) {
+                values = (Iterable<?>) flatMapper.apply(value);
+            } else {
+                counters.input[stage]++;
+                if ((tick++ & SAMPLE_MASK) == 0) {
+                    final long start = System.nanoTime();
+                    values = (Iterable<?>) flatMapper.apply(value);
+                    counters.sampledNanos[stage] += System.nanoTime() - start;
+                    counters.samples[stage]++;
+                } else {
+                    values = (Iterable<?>) flatMapper.apply(value);
+                }
+            }
+            if (values == null) {
+                return;
+            }
+            if (counters == null && !shortCircuit) {
+                // Lets lists run their own tight loop
+                values.forEach(downstream::accept);
+                return;
+            }
+            for (Object element : values) {
+                if (terminal.isDone()) {
+                    return;
+                }
+                if (counters != null) {
+                    counters.output[stage]++;
+                }
+                downstream.accept(element);
+            }
+        }
+    }
+
+    private final class RangeTask<A> extends RecursiveTask<A> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Terminal<A> terminal;
+        private final int from;
+        private final int to;
+        private final int threshold;
+
+        RangeTask(Terminal<A> terminal, int from, int to, int threshold) {
+            this.terminal = terminal;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected A compute() {
+            if (to - from <= threshold) {
+                return runLeaf(terminal, from, to);
+            }
+            final int middle = (from + to) >>> 1;
+            final RangeTask<A> right = new RangeTask<>(terminal, middle, to, threshold);
+            right.fork();
+            final A left = new RangeTask<>(terminal, from, middle, threshold).compute();
+            return terminal.combine(left, right.join());
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.gignomai.javachangestutorial.pipeline;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * Lazy pipeline over a {@link List}, in the spirit of {@code list.stream().filter(...).map(...).collect(...)},
+ * that shows where the time goes.
+ * <p>
+ * Intermediate operations only add a stage to an immutable plan; nothing runs until a terminal operation. The plan
+ * is then compiled: each run of adjacent {@code filter} and {@code map} stages is fused into a single step that
+ * applies them one after the other to each element, without an intermediate collection or a call between stages.
+ * {@code flatMap} ends a fused run. {@link #explain()} prints the compiled plan.
+ * <p>
+ * {@link #recordStats(PipelineStats)} counts the elements going in and out of every stage and times a sample of
+ * them, without a {@code peek} in the pipeline. {@link #parallel()} splits the source into ranges on a
+ * {@link ForkJoinPool}, sized from the source size and the pool parallelism.
+ */
+public final class Pipeline<T> {
+
+    private final List<?> source;
+    private final List<Stage> stages;
+    private final ForkJoinPool pool;
+    private final PipelineStats stats;
+
+    private Pipeline(List<?> source, List<Stage> stages, ForkJoinPool pool, PipelineStats stats) {
+        this.source = source;
+        this.stages = stages;
+        this.pool = pool;
+        this.stats = stats;
+    }
+
+    public static <T> Pipeline<T> of(List<? extends T> source) {
+        return new Pipeline<>(Objects.requireNonNull(source, "source"), Collections.emptyList(), null, null);
+    }
+
+    // Copied element by element: handing the array on to Arrays.asList would make it escape this method
+    @SafeVarargs
+    public static <T> Pipeline<T> of(T... values) {
+        final List<T> list = new ArrayList<>(values.length);
+        for (T value : values) {
+            list.add(value);
+        }
+        return of(list);
+    }
+
+    public Pipeline<T> filter(Predicate<? super T> predicate) {
+        return with(new Stage(Stage.Kind.FILTER, Objects.requireNonNull(predicate, "predicate")));
+    }
+
+    public <R> Pipeline<R> map(Function<? super T, ? extends R> mapper) {
+        return with(new Stage(Stage.Kind.MAP, Objects.requireNonNull(mapper, "mapper")));
+    }
+
+    public <R> Pipeline<R> flatMap(Function<? super T, ? extends Iterable<? extends R>> mapper) {
+        return with(new Stage(Stage.Kind.FLAT_MAP, Objects.requireNonNull(mapper, "mapper")));
+    }
+
+    public Pipeline<T> parallel() {
+        return parallel(ForkJoinPool.commonPool());
+    }
+
+    public Pipeline<T> parallel(ForkJoinPool pool) {
+        return new Pipeline<>(source, stages, Objects.requireNonNull(pool, "pool"), stats);
+    }
+
+    public Pipeline<T> sequential() {
+        return new Pipeline<>(source, stages, null, stats);
+    }
+
+    public Pipeline<T> recordStats(PipelineStats stats) {
+        return new Pipeline<>(source, stages, pool, Objects.requireNonNull(stats, "stats"));
+    }
+
+    /**
+     * The compiled plan, with fused stages in brackets, for instance
+     * {@code source(4) -> [filter, map] -> flatMap -> [map]}.
+     */
+    public String explain() {
+        return compile().explain() + (pool == null ? "" : " (parallel)");
+    }
+
+    public <R, A> R collect(Collector<? super T, A, R> collector) {
+        return compile().collect(collector);
+    }
+
+    public List<T> toList() {
+        return collect(Collectors.toList());
+    }
+
+    public T reduce(T identity, BinaryOperator<T> accumulator) {
+        return collect(Collector.of(() -> box(identity), (box, value) -> box[0] = accumulator.apply(box[0], value),
+                (left, right) -> box(accumulator.apply(left[0], right[0])), box -> box[0]));
+    }
+
+    public Optional<T> reduce(BinaryOperator<T> accumulator) {
+        return collect(Collectors.reducing(accumulator));
+    }
+
+    public long count() {
+        return collect(Collector.of(() -> new long[1], (count, value) -> count[0]++,
+                (left, right) -> new long[]{left[0] + right[0]}, count -> count[0]));
+    }
+
+    /**
+     * Stops reading the source as soon as an element matches.
+     */
+    public boolean anyMatch(Predicate<? super T> predicate) {
+        return compile().find(predicate) != Execution.NOT_FOUND;
+    }
+
+    /**
+     * Any element, not necessarily the first one when parallel; stops reading the source once one is found.
+     *
+     * @throws NullPointerException if the element found is null, like {@link java.util.stream.Stream#findAny()}
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<T> findAny() {
+        final Object found = compile().find(value -> true);
+        return found == Execution.NOT_FOUND ? Optional.empty() : Optional.of((T) found);
+    }
+
+    private <R> Pipeline<R> with(Stage stage) {
+        final List<Stage> next = new ArrayList<>(stages.size() + 1);
+        next.addAll(stages);
+        next.add(stage);
+        return new Pipeline<>(source, Collections.unmodifiableList(next), pool, stats);
+    }
+
+    private Execution<T> compile() {
+        return new Execution<>(source, stages, pool, stats);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T[] box(T value) {
+        final Object[] box = {value};
+        return (T[]) box;
+    }
+
+    static final class Stage {
+
+        enum Kind {
+            FILTER, MAP, FLAT_MAP
+        }
+
+        final Kind kind;
+        final Object function;
+
+        Stage(Kind kind, Object function) {
+            this.kind = kind;
+            this.function = function;
+        }
+
+        String name() {
+            switch (kind) {
+                case FILTER:
+                    return "filter";
+                case MAP:
+                    return "map";
+                default:
+                    return "flatMap";
+            }
+        }
+    }
+}
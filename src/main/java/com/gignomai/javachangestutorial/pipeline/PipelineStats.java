@@ -0,0 +1,80 @@
+package com.gignomai.javachangestutorial.pipeline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Per-stage counters filled in by the runs of a {@link Pipeline} given to {@link Pipeline#recordStats}.
+ * <p>
+ * The first entry is the source: its output is the number of elements read, which is less than the source size
+ * when a short-circuiting operation such as {@link Pipeline#anyMatch} stopped early. Counters add up over runs;
+ * use a new instance to look at a single run. Parallel runs merge the counters of every task at the end.
+ */
+public final class PipelineStats {
+
+    private String[] names = new String[0];
+    private long[] input = new long[0];
+    private long[] output = new long[0];
+    private long[] sampledNanos = new long[0];
+    private long[] samples = new long[0];
+
+    public synchronized List<StageStats> stages() {
+        final List<StageStats> stages = new ArrayList<>(names.length);
+        for (int i = 0; i < names.length; i++) {
+            final long estimatedNanos = samples[i] == 0 ? 0 : sampledNanos[i] * input[i] / samples[i];
+            stages.add(new StageStats(names[i], input[i], output[i], estimatedNanos));
+        }
+        return stages;
+    }
+
+    public StageStats stage(int index) {
+        return stages().get(index);
+    }
+
+    synchronized void begin(String[] stageNames) {
+        if (!Arrays.equals(names, stageNames)) {
+            names = stageNames.clone();
+            input = new long[names.length];
+            output = new long[names.length];
+            sampledNanos = new long[names.length];
+            samples = new long[names.length];
+        }
+    }
+
+    synchronized void add(Counters counters) {
+        for (int i = 0; i < names.length; i++) {
+            input[i] += counters.input[i];
+            output[i] += counters.output[i];
+            sampledNanos[i] += counters.sampledNanos[i];
+            samples[i] += counters.samples[i];
+        }
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (StageStats stage : stages()) {
+            builder.append(String.format("%-12s in=%-10d out=%-10d ~%d us%n", stage.getName(), stage.getInput(),
+                    stage.getOutput(), stage.getEstimatedNanos() / 1000));
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Unsynchronized counters owned by one task while it runs.
+     */
+    static final class Counters {
+        final long[] input;
+        final long[] output;
+        final long[] sampledNanos;
+        final long[] samples;
+
+        Counters(int stages) {
+            input = new long[stages];
+            output = new long[stages];
+            sampledNanos = new long[stages];
+            samples = new long[stages];
+        }
+    }
+}
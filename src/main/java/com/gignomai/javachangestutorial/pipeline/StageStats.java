@@ -0,0 +1,16 @@
+package com.gignomai.javachangestutorial.pipeline;
+
+import lombok.Value;
+
+/**
+ * What one stage of a {@link Pipeline} did: how many elements it received and passed on, and an estimate of the
+ * time spent in its function. The time is extrapolated from timing a sample of the elements, so it leaves out the
+ * cost of the loop itself.
+ */
+@Value
+public class StageStats {
+    String name;
+    long input;
+    long output;
+    long estimatedNanos;
+}
@@ -0,0 +1,117 @@
+package com.gignomai.javachangestutorial.primitive;
+
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Count, sum, min, max and, optionally, percentiles of {@code int} values gathered in a single pass without boxing.
+ * <p>
+ * It has the same shape as {@link java.util.IntSummaryStatistics} and works the same way with
+ * {@code IntStream.collect(IntStatistics::withPercentiles, IntStatistics::accept, IntStatistics::combine)}.
+ * Percentiles need the values themselves, so only {@link #withPercentiles()} keeps them, in an {@link IntArrayList}.
+ */
+public class IntStatistics implements IntConsumer {
+
+    private long count;
+    private long sum;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+    private final IntArrayList values;
+    private boolean sorted;
+
+    private IntStatistics(IntArrayList values) {
+        this.values = values;
+    }
+
+    public static IntStatistics withoutPercentiles() {
+        return new IntStatistics(null);
+    }
+
+    public static IntStatistics withPercentiles() {
+        return new IntStatistics(new IntArrayList());
+    }
+
+    public static IntStatistics of(IntStream stream) {
+        return stream.collect(IntStatistics::withPercentiles, IntStatistics::accept, IntStatistics::combine);
+    }
+
+    @Override
+    public void accept(int value) {
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (values != null) {
+            values.add(value);
+            sorted = false;
+        }
+    }
+
+    public void combine(IntStatistics other) {
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        if (values != null) {
+            if (other.values == null) {
+                throw new IllegalArgumentException("Cannot combine with statistics that do not keep percentiles");
+            }
+            values.addAll(other.values);
+            sorted = false;
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the minimum value, or {@code Integer.MAX_VALUE} if no values have been recorded.
+     */
+    public int getMin() {
+        return min;
+    }
+
+    /**
+     * Returns the maximum value, or {@code Integer.MIN_VALUE} if no values have been recorded.
+     */
+    public int getMax() {
+        return max;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the nearest-rank percentile, with {@code percentile} between 0 and 1. Sorts the recorded values the
+     * first time it is called after new values were added.
+     */
+    public int getPercentile(double percentile) {
+        if (values == null) {
+            throw new IllegalStateException("Percentiles are only kept by IntStatistics.withPercentiles()");
+        }
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1: " + percentile);
+        }
+        if (values.isEmpty()) {
+            throw new IllegalStateException("No values recorded");
+        }
+        if (!sorted) {
+            values.sort();
+            sorted = true;
+        }
+        final int rank = (int) Math.ceil(percentile * values.size());
+        return values.get(Math.max(0, rank - 1));
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{count=" + count + ", sum=" + sum + ", min=" + min
+                + ", average=" + getAverage() + ", max=" + max + "}";
+    }
+}
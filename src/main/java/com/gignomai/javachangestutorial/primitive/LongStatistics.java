@@ -0,0 +1,117 @@
+package com.gignomai.javachangestutorial.primitive;
+
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+
+/**
+ * Count, sum, min, max and, optionally, percentiles of {@code long} values gathered in a single pass without boxing.
+ * <p>
+ * It has the same shape as {@link java.util.LongSummaryStatistics} and works the same way with
+ * {@code LongStream.collect(LongStatistics::withPercentiles, LongStatistics::accept, LongStatistics::combine)}.
+ * Percentiles need the values themselves, so only {@link #withPercentiles()} keeps them, in an {@link LongArrayList}.
+ */
+public class LongStatistics implements LongConsumer {
+
+    private long count;
+    private long sum;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+    private final LongArrayList values;
+    private boolean sorted;
+
+    private LongStatistics(LongArrayList values) {
+        this.values = values;
+    }
+
+    public static LongStatistics withoutPercentiles() {
+        return new LongStatistics(null);
+    }
+
+    public static LongStatistics withPercentiles() {
+        return new LongStatistics(new LongArrayList());
+    }
+
+    public static LongStatistics of(LongStream stream) {
+        return stream.collect(LongStatistics::withPercentiles, LongStatistics::accept, LongStatistics::combine);
+    }
+
+    @Override
+    public void accept(long value) {
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (values != null) {
+            values.add(value);
+            sorted = false;
+        }
+    }
+
+    public void combine(LongStatistics other) {
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        if (values != null) {
+            if (other.values == null) {
+                throw new IllegalArgumentException("Cannot combine with statistics that do not keep percentiles");
+            }
+            values.addAll(other.values);
+            sorted = false;
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the minimum value, or {@code Long.MAX_VALUE} if no values have been recorded.
+     */
+    public long getMin() {
+        return min;
+    }
+
+    /**
+     * Returns the maximum value, or {@code Long.MIN_VALUE} if no values have been recorded.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0.0 : (double) sum / count;
+    }
+
+    /**
+     * Returns the nearest-rank percentile, with {@code percentile} between 0 and 1. Sorts the recorded values the
+     * first time it is called after new values were added.
+     */
+    public long getPercentile(double percentile) {
+        if (values == null) {
+            throw new IllegalStateException("Percentiles are only kept by LongStatistics.withPercentiles()");
+        }
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("Percentile must be between 0 and 1: " + percentile);
+        }
+        if (values.isEmpty()) {
+            throw new IllegalStateException("No values recorded");
+        }
+        if (!sorted) {
+            values.sort();
+            sorted = true;
+        }
+        final int rank = (int) Math.ceil(percentile * values.size());
+        return values.get(Math.max(0, rank - 1));
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{count=" + count + ", sum=" + sum + ", min=" + min
+                + ", average=" + getAverage() + ", max=" + max + "}";
+    }
+}
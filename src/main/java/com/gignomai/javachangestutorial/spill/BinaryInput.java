@@ -0,0 +1,91 @@
+package com.gignomai.javachangestutorial.spill;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered reader of what {@link BinaryOutput} writes, on top of a {@link FileChannel}. Reading past the end of the
+ * file throws an {@link UncheckedIOException} wrapping an {@link EOFException}.
+ */
+public final class BinaryInput implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    BinaryInput(FileChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize).limit(0);
+    }
+
+    public byte readByte() {
+        if (!buffer.hasRemaining()) {
+            fill();
+        }
+        return buffer.get();
+    }
+
+    public void readBytes(byte[] bytes) {
+        int offset = 0;
+        while (offset < bytes.length) {
+            if (!buffer.hasRemaining()) {
+                fill();
+            }
+            final int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.get(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    public long readVarLong() {
+        long bits = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final byte next = readByte();
+            bits |= (long) (next & 0x7F) << shift;
+            if (next >= 0) {
+                return (bits >>> 1) ^ -(bits & 1);
+            }
+        }
+        throw new UncheckedIOException(new IOException("Malformed varint"));
+    }
+
+    public int readVarInt() {
+        return (int) readVarLong();
+    }
+
+    public String readString() {
+        final byte[] bytes = new byte[readVarInt()];
+        readBytes(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void fill() {
+        buffer.clear();
+        try {
+            int read = 0;
+            while (read == 0) {
+                read = channel.read(buffer);
+            }
+            if (read < 0) {
+                throw new EOFException("Unexpected end of spill file");
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            buffer.flip();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.gignomai.javachangestutorial.spill;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered writer of the compact encoding used by spill files, on top of a {@link FileChannel}. Numbers are written
+ * as zig-zag varints, so small values of either sign take one byte; strings as a varint length and UTF-8 bytes.
+ * I/O errors are thrown as {@link UncheckedIOException}, since they surface inside collectors.
+ */
+public final class BinaryOutput implements Closeable {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    BinaryOutput(FileChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    public void writeByte(int value) {
+        ensureRemaining(1);
+        buffer.put((byte) value);
+    }
+
+    public void writeBytes(byte[] bytes) {
+        int offset = 0;
+        while (offset < bytes.length) {
+            ensureRemaining(1);
+            final int length = Math.min(buffer.remaining(), bytes.length - offset);
+            buffer.put(bytes, offset, length);
+            offset += length;
+        }
+    }
+
+    public void writeVarLong(long value) {
+        ensureRemaining(10);
+        long bits = (value << 1) ^ (value >> 63);
+        while ((bits & ~0x7FL) != 0) {
+            buffer.put((byte) ((bits & 0x7F) | 0x80));
+            bits >>>= 7;
+        }
+        buffer.put((byte) bits);
+    }
+
+    public void writeVarInt(int value) {
+        writeVarLong(value);
+    }
+
+    public void writeString(String value) {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        writeBytes(bytes);
+    }
+
+    /**
+     * Writes out the buffer and closes the channel.
+     */
+    @Override
+    public void close() {
+        try (channel) {
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void ensureRemaining(int bytes) {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+}
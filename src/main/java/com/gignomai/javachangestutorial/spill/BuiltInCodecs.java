@@ -0,0 +1,65 @@
+package com.gignomai.javachangestutorial.spill;
+
+/**
+ * Codecs returned by the static methods of {@link Codec}.
+ */
+final class BuiltInCodecs {
+
+    // Object header and fields of a String plus the header of its byte[]
+    private static final long STRING_OVERHEAD = 40;
+    private static final long BOXED_BYTES = 16;
+
+    static final Codec<String> STRINGS = new Codec<>() {
+        @Override
+        public void write(String value, BinaryOutput out) {
+            out.writeString(value);
+        }
+
+        @Override
+        public String read(BinaryInput in) {
+            return in.readString();
+        }
+
+        @Override
+        public long heapBytes(String value) {
+            return STRING_OVERHEAD + value.length();
+        }
+    };
+
+    static final Codec<Long> LONGS = new Codec<>() {
+        @Override
+        public void write(Long value, BinaryOutput out) {
+            out.writeVarLong(value);
+        }
+
+        @Override
+        public Long read(BinaryInput in) {
+            return in.readVarLong();
+        }
+
+        @Override
+        public long heapBytes(Long value) {
+            return BOXED_BYTES;
+        }
+    };
+
+    static final Codec<Integer> INTEGERS = new Codec<>() {
+        @Override
+        public void write(Integer value, BinaryOutput out) {
+            out.writeVarInt(value);
+        }
+
+        @Override
+        public Integer read(BinaryInput in) {
+            return in.readVarInt();
+        }
+
+        @Override
+        public long heapBytes(Integer value) {
+            return BOXED_BYTES;
+        }
+    };
+
+    private BuiltInCodecs() {
+    }
+}
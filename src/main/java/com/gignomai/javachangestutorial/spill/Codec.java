@@ -0,0 +1,34 @@
+package com.gignomai.javachangestutorial.spill;
+
+/**
+ * Binary encoding of the elements that {@link ExternalCollectors} spill to disk.
+ * <p>
+ * {@link #heapBytes(Object)} is what a buffered element is charged against the memory budget. It is an estimate of
+ * the element's size on the heap, not of its encoding: override it when elements are much larger or smaller than
+ * the default of 64 bytes.
+ */
+public interface Codec<T> {
+
+    void write(T value, BinaryOutput out);
+
+    T read(BinaryInput in);
+
+    default long heapBytes(T value) {
+        return 64;
+    }
+
+    /**
+     * UTF-8 with a varint length, charged as a Latin-1 {@code String} of the same length.
+     */
+    static Codec<String> strings() {
+        return BuiltInCodecs.STRINGS;
+    }
+
+    static Codec<Long> longs() {
+        return BuiltInCodecs.LONGS;
+    }
+
+    static Codec<Integer> integers() {
+        return BuiltInCodecs.INTEGERS;
+    }
+}
@@ -0,0 +1,180 @@
+package com.gignomai.javachangestutorial.spill;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sorting and grouping collectors for streams that do not fit in memory.
+ * <p>
+ * Elements are buffered until their estimated size, as given by {@link Codec#heapBytes(Object)}, passes the memory
+ * budget. The buffer is then sorted and written to a temporary file through a {@link java.nio.channels.FileChannel}
+ * with the codec's encoding. The collected stream merges those runs and the last buffer lazily, so only one element
+ * per run is decoded at a time. More than 64 runs are first merged into bigger ones to bound the open files.
+ * <p>
+ * When nothing was spilled the result is the sorted buffer, like {@code sorted()}. Otherwise the stream holds open
+ * files: close it, with try-with-resources, to delete the runs it has not finished reading. Both collectors are
+ * stable, on parallel streams too.
+ * <pre>{@code
+ * try (Stream<String> sorted = names.collect(ExternalCollectors.withMemoryBudget(64 << 20)
+ *         .sorted(Comparator.naturalOrder(), Codec.strings()))) {
+ *     sorted.forEach(writer::println);
+ * }
+ * }</pre>
+ */
+public final class ExternalCollectors {
+
+    private final long memoryBudget;
+    private final Path directory;
+
+    private ExternalCollectors(long memoryBudget, Path directory) {
+        this.memoryBudget = memoryBudget;
+        this.directory = directory;
+    }
+
+    /**
+     * Collectors that buffer up to {@code bytes} of elements per accumulation container, so up to one budget per
+     * worker thread on parallel streams. Runs go to {@code java.io.tmpdir} unless {@link #inDirectory(Path)} says
+     * otherwise.
+     */
+    public static ExternalCollectors withMemoryBudget(long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("Memory budget must be positive but was " + bytes);
+        }
+        return new ExternalCollectors(bytes, Path.of(System.getProperty("java.io.tmpdir")));
+    }
+
+    public ExternalCollectors inDirectory(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            throw new IllegalArgumentException("Not a directory: " + directory);
+        }
+        return new ExternalCollectors(memoryBudget, directory);
+    }
+
+    public <T> Collector<T, ?, Stream<T>> sorted(Comparator<? super T> comparator, Codec<T> codec) {
+        Objects.requireNonNull(comparator, "comparator");
+        Objects.requireNonNull(codec, "codec");
+        return Collector.of(() -> new SpillBuffer<>(comparator, codec, memoryBudget, directory), SpillBuffer::add,
+                SpillBuffer::combine, SpillBuffer::toStream);
+    }
+
+    /**
+     * Groups elements by key in {@code keyOrder}, keys comparing equal being one group, and reduces every group with
+     * {@code downstream}. Elements are sorted by key on disk, so only the group being reduced is held in memory,
+     * and the entries come out in key order. Each group sees its elements in encounter order.
+     */
+    public <T, K, A, D> Collector<T, ?, Stream<Map.Entry<K, D>>> groupingBy(
+            Function<? super T, ? extends K> classifier, Comparator<? super K> keyOrder, Codec<K> keyCodec,
+            Codec<T> valueCodec, Collector<? super T, A, D> downstream) {
+        Objects.requireNonNull(classifier, "classifier");
+        final Comparator<Keyed<K, T>> byKey = Comparator.comparing(keyed -> keyed.key, keyOrder);
+        final Codec<Keyed<K, T>> codec = new KeyedCodec<>(keyCodec, valueCodec);
+        return Collector.of(() -> new SpillBuffer<>(byKey, codec, memoryBudget, directory),
+                (SpillBuffer<Keyed<K, T>> buffer, T value) -> buffer.add(new Keyed<>(classifier.apply(value), value)),
+                SpillBuffer::combine, buffer -> group(buffer.toStream(), keyOrder, downstream));
+    }
+
+    private static <T, K, A, D> Stream<Map.Entry<K, D>> group(Stream<Keyed<K, T>> sorted,
+            Comparator<? super K> keyOrder, Collector<? super T, A, D> downstream) {
+        final Iterator<Map.Entry<K, D>> groups = new GroupIterator<>(sorted.iterator(), keyOrder, downstream);
+        final Spliterator<Map.Entry<K, D>> spliterator = Spliterators.spliteratorUnknownSize(groups,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(sorted::close);
+    }
+
+    private static final class Keyed<K, T> {
+        private final K key;
+        private final T value;
+
+        private Keyed(K key, T value) {
+            this.key = Objects.requireNonNull(key, "key");
+            this.value = value;
+        }
+    }
+
+    private static final class KeyedCodec<K, T> implements Codec<Keyed<K, T>> {
+        // The Keyed object itself
+        private static final long KEYED_BYTES = 24;
+
+        private final Codec<K> keyCodec;
+        private final Codec<T> valueCodec;
+
+        private KeyedCodec(Codec<K> keyCodec, Codec<T> valueCodec) {
+            this.keyCodec = Objects.requireNonNull(keyCodec, "keyCodec");
+            this.valueCodec = Objects.requireNonNull(valueCodec, "valueCodec");
+        }
+
+        @Override
+        public void write(Keyed<K, T> keyed, BinaryOutput out) {
+            keyCodec.write(keyed.key, out);
+            valueCodec.write(keyed.value, out);
+        }
+
+        @Override
+        public Keyed<K, T> read(BinaryInput in) {
+            final K key = keyCodec.read(in);
+            return new Keyed<>(key, valueCodec.read(in));
+        }
+
+        @Override
+        public long heapBytes(Keyed<K, T> keyed) {
+            return KEYED_BYTES + keyCodec.heapBytes(keyed.key) + valueCodec.heapBytes(keyed.value);
+        }
+    }
+
+    // Reduces each run of equal keys of a key-sorted iterator into one entry
+    private static final class GroupIterator<K, T, A, D> implements Iterator<Map.Entry<K, D>> {
+        private final Iterator<Keyed<K, T>> sorted;
+        private final Comparator<? super K> keyOrder;
+        private final Collector<? super T, A, D> downstream;
+        private final BiConsumer<A, ? super T> accumulator;
+        // First element of the next group, already read from sorted
+        private Keyed<K, T> next;
+
+        private GroupIterator(Iterator<Keyed<K, T>> sorted, Comparator<? super K> keyOrder,
+                Collector<? super T, A, D> downstream) {
+            this.sorted = sorted;
+            this.keyOrder = keyOrder;
+            this.downstream = downstream;
+            this.accumulator = downstream.accumulator();
+            this.next = sorted.hasNext() ? sorted.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<K, D> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            final K key = next.key;
+            final A container = downstream.supplier().get();
+            accumulator.accept(container, next.value);
+            next = null;
+            while (sorted.hasNext()) {
+                final Keyed<K, T> candidate = sorted.next();
+                if (keyOrder.compare(key, candidate.key) != 0) {
+                    next = candidate;
+                    break;
+                }
+                accumulator.accept(container, candidate.value);
+            }
+            return new AbstractMap.SimpleImmutableEntry<>(key, downstream.finisher().apply(container));
+        }
+    }
+}
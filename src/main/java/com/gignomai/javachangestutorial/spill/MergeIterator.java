@@ -0,0 +1,88 @@
+package com.gignomai.javachangestutorial.spill;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Lazy k-way merge of sorted iterators. Ties go to the source that comes first in the list, so merging runs in
+ * encounter order keeps the sort stable. Sources that are {@link AutoCloseable} are closed by {@link #close()}.
+ */
+final class MergeIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final List<? extends Iterator<T>> sources;
+    private final PriorityQueue<Head<T>> heads;
+
+    MergeIterator(List<? extends Iterator<T>> sources, Comparator<? super T> comparator) {
+        this.sources = sources;
+        this.heads = new PriorityQueue<>(Math.max(1, sources.size()), (left, right) -> {
+            final int compared = comparator.compare(left.value, right.value);
+            return compared != 0 ? compared : Integer.compare(left.source, right.source);
+        });
+        for (int i = 0; i < sources.size(); i++) {
+            advance(i);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    // The polled head is reused for the next value of its source, so merging allocates nothing per element
+    @Override
+    public T next() {
+        final Head<T> head = heads.poll();
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        final T value = head.value;
+        final Iterator<T> source = sources.get(head.source);
+        if (source.hasNext()) {
+            head.value = source.next();
+            heads.add(head);
+        }
+        return value;
+    }
+
+    @Override
+    public void close() {
+        heads.clear();
+        IllegalStateException failure = null;
+        for (Iterator<T> source : sources) {
+            if (source instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) source).close();
+                } catch (Exception e) {
+                    if (failure == null) {
+                        failure = new IllegalStateException("Could not close merge source", e);
+                    } else {
+                        failure.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void advance(int source) {
+        final Iterator<T> iterator = sources.get(source);
+        if (iterator.hasNext()) {
+            heads.add(new Head<>(iterator.next(), source));
+        }
+    }
+
+    private static final class Head<T> {
+        private final int source;
+        private T value;
+
+        private Head(T value, int source) {
+            this.value = value;
+            this.source = source;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.gignomai.javachangestutorial.spill;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Sorted run of elements written to a temporary file. The file holds the encoded elements back to back; the count
+ * is kept here, so no framing is needed.
+ */
+final class Run {
+
+    private final Path file;
+    private final long count;
+
+    private Run(Path file, long count) {
+        this.file = file;
+        this.count = count;
+    }
+
+    static <T> Run write(Path directory, Codec<T> codec, Iterator<? extends T> values, int bufferSize) {
+        final Path file;
+        try {
+            file = Files.createTempFile(directory, "spill-", ".run");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long count = 0;
+        try (BinaryOutput out = new BinaryOutput(FileChannel.open(file, StandardOpenOption.WRITE), bufferSize)) {
+            while (values.hasNext()) {
+                codec.write(values.next(), out);
+                count++;
+            }
+        } catch (IOException e) {
+            deleteQuietly(file);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            deleteQuietly(file);
+            throw e;
+        }
+        return new Run(file, count);
+    }
+
+    long count() {
+        return count;
+    }
+
+    /**
+     * Opens the run for reading. The file is deleted once the reader has returned every element or is closed.
+     */
+    <T> Reader<T> open(Codec<T> codec, int bufferSize) {
+        try {
+            return new Reader<>(new BinaryInput(FileChannel.open(file, StandardOpenOption.READ), bufferSize), codec);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    void delete() {
+        deleteQuietly(file);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // Left behind in the temporary directory
+        }
+    }
+
+    final class Reader<T> implements Iterator<T>, AutoCloseable {
+        private final BinaryInput in;
+        private final Codec<T> codec;
+        private long remaining = count;
+        private boolean closed;
+
+        private Reader(BinaryInput in, Codec<T> codec) {
+            this.in = in;
+            this.codec = codec;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public T next() {
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            final T value = codec.read(in);
+            if (--remaining == 0) {
+                close();
+            }
+            return value;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            remaining = 0;
+            try {
+                in.close();
+            } finally {
+                delete();
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.gignomai.javachangestutorial.spill;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Accumulation container of an external sort: elements are buffered until their estimated size passes the budget,
+ * then sorted and written out as a {@link Run}. Runs are kept in encounter order, including across
+ * {@link #combine(SpillBuffer)}, so the final merge is stable.
+ */
+final class SpillBuffer<T> {
+
+    // Reference from the buffer's backing array, on top of what the codec charges for the element itself
+    private static final long REFERENCE_BYTES = 8;
+    // Runs merged at once; more are first merged into bigger runs so the open files stay bounded
+    private static final int MAX_FAN_IN = 64;
+    private static final int MIN_IO_BUFFER_SIZE = 4 * 1024;
+    private static final int MAX_IO_BUFFER_SIZE = 64 * 1024;
+
+    private final Comparator<? super T> comparator;
+    private final Codec<T> codec;
+    private final long memoryBudget;
+    private final Path directory;
+    // Sized so that the buffers of a full merge take at most half the budget
+    private final int ioBufferSize;
+    private final List<T> buffer = new ArrayList<>();
+    private final List<Run> runs = new ArrayList<>();
+    private long bufferedBytes;
+
+    SpillBuffer(Comparator<? super T> comparator, Codec<T> codec, long memoryBudget, Path directory) {
+        this.comparator = comparator;
+        this.codec = codec;
+        this.memoryBudget = memoryBudget;
+        this.directory = directory;
+        this.ioBufferSize = (int) Math.max(MIN_IO_BUFFER_SIZE,
+                Math.min(MAX_IO_BUFFER_SIZE, memoryBudget / (2 * (MAX_FAN_IN + 1))));
+    }
+
+    void add(T value) {
+        Objects.requireNonNull(value, "value");
+        buffer.add(value);
+        bufferedBytes += codec.heapBytes(value) + REFERENCE_BYTES;
+        if (bufferedBytes > memoryBudget) {
+            spill();
+        }
+    }
+
+    // Everything in this buffer comes before the other one's first run, so it is spilled before adding those runs
+    SpillBuffer<T> combine(SpillBuffer<T> other) {
+        if (!other.runs.isEmpty()) {
+            spill();
+            runs.addAll(other.runs);
+        }
+        other.buffer.forEach(this::add);
+        return this;
+    }
+
+    /**
+     * Sorted stream of every element added. Without runs it is the sorted buffer; otherwise it merges the runs and
+     * the buffer lazily, and closing it deletes whatever run files are left.
+     */
+    Stream<T> toStream() {
+        buffer.sort(comparator);
+        if (runs.isEmpty()) {
+            return buffer.stream();
+        }
+        while (runs.size() + 1 > MAX_FAN_IN) {
+            final List<Run> merged = runs.subList(0, MAX_FAN_IN);
+            try (MergeIterator<T> iterator = merge(merged, List.of())) {
+                final Run run = Run.write(directory, codec, iterator, ioBufferSize);
+                merged.clear();
+                runs.add(0, run);
+            }
+        }
+        final long size = runs.stream().mapToLong(Run::count).sum() + buffer.size();
+        final MergeIterator<T> iterator = merge(runs, buffer);
+        final Spliterator<T> spliterator = Spliterators.spliterator(iterator, size,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+    }
+
+    private MergeIterator<T> merge(List<Run> sortedRuns, List<T> sortedBuffer) {
+        final List<Run.Reader<T>> readers = new ArrayList<>(sortedRuns.size());
+        try {
+            for (Run run : sortedRuns) {
+                readers.add(run.open(codec, ioBufferSize));
+            }
+        } catch (RuntimeException e) {
+            readers.forEach(Run.Reader::close);
+            throw e;
+        }
+        final List<Iterator<T>> sources = new ArrayList<>(readers);
+        sources.add(sortedBuffer.iterator());
+        return new MergeIterator<>(sources, comparator);
+    }
+
+    private void spill() {
+        if (buffer.isEmpty()) {
+            return;
+        }
+        buffer.sort(comparator);
+        runs.add(Run.write(directory, codec, buffer.iterator(), ioBufferSize));
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+}
@@ -0,0 +1,82 @@
+package com.gignomai.javachangestutorial.stream;
+
+/**
+ * Fixed-size set membership test that may answer "maybe" for elements it has never seen, but never "no" for one it
+ * has.
+ * <p>
+ * The filter is sized for {@code expectedInsertions} and a false positive probability {@code fpp}: it takes
+ * {@code -n ln(fpp) / ln(2)^2} bits, about 1.2 bytes per element at 1%, and uses {@code ln(2) * bits / n} hash
+ * functions derived from one 64-bit hash. Past the expected insertions the false positive rate climbs quickly.
+ * Not thread-safe.
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    public BloomFilter(long expectedInsertions, double fpp) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive but was " + expectedInsertions);
+        }
+        if (fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("False positive probability must be in (0, 1) but was " + fpp);
+        }
+        final long requestedBits = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bits = new long[Math.toIntExact(Math.max(1, (requestedBits + 63) / 64))];
+        this.bitCount = (long) bits.length * 64;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+    }
+
+    /**
+     * @return {@code true} if the element was definitely not in the filter before
+     */
+    public boolean put(Object value) {
+        return putHash(Hashing.hash(value));
+    }
+
+    public boolean putHash(long hash) {
+        boolean changed = false;
+        // Kirsch-Mitzenmacher: the i-th index is h1 + i * h2
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            final long bit = indexOf(h1 + i * h2);
+            final long mask = 1L << bit;
+            final int word = (int) (bit >>> 6);
+            if ((bits[word] & mask) == 0) {
+                bits[word] |= mask;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    public boolean mightContain(Object value) {
+        return mightContainHash(Hashing.hash(value));
+    }
+
+    public boolean mightContainHash(long hash) {
+        final int h1 = (int) hash;
+        final int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashFunctions; i++) {
+            final long bit = indexOf(h1 + i * h2);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long bitSize() {
+        return bitCount;
+    }
+
+    public int hashFunctions() {
+        return hashFunctions;
+    }
+
+    private long indexOf(int combinedHash) {
+        return (combinedHash & 0xffffffffL) % bitCount;
+    }
+}
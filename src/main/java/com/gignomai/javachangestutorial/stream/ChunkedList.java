@@ -0,0 +1,138 @@
+package com.gignomai.javachangestutorial.stream;
+
+import com.gignomai.javachangestutorial.primitive.IntArrayList;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Immutable list made of the chunks filled by each thread of a parallel collect. Merging two partial results only
+ * links their chunks, so no element is copied, unlike {@code Collectors.toList()} whose combiner calls
+ * {@code addAll}. Build it with {@link ConcurrentSinks#toChunkedList()}.
+ */
+public final class ChunkedList<T> extends AbstractList<T> implements RandomAccess {
+
+    private final Object[][] chunks;
+    // Exclusive end index of every chunk, used to find the chunk of an index with a binary search
+    private final int[] ends;
+
+    private ChunkedList(Object[][] chunks, int[] ends) {
+        this.chunks = chunks;
+        this.ends = ends;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        final int found = Arrays.binarySearch(ends, index);
+        final int chunk = found >= 0 ? found + 1 : -found - 1;
+        final int start = chunk == 0 ? 0 : ends[chunk - 1];
+        return (T) chunks[chunk][index - start];
+    }
+
+    @Override
+    public int size() {
+        return ends.length == 0 ? 0 : ends[ends.length - 1];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        int start = 0;
+        for (int chunk = 0; chunk < chunks.length; chunk++) {
+            final Object[] values = chunks[chunk];
+            final int length = ends[chunk] - start;
+            for (int i = 0; i < length; i++) {
+                action.accept((T) values[i]);
+            }
+            start = ends[chunk];
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int chunk;
+            private int offset;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size();
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                while (index == ends[chunk]) {
+                    chunk++;
+                    offset = 0;
+                }
+                index++;
+                return (T) chunks[chunk][offset++];
+            }
+        };
+    }
+
+    /**
+     * Mutable accumulation container for one thread. Chunks start small and double up to {@code MAX_CHUNK_SIZE}.
+     */
+    static final class Builder<T> {
+        private static final int MIN_CHUNK_SIZE = 16;
+        private static final int MAX_CHUNK_SIZE = 8192;
+
+        private final List<Object[]> chunks = new ArrayList<>();
+        private final IntArrayList lengths = new IntArrayList();
+        private Object[] current;
+        private int currentLength;
+        private int nextChunkSize = MIN_CHUNK_SIZE;
+
+        void add(T value) {
+            if (current == null || currentLength == current.length) {
+                seal();
+                current = new Object[nextChunkSize];
+                nextChunkSize = Math.min(nextChunkSize * 2, MAX_CHUNK_SIZE);
+            }
+            current[currentLength++] = value;
+        }
+
+        Builder<T> combine(Builder<T> other) {
+            seal();
+            other.seal();
+            chunks.addAll(other.chunks);
+            lengths.addAll(other.lengths);
+            return this;
+        }
+
+        ChunkedList<T> build() {
+            seal();
+            final int[] ends = lengths.toArray();
+            for (int i = 1; i < ends.length; i++) {
+                ends[i] += ends[i - 1];
+            }
+            return new ChunkedList<>(chunks.toArray(new Object[0][]), ends);
+        }
+
+        // Empty chunks are never kept, so ends stay strictly increasing for the binary search in get()
+        private void seal() {
+            if (currentLength > 0) {
+                chunks.add(current);
+                lengths.add(currentLength);
+            }
+            current = null;
+            currentLength = 0;
+        }
+    }
+}
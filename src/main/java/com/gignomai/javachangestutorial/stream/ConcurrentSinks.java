@@ -0,0 +1,25 @@
+package com.gignomai.javachangestutorial.stream;
+
+import java.util.stream.Collector;
+
+/**
+ * Targets that are safe to fill from parallel streams.
+ * <p>
+ * Prefer {@link #toChunkedList()} with {@code collect}: each thread fills its own chunks and the results are
+ * linked together at the end, in encounter order. When the code has to stay a {@code forEach}, use a
+ * {@link StripedAppendBuffer} as the consumer instead of a shared {@code ArrayList}.
+ */
+public final class ConcurrentSinks {
+
+    private ConcurrentSinks() {
+    }
+
+    public static <T> Collector<T, ?, ChunkedList<T>> toChunkedList() {
+        return Collector.of(ChunkedList.Builder<T>::new, ChunkedList.Builder::add, ChunkedList.Builder::combine,
+                ChunkedList.Builder::build);
+    }
+
+    public static <T> StripedAppendBuffer<T> stripedBuffer() {
+        return new StripedAppendBuffer<>();
+    }
+}
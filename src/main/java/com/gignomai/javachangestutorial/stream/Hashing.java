@@ -0,0 +1,31 @@
+package com.gignomai.javachangestutorial.stream;
+
+/**
+ * 64-bit hashes for the sketches in this package.
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * Spreads {@link Object#hashCode()} over 64 bits. Elements that share a 32-bit hash code still collide, which
+     * only starts to matter for sketches past a few hundred million distinct elements.
+     */
+    static long hash(Object value) {
+        return mix(value == null ? 0 : value.hashCode());
+    }
+
+    /**
+     * The MurmurHash3 64-bit finalizer.
+     */
+    static long mix(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,128 @@
+package com.gignomai.javachangestutorial.stream;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * Set of {@code long} keys with open addressing and linear probing, stored either in a {@code long[]}-backed
+ * buffer or in direct memory outside the Java heap.
+ * <p>
+ * A key takes 8 to 16 bytes of table, against roughly 50 bytes for a boxed {@code Long} in a {@link java.util.HashSet}.
+ * The table doubles when it gets half full. The off-heap table is released when the set is garbage collected.
+ * Not thread-safe.
+ */
+public final class LongHashSet {
+
+    private static final int MIN_CAPACITY = 16;
+    private static final int MAX_CAPACITY = 1 << 30;
+    // Largest table whose size in bytes still fits the int taken by ByteBuffer.allocateDirect
+    private static final int MAX_OFF_HEAP_CAPACITY = 1 << 27;
+    // 0 marks an empty slot, so the key 0 is tracked on the side
+    private static final long EMPTY = 0;
+
+    private final boolean offHeap;
+    private LongBuffer table;
+    private int mask;
+    private int size;
+    private boolean containsZero;
+
+    private LongHashSet(int expectedSize, boolean offHeap) {
+        this.offHeap = offHeap;
+        allocate(Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize * 2 - 1)) << 1);
+    }
+
+    public static LongHashSet onHeap(int expectedSize) {
+        return new LongHashSet(expectedSize, false);
+    }
+
+    public static LongHashSet offHeap(int expectedSize) {
+        return new LongHashSet(expectedSize, true);
+    }
+
+    /**
+     * @return {@code true} if the key was not in the set yet
+     */
+    public boolean add(long key) {
+        if (key == EMPTY) {
+            final boolean added = !containsZero;
+            containsZero = true;
+            size += added ? 1 : 0;
+            return added;
+        }
+        int slot = slotOf(key);
+        long current;
+        while ((current = table.get(slot)) != EMPTY) {
+            if (current == key) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table.put(slot, key);
+        if (++size * 2 > table.capacity()) {
+            grow();
+        }
+        return true;
+    }
+
+    public boolean contains(long key) {
+        if (key == EMPTY) {
+            return containsZero;
+        }
+        int slot = slotOf(key);
+        long current;
+        while ((current = table.get(slot)) != EMPTY) {
+            if (current == key) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * Bytes held by the table, on or off the heap.
+     */
+    public long tableBytes() {
+        return (long) table.capacity() * Long.BYTES;
+    }
+
+    private int slotOf(long key) {
+        return (int) Hashing.mix(key) & mask;
+    }
+
+    private void grow() {
+        if (table.capacity() >= (offHeap ? MAX_OFF_HEAP_CAPACITY : MAX_CAPACITY)) {
+            throw new IllegalStateException("LongHashSet cannot grow past " + table.capacity() + " slots");
+        }
+        final LongBuffer old = table;
+        allocate(old.capacity() * 2);
+        for (int i = 0; i < old.capacity(); i++) {
+            final long key = old.get(i);
+            if (key != EMPTY) {
+                int slot = slotOf(key);
+                while (table.get(slot) != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                table.put(slot, key);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        table = offHeap
+                ? ByteBuffer.allocateDirect(Math.toIntExact((long) capacity * Long.BYTES))
+                        .order(ByteOrder.nativeOrder())
+                        .asLongBuffer()
+                : LongBuffer.allocate(capacity);
+        mask = capacity - 1;
+    }
+}
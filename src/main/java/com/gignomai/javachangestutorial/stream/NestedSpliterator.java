@@ -0,0 +1,172 @@
+package com.gignomai.javachangestutorial.stream;
+
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the elements of a list of lists, addressed by their position in the flattened sequence. Every
+ * split halves the remaining elements wherever they are: between two lists, or in the middle of one. A single huge
+ * inner list is therefore split like any other range, while {@code parallel().flatMap(List::stream)} only splits
+ * the outer list and leaves each inner list to one thread.
+ * <p>
+ * The spliterator binds on first use: it copies the outer list and the start position of every inner list then, in
+ * one pass. The lists must not change size afterwards. Inner lists that are not {@link RandomAccess} are read with
+ * a {@link ListIterator}, which makes every split of them start by walking to its offset.
+ */
+final class NestedSpliterator<T> implements Spliterator<T> {
+
+    private final List<? extends List<? extends T>> source;
+    private Layout layout;
+    private long position;
+    private long end;
+    // Inner list and offset of position; listIndex is -1 until a traversal has found them
+    private int listIndex = -1;
+    private int offset;
+
+    NestedSpliterator(List<? extends List<? extends T>> source) {
+        this.source = source;
+    }
+
+    private NestedSpliterator(Layout layout, long position, long end) {
+        this.source = null;
+        this.layout = layout;
+        this.position = position;
+        this.end = end;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        bind();
+        if (position >= end) {
+            return false;
+        }
+        if (listIndex < 0) {
+            seek();
+        }
+        while (offset == layout.size(listIndex)) {
+            listIndex++;
+            offset = 0;
+        }
+        action.accept(layout.<T>list(listIndex).get(offset++));
+        position++;
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        bind();
+        if (position >= end) {
+            return;
+        }
+        if (listIndex < 0) {
+            seek();
+        }
+        long remaining = end - position;
+        position = end;
+        while (remaining > 0) {
+            final List<? extends T> list = layout.list(listIndex);
+            final int count = (int) Math.min(layout.size(listIndex) - offset, remaining);
+            if (list instanceof RandomAccess) {
+                for (int i = offset; i < offset + count; i++) {
+                    action.accept(list.get(i));
+                }
+            } else {
+                final ListIterator<? extends T> iterator = list.listIterator(offset);
+                for (int i = 0; i < count; i++) {
+                    action.accept(iterator.next());
+                }
+            }
+            remaining -= count;
+            listIndex++;
+            offset = 0;
+        }
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        bind();
+        final long middle = (position + end) >>> 1;
+        if (middle <= position) {
+            return null;
+        }
+        final NestedSpliterator<T> prefix = new NestedSpliterator<>(layout, position, middle);
+        if (listIndex >= 0) {
+            prefix.listIndex = listIndex;
+            prefix.offset = offset;
+        }
+        position = middle;
+        listIndex = -1;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        bind();
+        return end - position;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED;
+    }
+
+    private void bind() {
+        if (layout == null) {
+            layout = new Layout(source.toArray(new List<?>[0]));
+            end = layout.total();
+        }
+    }
+
+    private void seek() {
+        listIndex = layout.listAt(position);
+        offset = (int) (position - layout.starts[listIndex]);
+    }
+
+    /**
+     * Snapshot of the outer list shared by every spliterator split from the same root.
+     */
+    private static final class Layout {
+        private final List<?>[] lists;
+        // starts[i] is the flat position of the first element of lists[i]; starts[lists.length] is the total
+        private final long[] starts;
+
+        private Layout(List<?>[] lists) {
+            this.lists = lists;
+            this.starts = new long[lists.length + 1];
+            for (int i = 0; i < lists.length; i++) {
+                starts[i + 1] = starts[i] + lists[i].size();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private <T> List<? extends T> list(int index) {
+            return (List<? extends T>) lists[index];
+        }
+
+        private int size(int index) {
+            return (int) (starts[index + 1] - starts[index]);
+        }
+
+        private long total() {
+            return starts[lists.length];
+        }
+
+        // Last list starting at or before position; empty lists in between are skipped by the traversal
+        private int listAt(long position) {
+            int low = 0;
+            int high = lists.length - 1;
+            while (low < high) {
+                final int middle = (low + high + 1) >>> 1;
+                if (starts[middle] <= position) {
+                    low = middle;
+                } else {
+                    high = middle - 1;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.gignomai.javachangestutorial.stream;
+
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.function.BiConsumer;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams over the elements of a {@code List<List<T>>} that split the inner lists too.
+ * <p>
+ * {@code nested.parallelStream().flatMap(List::stream)} splits the outer list only: every inner stream runs
+ * sequentially on the thread that reached it, so one list of ten million elements among thousands of small ones
+ * keeps a single core busy while the others run out of work. {@link #parallelFlatStream(List)} splits the flattened
+ * elements in halves instead, with exact sizes, so skewed inputs spread over the pool like a flat list does.
+ * <p>
+ * {@link #flattening(Collector)} is the collector counterpart of {@code Collectors.flatMapping(List::stream, ...)}
+ * for streams whose elements are lists, for instance as the downstream of {@code groupingBy}. It feeds the elements
+ * of each list straight to the downstream collector without building a stream per list.
+ */
+public final class NestedStreams {
+
+    private NestedStreams() {
+    }
+
+    public static <T> Stream<T> flatStream(List<? extends List<? extends T>> nested) {
+        return StreamSupport.stream(spliterator(nested), false);
+    }
+
+    public static <T> Stream<T> parallelFlatStream(List<? extends List<? extends T>> nested) {
+        return StreamSupport.stream(spliterator(nested), true);
+    }
+
+    public static <T> Spliterator<T> spliterator(List<? extends List<? extends T>> nested) {
+        return new NestedSpliterator<>(nested);
+    }
+
+    public static <T, A, R> Collector<List<? extends T>, ?, R> flattening(Collector<? super T, A, R> downstream) {
+        final BiConsumer<A, ? super T> accumulator = downstream.accumulator();
+        final BiConsumer<A, List<? extends T>> flatAccumulator =
+                (container, list) -> addAll(accumulator, container, list);
+        return Collector.of(downstream.supplier(), flatAccumulator, downstream.combiner(), downstream.finisher(),
+                downstream.characteristics().toArray(new Collector.Characteristics[0]));
+    }
+
+    private static <T, A> void addAll(BiConsumer<A, ? super T> accumulator, A container, List<? extends T> list) {
+        if (list instanceof RandomAccess) {
+            for (int i = 0; i < list.size(); i++) {
+                accumulator.accept(container, list.get(i));
+            }
+        } else {
+            for (T value : list) {
+                accumulator.accept(container, value);
+            }
+        }
+    }
+}
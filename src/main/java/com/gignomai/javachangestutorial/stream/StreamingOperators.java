@@ -0,0 +1,116 @@
+package com.gignomai.javachangestutorial.stream;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collector;
+
+/**
+ * Replacements for {@code distinct()}, {@code distinct().count()} and {@code sorted().limit(k)} whose memory does
+ * not grow with every element of an unbounded stream, or grows by a few bytes instead of a boxed object.
+ * <p>
+ * The {@code distinct*} methods return stateful filters: use them with {@code filter} on sequential streams, one
+ * filter per stream. The collectors also work on parallel streams.
+ * <ul>
+ *     <li>{@link #distinct()} and {@link #distinctBy(ToLongFunction)} are exact. The first keeps every element in a
+ *     {@link HashSet} like {@code Stream.distinct()}; the second only keeps a {@code long} key per element in a
+ *     {@link LongHashSet}, on or off the heap.</li>
+ *     <li>{@link #approximateDistinct(long, double)} keeps a {@link BloomFilter}: it never lets a duplicate through,
+ *     but drops a first occurrence with probability up to {@code fpp} while under the expected element count.</li>
+ *     <li>{@link #approximateDistinctCount(int)} estimates the number of distinct elements with a
+ *     {@link HyperLogLog}, within about {@code 1.04 / sqrt(2^precision)} relative standard error.</li>
+ *     <li>{@link #topK(Comparator, int)} keeps the best {@code k} elements in a heap.</li>
+ * </ul>
+ */
+public final class StreamingOperators {
+
+    private StreamingOperators() {
+    }
+
+    public static <T> Predicate<T> distinct() {
+        final Set<T> seen = new HashSet<>();
+        return seen::add;
+    }
+
+    public static <T> Predicate<T> distinctBy(ToLongFunction<? super T> key) {
+        return distinctBy(key, LongHashSet.onHeap(1024));
+    }
+
+    public static <T> Predicate<T> distinctByOffHeap(ToLongFunction<? super T> key) {
+        return distinctBy(key, LongHashSet.offHeap(1024));
+    }
+
+    private static <T> Predicate<T> distinctBy(ToLongFunction<? super T> key, LongHashSet seen) {
+        Objects.requireNonNull(key, "key");
+        return element -> seen.add(key.applyAsLong(element));
+    }
+
+    public static <T> Predicate<T> approximateDistinct(long expectedDistinct, double fpp) {
+        final BloomFilter seen = new BloomFilter(expectedDistinct, fpp);
+        return seen::put;
+    }
+
+    public static <T> Collector<T, ?, Long> approximateDistinctCount() {
+        return approximateDistinctCount(HyperLogLog.DEFAULT_PRECISION);
+    }
+
+    public static <T> Collector<T, ?, Long> approximateDistinctCount(int precision) {
+        return Collector.of(() -> new HyperLogLog(precision), HyperLogLog::add, HyperLogLog::merge,
+                HyperLogLog::estimate, Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * The {@code k} greatest elements according to {@code comparator}, greatest first; the same result as
+     * {@code sorted(comparator.reversed()).limit(k)} up to the order of ties, in O(k) memory and
+     * O(n log k) time.
+     */
+    public static <T> Collector<T, ?, List<T>> topK(Comparator<? super T> comparator, int k) {
+        Objects.requireNonNull(comparator, "comparator");
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative but was " + k);
+        }
+        return Collector.of(() -> new TopK<T>(comparator, k), TopK::add, TopK::combine, TopK::toList,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    private static final class TopK<T> {
+
+        private final Comparator<? super T> comparator;
+        private final int k;
+        // Min-heap: the head is the weakest of the elements kept so far
+        private final PriorityQueue<T> heap;
+
+        TopK(Comparator<? super T> comparator, int k) {
+            this.comparator = comparator;
+            this.k = k;
+            this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1024)), comparator);
+        }
+
+        void add(T element) {
+            if (heap.size() < k) {
+                heap.add(element);
+            } else if (k > 0 && comparator.compare(element, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(element);
+            }
+        }
+
+        TopK<T> combine(TopK<T> other) {
+            other.heap.forEach(this::add);
+            return this;
+        }
+
+        List<T> toList() {
+            final List<T> result = new ArrayList<>(heap);
+            result.sort(Collections.reverseOrder(comparator));
+            return result;
+        }
+    }
+}
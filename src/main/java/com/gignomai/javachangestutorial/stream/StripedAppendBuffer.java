@@ -0,0 +1,107 @@
+package com.gignomai.javachangestutorial.stream;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Unordered, lock-free sink for {@code forEach} on parallel streams, where a plain {@code ArrayList} loses writes.
+ * <p>
+ * Every thread appends to one of several stripes chosen from its thread id, so threads rarely touch the same
+ * cache lines. A stripe is a chain of fixed-size segments: writers claim a slot with a single atomic increment and
+ * the one that overflows a segment links a fresh one. Nothing ever blocks.
+ * <p>
+ * Read the buffer with {@link #toList()}, {@link #forEach(Consumer)} or {@link #size()} only once the writers are
+ * done, for instance after the terminal {@code forEach} has returned. Element order is not kept.
+ */
+public class StripedAppendBuffer<T> implements Consumer<T> {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    private final AtomicReferenceArray<Segment> stripes;
+    private final int mask;
+
+    public StripedAppendBuffer() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public StripedAppendBuffer(int minStripes) {
+        final int stripeCount = Integer.highestOneBit(Math.max(1, minStripes - 1)) << 1;
+        this.stripes = new AtomicReferenceArray<>(stripeCount);
+        this.mask = stripeCount - 1;
+        for (int i = 0; i < stripeCount; i++) {
+            stripes.set(i, new Segment(null));
+        }
+    }
+
+    @Override
+    public void accept(T value) {
+        add(value);
+    }
+
+    public void add(T value) {
+        final int stripe = stripeOf(Thread.currentThread());
+        Segment segment = stripes.get(stripe);
+        while (true) {
+            final int slot = segment.cursor.getAndIncrement();
+            if (slot < SEGMENT_SIZE) {
+                segment.values.set(slot, value);
+                return;
+            }
+            final Segment next = new Segment(segment);
+            segment = stripes.compareAndSet(stripe, segment, next) ? next : stripes.get(stripe);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < stripes.length(); i++) {
+            for (Segment segment = stripes.get(i); segment != null; segment = segment.previous) {
+                size += segment.size();
+            }
+        }
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super T> action) {
+        for (int i = 0; i < stripes.length(); i++) {
+            for (Segment segment = stripes.get(i); segment != null; segment = segment.previous) {
+                final int size = segment.size();
+                for (int slot = 0; slot < size; slot++) {
+                    action.accept((T) segment.values.get(slot));
+                }
+            }
+        }
+    }
+
+    public List<T> toList() {
+        final List<T> list = new ArrayList<>(size());
+        forEach(list::add);
+        return list;
+    }
+
+    private int stripeOf(Thread thread) {
+        final long id = thread.getId();
+        // Spread consecutive thread ids, which is what pool workers usually get
+        final int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    private static final class Segment {
+        private final AtomicReferenceArray<Object> values = new AtomicReferenceArray<>(SEGMENT_SIZE);
+        private final AtomicInteger cursor = new AtomicInteger();
+        private final Segment previous;
+
+        private Segment(Segment previous) {
+            this.previous = previous;
+        }
+
+        // The cursor keeps growing past the end while writers race for a new segment
+        private int size() {
+            return Math.min(cursor.get(), SEGMENT_SIZE);
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.gignomai.javachangestutorial.text;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Finds every occurrence of a set of literal strings in one pass over the text (Aho-Corasick).
+ * <p>
+ * The automaton is built as a full transition table over the characters that appear in the patterns, so each text
+ * character costs two array reads whatever the number of patterns. Matches may overlap and are reported in the
+ * order in which they end.
+ */
+public final class AhoCorasick {
+
+    private static final int OTHER = 0;
+
+    private final String[] patterns;
+    // Maps every char to its column in the transition table; chars missing from all patterns share column OTHER
+    private final char[] columns = new char[Character.MAX_VALUE + 1];
+    private final int alphabetSize;
+    private final int[] transitions;
+    // Pattern ending at each state, or -1
+    private final int[] terminal;
+    // Nearest state on the failure chain that ends a pattern, or -1
+    private final int[] nextTerminal;
+
+    public AhoCorasick(List<String> patterns) {
+        if (patterns.isEmpty()) {
+            throw new IllegalArgumentException("At least one pattern is needed");
+        }
+        this.patterns = patterns.toArray(new String[0]);
+        int nextColumn = 1;
+        int maxStates = 1;
+        for (String pattern : this.patterns) {
+            if (pattern.isEmpty()) {
+                throw new IllegalArgumentException("Patterns must not be empty");
+            }
+            maxStates += pattern.length();
+            for (int i = 0; i < pattern.length(); i++) {
+                if (columns[pattern.charAt(i)] == OTHER) {
+                    columns[pattern.charAt(i)] = (char) nextColumn++;
+                }
+            }
+        }
+        this.alphabetSize = nextColumn;
+        final int[] trie = new int[maxStates * alphabetSize];
+        final int[] terminalStates = new int[maxStates];
+        Arrays.fill(terminalStates, -1);
+        final int states = buildTrie(trie, terminalStates);
+        this.transitions = Arrays.copyOf(trie, states * alphabetSize);
+        this.terminal = Arrays.copyOf(terminalStates, states);
+        this.nextTerminal = new int[states];
+        linkFailures(states);
+    }
+
+    public int patternCount() {
+        return patterns.length;
+    }
+
+    public String pattern(int index) {
+        return patterns[index];
+    }
+
+    /**
+     * Calls {@code consumer} with the pattern index and start offset of every match.
+     */
+    public void forEachMatch(CharSequence text, MatchConsumer consumer) {
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = transitions[state * alphabetSize + columns[text.charAt(i)]];
+            for (int match = terminal[state] >= 0 ? state : nextTerminal[state]; match >= 0; match = nextTerminal[match]) {
+                final int pattern = terminal[match];
+                consumer.accept(pattern, i - patterns[pattern].length() + 1);
+            }
+        }
+    }
+
+    /**
+     * Start offsets of every match, computed lazily as the stream is consumed.
+     */
+    public IntStream matchStarts(CharSequence text) {
+        return StreamSupport.intStream(new StartSpliterator(text), false);
+    }
+
+    public long count(CharSequence text) {
+        final long[] count = new long[1];
+        forEachMatch(text, (pattern, start) -> count[0]++);
+        return count[0];
+    }
+
+    private int buildTrie(int[] trie, int[] terminalStates) {
+        int states = 1;
+        for (int p = 0; p < patterns.length; p++) {
+            int state = 0;
+            for (int i = 0; i < patterns[p].length(); i++) {
+                final int cell = state * alphabetSize + columns[patterns[p].charAt(i)];
+                if (trie[cell] == 0) {
+                    trie[cell] = states++;
+                }
+                state = trie[cell];
+            }
+            if (terminalStates[state] < 0) {
+                terminalStates[state] = p;
+            }
+        }
+        return states;
+    }
+
+    // Breadth-first pass that turns the trie into a DFA: missing edges jump to where the failure link would lead
+    private void linkFailures(int states) {
+        final int[] failure = new int[states];
+        Arrays.fill(nextTerminal, -1);
+        final Queue<Integer> queue = new ArrayDeque<>();
+        for (int column = 0; column < alphabetSize; column++) {
+            final int child = transitions[column];
+            if (child != 0) {
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            final int state = queue.poll();
+            for (int column = 0; column < alphabetSize; column++) {
+                final int cell = state * alphabetSize + column;
+                final int child = transitions[cell];
+                final int fallback = transitions[failure[state] * alphabetSize + column];
+                if (child == 0) {
+                    transitions[cell] = fallback;
+                } else {
+                    failure[child] = fallback;
+                    nextTerminal[child] = terminal[fallback] >= 0 ? fallback : nextTerminal[fallback];
+                    queue.add(child);
+                }
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface MatchConsumer {
+        void accept(int pattern, int start);
+    }
+
+    private final class StartSpliterator extends Spliterators.AbstractIntSpliterator {
+        private final CharSequence text;
+        private int position;
+        private int state;
+        private int pendingMatch = -1;
+
+        private StartSpliterator(CharSequence text) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+            this.text = text;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            while (pendingMatch < 0) {
+                if (position >= text.length()) {
+                    return false;
+                }
+                state = transitions[state * alphabetSize + columns[text.charAt(position++)]];
+                pendingMatch = terminal[state] >= 0 ? state : nextTerminal[state];
+            }
+            action.accept(position - patterns[terminal[pendingMatch]].length());
+            pendingMatch = nextTerminal[pendingMatch];
+            return true;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.gignomai.javachangestutorial.text;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * Byte-level kernels for ASCII text that handle eight bytes per step, reading a {@code byte[]} as {@code long}
+ * words (SWAR, SIMD within a register).
+ * <p>
+ * Bytes outside ASCII are left untouched, so the kernels are safe to run over UTF-8, but they only map ASCII
+ * letters: use {@link #isAscii(byte[], int, int)} first when the text may contain other characters that need
+ * mapping too.
+ */
+public final class AsciiKernel {
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class,
+            ByteOrder.nativeOrder());
+    private static final long HIGH_BITS = 0x8080808080808080L;
+    private static final long LOW_BITS = 0x7f7f7f7f7f7f7f7fL;
+    // Added to the low seven bits of every byte, these set the high bit for bytes at or above 'a', above 'z',
+    // at or above 'A' and above 'Z'. The sums stay below 0x100, so nothing carries into the next byte.
+    private static final long FROM_LOWER_A = 0x1f1f1f1f1f1f1f1fL;
+    private static final long PAST_LOWER_Z = 0x0505050505050505L;
+    private static final long FROM_UPPER_A = 0x3f3f3f3f3f3f3f3fL;
+    private static final long PAST_UPPER_Z = 0x2525252525252525L;
+    private static final int CASE_BIT = 0x20;
+
+    private AsciiKernel() {
+    }
+
+    public static boolean isAscii(byte[] bytes, int from, int to) {
+        long bits = 0;
+        int i = from;
+        for (; i + Long.BYTES <= to; i += Long.BYTES) {
+            bits |= (long) LONGS.get(bytes, i);
+        }
+        for (; i < to; i++) {
+            bits |= bytes[i];
+        }
+        return (bits & HIGH_BITS) == 0;
+    }
+
+    /**
+     * Copies {@code src[from, to)} to {@code dst} from {@code dstFrom}, mapping {@code a-z} to {@code A-Z}.
+     * {@code src} and {@code dst} may be the same array at the same offset.
+     */
+    public static void toUpperCase(byte[] src, int from, int to, byte[] dst, int dstFrom) {
+        int i = from;
+        int j = dstFrom;
+        for (; i + Long.BYTES <= to; i += Long.BYTES, j += Long.BYTES) {
+            final long word = (long) LONGS.get(src, i);
+            LONGS.set(dst, j, word ^ caseBits(word, FROM_LOWER_A, PAST_LOWER_Z));
+        }
+        for (; i < to; i++, j++) {
+            final byte b = src[i];
+            dst[j] = b >= 'a' && b <= 'z' ? (byte) (b ^ CASE_BIT) : b;
+        }
+    }
+
+    /**
+     * Copies {@code src[from, to)} to {@code dst} from {@code dstFrom}, mapping {@code A-Z} to {@code a-z}.
+     */
+    public static void toLowerCase(byte[] src, int from, int to, byte[] dst, int dstFrom) {
+        int i = from;
+        int j = dstFrom;
+        for (; i + Long.BYTES <= to; i += Long.BYTES, j += Long.BYTES) {
+            final long word = (long) LONGS.get(src, i);
+            LONGS.set(dst, j, word ^ caseBits(word, FROM_UPPER_A, PAST_UPPER_Z));
+        }
+        for (; i < to; i++, j++) {
+            final byte b = src[i];
+            dst[j] = b >= 'A' && b <= 'Z' ? (byte) (b ^ CASE_BIT) : b;
+        }
+    }
+
+    /**
+     * First index in {@code [from, to)} that is not ASCII whitespace, or {@code to}.
+     */
+    public static int skipWhitespace(byte[] bytes, int from, int to) {
+        int i = from;
+        while (i < to && isWhitespace(bytes[i])) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Index after the last byte in {@code [from, to)} that is not ASCII whitespace, or {@code from}.
+     */
+    public static int skipWhitespaceBackwards(byte[] bytes, int from, int to) {
+        int i = to;
+        while (i > from && isWhitespace(bytes[i - 1])) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * The ASCII characters for which {@link Character#isWhitespace(int)} is true.
+     */
+    public static boolean isWhitespace(int b) {
+        return b == ' ' || (b >= '\t' && b <= '\r') || (b >= 0x1c && b <= 0x1f);
+    }
+
+    // 0x20 in every byte that holds an ASCII letter of the case selected by the two constants
+    private static long caseBits(long word, long fromA, long pastZ) {
+        final long low = word & LOW_BITS;
+        final long inRange = (low + fromA) & ~(low + pastZ) & ~word & HIGH_BITS;
+        return inRange >>> 2;
+    }
+}
@@ -0,0 +1,179 @@
+package com.gignomai.javachangestutorial.text;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Bounded, least-recently-used cache of compiled {@link Pattern}s, for code that would otherwise call
+ * {@code Pattern.compile} or {@code Scanner.findAll(String)} on every search.
+ * <p>
+ * Searches return the start offsets of the matches as an {@link IntStream}, read from the {@link Matcher} directly,
+ * so no {@link java.util.regex.MatchResult} is created per hit. When every pattern of a multi-pattern search is a
+ * plain literal, the search runs on a cached {@link AhoCorasick} automaton instead of one regex per pattern.
+ */
+public class PatternCache {
+
+    private static final String REGEX_METACHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final Lru<String, Pattern> patterns;
+    private final Lru<List<String>, AhoCorasick> literals;
+
+    public PatternCache(int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.patterns = new Lru<>(maxSize);
+        this.literals = new Lru<>(Math.max(1, maxSize / 16));
+    }
+
+    public Pattern get(String regex) {
+        return patterns.get(regex, Pattern::compile);
+    }
+
+    /**
+     * Start offsets of the matches of {@code regex} in {@code input}, like
+     * {@code Pattern.compile(regex).matcher(input).results().mapToInt(MatchResult::start)}.
+     */
+    public IntStream matchStarts(String regex, CharSequence input) {
+        return starts(get(regex).matcher(input));
+    }
+
+    /**
+     * Start offsets of every occurrence of every pattern, including overlapping ones. Literal pattern sets report
+     * matches in the order they end; others are searched pattern by pattern.
+     */
+    public IntStream matchStarts(List<String> regexes, CharSequence input) {
+        if (regexes.stream().allMatch(PatternCache::isLiteral)) {
+            return literals.get(List.copyOf(regexes), AhoCorasick::new).matchStarts(input);
+        }
+        return regexes.stream().flatMapToInt(regex -> overlappingStarts(get(regex).matcher(input)));
+    }
+
+    /**
+     * Hits of the compiled {@link Pattern} cache; literal pattern sets are counted by {@link #getLiteralHits()}.
+     */
+    public long getHits() {
+        return patterns.hits.sum();
+    }
+
+    public long getMisses() {
+        return patterns.misses.sum();
+    }
+
+    public long getEvictions() {
+        return patterns.evictions.sum();
+    }
+
+    /**
+     * Hits of the {@link AhoCorasick} automaton cache used by multi-pattern searches over literals.
+     */
+    public long getLiteralHits() {
+        return literals.hits.sum();
+    }
+
+    public long getLiteralMisses() {
+        return literals.misses.sum();
+    }
+
+    public long getLiteralEvictions() {
+        return literals.evictions.sum();
+    }
+
+    public int size() {
+        return patterns.size();
+    }
+
+    static boolean isLiteral(String regex) {
+        for (int i = 0; i < regex.length(); i++) {
+            if (REGEX_METACHARACTERS.indexOf(regex.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return !regex.isEmpty();
+    }
+
+    private static IntStream starts(Matcher matcher) {
+        return StreamSupport.intStream(new Spliterators.AbstractIntSpliterator(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                if (!matcher.find()) {
+                    return false;
+                }
+                action.accept(matcher.start());
+                return true;
+            }
+        }, false);
+    }
+
+    // Restarts one character after each match start, so occurrences that overlap are reported as well
+    private static IntStream overlappingStarts(Matcher matcher) {
+        return StreamSupport.intStream(new Spliterators.AbstractIntSpliterator(Long.MAX_VALUE,
+                Spliterator.ORDERED | Spliterator.NONNULL) {
+            private int from;
+
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                if (from > matcher.regionEnd() || !matcher.find(from)) {
+                    return false;
+                }
+                from = matcher.start() + 1;
+                action.accept(matcher.start());
+                return true;
+            }
+        }, false);
+    }
+
+    private static final class Lru<K, V> {
+        private final Map<K, V> entries;
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        private Lru(int maxSize) {
+            this.entries = new LinkedHashMap<K, V>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                    if (size() > maxSize) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        // Compiles outside the lock; two threads missing the same key at once both compile and the last one wins
+        private V get(K key, Function<K, V> factory) {
+            synchronized (entries) {
+                final V cached = entries.get(key);
+                if (cached != null) {
+                    hits.increment();
+                    return cached;
+                }
+            }
+            misses.increment();
+            final V created = factory.apply(key);
+            synchronized (entries) {
+                entries.put(key, created);
+            }
+            return created;
+        }
+
+        private int size() {
+            synchronized (entries) {
+                return entries.size();
+            }
+        }
+    }
+}
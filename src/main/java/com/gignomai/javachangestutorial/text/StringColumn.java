@@ -0,0 +1,353 @@
+package com.gignomai.javachangestutorial.text;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Immutable column of strings stored as one contiguous UTF-8 {@code byte[]} and an {@code int[]} of offsets,
+ * instead of a {@code List} of separate {@code String} objects.
+ * <p>
+ * A dictionary-encoded column keeps each distinct value once and one {@code int} code per row, which suits
+ * low-cardinality data such as city names. Predicates then run once per distinct value instead of once per row.
+ * <p>
+ * Filters such as {@link #endsWith(String)} compare bytes in place and return a {@link BitSet} with a bit set for
+ * every matching row. Selections combine with {@link BitSet#and(BitSet)} and friends and are only turned into
+ * strings by {@link #toList(BitSet)}. Comparing UTF-8 bytes gives the same answers as comparing the strings, since
+ * a valid UTF-8 sequence cannot match in the middle of another character.
+ */
+public final class StringColumn {
+
+    // The values: all rows of a plain column, the distinct values of a dictionary-encoded one
+    private final byte[] data;
+    private final int[] offsets;
+    private final int valueCount;
+    // Row to value index, or null when every row is its own value
+    private final int[] codes;
+    private final int size;
+
+    private StringColumn(byte[] data, int[] offsets, int valueCount, int[] codes, int size) {
+        this.data = data;
+        this.offsets = offsets;
+        this.valueCount = valueCount;
+        this.codes = codes;
+        this.size = size;
+    }
+
+    public static StringColumn of(Collection<String> values) {
+        final Builder builder = builder();
+        values.forEach(builder::add);
+        return builder.build();
+    }
+
+    public static StringColumn dictionaryEncoded(Collection<String> values) {
+        final Builder builder = builder().dictionaryEncoded();
+        values.forEach(builder::add);
+        return builder.build();
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isDictionaryEncoded() {
+        return codes != null;
+    }
+
+    public String get(int row) {
+        final int value = valueOf(row);
+        return new String(data, offsets[value], offsets[value + 1] - offsets[value], StandardCharsets.UTF_8);
+    }
+
+    public int byteLength(int row) {
+        final int value = valueOf(row);
+        return offsets[value + 1] - offsets[value];
+    }
+
+    /**
+     * Bytes held by the column's arrays.
+     */
+    public long sizeInBytes() {
+        final long codeBytes = codes == null ? 0 : (long) codes.length * Integer.BYTES;
+        return data.length + (long) offsets.length * Integer.BYTES + codeBytes;
+    }
+
+    public BitSet endsWith(String suffix) {
+        final byte[] pattern = suffix.getBytes(StandardCharsets.UTF_8);
+        final BitSet matches = new BitSet(valueCount);
+        for (int value = 0; value < valueCount; value++) {
+            final int end = offsets[value + 1];
+            final int start = end - pattern.length;
+            if (start >= offsets[value] && regionMatches(start, pattern)) {
+                matches.set(value);
+            }
+        }
+        return toRows(matches);
+    }
+
+    public BitSet startsWith(String prefix) {
+        final byte[] pattern = prefix.getBytes(StandardCharsets.UTF_8);
+        final BitSet matches = new BitSet(valueCount);
+        for (int value = 0; value < valueCount; value++) {
+            final int start = offsets[value];
+            final int end = start + pattern.length;
+            if (end <= offsets[value + 1] && regionMatches(start, pattern)) {
+                matches.set(value);
+            }
+        }
+        return toRows(matches);
+    }
+
+    public BitSet isEqualTo(String other) {
+        final byte[] pattern = other.getBytes(StandardCharsets.UTF_8);
+        final BitSet matches = new BitSet(valueCount);
+        for (int value = 0; value < valueCount; value++) {
+            if (offsets[value + 1] - offsets[value] == pattern.length && regionMatches(offsets[value], pattern)) {
+                matches.set(value);
+            }
+        }
+        return toRows(matches);
+    }
+
+    public long count(BitSet selection) {
+        return selection.length() <= size ? selection.cardinality() : selection.get(0, size).cardinality();
+    }
+
+    /**
+     * Number of distinct values among all rows.
+     */
+    public int countDistinct() {
+        return distinct().size();
+    }
+
+    /**
+     * The distinct values in order of first appearance, as a plain column.
+     */
+    public StringColumn distinct() {
+        if (codes != null) {
+            // The dictionary only holds values that some row uses, in order of first appearance
+            return values();
+        }
+        final Builder builder = builder().dictionaryEncoded();
+        for (int row = 0; row < size; row++) {
+            builder.add(data, offsets[row], offsets[row + 1]);
+        }
+        return builder.build().values();
+    }
+
+    /**
+     * Upper-cases every value with {@link Locale#ROOT} rules. ASCII data is mapped in one pass over the whole
+     * buffer and keeps the offsets; a dictionary-encoded column only maps its dictionary, then merges the values
+     * that became equal, such as "girona" and "GIRONA".
+     */
+    public StringColumn toUpperCase() {
+        if (AsciiKernel.isAscii(data, 0, offsets[valueCount])) {
+            final byte[] upper = new byte[data.length];
+            AsciiKernel.toUpperCase(data, 0, offsets[valueCount], upper, 0);
+            return withValues(upper, offsets);
+        }
+        final TextArena arena = new TextArena(data.length, valueCount);
+        for (int value = 0; value < valueCount; value++) {
+            arena.add(new String(data, offsets[value], offsets[value + 1] - offsets[value], StandardCharsets.UTF_8)
+                    .toUpperCase(Locale.ROOT));
+        }
+        return withValues(dataOf(arena), offsetsOf(arena));
+    }
+
+    public List<String> toList() {
+        final BitSet all = new BitSet(size);
+        all.set(0, size);
+        return toList(all);
+    }
+
+    public List<String> toList(BitSet selection) {
+        final List<String> list = new ArrayList<>(selection.cardinality());
+        for (int row = selection.nextSetBit(0); row >= 0 && row < size; row = selection.nextSetBit(row + 1)) {
+            list.add(get(row));
+        }
+        return list;
+    }
+
+    // Patterns are short, where a plain loop beats the setup of Arrays.equals over ranges
+    private boolean regionMatches(int start, byte[] pattern) {
+        for (int i = 0; i < pattern.length; i++) {
+            if (data[start + i] != pattern[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Same rows over mapped values; a dictionary is interned again, since mapped values need not be distinct
+    private StringColumn withValues(byte[] mappedData, int[] mappedOffsets) {
+        if (codes == null) {
+            return new StringColumn(mappedData, mappedOffsets, valueCount, null, size);
+        }
+        final Builder builder = builder().dictionaryEncoded();
+        for (int value = 0; value < valueCount; value++) {
+            builder.add(mappedData, mappedOffsets[value], mappedOffsets[value + 1]);
+        }
+        final StringColumn dictionary = builder.build();
+        if (dictionary.valueCount == valueCount) {
+            // Values are interned in order, so distinct ones keep their index
+            return new StringColumn(dictionary.data, dictionary.offsets, valueCount, codes, size);
+        }
+        final int[] remapped = new int[size];
+        for (int row = 0; row < size; row++) {
+            remapped[row] = dictionary.codes[codes[row]];
+        }
+        return new StringColumn(dictionary.data, dictionary.offsets, dictionary.valueCount, remapped, size);
+    }
+
+    private StringColumn values() {
+        return new StringColumn(data, offsets, valueCount, null, valueCount);
+    }
+
+    private int valueOf(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Index: " + row + ", Size: " + size);
+        }
+        return codes == null ? row : codes[row];
+    }
+
+    // Matches are per value; a dictionary-encoded column looks each row's code up in them
+    private BitSet toRows(BitSet matches) {
+        if (codes == null || matches.isEmpty()) {
+            return matches;
+        }
+        final boolean[] matching = new boolean[valueCount];
+        matches.stream().forEach(value -> matching[value] = true);
+        final BitSet rows = new BitSet(size);
+        for (int row = 0; row < size; row++) {
+            if (matching[codes[row]]) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+
+    private static byte[] dataOf(TextArena arena) {
+        return Arrays.copyOf(arena.data(), arena.size() == 0 ? 0 : arena.end(arena.size() - 1));
+    }
+
+    private static int[] offsetsOf(TextArena arena) {
+        final int[] offsets = new int[arena.size() + 1];
+        System.arraycopy(arena.ends(), 0, offsets, 1, arena.size());
+        return offsets;
+    }
+
+    /**
+     * Appends values one at a time, so a column can be filled from a stream or a file without holding the strings.
+     */
+    public static final class Builder {
+
+        private static final int MIN_TABLE_SIZE = 16;
+
+        private final TextArena arena = new TextArena();
+        private boolean dictionaryEncoded;
+        private int[] codes = new int[16];
+        private int size;
+        // Open addressing table of value index + 1, 0 for an empty slot
+        private int[] table = new int[MIN_TABLE_SIZE];
+        private int[] hashes = new int[16];
+
+        private Builder() {
+        }
+
+        public Builder dictionaryEncoded() {
+            if (size > 0) {
+                throw new IllegalStateException("Choose dictionary encoding before adding values");
+            }
+            dictionaryEncoded = true;
+            return this;
+        }
+
+        public Builder add(String value) {
+            final int start = arena.reserve(0);
+            return added(start, arena.append(value));
+        }
+
+        /**
+         * Adds a value given as UTF-8 bytes, for instance straight from a file, without decoding it.
+         */
+        public Builder add(byte[] utf8, int from, int to) {
+            final int start = arena.reserve(0);
+            return added(start, arena.append(utf8, from, to));
+        }
+
+        public StringColumn build() {
+            final int valueCount = arena.size();
+            return new StringColumn(dataOf(arena), offsetsOf(arena), valueCount,
+                    dictionaryEncoded ? Arrays.copyOf(codes, size) : null, size);
+        }
+
+        private Builder added(int start, int end) {
+            if (dictionaryEncoded) {
+                if (size == codes.length) {
+                    codes = Arrays.copyOf(codes, size * 2);
+                }
+                codes[size] = intern(start, end);
+            } else {
+                arena.commit(end);
+            }
+            size++;
+            return this;
+        }
+
+        // Finds the bytes just written after the last value among the values, committing them if they are new
+        private int intern(int start, int end) {
+            final byte[] data = arena.data();
+            final int hash = hash(data, start, end);
+            final int mask = table.length - 1;
+            int slot = hash & mask;
+            while (table[slot] != 0) {
+                final int value = table[slot] - 1;
+                if (hashes[value] == hash
+                        && Arrays.equals(data, arena.start(value), arena.end(value), data, start, end)) {
+                    return value;
+                }
+                slot = (slot + 1) & mask;
+            }
+            final int value = arena.size();
+            arena.commit(end);
+            if (value == hashes.length) {
+                hashes = Arrays.copyOf(hashes, value * 2);
+            }
+            hashes[value] = hash;
+            table[slot] = value + 1;
+            if ((value + 1) * 2 > table.length) {
+                rehash();
+            }
+            return value;
+        }
+
+        private void rehash() {
+            table = new int[table.length * 2];
+            final int mask = table.length - 1;
+            for (int value = 0; value < arena.size(); value++) {
+                int slot = hashes[value] & mask;
+                while (table[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = value + 1;
+            }
+        }
+
+        private static int hash(byte[] data, int from, int to) {
+            int hash = 1;
+            for (int i = from; i < to; i++) {
+                hash = 31 * hash + data[i];
+            }
+            // Spread the high bits, the table only looks at the low ones
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.gignomai.javachangestutorial.text;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Batch versions of {@link String#toUpperCase(Locale)}, {@link String#toLowerCase(Locale)}, {@link String#strip()}
+ * and {@link String#repeat(int)} that write their results into a {@link TextArena} instead of allocating a
+ * {@code String} per element.
+ * <p>
+ * ASCII strings take the fast path: their characters are narrowed into the arena and transformed there with
+ * {@link AsciiKernel}. Any other string falls back to the JDK method and is copied into the arena as UTF-8, so the
+ * results always equal the JDK ones, including for locales such as Turkish where {@code i} does not map to
+ * {@code I}. Each method appends to {@code out} and returns it.
+ */
+public final class StringTransforms {
+
+    private StringTransforms() {
+    }
+
+    public static TextArena toUpperCase(List<String> batch, TextArena out) {
+        return toUpperCase(batch, Locale.ROOT, out);
+    }
+
+    public static TextArena toUpperCase(List<String> batch, Locale locale, TextArena out) {
+        final boolean asciiLocale = hasAsciiCaseRules(locale);
+        for (String value : batch) {
+            final int offset = asciiLocale ? out.appendAscii(value) : -1;
+            if (offset < 0) {
+                out.add(value.toUpperCase(locale));
+            } else {
+                final int end = offset + value.length();
+                AsciiKernel.toUpperCase(out.data(), offset, end, out.data(), offset);
+                out.commit(end);
+            }
+        }
+        return out;
+    }
+
+    public static TextArena toLowerCase(List<String> batch, TextArena out) {
+        return toLowerCase(batch, Locale.ROOT, out);
+    }
+
+    public static TextArena toLowerCase(List<String> batch, Locale locale, TextArena out) {
+        final boolean asciiLocale = hasAsciiCaseRules(locale);
+        for (String value : batch) {
+            final int offset = asciiLocale ? out.appendAscii(value) : -1;
+            if (offset < 0) {
+                out.add(value.toLowerCase(locale));
+            } else {
+                final int end = offset + value.length();
+                AsciiKernel.toLowerCase(out.data(), offset, end, out.data(), offset);
+                out.commit(end);
+            }
+        }
+        return out;
+    }
+
+    public static TextArena strip(List<String> batch, TextArena out) {
+        for (String value : batch) {
+            final int offset = out.appendAscii(value);
+            if (offset < 0) {
+                out.add(value.strip());
+            } else {
+                final byte[] data = out.data();
+                final int end = offset + value.length();
+                final int from = AsciiKernel.skipWhitespace(data, offset, end);
+                final int to = AsciiKernel.skipWhitespaceBackwards(data, from, end);
+                System.arraycopy(data, from, data, offset, to - from);
+                out.commit(offset + to - from);
+            }
+        }
+        return out;
+    }
+
+    public static TextArena repeat(List<String> batch, int count, TextArena out) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count is negative: " + count);
+        }
+        for (String value : batch) {
+            final int offset = out.reserve(0);
+            final int length = out.append(value) - offset;
+            final long total = (long) length * count;
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new OutOfMemoryError("Repeating " + length + " bytes " + count + " times is too large");
+            }
+            // reserve() measures from the last committed end, which is where this string starts
+            out.reserve((int) total);
+            final byte[] data = out.data();
+            // Double the copied region until it covers the whole result
+            int filled = Math.min(length, (int) total);
+            while (filled < total) {
+                final int chunk = (int) Math.min(filled, total - filled);
+                System.arraycopy(data, offset, data, offset + filled, chunk);
+                filled += chunk;
+            }
+            out.commit(offset + (int) total);
+        }
+        return out;
+    }
+
+    // Turkish and Azerbaijani map i and I to dotted and dotless forms, Lithuanian keeps the dot above i and j
+    private static boolean hasAsciiCaseRules(Locale locale) {
+        final String language = locale.getLanguage();
+        return !language.equals("tr") && !language.equals("az") && !language.equals("lt");
+    }
+}
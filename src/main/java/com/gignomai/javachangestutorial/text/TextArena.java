@@ -0,0 +1,169 @@
+package com.gignomai.javachangestutorial.text;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reusable output buffer for {@link StringTransforms}: the UTF-8 bytes of a batch of strings back to back in one
+ * {@code byte[]}, with the end of each string in an {@code int[]}.
+ * <p>
+ * {@link #clear()} keeps the arrays, so a batch loop that clears and refills the same arena stops allocating once
+ * it has grown to the largest batch. Strings are only created when asked for with {@link #toString(int)}.
+ * Like any UTF-8 text, the arena cannot hold unpaired surrogates; they come back as {@code '?'}.
+ * Not thread-safe.
+ */
+public final class TextArena {
+
+    private byte[] data;
+    private int[] ends;
+    private int size;
+    private int length;
+
+    public TextArena() {
+        this(1024, 64);
+    }
+
+    public TextArena(int initialBytes, int initialStrings) {
+        this.data = new byte[Math.max(16, initialBytes)];
+        this.ends = new int[Math.max(4, initialStrings)];
+    }
+
+    public void clear() {
+        size = 0;
+        length = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int start(int index) {
+        checkIndex(index);
+        return index == 0 ? 0 : ends[index - 1];
+    }
+
+    public int end(int index) {
+        checkIndex(index);
+        return ends[index];
+    }
+
+    /**
+     * Length of the string at {@code index} in UTF-8 bytes.
+     */
+    public int byteLength(int index) {
+        return end(index) - start(index);
+    }
+
+    /**
+     * The backing array; only the bytes up to {@link #end(int)} of the last string are meaningful.
+     */
+    public byte[] data() {
+        return data;
+    }
+
+    public String toString(int index) {
+        final int start = start(index);
+        return new String(data, start, ends[index] - start, StandardCharsets.UTF_8);
+    }
+
+    public boolean contentEquals(int index, String value) {
+        final int start = start(index);
+        final int end = ends[index];
+        if (value.length() != end - start || !AsciiKernel.isAscii(data, start, end)) {
+            return toString(index).equals(value);
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (data[start + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void add(String value) {
+        commit(append(value));
+    }
+
+    /**
+     * Adds a string given as UTF-8 bytes, which are copied as they are.
+     */
+    public void add(byte[] utf8, int from, int to) {
+        commit(append(utf8, from, to));
+    }
+
+    public List<String> toList() {
+        final List<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(toString(i));
+        }
+        return list;
+    }
+
+    // Writers reserve room at the end, fill data() from the returned offset and then commit the new end
+
+    int reserve(int bytes) {
+        if (length + bytes > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, length + bytes));
+        }
+        return length;
+    }
+
+    void commit(int end) {
+        if (size == ends.length) {
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        ends[size++] = end;
+        length = end;
+    }
+
+    /**
+     * Writes {@code value} as UTF-8 after the last string, without committing it.
+     *
+     * @return the end of the written bytes
+     */
+    int append(String value) {
+        final int offset = appendAscii(value);
+        if (offset >= 0) {
+            return offset + value.length();
+        }
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        return append(bytes, 0, bytes.length);
+    }
+
+    int append(byte[] utf8, int from, int to) {
+        final int offset = reserve(to - from);
+        System.arraycopy(utf8, from, data, offset, to - from);
+        return offset + to - from;
+    }
+
+    /**
+     * Narrows {@code value} after the last string when it is all ASCII, without committing it.
+     *
+     * @return the offset of the copy, or -1 if {@code value} has other characters
+     */
+    int appendAscii(String value) {
+        final int length = value.length();
+        final int offset = reserve(length);
+        final byte[] bytes = data;
+        for (int i = 0; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c >= 0x80) {
+                return -1;
+            }
+            bytes[offset + i] = (byte) c;
+        }
+        return offset;
+    }
+
+    int[] ends() {
+        return ends;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+}
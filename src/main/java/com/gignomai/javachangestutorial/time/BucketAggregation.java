@@ -0,0 +1,92 @@
+package com.gignomai.javachangestutorial.time;
+
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Dense result of {@link CalendarBuckets}: one slot for every bucket between the earliest and the latest timestamp,
+ * including the empty buckets in between.
+ */
+public final class BucketAggregation {
+
+    private final CalendarBuckets buckets;
+    private final long firstBucket;
+    private final long[] counts;
+    private final long[] sums;
+
+    BucketAggregation(CalendarBuckets buckets, long firstBucket, long[] counts, long[] sums) {
+        this.buckets = buckets;
+        this.firstBucket = firstBucket;
+        this.counts = counts;
+        this.sums = sums;
+    }
+
+    public int size() {
+        return counts.length;
+    }
+
+    public long bucket(int index) {
+        return firstBucket + checkIndex(index);
+    }
+
+    public LocalDate startDate(int index) {
+        return buckets.startDate(bucket(index));
+    }
+
+    public long count(int index) {
+        return counts[checkIndex(index)];
+    }
+
+    public long sum(int index) {
+        if (sums == null) {
+            throw new IllegalStateException("Only counts were aggregated");
+        }
+        return sums[checkIndex(index)];
+    }
+
+    public long totalCount() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Counts of the non-empty buckets keyed by the first day of each bucket.
+     */
+    public Map<LocalDate, Long> toCountMap() {
+        final Map<LocalDate, Long> map = new TreeMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                map.put(startDate(i), counts[i]);
+            }
+        }
+        return map;
+    }
+
+    BucketAggregation merge(BucketAggregation other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        if (sums != null) {
+            for (int i = 0; i < sums.length; i++) {
+                sums[i] += other.sums[i];
+            }
+        }
+        return this;
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= counts.length) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + counts.length);
+        }
+        return index;
+    }
+
+    @Override
+    public String toString() {
+        return buckets.getUnit() + " buckets " + toCountMap();
+    }
+}
@@ -0,0 +1,19 @@
+package com.gignomai.javachangestutorial.time;
+
+/**
+ * Calendar period that {@link CalendarBuckets} groups timestamps into.
+ */
+public enum BucketUnit {
+    /**
+     * A calendar day, starting at {@link java.time.LocalDate#atStartOfDay()}.
+     */
+    DAY,
+    /**
+     * An ISO week, starting on Monday.
+     */
+    WEEK,
+    /**
+     * A calendar month, starting at {@link java.time.temporal.TemporalAdjusters#firstDayOfMonth()}.
+     */
+    MONTH
+}
@@ -0,0 +1,79 @@
+package com.gignomai.javachangestutorial.time;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coarse clock for hot paths: a daemon thread reads the system clock once per tick and publishes the result, so
+ * {@link #instant()} and {@link #millis()} are a single volatile read instead of a call into the OS.
+ * <p>
+ * Readings lag the system clock by up to one tick (plus scheduling delay). Use it for timestamps and timeouts, not
+ * for measuring durations. Clocks returned by {@link #withZone(ZoneId)} share the tick thread; closing any of them
+ * stops it.
+ */
+public final class CachedClock extends Clock implements AutoCloseable {
+
+    private final Ticker ticker;
+    private final ZoneId zone;
+
+    public CachedClock(ZoneId zone, long tickMillis) {
+        this(new Ticker(tickMillis), zone);
+        ticker.start();
+    }
+
+    private CachedClock(Ticker ticker, ZoneId zone) {
+        this.ticker = ticker;
+        this.zone = zone;
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId newZone) {
+        return newZone.equals(zone) ? this : new CachedClock(ticker, newZone);
+    }
+
+    @Override
+    public Instant instant() {
+        return ticker.now;
+    }
+
+    @Override
+    public long millis() {
+        return ticker.now.toEpochMilli();
+    }
+
+    @Override
+    public void close() {
+        ticker.running = false;
+    }
+
+    private static final class Ticker extends Thread {
+        private final long tickNanos;
+        private volatile Instant now = Instant.now();
+        private volatile boolean running = true;
+
+        private Ticker(long tickMillis) {
+            super("cached-clock");
+            if (tickMillis < 1) {
+                throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+            }
+            this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                now = Instant.now();
+                LockSupport.parkNanos(tickNanos);
+            }
+        }
+    }
+}
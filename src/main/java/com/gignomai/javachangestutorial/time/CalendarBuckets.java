@@ -0,0 +1,251 @@
+package com.gignomai.javachangestutorial.time;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.chrono.IsoChronology;
+import java.time.temporal.ChronoField;
+import java.util.Objects;
+import java.util.stream.IntStream;
+
+/**
+ * Assigns epoch-second timestamps to day, week or month buckets using only {@code long} arithmetic, so aggregating
+ * millions of events does not allocate a {@link LocalDate} for each one.
+ * <p>
+ * A bucket is identified by a {@code long} that grows by one from each bucket to the next:
+ * <ul>
+ *     <li>{@link BucketUnit#DAY}: the epoch day.</li>
+ *     <li>{@link BucketUnit#WEEK}: the number of weeks since Monday 1969-12-29.</li>
+ *     <li>{@link BucketUnit#MONTH}: the proleptic month, {@code year * 12 + month - 1}, as in
+ *     {@link ChronoField#PROLEPTIC_MONTH}.</li>
+ * </ul>
+ * Month buckets are looked up in a table of month start days covering {@value #TABLE_FIRST_YEAR} to
+ * {@value #TABLE_LAST_YEAR}, built with the ISO leap year rule. Dates outside that range fall back to
+ * {@link LocalDate}.
+ */
+public final class CalendarBuckets {
+
+    private static final int SECONDS_PER_DAY = 86_400;
+    // 1970-01-01 was a Thursday, three days after Monday
+    private static final int EPOCH_DAY_OF_WEEK = 3;
+    // The Gregorian calendar repeats every 400 years, which are 146097 days and 4800 months
+    private static final int DAYS_PER_CYCLE = 146_097;
+    private static final int MONTHS_PER_CYCLE = 4_800;
+
+    static final int TABLE_FIRST_YEAR = 1900;
+    static final int TABLE_LAST_YEAR = 2199;
+    private static final long TABLE_FIRST_MONTH = TABLE_FIRST_YEAR * 12L;
+    // MONTH_STARTS[i] is the epoch day of the first day of month TABLE_FIRST_MONTH + i; the last entry closes the range
+    private static final int[] MONTH_STARTS = buildMonthStarts();
+    private static final long TABLE_FIRST_DAY = MONTH_STARTS[0];
+    private static final long TABLE_END_DAY = MONTH_STARTS[MONTH_STARTS.length - 1];
+
+    static final int MAX_BUCKETS = 1 << 24;
+    private static final int MIN_CHUNK_SIZE = 1 << 16;
+
+    private final BucketUnit unit;
+    private final int offsetSeconds;
+
+    private CalendarBuckets(BucketUnit unit, ZoneOffset offset) {
+        this.unit = Objects.requireNonNull(unit, "unit");
+        this.offsetSeconds = offset.getTotalSeconds();
+    }
+
+    public static CalendarBuckets of(BucketUnit unit) {
+        return new CalendarBuckets(unit, ZoneOffset.UTC);
+    }
+
+    /**
+     * Buckets follow the local calendar at the given offset, so a day starts at local midnight.
+     */
+    public static CalendarBuckets of(BucketUnit unit, ZoneOffset offset) {
+        return new CalendarBuckets(unit, Objects.requireNonNull(offset, "offset"));
+    }
+
+    public BucketUnit getUnit() {
+        return unit;
+    }
+
+    public long bucketOfEpochSecond(long epochSecond) {
+        return bucketOfEpochDay(Math.floorDiv(epochSecond + offsetSeconds, SECONDS_PER_DAY));
+    }
+
+    public long bucketOfEpochDay(long epochDay) {
+        switch (unit) {
+            case DAY:
+                return epochDay;
+            case WEEK:
+                return Math.floorDiv(epochDay + EPOCH_DAY_OF_WEEK, 7);
+            default:
+                return prolepticMonth(epochDay);
+        }
+    }
+
+    /**
+     * Epoch day of the first day in the bucket.
+     */
+    public long startEpochDay(long bucket) {
+        switch (unit) {
+            case DAY:
+                return bucket;
+            case WEEK:
+                return bucket * 7 - EPOCH_DAY_OF_WEEK;
+            default:
+                return monthStartEpochDay(bucket);
+        }
+    }
+
+    public LocalDate startDate(long bucket) {
+        return LocalDate.ofEpochDay(startEpochDay(bucket));
+    }
+
+    public BucketAggregation count(long[] epochSeconds) {
+        return aggregate(epochSeconds, null, false);
+    }
+
+    public BucketAggregation countParallel(long[] epochSeconds) {
+        return aggregate(epochSeconds, null, true);
+    }
+
+    /**
+     * Counts the timestamps in each bucket and sums {@code values[i]} into the bucket of {@code epochSeconds[i]}.
+     */
+    public BucketAggregation sum(long[] epochSeconds, long[] values) {
+        return aggregate(epochSeconds, requireSameLength(epochSeconds, values), false);
+    }
+
+    public BucketAggregation sumParallel(long[] epochSeconds, long[] values) {
+        return aggregate(epochSeconds, requireSameLength(epochSeconds, values), true);
+    }
+
+    private BucketAggregation aggregate(long[] epochSeconds, long[] values, boolean parallel) {
+        if (epochSeconds.length == 0) {
+            return new BucketAggregation(this, 0, new long[0], values == null ? null : new long[0]);
+        }
+        // Buckets never decrease as time goes on, so the earliest and latest timestamps bound every bucket
+        final long[] minMax = parallel ? minMaxParallel(epochSeconds) : minMax(epochSeconds, 0, epochSeconds.length);
+        final long firstBucket = bucketOfEpochSecond(minMax[0]);
+        final long bucketCount = bucketOfEpochSecond(minMax[1]) - firstBucket + 1;
+        if (bucketCount > MAX_BUCKETS) {
+            throw new IllegalArgumentException("Timestamps span " + bucketCount + " " + unit
+                    + " buckets, more than the limit of " + MAX_BUCKETS);
+        }
+
+        final int chunks = parallel ? chunkCount(epochSeconds.length) : 1;
+        if (chunks == 1) {
+            final long[] counts = new long[(int) bucketCount];
+            final long[] sums = values == null ? null : new long[(int) bucketCount];
+            accumulate(epochSeconds, values, 0, epochSeconds.length, firstBucket, counts, sums);
+            return new BucketAggregation(this, firstBucket, counts, sums);
+        }
+        // Every chunk fills its own arrays, which are added together once all of them are done
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> {
+                    final long[] counts = new long[(int) bucketCount];
+                    final long[] sums = values == null ? null : new long[(int) bucketCount];
+                    accumulate(epochSeconds, values, chunkStart(chunk, chunks, epochSeconds.length),
+                            chunkStart(chunk + 1, chunks, epochSeconds.length), firstBucket, counts, sums);
+                    return new BucketAggregation(this, firstBucket, counts, sums);
+                })
+                .reduce(BucketAggregation::merge)
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    private void accumulate(long[] epochSeconds, long[] values, int from, int to,
+                            long firstBucket, long[] counts, long[] sums) {
+        for (int i = from; i < to; i++) {
+            final int index = (int) (bucketOfEpochSecond(epochSeconds[i]) - firstBucket);
+            counts[index]++;
+            if (sums != null) {
+                sums[index] += values[i];
+            }
+        }
+    }
+
+    private static long[] minMax(long[] values, int from, int to) {
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+        return new long[]{min, max};
+    }
+
+    private static long[] minMaxParallel(long[] values) {
+        final int chunks = chunkCount(values.length);
+        return IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(chunk -> minMax(values, chunkStart(chunk, chunks, values.length),
+                        chunkStart(chunk + 1, chunks, values.length)))
+                .reduce((a, b) -> new long[]{Math.min(a[0], b[0]), Math.max(a[1], b[1])})
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    private static int chunkCount(int length) {
+        final int parallelism = Runtime.getRuntime().availableProcessors();
+        return Math.max(1, Math.min(length / MIN_CHUNK_SIZE, parallelism * 4));
+    }
+
+    private static int chunkStart(int chunk, int chunks, int length) {
+        return (int) ((long) length * chunk / chunks);
+    }
+
+    private static long[] requireSameLength(long[] epochSeconds, long[] values) {
+        if (values.length != epochSeconds.length) {
+            throw new IllegalArgumentException("Expected " + epochSeconds.length + " values but got " + values.length);
+        }
+        return values;
+    }
+
+    static long prolepticMonth(long epochDay) {
+        if (epochDay < TABLE_FIRST_DAY || epochDay >= TABLE_END_DAY) {
+            return LocalDate.ofEpochDay(epochDay).getLong(ChronoField.PROLEPTIC_MONTH);
+        }
+        // Guess from the average month length, then correct by at most one entry in either direction
+        int index = (int) Math.min((epochDay - TABLE_FIRST_DAY) * MONTHS_PER_CYCLE / DAYS_PER_CYCLE,
+                MONTH_STARTS.length - 2);
+        while (MONTH_STARTS[index + 1] <= epochDay) {
+            index++;
+        }
+        while (MONTH_STARTS[index] > epochDay) {
+            index--;
+        }
+        return TABLE_FIRST_MONTH + index;
+    }
+
+    static long monthStartEpochDay(long prolepticMonth) {
+        final long index = prolepticMonth - TABLE_FIRST_MONTH;
+        if (index < 0 || index >= MONTH_STARTS.length) {
+            return LocalDate.of(Math.toIntExact(Math.floorDiv(prolepticMonth, 12)),
+                    Math.floorMod(prolepticMonth, 12) + 1, 1).toEpochDay();
+        }
+        return MONTH_STARTS[(int) index];
+    }
+
+    private static int[] buildMonthStarts() {
+        final int months = (TABLE_LAST_YEAR - TABLE_FIRST_YEAR + 1) * 12;
+        final int[] starts = new int[months + 1];
+        int day = (int) LocalDate.of(TABLE_FIRST_YEAR, 1, 1).toEpochDay();
+        for (int i = 0; i < months; i++) {
+            starts[i] = day;
+            day += lengthOfMonth(TABLE_FIRST_YEAR + i / 12, i % 12 + 1);
+        }
+        starts[months] = day;
+        return starts;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return IsoChronology.INSTANCE.isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+}
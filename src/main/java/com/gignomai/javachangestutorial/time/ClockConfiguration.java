@@ -0,0 +1,29 @@
+package com.gignomai.javachangestutorial.time;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.ZoneId;
+
+/**
+ * Provides the {@link Clock} every component should take instead of calling {@code now()} without arguments.
+ */
+@Configuration
+public class ClockConfiguration {
+
+    @Bean
+    public Clock clock(@Value("${clock.mode:system}") ClockMode mode,
+                       @Value("${clock.tick-millis:1}") long tickMillis) {
+        final ZoneId zone = ZoneId.systemDefault();
+        switch (mode) {
+            case CACHED:
+                return new CachedClock(zone, tickMillis);
+            case MUTABLE:
+                return new MutableClock(Clock.system(zone).instant(), zone);
+            default:
+                return Clock.system(zone);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.gignomai.javachangestutorial.time;
+
+/**
+ * Which {@link java.time.Clock} the application uses, selected with the {@code clock.mode} property.
+ */
+public enum ClockMode {
+    /**
+     * {@link java.time.Clock#systemDefaultZone()}.
+     */
+    SYSTEM,
+    /**
+     * {@link CachedClock}, refreshed every {@code clock.tick-millis}.
+     */
+    CACHED,
+    /**
+     * {@link MutableClock} starting at the current time; it only moves when advanced.
+     */
+    MUTABLE
+}
@@ -0,0 +1,264 @@
+package com.gignomai.javachangestutorial.time;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Parser and formatter for ISO-8601 local dates ({@code 2022-05-16}) and date-times
+ * ({@code 2022-05-16T10:15}, {@code 2022-05-16T10:15:30.123}) that works on {@link CharSequence} and {@code byte[]}
+ * without regexes or {@link DateTimeFormatter}.
+ * <p>
+ * Results are the same as {@link DateTimeFormatter#ISO_LOCAL_DATE} and {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME}.
+ * Only the common shape, a four digit year, is handled here; any other input, including invalid input, is passed on
+ * to the JDK formatters, so rare years parse the same way and errors carry the same
+ * {@link java.time.format.DateTimeParseException}.
+ * <p>
+ * Parsed dates go through a small direct-mapped cache, so a stream of events from the same few days returns the
+ * same {@link LocalDate} instances instead of allocating new ones.
+ */
+public final class IsoDates {
+
+    private static final int CACHE_SIZE = 4096;
+    // Benign races: LocalDate is immutable, so a reader sees either null, an older date or the new one
+    private static final LocalDate[] CACHE = new LocalDate[CACHE_SIZE];
+
+    private IsoDates() {
+    }
+
+    public static LocalDate parseLocalDate(CharSequence text) {
+        if (text.length() == 10) {
+            final LocalDate date = parseDate(text, 0);
+            if (date != null) {
+                return date;
+            }
+        }
+        return LocalDate.parse(text, DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    public static LocalDate parseLocalDate(byte[] bytes, int offset, int length) {
+        if (length == 10) {
+            final LocalDate date = parseDate(bytes, offset);
+            if (date != null) {
+                return date;
+            }
+        }
+        return LocalDate.parse(new String(bytes, offset, length, StandardCharsets.ISO_8859_1),
+                DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+
+    public static LocalDateTime parseLocalDateTime(CharSequence text) {
+        if (text.length() >= 16 && text.charAt(10) == 'T') {
+            final LocalDate date = parseDate(text, 0);
+            final LocalTime time = date == null ? null : parseTime(text, 11, text.length());
+            if (time != null) {
+                return LocalDateTime.of(date, time);
+            }
+        }
+        return LocalDateTime.parse(text, DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    public static LocalDateTime parseLocalDateTime(byte[] bytes, int offset, int length) {
+        if (length >= 16 && bytes[offset + 10] == 'T') {
+            final LocalDate date = parseDate(bytes, offset);
+            final LocalTime time = date == null ? null : parseTime(bytes, offset + 11, offset + length);
+            if (time != null) {
+                return LocalDateTime.of(date, time);
+            }
+        }
+        return LocalDateTime.parse(new String(bytes, offset, length, StandardCharsets.ISO_8859_1),
+                DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    public static String format(LocalDate date) {
+        return formatTo(date, new StringBuilder(10)).toString();
+    }
+
+    public static StringBuilder formatTo(LocalDate date, StringBuilder out) {
+        final int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            DateTimeFormatter.ISO_LOCAL_DATE.formatTo(date, out);
+            return out;
+        }
+        appendDigits(out, year, 4);
+        out.append('-');
+        appendDigits(out, date.getMonthValue(), 2);
+        out.append('-');
+        appendDigits(out, date.getDayOfMonth(), 2);
+        return out;
+    }
+
+    /**
+     * Writes the date as ASCII into {@code out} and returns the number of bytes written.
+     */
+    public static int formatTo(LocalDate date, byte[] out, int offset) {
+        final int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            final byte[] formatted = DateTimeFormatter.ISO_LOCAL_DATE.format(date).getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(formatted, 0, out, offset, formatted.length);
+            return formatted.length;
+        }
+        writeDigits(out, offset, year, 4);
+        out[offset + 4] = '-';
+        writeDigits(out, offset + 5, date.getMonthValue(), 2);
+        out[offset + 7] = '-';
+        writeDigits(out, offset + 8, date.getDayOfMonth(), 2);
+        return 10;
+    }
+
+    public static String format(LocalDateTime dateTime) {
+        return formatTo(dateTime, new StringBuilder(29)).toString();
+    }
+
+    /**
+     * Seconds are always written and the fraction only as far as its last non-zero digit, like
+     * {@link DateTimeFormatter#ISO_LOCAL_DATE_TIME} and unlike {@link LocalDateTime#toString()}.
+     */
+    public static StringBuilder formatTo(LocalDateTime dateTime, StringBuilder out) {
+        formatTo(dateTime.toLocalDate(), out).append('T');
+        appendDigits(out, dateTime.getHour(), 2);
+        out.append(':');
+        appendDigits(out, dateTime.getMinute(), 2);
+        out.append(':');
+        appendDigits(out, dateTime.getSecond(), 2);
+        int nano = dateTime.getNano();
+        if (nano > 0) {
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            out.append('.');
+            appendDigits(out, nano, digits);
+        }
+        return out;
+    }
+
+    private static LocalDate parseDate(CharSequence text, int offset) {
+        if (text.charAt(offset + 4) != '-' || text.charAt(offset + 7) != '-') {
+            return null;
+        }
+        final int year = digits(text, offset, 4);
+        final int month = digits(text, offset + 5, 2);
+        final int day = digits(text, offset + 8, 2);
+        return year < 0 || month < 0 || day < 0 ? null : cachedDate(year, month, day);
+    }
+
+    private static LocalDate parseDate(byte[] bytes, int offset) {
+        if (bytes[offset + 4] != '-' || bytes[offset + 7] != '-') {
+            return null;
+        }
+        final int year = digits(bytes, offset, 4);
+        final int month = digits(bytes, offset + 5, 2);
+        final int day = digits(bytes, offset + 8, 2);
+        return year < 0 || month < 0 || day < 0 ? null : cachedDate(year, month, day);
+    }
+
+    // HH:mm, HH:mm:ss or HH:mm:ss followed by 1 to 9 fraction digits
+    private static LocalTime parseTime(CharSequence text, int offset, int end) {
+        final int length = end - offset;
+        if (!isTimeLength(length) || text.charAt(offset + 2) != ':' || (length > 5 && text.charAt(offset + 5) != ':')
+                || (length > 8 && text.charAt(offset + 8) != '.')) {
+            return null;
+        }
+        return time(digits(text, offset, 2), digits(text, offset + 3, 2),
+                length > 5 ? digits(text, offset + 6, 2) : 0,
+                length > 8 ? digits(text, offset + 9, length - 9) : 0, Math.max(0, length - 9));
+    }
+
+    private static LocalTime parseTime(byte[] bytes, int offset, int end) {
+        final int length = end - offset;
+        if (!isTimeLength(length) || bytes[offset + 2] != ':' || (length > 5 && bytes[offset + 5] != ':')
+                || (length > 8 && bytes[offset + 8] != '.')) {
+            return null;
+        }
+        return time(digits(bytes, offset, 2), digits(bytes, offset + 3, 2),
+                length > 5 ? digits(bytes, offset + 6, 2) : 0,
+                length > 8 ? digits(bytes, offset + 9, length - 9) : 0, Math.max(0, length - 9));
+    }
+
+    private static boolean isTimeLength(int length) {
+        return length == 5 || length == 8 || (length >= 10 && length <= 18);
+    }
+
+    private static LocalTime time(int hour, int minute, int second, int fraction, int fractionDigits) {
+        if (hour < 0 || minute < 0 || second < 0 || fraction < 0) {
+            return null;
+        }
+        int nano = fraction;
+        for (int i = fractionDigits; i < 9; i++) {
+            nano *= 10;
+        }
+        try {
+            return LocalTime.of(hour, minute, second, nano);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    private static LocalDate cachedDate(int year, int month, int day) {
+        final int key = (year << 9) | (month << 5) | day;
+        final int index = (key * 0x9E3779B9 >>> 20) & (CACHE_SIZE - 1);
+        final LocalDate cached = CACHE[index];
+        if (cached != null && cached.getDayOfMonth() == day && cached.getMonthValue() == month
+                && cached.getYear() == year) {
+            return cached;
+        }
+        final LocalDate date;
+        try {
+            date = LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
+            return null;
+        }
+        CACHE[index] = date;
+        return date;
+    }
+
+    private static int digits(CharSequence text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            final int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static int digits(byte[] bytes, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            final int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void appendDigits(StringBuilder out, int value, int count) {
+        for (int divisor = pow10(count - 1); divisor > 0; divisor /= 10) {
+            out.append((char) ('0' + value / divisor % 10));
+        }
+    }
+
+    private static void writeDigits(byte[] out, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            out[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int pow10(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= 10;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,49 @@
+package com.gignomai.javachangestutorial.time;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Clock that only moves when told to, so tests can check time based logic without sleeping.
+ * Clocks returned by {@link #withZone(ZoneId)} share the same instant.
+ */
+public final class MutableClock extends Clock {
+
+    private final AtomicReference<Instant> instant;
+    private final ZoneId zone;
+
+    public MutableClock(Instant instant, ZoneId zone) {
+        this(new AtomicReference<>(instant), zone);
+    }
+
+    private MutableClock(AtomicReference<Instant> instant, ZoneId zone) {
+        this.instant = instant;
+        this.zone = zone;
+    }
+
+    public void setInstant(Instant newInstant) {
+        instant.set(newInstant);
+    }
+
+    public void advance(Duration duration) {
+        instant.updateAndGet(current -> current.plus(duration));
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    @Override
+    public Clock withZone(ZoneId newZone) {
+        return newZone.equals(zone) ? this : new MutableClock(instant, newZone);
+    }
+
+    @Override
+    public Instant instant() {
+        return instant.get();
+    }
+}
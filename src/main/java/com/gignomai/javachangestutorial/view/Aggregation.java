@@ -0,0 +1,17 @@
+package com.gignomai.javachangestutorial.view;
+
+/**
+ * Aggregate kept up to date by a {@link MaterializedView}. Implementations are not thread-safe; the view calls them
+ * under its own lock.
+ */
+interface Aggregation<T> {
+
+    void insert(Element<T> element);
+
+    void remove(Element<T> element);
+
+    /**
+     * Current result, immutable so it can be handed to readers in a {@link ViewSnapshot}.
+     */
+    Object value();
+}
@@ -0,0 +1,32 @@
+package com.gignomai.javachangestutorial.view;
+
+import java.util.function.Predicate;
+
+final class CountAggregation<T> implements Aggregation<T> {
+
+    private final Predicate<? super T> predicate;
+    private long count;
+
+    CountAggregation(Predicate<? super T> predicate) {
+        this.predicate = predicate;
+    }
+
+    @Override
+    public void insert(Element<T> element) {
+        if (predicate.test(element.value)) {
+            count++;
+        }
+    }
+
+    @Override
+    public void remove(Element<T> element) {
+        if (predicate.test(element.value)) {
+            count--;
+        }
+    }
+
+    @Override
+    public Object value() {
+        return count;
+    }
+}
@@ -0,0 +1,20 @@
+package com.gignomai.javachangestutorial.view;
+
+/**
+ * Occurrence of a value in a {@link MaterializedView}. The sequence number is the insertion order, which breaks ties
+ * between elements that compare equal. Equal values are chained oldest first from the head kept in the view.
+ */
+final class Element<T> {
+
+    final T value;
+    final long sequence;
+    Element<T> next;
+    // Newest occurrence of the value; only kept up to date on the head of the chain
+    Element<T> last;
+
+    Element(T value, long sequence) {
+        this.value = value;
+        this.sequence = sequence;
+        this.last = this;
+    }
+}
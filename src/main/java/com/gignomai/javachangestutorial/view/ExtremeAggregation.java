@@ -0,0 +1,34 @@
+package com.gignomai.javachangestutorial.view;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Least element by a comparator, kept in a tree so removing the current one is O(log n). A maximum is the least
+ * element by the reversed comparator. Ties go to the oldest element, as with {@code Stream.min} and {@code max}.
+ */
+final class ExtremeAggregation<T> implements Aggregation<T> {
+
+    private final TreeSet<Element<T>> elements;
+
+    ExtremeAggregation(Comparator<? super T> comparator) {
+        this.elements = new TreeSet<>(Comparator.<Element<T>, T>comparing(element -> element.value, comparator)
+                .thenComparingLong(element -> element.sequence));
+    }
+
+    @Override
+    public void insert(Element<T> element) {
+        elements.add(element);
+    }
+
+    @Override
+    public void remove(Element<T> element) {
+        elements.remove(element);
+    }
+
+    @Override
+    public Object value() {
+        return elements.isEmpty() ? Optional.empty() : Optional.of(elements.first().value);
+    }
+}
@@ -0,0 +1,167 @@
+package com.gignomai.javachangestutorial.view;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Multiset of elements with named aggregations that are updated on every insert and remove instead of recomputed
+ * with a stream over the whole data set. Counts by predicate cost O(1) per update; minimums and maximums keep their
+ * elements in a tree and cost O(log n).
+ * <p>
+ * Results match a stream over a list that had the same {@code add} and {@code remove(Object)} calls: removing drops
+ * the oldest equal element, and among elements that compare equal the oldest wins, like {@code Stream.min}.
+ * <p>
+ * Updates are serialized and each one publishes a {@link ViewSnapshot}, so readers never lock and always see every
+ * aggregation at the same point. {@link #addAll} and {@link #removeAll} publish once for the whole batch. Predicates
+ * and comparators must be consistent for an element over time and must not throw.
+ * <pre>{@code
+ * MaterializedView<String> view = new MaterializedView<String>()
+ *         .count("ona", name -> name.endsWith("ona"))
+ *         .shortest("shortest", String::length);
+ * view.addAll(names);
+ * long matches = view.snapshot().count("ona");
+ * }</pre>
+ */
+public final class MaterializedView<T> {
+
+    private static final Object[] NO_VALUES = new Object[0];
+
+    // Head of the chain of occurrences of each value, oldest first
+    private final Map<T, Element<T>> occurrences = new HashMap<>();
+    private final List<Aggregation<T>> aggregations = new ArrayList<>();
+    private Map<String, Integer> positions = Map.of();
+    private long nextSequence;
+    private long size;
+    private volatile ViewSnapshot<T> snapshot = new ViewSnapshot<>(0, Map.of(), NO_VALUES);
+
+    /**
+     * Counts the elements matching {@code predicate}.
+     */
+    public MaterializedView<T> count(String name, Predicate<? super T> predicate) {
+        return register(name, new CountAggregation<>(Objects.requireNonNull(predicate, "predicate")));
+    }
+
+    public MaterializedView<T> min(String name, Comparator<? super T> comparator) {
+        return register(name, new ExtremeAggregation<>(Objects.requireNonNull(comparator, "comparator")));
+    }
+
+    public MaterializedView<T> max(String name, Comparator<? super T> comparator) {
+        return register(name, new ExtremeAggregation<>(Objects.requireNonNull(comparator, "comparator").reversed()));
+    }
+
+    public MaterializedView<T> shortest(String name, ToIntFunction<? super T> length) {
+        return min(name, Comparator.comparingInt(length));
+    }
+
+    public MaterializedView<T> longest(String name, ToIntFunction<? super T> length) {
+        return max(name, Comparator.comparingInt(length));
+    }
+
+    public synchronized void add(T value) {
+        insert(value);
+        publish();
+    }
+
+    public synchronized void addAll(Iterable<? extends T> values) {
+        for (T value : values) {
+            insert(value);
+        }
+        publish();
+    }
+
+    /**
+     * Removes the oldest element equal to {@code value}, returning whether there was one.
+     */
+    public synchronized boolean remove(T value) {
+        final boolean removed = delete(value);
+        if (removed) {
+            publish();
+        }
+        return removed;
+    }
+
+    /**
+     * Removes one element per value, as {@link #remove(Object)} does, returning how many were found.
+     */
+    public synchronized int removeAll(Iterable<? extends T> values) {
+        int removed = 0;
+        for (T value : values) {
+            if (delete(value)) {
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            publish();
+        }
+        return removed;
+    }
+
+    public ViewSnapshot<T> snapshot() {
+        return snapshot;
+    }
+
+    // Aggregations registered on a view that already holds elements start from all of them
+    private synchronized MaterializedView<T> register(String name, Aggregation<T> aggregation) {
+        Objects.requireNonNull(name, "name");
+        if (positions.containsKey(name)) {
+            throw new IllegalArgumentException("Aggregation already registered: " + name);
+        }
+        for (Element<T> head : occurrences.values()) {
+            for (Element<T> element = head; element != null; element = element.next) {
+                aggregation.insert(element);
+            }
+        }
+        final Map<String, Integer> extended = new HashMap<>(positions);
+        extended.put(name, aggregations.size());
+        aggregations.add(aggregation);
+        positions = Map.copyOf(extended);
+        publish();
+        return this;
+    }
+
+    private void insert(T value) {
+        final Element<T> element = new Element<>(Objects.requireNonNull(value, "value"), nextSequence++);
+        final Element<T> head = occurrences.putIfAbsent(value, element);
+        if (head != null) {
+            head.last.next = element;
+            head.last = element;
+        }
+        for (Aggregation<T> aggregation : aggregations) {
+            aggregation.insert(element);
+        }
+        size++;
+    }
+
+    private boolean delete(T value) {
+        final Element<T> head = occurrences.get(value);
+        if (head == null) {
+            return false;
+        }
+        final Element<T> next = head.next;
+        if (next == null) {
+            occurrences.remove(value);
+        } else {
+            next.last = head.last;
+            occurrences.put(value, next);
+        }
+        for (Aggregation<T> aggregation : aggregations) {
+            aggregation.remove(head);
+        }
+        size--;
+        return true;
+    }
+
+    private void publish() {
+        final Object[] values = new Object[aggregations.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = aggregations.get(i).value();
+        }
+        snapshot = new ViewSnapshot<>(size, positions, values);
+    }
+}
@@ -0,0 +1,70 @@
+package com.gignomai.javachangestutorial.view;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Point-in-time results of every aggregation of a {@link MaterializedView}, all taken after the same update.
+ */
+public final class ViewSnapshot<T> {
+
+    private final long size;
+    private final Map<String, Integer> positions;
+    private final Object[] values;
+
+    ViewSnapshot(long size, Map<String, Integer> positions, Object[] values) {
+        this.size = size;
+        this.positions = positions;
+        this.values = values;
+    }
+
+    /**
+     * Number of elements in the view, duplicates included.
+     */
+    public long size() {
+        return size;
+    }
+
+    public Set<String> names() {
+        return positions.keySet();
+    }
+
+    /**
+     * Result of a {@code count} aggregation.
+     */
+    public long count(String name) {
+        final Object value = value(name);
+        if (!(value instanceof Long)) {
+            throw new IllegalArgumentException("Not a count: " + name);
+        }
+        return (Long) value;
+    }
+
+    /**
+     * Result of a {@code min}, {@code max}, {@code shortest} or {@code longest} aggregation, empty when the view is.
+     */
+    @SuppressWarnings("unchecked")
+    public Optional<T> get(String name) {
+        final Object value = value(name);
+        if (!(value instanceof Optional)) {
+            throw new IllegalArgumentException("Not a min or max: " + name);
+        }
+        return (Optional<T>) value;
+    }
+
+    private Object value(String name) {
+        final Integer position = positions.get(name);
+        if (position == null) {
+            throw new IllegalArgumentException("No aggregation named " + name);
+        }
+        return values[position];
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("ViewSnapshot[size=").append(size);
+        positions.forEach((name, position) -> builder.append(", ").append(name).append('=').append(values[position]));
+        return builder.append(']').toString();
+    }
+}
@@ -0,0 +1,30 @@
+package com.gignomai.javachangestutorial;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class StartupProbeTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(StartupProbe.class);
+
+    @Test
+    void shouldOnlyExitOnReadyWhenAskedTo() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(StartupProbe.class));
+        contextRunner.withPropertyValues("startup.exit-on-ready=true")
+                .run(context -> assertThat(context).hasSingleBean(StartupProbe.class));
+    }
+
+    @Test
+    void shouldReadResidentMemory() {
+        assumeTrue(Files.isReadable(Path.of("/proc/self/status")));
+
+        assertThat(StartupProbe.residentKilobytes()).isPositive();
+    }
+}
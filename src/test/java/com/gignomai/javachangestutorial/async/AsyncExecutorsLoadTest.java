@@ -0,0 +1,91 @@
+package com.gignomai.javachangestutorial.async;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Floods a pool with blocking calls, like the ones in CompletableFutureTest, and then measures how long a trivial
+ * CPU task has to wait for a thread.
+ */
+class AsyncExecutorsLoadTest {
+
+    private static final long BLOCKING_MILLIS = 300;
+
+    @Test
+    void shouldSaturateCommonPoolWithBlockingTasks() {
+        // With a single worker CompletableFuture swaps the common pool for a new thread per task
+        assumeTrue(ForkJoinPool.getCommonPoolParallelism() > 1);
+        final ForkJoinPool commonPool = ForkJoinPool.commonPool();
+        final int blockingTasks = ForkJoinPool.getCommonPoolParallelism() * 4;
+
+        final List<CompletableFuture<Void>> blocking = submitBlocking(blockingTasks, commonPool);
+        final long cpuTaskLatency = measureTrivialTask(commonPool);
+        CompletableFuture.allOf(blocking.toArray(new CompletableFuture[0])).join();
+
+        // The CPU task queues behind every round of sleeping tasks
+        assertThat(cpuTaskLatency).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(BLOCKING_MILLIS));
+    }
+
+    @Test
+    void shouldKeepCpuPoolResponsiveWhileIoPoolIsBusy() throws InterruptedException {
+        final AsyncExecutors executors = AsyncExecutors.withDefaults();
+        final int blockingTasks = ForkJoinPool.getCommonPoolParallelism() * 4;
+
+        final List<CompletableFuture<Void>> blocking = submitBlocking(blockingTasks, executors.io());
+        final long cpuTaskLatency = measureTrivialTask(executors.cpu());
+        final ExecutorMetrics ioUnderLoad = executors.io().metrics();
+        CompletableFuture.allOf(blocking.toArray(new CompletableFuture[0])).join();
+        // Completed tasks are counted after the future completes, so wait for the tasks themselves to return
+        executors.io().shutdown();
+        assertThat(executors.io().awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(cpuTaskLatency).isLessThan(TimeUnit.MILLISECONDS.toNanos(BLOCKING_MILLIS) / 2);
+        assertThat(ioUnderLoad.getActiveThreads()).isPositive();
+        assertThat(executors.io().metrics().getCompletedTasks()).isEqualTo(blockingTasks);
+        executors.destroy();
+    }
+
+    private List<CompletableFuture<Void>> submitBlocking(int tasks, Executor executor) {
+        final List<CompletableFuture<Void>> futures = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            futures.add(CompletableFuture.runAsync(AsyncExecutorsLoadTest::sleep, executor));
+        }
+        return futures;
+    }
+
+    // Waits on a latch instead of join(): join() lets the caller run queued common pool tasks itself
+    private long measureTrivialTask(Executor executor) {
+        final CountDownLatch done = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        final AtomicLong startedAt = new AtomicLong();
+        CompletableFuture.runAsync(() -> {
+            startedAt.set(System.nanoTime());
+            done.countDown();
+        }, executor);
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e.getLocalizedMessage());
+        }
+        return startedAt.get() - start;
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(BLOCKING_MILLIS);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e.getLocalizedMessage());
+        }
+    }
+}
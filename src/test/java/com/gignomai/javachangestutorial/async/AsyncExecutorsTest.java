@@ -0,0 +1,106 @@
+package com.gignomai.javachangestutorial.async;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class AsyncExecutorsTest {
+
+    @Test
+    void shouldRunTasksInNamedThreads() throws ExecutionException, InterruptedException {
+        final AsyncExecutors executors = AsyncExecutors.withDefaults();
+
+        final String cpuThread = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), executors.cpu()).get();
+        final String ioThread = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), executors.io()).get();
+
+        assertThat(cpuThread).startsWith("async-cpu-");
+        assertThat(ioThread).startsWith("async-io-");
+        executors.destroy();
+    }
+
+    @Test
+    void shouldRejectTasksWhenQueueIsFull() throws InterruptedException {
+        final BoundedExecutor executor = new BoundedExecutor("test", 1, 1, new ThreadPoolExecutor.AbortPolicy());
+        final CountDownLatch release = new CountDownLatch(1);
+
+        executor.execute(() -> await(release));
+        executor.execute(() -> await(release));
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> await(release)));
+
+        final ExecutorMetrics metrics = executor.metrics();
+        assertThat(metrics.getActiveThreads()).isEqualTo(1);
+        assertThat(metrics.getQueueDepth()).isEqualTo(1);
+        assertThat(metrics.getRejectedTasks()).isEqualTo(1);
+
+        release.countDown();
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+        assertThat(executor.metrics().getCompletedTasks()).isEqualTo(2);
+        assertThat(executor.metrics().getMaxLatencyNanos()).isPositive();
+    }
+
+    @Test
+    void shouldRunInCallerThreadWhenCpuPoolIsFull() throws InterruptedException {
+        final AsyncExecutors executors = new AsyncExecutors(1, 1, 1, 1, ExecutionMode.PLATFORM);
+        final CountDownLatch release = new CountDownLatch(1);
+        executors.cpu().execute(() -> await(release));
+        executors.cpu().execute(() -> await(release));
+
+        final String[] thread = new String[1];
+        executors.cpu().execute(() -> thread[0] = Thread.currentThread().getName());
+
+        assertThat(thread[0]).isEqualTo(Thread.currentThread().getName());
+        assertThat(executors.cpu().metrics().getRejectedTasks()).isEqualTo(1);
+        release.countDown();
+        executors.destroy();
+    }
+
+    @Test
+    void shouldFallBackToIoPoolWithoutVirtualThreads() {
+        assumeFalse(VirtualThreads.isSupported());
+        final AsyncExecutors executors = AsyncExecutors.withDefaults();
+
+        assertThat(executors.blocking(ExecutionMode.VIRTUAL)).isSameAs(executors.io());
+        executors.destroy();
+    }
+
+    @Test
+    void shouldRunBlockingStagesOnVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isSupported());
+        final AsyncExecutors executors = AsyncExecutors.withDefaults();
+
+        final Boolean virtual = CompletableFuture.supplyAsync(AsyncExecutorsTest::isVirtualThread,
+                executors.blocking(ExecutionMode.VIRTUAL)).get();
+
+        assertThat(virtual).isTrue();
+        assertThat(executors.blocking()).isSameAs(executors.io());
+        executors.destroy();
+    }
+
+    private static boolean isVirtualThread() {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread());
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
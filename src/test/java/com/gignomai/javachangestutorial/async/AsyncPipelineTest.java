@@ -0,0 +1,177 @@
+package com.gignomai.javachangestutorial.async;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AsyncPipelineTest {
+
+    private static final long FAST_MILLIS = 5;
+    private static final long SLOW_MILLIS = 300;
+
+    @Test
+    void shouldFailStageAfterDeadline() {
+        final CompletableFuture<String> slow = new CompletableFuture<>();
+
+        final CompletableFuture<String> result = AsyncPipeline.from(slow)
+                .deadline(Duration.ofMillis(20))
+                .toCompletableFuture();
+
+        final ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+        assertThat(exception.getCause()).isInstanceOf(TimeoutException.class);
+        assertThat(slow.isCancelled()).isTrue();
+    }
+
+    @Test
+    void shouldCompleteWithFallbackAfterTimeout() throws ExecutionException, InterruptedException {
+        final CompletableFuture<String> result = AsyncPipeline.from(new CompletableFuture<String>())
+                .completeOnTimeout("Hello, Stranger!", Duration.ofMillis(20))
+                .toCompletableFuture();
+
+        assertThat(result.get()).isEqualTo("Hello, Stranger!");
+    }
+
+    @Test
+    void shouldKeepValueWhenStageBeatsDeadline() throws ExecutionException, InterruptedException {
+        final CompletableFuture<String> result = AsyncPipeline.from(CompletableFuture.completedFuture("Hello"))
+                .deadline(Duration.ofSeconds(1))
+                .thenApply(message -> message + " World")
+                .toCompletableFuture();
+
+        assertThat(result.get()).isEqualTo("Hello World");
+    }
+
+    @Test
+    void shouldPropagateCancellationUpstreamThroughCompose() {
+        final CompletableFuture<String> first = new CompletableFuture<>();
+        final AtomicBoolean secondCallStarted = new AtomicBoolean();
+
+        final CompletableFuture<String> result = AsyncPipeline.from(first)
+                .thenCompose(message -> {
+                    secondCallStarted.set(true);
+                    return CompletableFuture.completedFuture(message + " World");
+                })
+                .thenApply(String::toUpperCase)
+                .toCompletableFuture();
+
+        result.cancel(false);
+        first.complete("Hello");
+
+        assertThat(first.isCancelled()).isTrue();
+        assertThat(secondCallStarted).isFalse();
+    }
+
+    @Test
+    void shouldCancelInnerFutureOfCompose() {
+        final CompletableFuture<String> inner = new CompletableFuture<>();
+
+        final CompletableFuture<String> result = AsyncPipeline.from(CompletableFuture.completedFuture("Hello"))
+                .thenCompose(message -> inner)
+                .toCompletableFuture();
+
+        result.cancel(false);
+
+        assertThat(inner.isCancelled()).isTrue();
+    }
+
+    @Test
+    void shouldFailHedgedCallOnlyWhenEveryAttemptFailed() {
+        final LatencyTracker tracker = new LatencyTracker(16, 1);
+        tracker.record(TimeUnit.MILLISECONDS.toNanos(1));
+        final AtomicInteger calls = new AtomicInteger();
+
+        final CompletableFuture<String> result = AsyncPipeline.hedged(() -> {
+            calls.incrementAndGet();
+            final CompletableFuture<String> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalStateException("Computation error!"));
+            return failed;
+        }, tracker).toCompletableFuture();
+
+        assertThrows(ExecutionException.class, result::get);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    void shouldFailHedgedCallWhenSecondCallThrowsAndPrimaryFails() {
+        final LatencyTracker tracker = new LatencyTracker(16, 1);
+        tracker.record(TimeUnit.MILLISECONDS.toNanos(1));
+        final CompletableFuture<String> primary = new CompletableFuture<>();
+        final CompletableFuture<String> secondCallThread = new CompletableFuture<>();
+        final AtomicInteger calls = new AtomicInteger();
+
+        final CompletableFuture<String> result = AsyncPipeline.hedged(() -> {
+            if (calls.incrementAndGet() == 1) {
+                return primary;
+            }
+            secondCallThread.complete(Thread.currentThread().getName());
+            throw new IllegalStateException("Backend unreachable");
+        }, tracker).toCompletableFuture();
+        assertThat(secondCallThread.orTimeout(5, TimeUnit.SECONDS).join()).isNotEqualTo("async-timer");
+        primary.completeExceptionally(new IllegalStateException("Computation error!"));
+
+        final ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertThat(error.getCause()).hasMessage("Computation error!");
+    }
+
+    // Every 50th backend call is a straggler; hedging at the p95 latency should hide them from the p99
+    @Test
+    void shouldImproveP99WithHedging() {
+        final Backend backend = new Backend();
+        final LatencyTracker tracker = new LatencyTracker(1024, 20);
+        warmUp(backend, tracker);
+
+        final long unhedgedP99 = p99(200, backend::call);
+        final long hedgedP99 = p99(200, () -> AsyncPipeline.hedged(backend::call, tracker).toCompletableFuture());
+
+        assertThat(unhedgedP99).as("p99 without hedging in ns").isGreaterThanOrEqualTo(
+                TimeUnit.MILLISECONDS.toNanos(SLOW_MILLIS));
+        assertThat(hedgedP99).as("p99 with hedging in ns, %d without", unhedgedP99).isLessThan(
+                TimeUnit.MILLISECONDS.toNanos(SLOW_MILLIS) / 2);
+    }
+
+    private void warmUp(Backend backend, LatencyTracker tracker) {
+        final List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final long start = System.nanoTime();
+            calls.add(backend.call().whenComplete((value, error) -> tracker.record(System.nanoTime() - start)));
+        }
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).join();
+    }
+
+    private long p99(int requests, Supplier<CompletableFuture<String>> request) {
+        final long[] latencies = new long[requests];
+        final List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            final int index = i;
+            final long start = System.nanoTime();
+            calls.add(request.get().whenComplete((value, error) -> latencies[index] = System.nanoTime() - start));
+        }
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).join();
+        Arrays.sort(latencies);
+        return latencies[(int) Math.ceil(0.99 * requests) - 1];
+    }
+
+    private static class Backend {
+        private final AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<String> call() {
+            final long delay = calls.incrementAndGet() % 50 == 0 ? SLOW_MILLIS : FAST_MILLIS;
+            final CompletableFuture<String> response = new CompletableFuture<>();
+            Timers.shared().schedule(() -> response.complete("Hello"), delay, TimeUnit.MILLISECONDS);
+            return response;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.gignomai.javachangestutorial.async;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class FuturesTest {
+
+    private static AsyncExecutors executors;
+    private static ScheduledExecutorService scheduler;
+
+    @BeforeAll
+    static void setUp() {
+        executors = AsyncExecutors.withDefaults();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterAll
+    static void tearDown() {
+        executors.destroy();
+        scheduler.shutdown();
+    }
+
+    @Test
+    void shouldJoinFuturesInListOrder() throws ExecutionException, InterruptedException {
+        final CompletableFuture<String> future1 = CompletableFuture.supplyAsync(() -> "Hello", executors.cpu());
+        final CompletableFuture<String> future2 = CompletableFuture.completedFuture("Beautiful");
+        final CompletableFuture<String> future3 = CompletableFuture.supplyAsync(() -> "World", executors.cpu());
+
+        final List<String> result = Futures.allOfList(Arrays.asList(future1, future2, future3)).get();
+
+        assertThat(String.join(" ", result)).isEqualTo("Hello Beautiful World");
+    }
+
+    @Test
+    void shouldFailAllOfListWhenAnyFutureFails() {
+        final CompletableFuture<String> pending = new CompletableFuture<>();
+        final CompletableFuture<String> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("Computation error!"));
+
+        final CompletableFuture<List<String>> result = Futures.allOfList(Arrays.asList(pending, failed));
+
+        final ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+        assertThat(exception.getCause()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldJoinManyFutures() {
+        final List<CompletableFuture<Integer>> futures = IntStream.range(0, 10_000)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> i, executors.cpu()))
+                .collect(Collectors.toList());
+
+        final List<Integer> result = Futures.allOfList(futures).join();
+
+        assertThat(result).hasSize(10_000);
+        assertThat(result.get(9_999)).isEqualTo(9_999);
+    }
+
+    @Test
+    void shouldBoundConcurrencyOfMapAsync() {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final List<Integer> items = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+
+        final List<Integer> result = Futures.mapAsync(items, item -> CompletableFuture.supplyAsync(() -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sleep(5);
+            inFlight.decrementAndGet();
+            return item * 2;
+        }, executors.io()), 4).join();
+
+        assertThat(result).containsExactlyElementsOf(items.stream().map(i -> i * 2).collect(Collectors.toList()));
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    void shouldMapAsyncOverCompletedFuturesWithoutGrowingTheStack() {
+        final List<Integer> items = IntStream.range(0, 100_000).boxed().collect(Collectors.toList());
+
+        final List<Integer> result = Futures.mapAsync(items, CompletableFuture::completedFuture, 1).join();
+
+        assertThat(result).hasSize(100_000);
+    }
+
+    @Test
+    void shouldFailMapAsyncWhenFunctionReturnsNull() {
+        final List<Integer> items = IntStream.range(0, 4).boxed().collect(Collectors.toList());
+
+        final CompletableFuture<List<Integer>> result = Futures.mapAsync(items,
+                item -> item == 2 ? null : CompletableFuture.supplyAsync(() -> item, executors.io()), 1);
+
+        final ExecutionException error = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertThat(error).hasCauseInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void shouldCompleteWithFirstKResults() throws ExecutionException, InterruptedException {
+        final CompletableFuture<String> slow = new CompletableFuture<>();
+        final CompletableFuture<String> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new IllegalStateException("Computation error!"));
+        final List<CompletableFuture<String>> futures = Arrays.asList(slow, failed,
+                CompletableFuture.completedFuture("Hello"), CompletableFuture.completedFuture("World"));
+
+        final List<String> result = Futures.firstOf(futures, 2).get();
+
+        assertThat(result).containsExactly("Hello", "World");
+        assertThat(slow.isDone()).isFalse();
+    }
+
+    @Test
+    void shouldKeepFirstKResultsWhenMoreFuturesCompleteConcurrently() {
+        for (int round = 0; round < 200; round++) {
+            final List<CompletableFuture<Integer>> futures = IntStream.range(0, 8)
+                    .mapToObj(i -> new CompletableFuture<Integer>())
+                    .collect(Collectors.toList());
+            final CompletableFuture<List<Integer>> result = Futures.firstOf(futures, 3);
+
+            final List<CompletableFuture<Void>> completions = IntStream.range(0, futures.size())
+                    .mapToObj(i -> CompletableFuture.runAsync(() -> {
+                        if (i % 2 == 0) {
+                            futures.get(i).complete(i);
+                        } else {
+                            futures.get(i).completeExceptionally(new IllegalStateException("Computation error!"));
+                        }
+                    }, executors.io()))
+                    .collect(Collectors.toList());
+            Futures.allOfList(completions).join();
+
+            assertThat(result.join()).hasSize(3).doesNotHaveDuplicates().allMatch(value -> value % 2 == 0);
+        }
+    }
+
+    @Test
+    void shouldFailFirstOfWhenNotEnoughFuturesCanSucceed() {
+        final CompletableFuture<String> failed1 = new CompletableFuture<>();
+        final CompletableFuture<String> failed2 = new CompletableFuture<>();
+        final CompletableFuture<List<String>> result = Futures.firstOf(
+                Arrays.asList(failed1, failed2, CompletableFuture.completedFuture("Hello")), 2);
+
+        failed1.completeExceptionally(new IllegalStateException("Computation error!"));
+        assertThat(result.isDone()).isFalse();
+        failed2.completeExceptionally(new IllegalStateException("Computation error!"));
+
+        assertThat(result.isCompletedExceptionally()).isTrue();
+    }
+
+    @Test
+    void shouldGroupRequestsIntoBatches() {
+        final List<List<Integer>> calls = new ArrayList<>();
+        final Batcher<Integer, String> batcher = new Batcher<>(keys -> {
+            synchronized (calls) {
+                calls.add(keys);
+            }
+            return CompletableFuture.completedFuture(keys.stream().map(key -> "value" + key).collect(Collectors.toList()));
+        }, 10, Duration.ofSeconds(10), scheduler);
+
+        final List<CompletableFuture<String>> responses = IntStream.range(0, 25)
+                .mapToObj(batcher::submit)
+                .collect(Collectors.toList());
+        batcher.close();
+
+        assertThat(Futures.allOfList(responses).join()).startsWith("value0", "value1").endsWith("value24");
+        assertThat(calls).extracting(List::size).containsExactly(10, 10, 5);
+    }
+
+    @Test
+    void shouldSendIncompleteBatchAfterMaxDelay() {
+        final Batcher<Integer, String> batcher = new Batcher<>(keys -> CompletableFuture.completedFuture(
+                keys.stream().map(String::valueOf).collect(Collectors.toList())), 100, Duration.ofMillis(20), scheduler);
+
+        final CompletableFuture<String> response = batcher.submit(1);
+
+        assertThat(response.join()).isEqualTo("1");
+    }
+
+    @Test
+    void shouldFailBatchWhenBackendReturnsNull() {
+        final Batcher<Integer, String> nullValues = new Batcher<>(keys -> CompletableFuture.completedFuture(null), 10,
+                Duration.ofSeconds(10), scheduler);
+        final Batcher<Integer, String> nullFuture = new Batcher<>(keys -> null, 10, Duration.ofSeconds(10), scheduler);
+
+        final CompletableFuture<String> response = nullValues.submit(1);
+        final CompletableFuture<String> other = nullFuture.submit(1);
+        nullValues.close();
+        nullFuture.close();
+
+        assertThatThrownBy(response::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(other::join).hasCauseInstanceOf(NullPointerException.class);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e.getLocalizedMessage());
+        }
+    }
+}
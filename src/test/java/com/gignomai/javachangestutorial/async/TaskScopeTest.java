@@ -0,0 +1,229 @@
+package com.gignomai.javachangestutorial.async;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TaskScopeTest {
+
+    private static final int SIBLINGS = 4;
+    private static final int STEPS = 100;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(SIBLINGS + 1);
+    // Steps of simulated work done by the siblings after the first failure was seen
+    private final AtomicLong wastedSteps = new AtomicLong();
+    private volatile boolean failed;
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldCollectResultsOfAllSubtasks() throws Exception {
+        try (TaskScope.ShutdownOnFailure scope = new TaskScope.ShutdownOnFailure(executor)) {
+            final TaskScope.Subtask<String> hello = scope.fork(() -> "Hello");
+            final TaskScope.Subtask<String> world = scope.fork(() -> "World");
+
+            scope.join().throwIfFailed();
+
+            assertThat(hello.get() + " " + world.get()).isEqualTo("Hello World");
+            assertThat(world.state()).isEqualTo(TaskScope.Subtask.State.SUCCESS);
+        }
+    }
+
+    @Test
+    void shouldWasteLessWorkThanAllOfAfterFirstFailure() throws Exception {
+        final List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < SIBLINGS; i++) {
+            futures.add(CompletableFuture.supplyAsync(this::slowSibling, executor));
+        }
+        futures.add(CompletableFuture.supplyAsync(this::failFast, executor));
+        assertThatThrownBy(() -> CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join())
+                .hasCauseInstanceOf(IllegalStateException.class);
+        // allOf fails as soon as one future does, but the siblings keep running to the end
+        CompletableFuture.allOf(futures.subList(0, SIBLINGS).toArray(new CompletableFuture[0])).join();
+        final long wastedWithAllOf = wastedSteps.getAndSet(0);
+        failed = false;
+
+        final long start = System.nanoTime();
+        try (TaskScope.ShutdownOnFailure scope = new TaskScope.ShutdownOnFailure(executor)) {
+            for (int i = 0; i < SIBLINGS; i++) {
+                scope.fork(this::slowSibling);
+            }
+            scope.fork(this::failFast);
+
+            assertThatThrownBy(() -> scope.join().throwIfFailed())
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+        final long wastedWithScope = wastedSteps.get();
+
+        assertThat(wastedWithAllOf).isGreaterThanOrEqualTo(SIBLINGS * (STEPS - 20L));
+        assertThat(wastedWithScope).isLessThanOrEqualTo(SIBLINGS * 2L);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(STEPS / 2));
+    }
+
+    @Test
+    void shouldReturnFirstSuccessAndInterruptTheRest() throws Exception {
+        final AtomicInteger interrupted = new AtomicInteger();
+        try (TaskScope.ShutdownOnSuccess<String> scope = new TaskScope.ShutdownOnSuccess<>(executor)) {
+            scope.fork(() -> {
+                throw new IllegalStateException("Replica down");
+            });
+            scope.fork(() -> {
+                Thread.sleep(5);
+                return "Fast replica";
+            });
+            final TaskScope.Subtask<String> slow = scope.fork(() -> {
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    interrupted.incrementAndGet();
+                    throw e;
+                }
+                return "Slow replica";
+            });
+
+            assertThat(scope.join().result()).isEqualTo("Fast replica");
+            scope.close();
+            assertThat(slow.state()).isEqualTo(TaskScope.Subtask.State.UNAVAILABLE);
+            assertThat(slow.toCompletableFuture()).isCancelled();
+        }
+        assertThat(interrupted).hasValue(1);
+    }
+
+    @Test
+    void shouldFailWhenEverySubtaskFails() throws Exception {
+        try (TaskScope.ShutdownOnSuccess<String> scope = new TaskScope.ShutdownOnSuccess<>(executor)) {
+            scope.fork(() -> {
+                throw new IllegalStateException("Replica down");
+            });
+
+            assertThatThrownBy(() -> scope.join().result()).hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void shouldShutDownAtDeadlineAndPropagateItToNestedScopes() throws Exception {
+        final AtomicInteger interrupted = new AtomicInteger();
+        final List<Instant> nestedDeadlines = new CopyOnWriteArrayList<>();
+        try (TaskScope.ShutdownOnFailure scope = new TaskScope.ShutdownOnFailure(executor, Duration.ofMillis(50))) {
+            scope.fork(() -> {
+                try (TaskScope.ShutdownOnFailure nested = new TaskScope.ShutdownOnFailure(executor,
+                        Duration.ofHours(1))) {
+                    nestedDeadlines.add(nested.deadline().orElseThrow());
+                    nested.fork(() -> {
+                        nestedDeadlines.add(TaskScope.currentDeadline().orElseThrow());
+                        return sleepUntilInterrupted(interrupted);
+                    });
+                    return nested.join();
+                }
+            });
+
+            assertThatThrownBy(scope::join).isInstanceOf(TimeoutException.class);
+            assertThat(scope.isShutdown()).isTrue();
+            assertThat(nestedDeadlines).hasSize(2).containsOnly(scope.deadline().orElseThrow());
+        }
+        assertThat(interrupted).hasValue(1);
+    }
+
+    @Test
+    void shouldCancelForkedFuturesOnShutdown() throws Exception {
+        final CompletableFuture<String> pending = new CompletableFuture<>();
+        try (TaskScope.ShutdownOnFailure scope = new TaskScope.ShutdownOnFailure(executor)) {
+            final TaskScope.Subtask<String> remote = scope.forkFuture(() -> pending);
+            scope.forkFuture(() -> CompletableFuture.failedFuture(new IllegalStateException("Backend down")));
+
+            assertThatThrownBy(() -> scope.join().throwIfFailed()).hasCauseInstanceOf(IllegalStateException.class);
+            assertThat(remote.toCompletableFuture()).isCancelled();
+        }
+        assertThat(pending).isCancelled();
+    }
+
+    @Test
+    void shouldNotStartSubtasksAfterShutdown() {
+        final AtomicInteger started = new AtomicInteger();
+        try (TaskScope.ShutdownOnFailure scope = new TaskScope.ShutdownOnFailure(executor)) {
+            scope.shutdown();
+
+            final TaskScope.Subtask<Integer> subtask = scope.fork(started::incrementAndGet);
+
+            assertThat(subtask.state()).isEqualTo(TaskScope.Subtask.State.UNAVAILABLE);
+            assertThat(subtask.toCompletableFuture()).isCancelled();
+        }
+        assertThat(started).hasValue(0);
+    }
+
+    @Test
+    void shouldCancelSubtasksForkedWhileShuttingDown() throws Exception {
+        final AtomicInteger completed = new AtomicInteger();
+        for (int round = 0; round < 200; round++) {
+            try (TaskScope.ShutdownOnFailure scope = new TaskScope.ShutdownOnFailure(executor)) {
+                final CompletableFuture<Void> forks = CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 2; i++) {
+                        scope.fork(() -> {
+                            Thread.sleep(10_000);
+                            return completed.incrementAndGet();
+                        });
+                    }
+                });
+                scope.shutdown();
+                forks.join();
+            }
+        }
+        // close() waits for every subtask, so one that missed the cancellation would have slept its ten seconds
+        assertThat(completed).hasValue(0);
+    }
+
+    // A hundred milliseconds of work in interruptible steps, counting the steps done after a sibling failed
+    private int slowSibling() {
+        for (int step = 0; step < STEPS; step++) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return step;
+            }
+            if (failed) {
+                wastedSteps.incrementAndGet();
+            }
+        }
+        return STEPS;
+    }
+
+    private int failFast() {
+        try {
+            Thread.sleep(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        failed = true;
+        throw new IllegalStateException("Sibling failed");
+    }
+
+    private static String sleepUntilInterrupted(AtomicInteger interrupted) throws InterruptedException {
+        try {
+            Thread.sleep(10_000);
+            return "Too late";
+        } catch (InterruptedException e) {
+            interrupted.incrementAndGet();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.gignomai.javachangestutorial.cache;
+
+import com.gignomai.javachangestutorial.time.MutableClock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncLoadingCacheTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2022-04-01T10:00:00Z"), ZoneOffset.UTC);
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    @Test
+    void shouldShareOneLoadBetweenConcurrentMisses() throws Exception {
+        final CompletableFuture<String> backend = new CompletableFuture<>();
+        final AsyncLoadingCache<String, String> cache = AsyncLoadingCache.builder()
+                .build(key -> {
+                    backendCalls.incrementAndGet();
+                    return backend;
+                });
+        final int threads = 8;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<CompletableFuture<CompletableFuture<String>>> callers = new ArrayList<>();
+            for (int i = 0; i < threads * 100; i++) {
+                callers.add(CompletableFuture.supplyAsync(() -> {
+                    await(start);
+                    return cache.get("Hello");
+                }, executor));
+            }
+            start.countDown();
+            final List<CompletableFuture<String>> results = new ArrayList<>();
+            for (CompletableFuture<CompletableFuture<String>> caller : callers) {
+                results.add(caller.get(5, TimeUnit.SECONDS));
+            }
+            backend.complete("Hello World");
+
+            assertThat(results).allSatisfy(result -> assertThat(result.join()).isEqualTo("Hello World"));
+            assertThat(backendCalls).hasValue(1);
+            assertThat(cache.stats().getLoadCount()).isEqualTo(1);
+            assertThat(cache.stats().getHitCount()).isEqualTo(threads * 100 - 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldDropFailedLoads() {
+        final AsyncLoadingCache<String, String> cache = AsyncLoadingCache.builder()
+                .build(key -> backendCalls.incrementAndGet() == 1
+                        ? CompletableFuture.failedFuture(new IllegalStateException("Backend down"))
+                        : CompletableFuture.completedFuture(key + " World"));
+
+        assertThatThrownBy(() -> cache.get("Hello").join()).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(cache.size()).isZero();
+        assertThat(cache.get("Hello").join()).isEqualTo("Hello World");
+        assertThat(cache.get("Hello").join()).isEqualTo("Hello World");
+        assertThat(backendCalls).hasValue(2);
+        assertThat(cache.stats().getLoadFailureCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDropFutureCancelledByCaller() {
+        final AsyncLoadingCache<String, String> cache = AsyncLoadingCache.builder()
+                .build(key -> {
+                    backendCalls.incrementAndGet();
+                    return new CompletableFuture<>();
+                });
+
+        cache.get("Hello").cancel(false);
+        final CompletableFuture<String> second = cache.get("Hello");
+
+        assertThat(second).isNotCancelled();
+        assertThat(backendCalls).hasValue(2);
+    }
+
+    @Test
+    void shouldReloadAfterExpiry() {
+        final AsyncLoadingCache<String, Integer> cache = AsyncLoadingCache.builder()
+                .clock(clock)
+                .expireAfterWrite(Duration.ofMinutes(1))
+                .build(key -> CompletableFuture.completedFuture(backendCalls.incrementAndGet()));
+
+        assertThat(cache.get("Hello").join()).isEqualTo(1);
+        clock.advance(Duration.ofSeconds(59));
+        assertThat(cache.get("Hello").join()).isEqualTo(1);
+        clock.advance(Duration.ofSeconds(1));
+        assertThat(cache.getIfPresent("Hello")).isNull();
+        assertThat(cache.get("Hello").join()).isEqualTo(2);
+        assertThat(cache.stats().getMissCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldServeCurrentValueWhileRefreshing() {
+        final List<CompletableFuture<Integer>> loads = new ArrayList<>();
+        final AsyncLoadingCache<String, Integer> cache = AsyncLoadingCache.builder()
+                .clock(clock)
+                .refreshAfterWrite(Duration.ofSeconds(30))
+                .build(key -> {
+                    final CompletableFuture<Integer> load = new CompletableFuture<>();
+                    loads.add(load);
+                    return load;
+                });
+        final CompletableFuture<Integer> first = cache.get("Hello");
+        loads.get(0).complete(1);
+
+        clock.advance(Duration.ofSeconds(30));
+        final CompletableFuture<Integer> stale = cache.get("Hello");
+        final CompletableFuture<Integer> stillStale = cache.get("Hello");
+
+        assertThat(stale).isSameAs(first);
+        assertThat(stillStale.join()).isEqualTo(1);
+        assertThat(loads).hasSize(2);
+        loads.get(1).complete(2);
+        assertThat(cache.get("Hello").join()).isEqualTo(2);
+        assertThat(cache.stats().getRefreshCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsed() {
+        final AsyncLoadingCache<Integer, Integer> cache = AsyncLoadingCache.builder()
+                .maximumSize(3)
+                .eviction(Eviction.LRU)
+                .build(CompletableFuture::completedFuture);
+
+        cache.get(1);
+        cache.get(2);
+        cache.get(3);
+        cache.get(1);
+        cache.get(4);
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.getIfPresent(2)).isNull();
+        assertThat(cache.getIfPresent(1)).isNotNull();
+        assertThat(cache.stats().getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldKeepPopularKeysThroughScanWithTinyLfu() {
+        final AsyncLoadingCache<Integer, Integer> lru = AsyncLoadingCache.builder()
+                .maximumSize(100)
+                .eviction(Eviction.LRU)
+                .build(CompletableFuture::completedFuture);
+        final AsyncLoadingCache<Integer, Integer> tinyLfu = AsyncLoadingCache.builder()
+                .maximumSize(100)
+                .eviction(Eviction.TINY_LFU)
+                .build(CompletableFuture::completedFuture);
+
+        for (AsyncLoadingCache<Integer, Integer> cache : List.of(lru, tinyLfu)) {
+            for (int round = 0; round < 5; round++) {
+                IntStream.range(0, 50).forEach(cache::get);
+            }
+            IntStream.range(1_000, 2_000).forEach(cache::get);
+        }
+
+        assertThat(IntStream.range(0, 50).filter(key -> lru.getIfPresent(key) != null).count()).isZero();
+        assertThat(IntStream.range(0, 50).filter(key -> tinyLfu.getIfPresent(key) != null).count())
+                .isGreaterThanOrEqualTo(45);
+        assertThat(tinyLfu.size()).isLessThanOrEqualTo(100);
+    }
+
+    @Test
+    void shouldStayWithinMaximumSizeUnderConcurrentLoad() throws Exception {
+        final ConcurrentHashMap<Integer, AtomicInteger> loadsPerKey = new ConcurrentHashMap<>();
+        final AsyncLoadingCache<Integer, Integer> cache = AsyncLoadingCache.builder()
+                .maximumSize(64)
+                .build(key -> CompletableFuture.supplyAsync(() -> {
+                    loadsPerKey.computeIfAbsent(key, ignored -> new AtomicInteger()).incrementAndGet();
+                    return key * 2;
+                }));
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<CompletableFuture<Void>> workers = new ArrayList<>();
+            for (int worker = 0; worker < 4; worker++) {
+                workers.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        final int key = ThreadLocalRandom.current().nextInt(256);
+                        assertThat(cache.get(key).join()).isEqualTo(key * 2);
+                    }
+                }, executor));
+            }
+            CompletableFuture.allOf(workers.toArray(new CompletableFuture[0])).get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        final CacheStats stats = cache.stats();
+        assertThat(cache.size()).isLessThanOrEqualTo(64);
+        assertThat(stats.getRequestCount()).isEqualTo(80_000);
+        assertThat(stats.getLoadCount()).isEqualTo(stats.getMissCount());
+        assertThat(stats.getEvictionCount()).isEqualTo(stats.getMissCount() - cache.size());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
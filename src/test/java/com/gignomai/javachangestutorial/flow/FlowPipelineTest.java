@@ -0,0 +1,236 @@
+package com.gignomai.javachangestutorial.flow;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlowPipelineTest {
+
+    private static final List<String> NAMES = Arrays.asList("Barcelona", "Girona", "LLeida", "Tarragona");
+
+    @Test
+    void shouldMapValuesFromIterable() throws Exception {
+        final List<String> result = FlowPipeline.fromIterable(NAMES)
+                .map(String::toUpperCase)
+                .toList()
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(result).containsExactly("BARCELONA", "GIRONA", "LLEIDA", "TARRAGONA");
+    }
+
+    @Test
+    void shouldKeepOrderInMapAsync() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Integer> result = FlowPipeline.fromStream(IntStream.range(0, 1_000).boxed())
+                    .mapAsync(i -> {
+                        if (i % 7 == 0) {
+                            sleep(1);
+                        }
+                        return i * 2;
+                    }, 8, executor)
+                    .toList()
+                    .get(10, TimeUnit.SECONDS);
+
+            assertThat(result).isEqualTo(IntStream.range(0, 1_000).map(i -> i * 2).boxed()
+                    .collect(Collectors.toList()));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldCloseStreamWhenExhaustedAndRejectSecondSubscriber() throws Exception {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final FlowPipeline<String> pipeline = FlowPipeline.fromStream(NAMES.stream().onClose(() -> closed.set(true)));
+
+        assertThat(pipeline.toList().get(5, TimeUnit.SECONDS)).isEqualTo(NAMES);
+        assertThat(closed).isTrue();
+        assertThatThrownBy(() -> pipeline.toList().get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldGroupIntoCountWindows() throws Exception {
+        final List<List<Integer>> windows = FlowPipeline.fromIterable(List.of(1, 2, 3, 4, 5, 6, 7))
+                .window(3)
+                .toList()
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(windows).containsExactly(List.of(1, 2, 3), List.of(4, 5, 6), List.of(7));
+    }
+
+    @Test
+    void shouldCloseTimeWindowsWithoutLosingElements() throws Exception {
+        try (SubmissionPublisher<Integer> source = new SubmissionPublisher<>()) {
+            final CompletableFuture<List<List<Integer>>> windows = FlowPipeline.from(source)
+                    .window(Duration.ofMillis(20))
+                    .toList();
+            for (int i = 0; i < 10; i++) {
+                source.submit(i);
+                sleep(10);
+            }
+            source.close();
+
+            final List<List<Integer>> result = windows.get(5, TimeUnit.SECONDS);
+            assertThat(result.size()).isGreaterThan(1);
+            assertThat(result).allSatisfy(window -> assertThat(window).isNotEmpty());
+            assertThat(result.stream().flatMap(List::stream)).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        }
+    }
+
+    @Test
+    void shouldMergeAllSources() throws Exception {
+        final List<Integer> merged = FlowPipeline.merge(
+                        FlowPipeline.fromStream(IntStream.range(0, 500).boxed()),
+                        FlowPipeline.fromStream(IntStream.range(500, 1_000).boxed()),
+                        FlowPipeline.fromIterable(List.<Integer>of()))
+                .toList()
+                .get(5, TimeUnit.SECONDS);
+
+        assertThat(merged).containsExactlyInAnyOrderElementsOf(IntStream.range(0, 1_000).boxed()
+                .collect(Collectors.toList()));
+        assertThat(FlowPipeline.merge().toList().get(5, TimeUnit.SECONDS)).isEmpty();
+    }
+
+    @Test
+    void shouldFailWhenMapperThrows() {
+        final CompletableFuture<List<Integer>> result = FlowPipeline.fromIterable(List.of(1, 2, 0, 4))
+                .map(i -> 12 / i)
+                .buffer(2)
+                .toList();
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ArithmeticException.class);
+    }
+
+    @Test
+    void shouldFailWhenMapAsyncMapperThrowsError() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final CompletableFuture<List<Integer>> result = FlowPipeline.fromIterable(List.of(1, 2, 3))
+                    .mapAsync(i -> {
+                        if (i == 2) {
+                            throw new AssertionError("Mapper broke");
+                        }
+                        return i;
+                    }, 2, executor)
+                    .toList();
+
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(AssertionError.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shouldCancelSubscriptionWhenResultIsCancelled() {
+        final AtomicBoolean closed = new AtomicBoolean();
+        final Stream<Integer> endless = Stream.iterate(0, i -> i + 1).onClose(() -> closed.set(true));
+        final CompletableFuture<List<Integer>> result = FlowPipeline.fromStream(endless)
+                .mapAsync(i -> {
+                    sleep(1);
+                    return i;
+                }, 2)
+                .toList();
+
+        result.cancel(false);
+
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void shouldKeepUpstreamDemandBoundedForSlowSubscriber() throws Exception {
+        final AtomicLong upstreamRequested = new AtomicLong();
+        final FlowPipeline<Integer> source = FlowPipeline.fromStream(Stream.iterate(0, i -> i + 1));
+        final RecordingSubscriber<Integer> subscriber = new RecordingSubscriber<>();
+
+        FlowPipeline.from(countingRequests(source, upstreamRequested))
+                .buffer(16)
+                .mapAsync(i -> i, 4)
+                .subscribe(subscriber);
+        for (int i = 0; i < 100; i++) {
+            subscriber.request(1);
+            waitFor(() -> subscriber.values.size() == subscriber.totalRequested.get());
+        }
+        subscriber.cancel();
+
+        assertThat(subscriber.values).hasSize(100);
+        assertThat(upstreamRequested.get()).isLessThanOrEqualTo(100 + 16 + 4);
+        assertThat(subscriber.violations).isEmpty();
+    }
+
+    // Adds up every request made to the source, to see how far ahead of the subscriber the operators read
+    private static <T> Flow.Publisher<T> countingRequests(Flow.Publisher<T> source, AtomicLong requested) {
+        return subscriber -> source.subscribe(new Flow.Subscriber<T>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                        requested.addAndGet(n);
+                        subscription.request(n);
+                    }
+
+                    @Override
+                    public void cancel() {
+                        subscription.cancel();
+                    }
+                });
+            }
+
+            @Override
+            public void onNext(T item) {
+                subscriber.onNext(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                subscriber.onError(throwable);
+            }
+
+            @Override
+            public void onComplete() {
+                subscriber.onComplete();
+            }
+        });
+    }
+
+    static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
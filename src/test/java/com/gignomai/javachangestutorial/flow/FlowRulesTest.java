@@ -0,0 +1,136 @@
+package com.gignomai.javachangestutorial.flow;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the Reactive Streams rules that matter most in practice against every operator, in the spirit of the
+ * Reactive Streams TCK.
+ */
+class FlowRulesTest {
+
+    private static final List<Function<FlowPipeline<Integer>, Flow.Publisher<?>>> OPERATORS = List.of(
+            pipeline -> pipeline,
+            pipeline -> pipeline.map(i -> i + 1),
+            pipeline -> pipeline.mapAsync(i -> i + 1, 4),
+            pipeline -> pipeline.buffer(8),
+            pipeline -> pipeline.window(3),
+            pipeline -> pipeline.window(3, Duration.ofSeconds(10)),
+            pipeline -> FlowPipeline.merge(pipeline, FlowPipeline.fromIterable(List.of(-1, -2))));
+
+    @Test
+    void shouldNeverSignalMoreThanRequested() throws Exception {
+        for (Function<FlowPipeline<Integer>, Flow.Publisher<?>> operator : OPERATORS) {
+            final RecordingSubscriber<Object> subscriber = subscribe(operator, range(20));
+
+            subscriber.request(1);
+            subscriber.request(2);
+            FlowPipelineTest.waitFor(() -> subscriber.values.size() == 3);
+            FlowPipelineTest.sleep(20);
+            assertThat(subscriber.values).hasSize(3);
+            subscriber.request(Long.MAX_VALUE);
+            subscriber.request(Long.MAX_VALUE);
+
+            assertThat(subscriber.awaitTerminated()).isTrue();
+            assertThat(subscriber.completed).isTrue();
+            assertThat(subscriber.violations).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldSignalErrorForNonPositiveRequest() throws Exception {
+        for (Function<FlowPipeline<Integer>, Flow.Publisher<?>> operator : OPERATORS) {
+            final RecordingSubscriber<Object> subscriber = subscribe(operator, range(20));
+
+            subscriber.subscription.request(0);
+
+            assertThat(subscriber.awaitTerminated()).isTrue();
+            assertThat(subscriber.error).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("3.9");
+            assertThat(subscriber.violations).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldStopSignallingAfterCancel() throws Exception {
+        for (Function<FlowPipeline<Integer>, Flow.Publisher<?>> operator : OPERATORS) {
+            final RecordingSubscriber<Object> subscriber = subscribe(operator, FlowPipeline.fromStream(
+                    Stream.iterate(0, i -> i + 1)));
+
+            subscriber.request(5);
+            FlowPipelineTest.waitFor(() -> subscriber.values.size() == 5);
+            subscriber.cancel();
+            subscriber.subscription.request(10);
+            FlowPipelineTest.sleep(20);
+
+            assertThat(subscriber.values).hasSize(5);
+            assertThat(subscriber.terminalSignals).hasValue(0);
+            assertThat(subscriber.violations).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldRejectNullSubscriber() {
+        for (Function<FlowPipeline<Integer>, Flow.Publisher<?>> operator : OPERATORS) {
+            final Flow.Publisher<?> publisher = operator.apply(range(3));
+
+            assertThatThrownBy(() -> publisher.subscribe(null)).isInstanceOf(NullPointerException.class);
+        }
+    }
+
+    @Test
+    void shouldNotRecurseWhenRequestingFromOnNext() throws Exception {
+        final int size = 100_000;
+        for (int i = 0; i < OPERATORS.size(); i++) {
+            final RecordingSubscriber<Object> subscriber = new RecordingSubscriber<>() {
+                @Override
+                public void onNext(Object item) {
+                    super.onNext(item);
+                    request(1);
+                }
+            };
+            subscribe(OPERATORS.get(i), range(size), subscriber);
+
+            subscriber.request(1);
+
+            assertThat(subscriber.awaitTerminated()).as("operator %d", i).isTrue();
+            assertThat(subscriber.error).isNull();
+            assertThat(subscriber.violations).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldSignalErrorForNullElement() throws Exception {
+        final RecordingSubscriber<Object> subscriber = subscribe(pipeline -> pipeline.map(i -> null), range(3));
+
+        subscriber.request(3);
+
+        assertThat(subscriber.awaitTerminated()).isTrue();
+        assertThat(subscriber.error).isInstanceOf(NullPointerException.class).hasMessageContaining("2.13");
+    }
+
+    private static FlowPipeline<Integer> range(int size) {
+        return FlowPipeline.fromStream(IntStream.range(0, size).boxed());
+    }
+
+    private static RecordingSubscriber<Object> subscribe(Function<FlowPipeline<Integer>, Flow.Publisher<?>> operator,
+                                                         FlowPipeline<Integer> source) {
+        return subscribe(operator, source, new RecordingSubscriber<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RecordingSubscriber<Object> subscribe(Function<FlowPipeline<Integer>, Flow.Publisher<?>> operator,
+                                                         FlowPipeline<Integer> source,
+                                                         RecordingSubscriber<Object> subscriber) {
+        ((Flow.Publisher<Object>) operator.apply(source)).subscribe(subscriber);
+        return subscriber;
+    }
+}
@@ -0,0 +1,92 @@
+package com.gignomai.javachangestutorial.flow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Subscriber that records every signal and checks the rules a publisher must follow towards it.
+ */
+class RecordingSubscriber<T> implements Flow.Subscriber<T> {
+
+    final List<T> values = Collections.synchronizedList(new ArrayList<>());
+    final List<String> violations = new CopyOnWriteArrayList<>();
+    final AtomicInteger terminalSignals = new AtomicInteger();
+    final AtomicLong requested = new AtomicLong();
+    final AtomicLong totalRequested = new AtomicLong();
+    final CountDownLatch terminated = new CountDownLatch(1);
+    volatile Flow.Subscription subscription;
+    volatile Throwable error;
+    volatile boolean completed;
+    private volatile boolean cancelled;
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (this.subscription != null) {
+            violations.add("onSubscribe called twice");
+        }
+        this.subscription = subscription;
+    }
+
+    @Override
+    public void onNext(T item) {
+        if (terminalSignals.get() > 0) {
+            violations.add("onNext after terminal signal: " + item);
+        }
+        if (cancelled) {
+            violations.add("onNext after cancel: " + item);
+        }
+        if (requested.getAndDecrement() <= 0) {
+            violations.add("onNext without demand: " + item);
+        }
+        values.add(item);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        error = throwable;
+        terminate();
+    }
+
+    @Override
+    public void onComplete() {
+        completed = true;
+        terminate();
+    }
+
+    void request(long n) {
+        requested.accumulateAndGet(n, RecordingSubscriber::addCapped);
+        totalRequested.accumulateAndGet(n, RecordingSubscriber::addCapped);
+        subscription.request(n);
+    }
+
+    void cancel() {
+        cancelled = true;
+        subscription.cancel();
+    }
+
+    boolean awaitTerminated() throws InterruptedException {
+        return terminated.await(5, TimeUnit.SECONDS);
+    }
+
+    private static long addCapped(long current, long n) {
+        final long sum = current + n;
+        return sum < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private void terminate() {
+        if (terminalSignals.incrementAndGet() > 1) {
+            violations.add("more than one terminal signal");
+        }
+        if (cancelled) {
+            violations.add("terminal signal after cancel");
+        }
+        terminated.countDown();
+    }
+}
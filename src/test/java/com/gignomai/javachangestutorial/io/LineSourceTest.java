@@ -0,0 +1,97 @@
+package com.gignomai.javachangestutorial.io;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LineSourceTest {
+
+    private static final String EXAMPLE_MULTILINE_STRING = "First line \n \n second line \n third line.";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldSplitFileIntoLinesLikeStringLines() throws IOException {
+        for (String content : List.of(EXAMPLE_MULTILINE_STRING, "a\r\nb\rc\n", "\n\nlast", "", "single")) {
+            try (LineSource source = LineSource.open(write(content))) {
+                final List<String> lines = source.lines()
+                        .map(LineView::toString)
+                        .collect(Collectors.toList());
+
+                assertThat(lines).as(content).isEqualTo(content.lines().collect(Collectors.toList()));
+            }
+        }
+    }
+
+    @Test
+    void shouldFilterBlankLines() throws IOException {
+        try (LineSource source = LineSource.open(write(EXAMPLE_MULTILINE_STRING))) {
+            final List<String> lines = source.lines()
+                    .filter(line -> !line.isBlank())
+                    .map(LineView::toString)
+                    .collect(Collectors.toList());
+
+            assertThat(lines).containsExactly("First line ", " second line ", " third line.");
+        }
+    }
+
+    @Test
+    void shouldStripLines() throws IOException {
+        try (LineSource source = LineSource.open(write(EXAMPLE_MULTILINE_STRING))) {
+            assertThat(collect(source.lines().map(LineView::strip)))
+                    .containsExactly("First line", "", "second line", "third line.");
+            assertThat(collect(source.lines().map(LineView::stripLeading)))
+                    .containsExactly("First line ", "", "second line ", "third line.");
+            assertThat(collect(source.lines().map(LineView::stripTrailing)))
+                    .containsExactly("First line", "", " second line", " third line.");
+        }
+    }
+
+    @Test
+    void shouldDecodeUtf8WhenMaterialized() throws IOException {
+        try (LineSource source = LineSource.open(write("Lleida\nGirona \u00b7 Figueres\n"))) {
+            assertThat(collect(source.lines())).containsExactly("Lleida", "Girona \u00b7 Figueres");
+        }
+    }
+
+    // Small regions and splits force every boundary case through the parallel path
+    @Test
+    void shouldReadSameLinesInParallelAcrossRegions() throws IOException {
+        final String content = IntStream.range(0, 20_000)
+                .mapToObj(i -> i % 7 == 0 ? " " : " line " + i + (i % 3 == 0 ? "\r" : ""))
+                .collect(Collectors.joining("\n"));
+        final Path file = write(content);
+
+        try (LineSource source = LineSource.open(file, 4096, 256)) {
+            final List<String> parallel = source.parallelLines()
+                    .filter(line -> !line.isBlank())
+                    .map(line -> line.strip().toString())
+                    .collect(Collectors.toList());
+
+            final List<String> expected = Files.lines(file)
+                    .filter(line -> !line.isBlank())
+                    .map(String::strip)
+                    .collect(Collectors.toList());
+            assertThat(parallel).isEqualTo(expected);
+        }
+    }
+
+    private List<String> collect(Stream<LineView> lines) {
+        return lines.map(LineView::toString).collect(Collectors.toList());
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.write(Files.createTempFile(directory, "lines", ".txt"), content.getBytes(StandardCharsets.UTF_8));
+    }
+}
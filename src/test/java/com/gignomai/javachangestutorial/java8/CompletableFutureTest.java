@@ -1,18 +1,38 @@
 package com.gignomai.javachangestutorial.java8;
 
+import com.gignomai.javachangestutorial.async.AsyncExecutors;
+import com.gignomai.javachangestutorial.async.ExecutionMode;
+import com.gignomai.javachangestutorial.async.VirtualThreads;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class CompletableFutureTest {
 
+    // Blocking methods run on the io pool and trivial ones on the cpu pool, so nothing ends up in the common pool
+    private static AsyncExecutors executors;
+
+    @BeforeAll
+    static void setUpExecutors() {
+        executors = AsyncExecutors.withDefaults();
+    }
+
+    @AfterAll
+    static void tearDownExecutors() {
+        executors.destroy();
+    }
+
     @Test
     void shouldCreateAndCompleteACompletableFuture() throws ExecutionException, InterruptedException {
         final CompletableFuture<String> completableFuture = new CompletableFuture<>();
@@ -31,7 +51,7 @@ class CompletableFutureTest {
 
     @Test
     void shouldRunAsyncMethod() throws ExecutionException, InterruptedException {
-        final CompletableFuture<Void> completableFuture = CompletableFuture.runAsync(this::blockingVoidMethod);
+        final CompletableFuture<Void> completableFuture = CompletableFuture.runAsync(this::blockingVoidMethod, executors.io());
 
         completableFuture.get();
 
@@ -40,14 +60,14 @@ class CompletableFutureTest {
 
     @Test
     void shouldSupplyAsyncMethod() throws ExecutionException, InterruptedException {
-        final CompletableFuture<String> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod);
+        final CompletableFuture<String> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod, executors.io());
 
         assertThat(completableFuture.get()).isEqualTo("Hello");
     }
 
     @Test
     void shouldChainSupplyAsyncAndThenAccept() throws ExecutionException, InterruptedException {
-        final CompletableFuture<String> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod);
+        final CompletableFuture<String> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod, executors.io());
 
         final CompletableFuture<Void> resultCompletableFuture = completableFuture
                 .thenAccept(s -> blockingVoidMethodWithParameter(s + " World!"));
@@ -59,7 +79,7 @@ class CompletableFutureTest {
 
     @Test
     void shouldChainSupplyAsyncAndThenApply() throws ExecutionException, InterruptedException {
-        final CompletableFuture<String> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod);
+        final CompletableFuture<String> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod, executors.io());
 
         final CompletableFuture<String> resultCompletableFuture = completableFuture
                 .thenApply(this::blockingStringMethodWithParameter);
@@ -69,7 +89,7 @@ class CompletableFutureTest {
 
     @Test
     void shouldChainSupplyAsyncAndThenApplyShort() throws ExecutionException, InterruptedException {
-        final CompletableFuture<String> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod)
+        final CompletableFuture<String> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod, executors.io())
                 .thenApply(this::blockingStringMethodWithParameter);
 
         assertThat(completableFuture.get()).isEqualTo("Hello world!");
@@ -77,7 +97,7 @@ class CompletableFutureTest {
 
     @Test
     void shouldChainMoreThanOneCompletionStages() throws ExecutionException, InterruptedException {
-        final CompletableFuture<Void> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod)
+        final CompletableFuture<Void> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod, executors.io())
                 .thenApply(this::blockingStringMethodWithParameter)
                 .thenAccept(this::blockingVoidMethodWithParameter)
                 .thenRun(() -> System.out.println("Finished!"));
@@ -89,10 +109,25 @@ class CompletableFutureTest {
 
     @Test
     void shouldChainMoreThanOneCompletionStagesWithAsyncMethods() throws ExecutionException, InterruptedException {
-        final CompletableFuture<Void> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod)
-                .thenApplyAsync(this::blockingStringMethodWithParameter)
-                .thenAcceptAsync(this::blockingVoidMethodWithParameter)
-                .thenRunAsync(() -> System.out.println("Finished!"));
+        final CompletableFuture<Void> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod, executors.io())
+                .thenApplyAsync(this::blockingStringMethodWithParameter, executors.io())
+                .thenAcceptAsync(this::blockingVoidMethodWithParameter, executors.io())
+                .thenRunAsync(() -> System.out.println("Finished!"), executors.cpu());
+
+        completableFuture.get();
+
+        assertThat(completableFuture.isDone()).isTrue();
+    }
+
+    // Same chain as above, but it opts into virtual threads so the sleeps do not pin platform threads (Java 21+)
+    @Test
+    void shouldChainMoreThanOneCompletionStagesWithVirtualThreads() throws ExecutionException, InterruptedException {
+        assumeTrue(VirtualThreads.isSupported());
+        final Executor blocking = executors.blocking(ExecutionMode.VIRTUAL);
+        final CompletableFuture<Void> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod, blocking)
+                .thenApplyAsync(this::blockingStringMethodWithParameter, blocking)
+                .thenAcceptAsync(this::blockingVoidMethodWithParameter, blocking)
+                .thenRunAsync(() -> System.out.println("Finished!"), executors.cpu());
 
         completableFuture.get();
 
@@ -101,7 +136,7 @@ class CompletableFutureTest {
 
     @Test
     void shouldComposeFutures() throws ExecutionException, InterruptedException {
-        final CompletableFuture<String> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod)
+        final CompletableFuture<String> completableFuture = CompletableFuture.supplyAsync(this::blockingStringMethod, executors.io())
                 .thenCompose(this::stringCompletableFutureMethodWithParam);
 
         assertThat(completableFuture.get()).isEqualTo("Hello World");
@@ -110,7 +145,7 @@ class CompletableFutureTest {
     @Test
     void shouldCombineFutures() throws ExecutionException, InterruptedException {
         final CompletableFuture<String> completableFuture = CompletableFuture
-                .supplyAsync(this::blockingStringMethod)
+                .supplyAsync(this::blockingStringMethod, executors.io())
                 .thenCombine(stringCompletableMethodFuture(), concatStringsBiFunction());
 
         assertThat(completableFuture.get()).isEqualTo("Hello World");
@@ -118,9 +153,9 @@ class CompletableFutureTest {
 
     @Test
     void shouldRunMultipleFuturesInParallel() throws ExecutionException, InterruptedException {
-        final CompletableFuture<String> future1 = CompletableFuture.supplyAsync(() -> "Hello");
-        final CompletableFuture<String> future2 = CompletableFuture.supplyAsync(() -> "Beautiful");
-        final CompletableFuture<String> future3 = CompletableFuture.supplyAsync(() -> "World");
+        final CompletableFuture<String> future1 = CompletableFuture.supplyAsync(() -> "Hello", executors.cpu());
+        final CompletableFuture<String> future2 = CompletableFuture.supplyAsync(() -> "Beautiful", executors.cpu());
+        final CompletableFuture<String> future3 = CompletableFuture.supplyAsync(() -> "World", executors.cpu());
 
         final CompletableFuture<Void> combinedFuture = CompletableFuture.allOf(future1, future2, future3);
 
@@ -142,7 +177,7 @@ class CompletableFutureTest {
         final String name = getNullString();
 
         final CompletableFuture<String> completableFuture = CompletableFuture
-                .supplyAsync(() -> processNullableString(name))
+                .supplyAsync(() -> processNullableString(name), executors.cpu())
                 .handle((s, t) -> s != null ? s : "Hello, Stranger!");
 
         assertThat(completableFuture.get()).isEqualTo("Hello, Stranger!");
@@ -160,7 +195,7 @@ class CompletableFutureTest {
 
     @Test
     void shouldManageExceptionsInAChainOfFutures() throws ExecutionException, InterruptedException {
-        final CompletableFuture<String> completableFuture = CompletableFuture.supplyAsync(this::getNullString)
+        final CompletableFuture<String> completableFuture = CompletableFuture.supplyAsync(this::getNullString, executors.cpu())
                 .thenApply(this::processNullableString)
                 .exceptionally((error)-> "Error: " + error.getLocalizedMessage());
 
@@ -214,11 +249,11 @@ class CompletableFutureTest {
     }
 
     private CompletableFuture<String> stringCompletableMethodFuture() {
-        return CompletableFuture.supplyAsync(() -> " World");
+        return CompletableFuture.supplyAsync(() -> " World", executors.cpu());
     }
 
     private CompletableFuture<String> stringCompletableFutureMethodWithParam(String message) {
-        return CompletableFuture.supplyAsync(() -> message + " World");
+        return CompletableFuture.supplyAsync(() -> message + " World", executors.cpu());
     }
 
     private static class CustomRuntimeException extends Throwable {
@@ -1,11 +1,15 @@
 package com.gignomai.javachangestutorial.java8;
 
+import com.gignomai.javachangestutorial.time.MutableClock;
 import org.junit.jupiter.api.Test;
 
 import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.Month;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.time.temporal.TemporalAdjusters;
 
@@ -15,10 +19,14 @@ class JavaTimeTest {
 
     public static final String TEST_DATE_STRING = "2022-05-16";
 
+    // Time only moves when the test says so, instead of sleeping and hoping the minute does not roll over
+    private final MutableClock clock = new MutableClock(Instant.parse(TEST_DATE_STRING + "T10:15:30Z"), ZoneOffset.UTC);
+
     @Test
     void shouldCreateAnLocalDate() {
-        final LocalDate localDate = LocalDate.now();
-        assertThat(localDate.toString()).isEqualTo(LocalDate.now().toString());
+        final LocalDate localDate = LocalDate.now(clock);
+        assertThat(localDate.toString()).isEqualTo(LocalDate.now(clock).toString());
+        assertThat(localDate.toString()).isEqualTo(TEST_DATE_STRING);
 
         final LocalDate localDateFromParameters = LocalDate.of(2022, 5, 16);
         assertThat(localDateFromParameters.toString()).isEqualTo(TEST_DATE_STRING);
@@ -80,22 +88,13 @@ class JavaTimeTest {
 
     @Test
     void shouldCreateALocalDateTime() {
-        LocalDateTime first = LocalDateTime.now();
-        sleep();
-        LocalDateTime second = LocalDateTime.now();
+        LocalDateTime first = LocalDateTime.now(clock);
+        clock.advance(Duration.ofSeconds(5));
+        LocalDateTime second = LocalDateTime.now(clock);
 
         assertThat(first).isBefore(second);
         assertThat(first.getDayOfMonth()).isEqualTo(second.getDayOfMonth());
         assertThat(first.getMinute()).isEqualTo(second.getMinute());
         assertThat(first.getSecond()).isNotEqualTo(second.getSecond());
     }
-
-    private void sleep() {
-        try {
-            double pauseLength = (1000 + (Math.random() * 10000));
-            Thread.sleep((int) pauseLength);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-    }
 }
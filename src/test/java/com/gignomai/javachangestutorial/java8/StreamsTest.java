@@ -1,5 +1,6 @@
 package com.gignomai.javachangestutorial.java8;
 
+import com.gignomai.javachangestutorial.stream.StripedAppendBuffer;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
@@ -156,6 +157,21 @@ class StreamsTest {
         assertThat(result).hasSize(3);
     }
 
+    // The same consumer pattern is only safe in parallel with a thread-safe sink
+    @Test
+    void shouldConsumeValuesFromParallelStream() {
+        final List<String> names = Arrays.asList("Barcelona", "Girona", "LLeida", "Tarragona");
+
+        final StripedAppendBuffer<String> result = new StripedAppendBuffer<>();
+
+        names.stream()
+                .parallel()
+                .filter(name -> name.endsWith("ona"))
+                .forEach(result);
+
+        assertThat(result.size()).isEqualTo(3);
+    }
+
     @Test
     void shouldReturnDistinctValuesFromCollection() {
         final List<String> names = Arrays.asList("Barcelona", "Barcelona", "Girona", "LLeida", "Tarragona");
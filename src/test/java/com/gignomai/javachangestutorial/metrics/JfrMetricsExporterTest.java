@@ -0,0 +1,50 @@
+package com.gignomai.javachangestutorial.metrics;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JfrMetricsExporterTest {
+
+    @Test
+    void shouldPublishTimersAndCountersAsPeriodicEvents(@TempDir Path directory) throws Exception {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.timer("lookup").record(1_000);
+        registry.counter("requests").add(3);
+        final Path file = directory.resolve("metrics.jfr");
+
+        try (JfrMetricsExporter ignored = new JfrMetricsExporter(registry);
+             Recording recording = new Recording()) {
+            recording.enable("com.gignomai.StageLatency").withPeriod(Duration.ofMillis(50));
+            recording.enable("com.gignomai.Counter").withPeriod(Duration.ofMillis(50));
+            recording.start();
+            Thread.sleep(300);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        final List<RecordedEvent> latencies = ofType(events, "com.gignomai.StageLatency");
+        final List<RecordedEvent> counters = ofType(events, "com.gignomai.Counter");
+        assertThat(latencies).isNotEmpty();
+        assertThat(latencies.get(0).getString("stage")).isEqualTo("lookup");
+        assertThat(latencies.get(0).getLong("count")).isEqualTo(1);
+        assertThat(counters).isNotEmpty();
+        assertThat(counters.get(0).getLong("value")).isEqualTo(3);
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String type) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals(type))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,36 @@
+package com.gignomai.javachangestutorial.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.LazyInitializationBeanFactoryPostProcessor;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            // Loads application-fast.properties
+            .withInitializer(new ConfigDataApplicationContextInitializer())
+            // SpringApplication applies spring.main.lazy-initialization this way; the bare runner does not
+            .withInitializer(context -> {
+                if (context.getEnvironment().getProperty("spring.main.lazy-initialization", Boolean.class, false)) {
+                    context.addBeanFactoryPostProcessor(new LazyInitializationBeanFactoryPostProcessor());
+                }
+            })
+            .withUserConfiguration(MetricsConfiguration.class);
+
+    @Test
+    void shouldStartJfrExporterInFastProfile() {
+        contextRunner.withPropertyValues("spring.profiles.active=fast").run(context -> {
+            assertThat(context.getBeanFactory().getBeanDefinition("metricsRegistry").isLazyInit()).isTrue();
+            assertThat(context.getBeanFactory().containsSingleton("jfrMetricsExporter")).isTrue();
+        });
+    }
+
+    @Test
+    void shouldNotExportWhenJfrIsDisabled() {
+        contextRunner.withPropertyValues("spring.profiles.active=fast", "metrics.jfr.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(JfrMetricsExporter.class));
+    }
+}
@@ -0,0 +1,99 @@
+package com.gignomai.javachangestutorial.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MetricsRegistryTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+
+    @Test
+    void shouldReportPercentilesWithTwoSignificantDigits() {
+        final Timer timer = registry.timer("lookup");
+        for (int i = 1; i <= 1_000; i++) {
+            timer.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+
+        final TimerSnapshot snapshot = timer.snapshot();
+
+        assertThat(registry.timer("lookup")).isSameAs(timer);
+        assertThat(snapshot.getCount()).isEqualTo(1_000);
+        assertThat(snapshot.getP50Nanos()).isBetween(495_000L, 505_000L);
+        assertThat(snapshot.getP99Nanos()).isBetween(985_000L, 995_000L);
+        assertThat(snapshot.getMaxNanos()).isBetween(995_000L, 1_005_000L);
+        assertThat(timer.snapshot().getCount()).isEqualTo(1_000);
+    }
+
+    @Test
+    void shouldTimeCompletableFutureStages() {
+        final Timer timer = registry.timer("remote");
+
+        final String result = timer.timeAsync(() -> CompletableFuture.supplyAsync(() -> "Hello World")).join();
+        final CompletableFuture<String> failed = timer.timeAsync(
+                () -> CompletableFuture.failedFuture(new IllegalStateException("Backend down")));
+
+        assertThat(result).isEqualTo("Hello World");
+        assertThat(failed).isCompletedExceptionally();
+        assertThat(timer.snapshot().getCount()).isEqualTo(2);
+        assertThat(timer.snapshot().getFailures()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldTimeStreamStages() {
+        final Timer timer = registry.timer("upper");
+
+        final List<String> result = List.of("Barcelona", "Girona").stream()
+                .map(timer.timed(String::toUpperCase))
+                .collect(Collectors.toList());
+
+        assertThat(result).containsExactly("BARCELONA", "GIRONA");
+        assertThat(timer.snapshot().getCount()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRecordQueueAndRunTimePerExecutor() throws InterruptedException {
+        final ExecutorService pool = Executors.newFixedThreadPool(2);
+        final Executor executor = registry.executor("io", pool);
+        IntStream.range(0, 10).forEach(i -> CompletableFuture.runAsync(() -> sleep(5), executor));
+        // The run time is recorded after the future completes, so wait for the tasks themselves to return
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        final MetricsSnapshot snapshot = registry.snapshot();
+
+        assertThat(snapshot.getTimers()).extracting(TimerSnapshot::getName).containsExactly("io.queue", "io.run");
+        final TimerSnapshot run = snapshot.getTimers().get(1);
+        assertThat(run.getCount()).isEqualTo(10);
+        assertThat(run.getMaxNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(snapshot.getTimers().get(0).getMaxNanos()).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5));
+        assertThat(snapshot.getCounters()).containsEntry("io.active", 0L);
+    }
+
+    @Test
+    void shouldSumCounterAcrossThreads() {
+        final Counter counter = registry.counter("requests");
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> counter.increment());
+        counter.add(-10);
+
+        assertThat(registry.snapshot().getCounters()).containsEntry("requests", 99_990L);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
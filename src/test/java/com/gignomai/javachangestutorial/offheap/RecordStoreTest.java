@@ -0,0 +1,182 @@
+package com.gignomai.javachangestutorial.offheap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecordStoreTest {
+
+    private static final List<String> CITIES = List.of("Barcelona", "Girona", "Lleida", "Tarragona");
+    private static final byte[] ONA = "ona".getBytes(StandardCharsets.UTF_8);
+
+    private final OffHeapArena arena = OffHeapArena.open(1024);
+
+    @AfterEach
+    void tearDown() {
+        arena.close();
+    }
+
+    @Test
+    void shouldReadBackVariableLengthRecords() {
+        final RecordStore store = RecordStore.variableLength(arena);
+        CITIES.forEach(store::append);
+        store.append("");
+        store.append("Lloret de Mar \u00e0");
+
+        assertThat(store.size()).isEqualTo(6);
+        assertThat(store.get(1).toString()).isEqualTo("Girona");
+        assertThat(store.get(4).length()).isZero();
+        assertThat(store.get(5).toString()).isEqualTo("Lloret de Mar \u00e0");
+        assertThat(store.get(5).index()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldFilterMapAndCountRecordsInPlace() {
+        final RecordStore store = storeOf(CITIES);
+
+        final List<String> filtered = store.stream()
+                .filter(city -> city.endsWith(ONA))
+                .map(RecordView::toString)
+                .collect(Collectors.toList());
+        final long count = store.stream()
+                .filter(city -> city.startsWith("G".getBytes(StandardCharsets.UTF_8)))
+                .count();
+        final int lengths = store.stream()
+                .mapToInt(RecordView::length)
+                .sum();
+
+        assertThat(filtered).containsExactly("Barcelona", "Girona", "Tarragona");
+        assertThat(count).isEqualTo(1);
+        assertThat(lengths).isEqualTo(30);
+    }
+
+    @Test
+    void shouldFlatMapFieldsOfRecords() {
+        final RecordStore store = storeOf(List.of("Barcelona,Girona", "Lleida,,Tarragona", ""));
+
+        final List<String> fields = store.stream()
+                .flatMap(record -> record.fields((byte) ','))
+                .map(RecordView::toString)
+                .collect(Collectors.toList());
+
+        assertThat(fields).containsExactly("Barcelona", "Girona", "Lleida", "", "Tarragona", "");
+    }
+
+    @Test
+    void shouldReuseOneViewPerSpliterator() {
+        final RecordStore store = storeOf(CITIES);
+        final Set<RecordView> views = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        store.stream().forEach(views::add);
+
+        assertThat(views).hasSize(1);
+    }
+
+    @Test
+    void shouldStoreRecordsAcrossChunks() {
+        final RecordStore store = RecordStore.variableLength(arena);
+        LongStream.range(0, 10_000).forEach(i -> store.append("record-" + i));
+
+        assertThat(arena.allocatedBytes()).isGreaterThan(100L * arena.chunkBytes());
+        assertThat(store.sizeInBytes()).isEqualTo(arena.allocatedBytes());
+        assertThat(store.stream().map(RecordView::toString))
+                .containsExactlyElementsOf(LongStream.range(0, 10_000).mapToObj(i -> "record-" + i)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldSplitForParallelStreams() {
+        final RecordStore store = RecordStore.variableLength(arena);
+        LongStream.range(0, 100_000).forEach(i -> store.append(CITIES.get((int) (i % CITIES.size()))));
+        final Spliterator<RecordView> spliterator = store.spliterator();
+
+        final Spliterator<RecordView> prefix = spliterator.trySplit();
+        final long parallelCount = store.parallelStream()
+                .filter(city -> city.endsWith(ONA))
+                .count();
+
+        assertThat(prefix.estimateSize()).isEqualTo(50_000);
+        assertThat(spliterator.estimateSize()).isEqualTo(50_000);
+        assertThat(spliterator.hasCharacteristics(Spliterator.SUBSIZED)).isTrue();
+        assertThat(parallelCount).isEqualTo(75_000);
+    }
+
+    @Test
+    void shouldStoreFixedLengthRecords() {
+        final RecordStore store = RecordStore.fixedLength(arena, 12);
+        final ByteBuffer scratch = ByteBuffer.allocate(12);
+        for (int i = 0; i < 1000; i++) {
+            scratch.clear();
+            scratch.putInt(i).putLong(i * 1_000_000_007L).flip();
+            store.append(scratch);
+        }
+
+        final long sum = store.stream()
+                .filter(record -> record.getInt(0) % 2 == 0)
+                .mapToLong(record -> record.getLong(4))
+                .sum();
+
+        assertThat(store.size()).isEqualTo(1000);
+        assertThat(store.get(999).getInt(0)).isEqualTo(999);
+        assertThat(store.get(999).getLong(4)).isEqualTo(999 * 1_000_000_007L);
+        assertThat(sum).isEqualTo(LongStream.range(0, 1000)
+                .filter(i -> i % 2 == 0)
+                .map(i -> i * 1_000_000_007L)
+                .sum());
+    }
+
+    @Test
+    void shouldRejectRecordsThatDoNotFit() {
+        final RecordStore fixed = RecordStore.fixedLength(arena, 8);
+        final RecordStore variable = RecordStore.variableLength(arena);
+
+        fixed.append(new byte[8]);
+
+        assertThatThrownBy(() -> fixed.append(new byte[7])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> variable.append(new byte[1021])).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> fixed.get(0).getLong(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThat(variable.append(new byte[1020])).isZero();
+    }
+
+    @Test
+    void shouldFreeEveryStoreOfTheArenaOnClose() {
+        final RecordStore names = storeOf(CITIES);
+        final RecordStore ids = RecordStore.fixedLength(arena, 4);
+        ids.append(new byte[4]);
+        final RecordView view = names.get(0);
+
+        arena.close();
+        arena.close();
+
+        assertThat(arena.isOpen()).isFalse();
+        assertThat(arena.allocatedBytes()).isZero();
+        assertThatThrownBy(view::toString).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> names.get(1)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(names::stream).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> ids.append(new byte[4])).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldRejectChunkSizesThatAreNotPowersOfTwo() {
+        assertThatThrownBy(() -> OffHeapArena.open(1000)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OffHeapArena.open(512)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private RecordStore storeOf(List<String> values) {
+        final RecordStore store = RecordStore.variableLength(arena);
+        values.forEach(store::append);
+        return store;
+    }
+}
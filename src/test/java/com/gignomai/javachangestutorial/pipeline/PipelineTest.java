@@ -0,0 +1,127 @@
+package com.gignomai.javachangestutorial.pipeline;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PipelineTest {
+
+    private static final List<String> NAMES = Arrays.asList("Barcelona", "Girona", "LLeida", "Tarragona");
+
+    @Test
+    void shouldFilterAndMapValuesFromCollection() {
+        final List<String> result = Pipeline.of(NAMES)
+                .filter(name -> name.endsWith("ona"))
+                .map(String::toUpperCase)
+                .toList();
+
+        assertThat(result).containsExactly("BARCELONA", "GIRONA", "TARRAGONA");
+    }
+
+    @Test
+    void shouldFlatMapAndReduce() {
+        final List<List<String>> names = Arrays.asList(Arrays.asList("Barcelona", "Girona"),
+                Arrays.asList("LLeida", "Tarragona"));
+
+        final int letters = Pipeline.of(names)
+                .flatMap(list -> list)
+                .map(String::length)
+                .reduce(0, Integer::sum);
+        final Optional<String> longest = Pipeline.of(names)
+                .flatMap(list -> list)
+                .reduce((first, second) -> first.length() >= second.length() ? first : second);
+
+        assertThat(letters).isEqualTo(30);
+        assertThat(longest).contains("Barcelona");
+        assertThat(Pipeline.of(NAMES).filter(name -> name.isEmpty()).reduce(String::concat)).isEmpty();
+    }
+
+    @Test
+    void shouldFuseAdjacentStatelessStages() {
+        final Pipeline<String> pipeline = Pipeline.of(NAMES)
+                .filter(name -> name.endsWith("ona"))
+                .map(String::toUpperCase)
+                .flatMap(name -> Arrays.asList(name, name))
+                .map(String::toLowerCase)
+                .filter(name -> name.startsWith("g"));
+
+        assertThat(pipeline.explain()).isEqualTo("source(4) -> [filter, map] -> flatMap -> [map, filter]");
+        assertThat(pipeline.parallel().explain()).endsWith("(parallel)");
+        assertThat(pipeline.toList()).containsExactly("girona", "girona");
+    }
+
+    @Test
+    void shouldRecordStatsWithoutPeek() {
+        final PipelineStats stats = new PipelineStats();
+
+        final long count = Pipeline.of(NAMES)
+                .recordStats(stats)
+                .filter(name -> name.endsWith("ona"))
+                .flatMap(name -> Arrays.asList(name, name))
+                .map(String::length)
+                .count();
+
+        assertThat(count).isEqualTo(6);
+        assertThat(stats.stages()).extracting(StageStats::getName)
+                .containsExactly("source", "filter", "flatMap", "map");
+        assertThat(stats.stage(0).getOutput()).isEqualTo(4);
+        assertThat(stats.stage(1).getInput()).isEqualTo(4);
+        assertThat(stats.stage(1).getOutput()).isEqualTo(3);
+        assertThat(stats.stage(2).getOutput()).isEqualTo(6);
+        assertThat(stats.stage(3).getInput()).isEqualTo(6);
+        assertThat(stats.stage(1).getEstimatedNanos()).isPositive();
+        assertThat(stats.toString()).contains("flatMap");
+    }
+
+    @Test
+    void shouldShortCircuitAndShowIt() {
+        final PipelineStats stats = new PipelineStats();
+        final List<Integer> numbers = IntStream.range(0, 100_000).boxed().collect(Collectors.toList());
+
+        final boolean found = Pipeline.of(numbers).recordStats(stats).map(i -> i * 2).anyMatch(i -> i == 20);
+
+        assertThat(found).isTrue();
+        assertThat(stats.stage(0).getOutput()).isEqualTo(11);
+        assertThat(Pipeline.of(numbers).anyMatch(i -> i < 0)).isFalse();
+        assertThat(Pipeline.of(numbers).filter(i -> i > 500).findAny()).contains(501);
+        assertThat(Pipeline.of(numbers).filter(i -> i < 0).findAny()).isEmpty();
+    }
+
+    @Test
+    void shouldMatchStreamsInParallel() {
+        final List<Integer> numbers = IntStream.range(0, 1_000_000).boxed().collect(Collectors.toList());
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final PipelineStats stats = new PipelineStats();
+            final List<String> expected = numbers.stream()
+                    .filter(i -> i % 3 == 0)
+                    .flatMap(i -> List.of(i, -i).stream())
+                    .map(String::valueOf)
+                    .collect(Collectors.toList());
+
+            final List<String> result = Pipeline.of(numbers)
+                    .parallel(pool)
+                    .recordStats(stats)
+                    .filter(i -> i % 3 == 0)
+                    .flatMap(i -> List.of(i, -i))
+                    .map(String::valueOf)
+                    .toList();
+
+            assertThat(result).isEqualTo(expected);
+            assertThat(stats.stage(0).getOutput()).isEqualTo(numbers.size());
+            assertThat(stats.stage(3).getOutput()).isEqualTo(expected.size());
+            assertThat(Pipeline.of(numbers).parallel(pool).map(i -> (long) i).reduce(0L, Long::sum))
+                    .isEqualTo(numbers.stream().mapToLong(i -> i).sum());
+            assertThat(Pipeline.of(numbers).parallel(pool).anyMatch(i -> i == 999_999)).isTrue();
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
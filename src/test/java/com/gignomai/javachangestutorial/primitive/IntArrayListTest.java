@@ -0,0 +1,48 @@
+package com.gignomai.javachangestutorial.primitive;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IntArrayListTest {
+
+    @Test
+    void shouldGrowWhenAddingValues() {
+        final IntArrayList list = new IntArrayList(1);
+
+        IntStream.range(0, 100).forEach(list::add);
+
+        assertThat(list.size()).isEqualTo(100);
+        assertThat(list.get(99)).isEqualTo(99);
+    }
+
+    @Test
+    void shouldCollectFromIntStream() {
+        final IntArrayList list = IntStream.rangeClosed(1, 1000)
+                .parallel()
+                .collect(IntArrayList::new, IntArrayList::add, IntArrayList::addAll);
+
+        assertThat(list.size()).isEqualTo(1000);
+        assertThat(list.stream().sum()).isEqualTo(500500);
+    }
+
+    @Test
+    void shouldReduceToMaxAndMinValue() {
+        final IntArrayList numbers = IntArrayList.of(1, 6, 3, 2);
+
+        assertThat(numbers.stream().max()).hasValue(6);
+        assertThat(numbers.stream().min()).hasValue(1);
+    }
+
+    @Test
+    void shouldOnlyStreamAddedValues() {
+        final IntArrayList numbers = new IntArrayList(10);
+        numbers.add(5);
+
+        assertThat(numbers.stream().toArray()).containsExactly(5);
+        assertThrows(IndexOutOfBoundsException.class, () -> numbers.get(1));
+    }
+}
@@ -0,0 +1,44 @@
+package com.gignomai.javachangestutorial.primitive;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IntStatisticsTest {
+
+    @Test
+    void shouldComputeStatisticsInOnePass() {
+        final IntStatistics statistics = IntStatistics.of(IntArrayList.of(1, 6, 3, 2).stream());
+
+        assertThat(statistics.getCount()).isEqualTo(4);
+        assertThat(statistics.getSum()).isEqualTo(12);
+        assertThat(statistics.getMin()).isEqualTo(1);
+        assertThat(statistics.getMax()).isEqualTo(6);
+        assertThat(statistics.getAverage()).isEqualTo(3.0);
+        assertThat(statistics.getPercentile(0.5)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldMatchIntSummaryStatisticsInParallel() {
+        final IntStatistics statistics = IntStatistics.of(IntStream.rangeClosed(1, 100_000).parallel());
+
+        assertThat(statistics.getSum()).isEqualTo(IntStream.rangeClosed(1, 100_000).summaryStatistics().getSum());
+        assertThat(statistics.getPercentile(0.95)).isEqualTo(95_000);
+        assertThat(statistics.getPercentile(0.99)).isEqualTo(99_000);
+        assertThat(statistics.getPercentile(1)).isEqualTo(100_000);
+        assertThat(statistics.getPercentile(0)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotOverflowSum() {
+        final IntStatistics statistics = IntStatistics.withoutPercentiles();
+        statistics.accept(Integer.MAX_VALUE);
+        statistics.accept(Integer.MAX_VALUE);
+
+        assertThat(statistics.getSum()).isEqualTo(2L * Integer.MAX_VALUE);
+        assertThrows(IllegalStateException.class, () -> statistics.getPercentile(0.5));
+    }
+}
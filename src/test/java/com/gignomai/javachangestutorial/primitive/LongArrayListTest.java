@@ -0,0 +1,30 @@
+package com.gignomai.javachangestutorial.primitive;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongArrayListTest {
+
+    @Test
+    void shouldCollectFromLongStream() {
+        final LongArrayList list = LongStream.rangeClosed(1, 1000)
+                .map(value -> value * Integer.MAX_VALUE)
+                .collect(LongArrayList::new, LongArrayList::add, LongArrayList::addAll);
+
+        assertThat(list.size()).isEqualTo(1000);
+        assertThat(list.get(999)).isEqualTo(1000L * Integer.MAX_VALUE);
+        assertThat(list.stream().max()).hasValue(1000L * Integer.MAX_VALUE);
+    }
+
+    @Test
+    void shouldSortValues() {
+        final LongArrayList list = LongArrayList.of(3, 1, 2);
+
+        list.sort();
+
+        assertThat(list.toArray()).containsExactly(1, 2, 3);
+    }
+}
@@ -0,0 +1,21 @@
+package com.gignomai.javachangestutorial.primitive;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongStatisticsTest {
+
+    @Test
+    void shouldComputeStatisticsInOnePass() {
+        final LongStatistics statistics = LongStatistics.of(LongStream.rangeClosed(1, 1000).parallel());
+
+        assertThat(statistics.getCount()).isEqualTo(1000);
+        assertThat(statistics.getSum()).isEqualTo(500500);
+        assertThat(statistics.getMin()).isEqualTo(1);
+        assertThat(statistics.getMax()).isEqualTo(1000);
+        assertThat(statistics.getPercentile(0.9)).isEqualTo(900);
+    }
+}
@@ -0,0 +1,164 @@
+package com.gignomai.javachangestutorial.spill;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ExternalCollectorsTest {
+
+    private static final List<String> CITIES = List.of("Barcelona", "Girona", "LLeida", "Tarragona", "Reus", "Vic");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldSortInMemoryWithinBudget() throws IOException {
+        final List<String> sorted;
+        try (Stream<String> stream = CITIES.stream()
+                .collect(collectors(1 << 20).sorted(Comparator.naturalOrder(), Codec.strings()))) {
+            assertThat(runFiles()).isZero();
+            sorted = stream.collect(Collectors.toList());
+        }
+
+        assertThat(sorted).containsExactly("Barcelona", "Girona", "LLeida", "Reus", "Tarragona", "Vic");
+    }
+
+    @Test
+    void shouldSpillSortedRunsAndMergeThem() throws IOException {
+        final List<String> names = names(50_000);
+
+        final List<String> sorted;
+        try (Stream<String> stream = names.stream()
+                .collect(collectors(64 * 1024).sorted(Comparator.naturalOrder(), Codec.strings()))) {
+            assertThat(runFiles()).isGreaterThan(10);
+            sorted = stream.collect(Collectors.toList());
+        }
+
+        assertThat(sorted).isEqualTo(names.stream().sorted().collect(Collectors.toList()));
+        assertThat(runFiles()).isZero();
+    }
+
+    @Test
+    void shouldKeepEqualElementsInEncounterOrder() {
+        final List<String> names = names(20_000);
+        final Comparator<String> byLength = Comparator.comparingInt(String::length);
+
+        final List<String> sequential;
+        try (Stream<String> stream = names.stream().collect(collectors(16 * 1024).sorted(byLength, Codec.strings()))) {
+            sequential = stream.collect(Collectors.toList());
+        }
+        final List<String> parallel;
+        try (Stream<String> stream = names.parallelStream()
+                .collect(collectors(16 * 1024).sorted(byLength, Codec.strings()))) {
+            parallel = stream.collect(Collectors.toList());
+        }
+
+        final List<String> expected = names.stream().sorted(byLength).collect(Collectors.toList());
+        assertThat(sequential).isEqualTo(expected);
+        assertThat(parallel).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldMergeMoreRunsThanOpenAtOnce() {
+        final List<Long> values = new SplittableRandom(7).longs(20_000, -1_000_000, 1_000_000).boxed()
+                .collect(Collectors.toList());
+        values.addAll(List.of(Long.MIN_VALUE, Long.MAX_VALUE, 0L, -1L));
+
+        final List<Long> sorted;
+        try (Stream<Long> stream = values.stream()
+                .collect(collectors(2 * 1024).sorted(Comparator.naturalOrder(), Codec.longs()))) {
+            sorted = stream.collect(Collectors.toList());
+        }
+
+        assertThat(sorted).isEqualTo(values.stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldDeleteRunsWhenStreamIsClosedEarly() throws IOException {
+        try (Stream<String> stream = names(50_000).stream()
+                .collect(collectors(64 * 1024).sorted(Comparator.naturalOrder(), Codec.strings()))) {
+            assertThat(stream.limit(10)).hasSize(10);
+        }
+
+        assertThat(runFiles()).isZero();
+    }
+
+    @Test
+    void shouldGroupByKeyWithDownstreamCollector() {
+        final List<String> names = names(30_000);
+
+        final Map<Integer, Long> counts = new TreeMap<>();
+        final Map<Integer, List<String>> groups = new TreeMap<>();
+        try (Stream<Map.Entry<Integer, Long>> stream = names.stream().collect(collectors(32 * 1024)
+                .groupingBy(String::length, Comparator.naturalOrder(), Codec.integers(), Codec.strings(),
+                        Collectors.counting()))) {
+            stream.forEach(entry -> counts.put(entry.getKey(), entry.getValue()));
+        }
+        try (Stream<Map.Entry<Integer, List<String>>> stream = names.parallelStream().collect(collectors(32 * 1024)
+                .groupingBy(String::length, Comparator.naturalOrder(), Codec.integers(), Codec.strings(),
+                        Collectors.toList()))) {
+            stream.forEach(entry -> groups.put(entry.getKey(), entry.getValue()));
+        }
+
+        assertThat(counts).isEqualTo(names.stream()
+                .collect(Collectors.groupingBy(String::length, TreeMap::new, Collectors.counting())));
+        assertThat(groups).isEqualTo(names.stream()
+                .collect(Collectors.groupingBy(String::length, TreeMap::new, Collectors.toList())));
+    }
+
+    // Runs a child JVM for about 40 s: ./gradlew test -PslowTests
+    @Test
+    @Tag("slow")
+    void shouldSortAndGroupTenTimesTheHeap() throws IOException, InterruptedException {
+        final Path java = Path.of(System.getProperty("java.home"), "bin", "java");
+        final Process process = new ProcessBuilder(java.toString(), "-Xmx16m",
+                "-Djava.io.tmpdir=" + directory, "-cp", System.getProperty("java.class.path"),
+                SpillCheck.class.getName())
+                .redirectErrorStream(true)
+                .start();
+
+        final boolean exited = process.waitFor(5, TimeUnit.MINUTES);
+        if (!exited) {
+            // Reading the output would otherwise wait for the child to exit on its own
+            process.destroyForcibly().waitFor();
+        }
+        final String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+
+        assertThat(exited).as(output).isTrue();
+        assertThat(process.exitValue()).as(output).isZero();
+        assertThat(output).contains("Sorted and grouped");
+        assertThat(runFiles()).isZero();
+    }
+
+    private ExternalCollectors collectors(long memoryBudget) {
+        return ExternalCollectors.withMemoryBudget(memoryBudget).inDirectory(directory);
+    }
+
+    private long runFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static List<String> names(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> CITIES.get(i % CITIES.size()) + (i * 7919 % count))
+                .collect(Collectors.toList());
+    }
+}
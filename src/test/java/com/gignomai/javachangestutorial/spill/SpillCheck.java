@@ -0,0 +1,71 @@
+package com.gignomai.javachangestutorial.spill;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sorts and groups ten times as many boxed longs as the heap of the JVM running it can hold, and exits with 0 when
+ * the results are right. Started in a small child JVM by {@link ExternalCollectorsTest}.
+ */
+final class SpillCheck {
+
+    // A boxed Long and the reference to it
+    private static final long HEAP_BYTES_PER_VALUE = 20;
+    private static final long GROUPS = 1000;
+
+    private SpillCheck() {
+    }
+
+    public static void main(String[] args) {
+        final long count = 10 * Runtime.getRuntime().maxMemory() / HEAP_BYTES_PER_VALUE;
+        final ExternalCollectors collectors = ExternalCollectors.withMemoryBudget(Runtime.getRuntime().maxMemory() / 4);
+
+        long sortedCount = 0;
+        long sortedSum = 0;
+        try (Stream<Long> sorted = values(count).collect(collectors.sorted(Comparator.naturalOrder(), Codec.longs()))) {
+            long previous = Long.MIN_VALUE;
+            for (Iterator<Long> iterator = sorted.iterator(); iterator.hasNext(); ) {
+                final long value = iterator.next();
+                if (value < previous) {
+                    fail("Out of order at " + sortedCount + ": " + value + " after " + previous);
+                }
+                previous = value;
+                sortedSum += value;
+                sortedCount++;
+            }
+        }
+        final long expectedSum = values(count).mapToLong(Long::longValue).sum();
+        if (sortedCount != count || sortedSum != expectedSum) {
+            fail("Sorted " + sortedCount + " values summing " + sortedSum + ", expected " + count + " summing "
+                    + expectedSum);
+        }
+
+        final long groupedCount;
+        final long groups;
+        try (Stream<Map.Entry<Long, Long>> grouped = values(count).collect(collectors.groupingBy(
+                value -> Math.floorMod(value, GROUPS), Comparator.naturalOrder(), Codec.longs(), Codec.longs(),
+                Collectors.counting()))) {
+            final long[] totals = grouped.mapToLong(Map.Entry::getValue).toArray();
+            groups = totals.length;
+            groupedCount = Arrays.stream(totals).sum();
+        }
+        if (groups != GROUPS || groupedCount != count) {
+            fail("Grouped " + groupedCount + " values in " + groups + " groups, expected " + count + " in " + GROUPS);
+        }
+        System.out.println("Sorted and grouped " + count + " values");
+    }
+
+    private static Stream<Long> values(long count) {
+        return new SplittableRandom(42).longs(count).boxed();
+    }
+
+    private static void fail(String message) {
+        System.err.println(message);
+        System.exit(1);
+    }
+}
@@ -0,0 +1,43 @@
+package com.gignomai.javachangestutorial.stream;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ConcurrentSinksTest {
+
+    @Test
+    void shouldKeepEncounterOrderInParallel() {
+        final List<Integer> expected = IntStream.range(0, 1_000_000).boxed().collect(Collectors.toList());
+
+        final ChunkedList<Integer> result = expected.parallelStream().collect(ConcurrentSinks.toChunkedList());
+
+        assertThat(result).hasSize(1_000_000);
+        assertThat(result).isEqualTo(expected);
+        assertThat(result.get(123_456)).isEqualTo(123_456);
+    }
+
+    @Test
+    void shouldCollectEmptyStream() {
+        final ChunkedList<String> result = IntStream.range(0, 0)
+                .mapToObj(String::valueOf)
+                .collect(ConcurrentSinks.toChunkedList());
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void shouldFilterCitiesInParallel() {
+        final List<String> names = List.of("Barcelona", "Girona", "LLeida", "Tarragona");
+
+        final List<String> result = names.parallelStream()
+                .filter(name -> name.endsWith("ona"))
+                .collect(ConcurrentSinks.toChunkedList());
+
+        assertThat(result).containsExactly("Barcelona", "Girona", "Tarragona");
+    }
+}
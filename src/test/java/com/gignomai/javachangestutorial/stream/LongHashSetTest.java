@@ -0,0 +1,48 @@
+package com.gignomai.javachangestutorial.stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LongHashSetTest {
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldBehaveLikeHashSet(boolean offHeap) {
+        final LongHashSet set = offHeap ? LongHashSet.offHeap(4) : LongHashSet.onHeap(4);
+        final Set<Long> expected = new HashSet<>();
+        final Random random = new Random(1);
+
+        for (int i = 0; i < 200_000; i++) {
+            // A narrow range so there are plenty of duplicates, including the key 0
+            final long key = random.nextInt(50_000) - 25_000;
+            assertThat(set.add(key)).isEqualTo(expected.add(key));
+        }
+
+        assertThat(set.size()).isEqualTo(expected.size());
+        assertThat(set.isOffHeap()).isEqualTo(offHeap);
+        for (long key = -26_000; key < 26_000; key++) {
+            assertThat(set.contains(key)).isEqualTo(expected.contains(key));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldKeepExtremeKeys(boolean offHeap) {
+        final LongHashSet set = offHeap ? LongHashSet.offHeap(1) : LongHashSet.onHeap(1);
+
+        assertThat(set.add(Long.MIN_VALUE)).isTrue();
+        assertThat(set.add(Long.MAX_VALUE)).isTrue();
+        assertThat(set.add(0)).isTrue();
+        assertThat(set.add(0)).isFalse();
+
+        assertThat(set.size()).isEqualTo(3);
+        assertThat(set.contains(-1)).isFalse();
+        assertThat(set.tableBytes()).isGreaterThanOrEqualTo(3 * Long.BYTES);
+    }
+}
@@ -0,0 +1,114 @@
+package com.gignomai.javachangestutorial.stream;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NestedStreamsTest {
+
+    @Test
+    void shouldFlattenInEncounterOrder() {
+        final List<List<String>> names = Arrays.asList(Arrays.asList("Barcelona", "Girona"), Collections.emptyList(),
+                new LinkedList<>(Arrays.asList("LLeida", "Tarragona")), Collections.emptyList());
+
+        final List<String> result = NestedStreams.flatStream(names)
+                .map(String::toUpperCase)
+                .collect(Collectors.toList());
+
+        assertThat(result).containsExactly("BARCELONA", "GIRONA", "LLEIDA", "TARRAGONA");
+    }
+
+    @Test
+    void shouldSplitInsideOneHugeInnerList() {
+        final List<List<Integer>> skewed = skewed(10_000, 100, 1);
+        final Spliterator<Integer> suffix = NestedStreams.spliterator(skewed);
+
+        final Spliterator<Integer> prefix = suffix.trySplit();
+        final Spliterator<Integer> prefixOfPrefix = prefix.trySplit();
+
+        assertThat(suffix.estimateSize()).isEqualTo(5050);
+        assertThat(prefix.estimateSize()).isEqualTo(2525);
+        assertThat(prefixOfPrefix.estimateSize()).isEqualTo(2525);
+        assertThat(suffix.hasCharacteristics(Spliterator.SUBSIZED)).isTrue();
+    }
+
+    @Test
+    void shouldReadEveryElementOnceAcrossSplits() {
+        final List<List<Integer>> skewed = skewed(10_000, 100, 3);
+        final Spliterator<Integer> suffix = NestedStreams.spliterator(skewed);
+        final Spliterator<Integer> prefix = suffix.trySplit();
+        final List<Integer> read = new ArrayList<>();
+
+        prefix.tryAdvance(read::add);
+        final Spliterator<Integer> middle = prefix.trySplit();
+        middle.forEachRemaining(read::add);
+        prefix.forEachRemaining(read::add);
+        for (long remaining = suffix.estimateSize(); remaining > 0; remaining--) {
+            suffix.tryAdvance(read::add);
+        }
+
+        assertThat(read).containsExactlyElementsOf(NestedStreams.<Integer>flatStream(skewed)
+                .collect(Collectors.toList()));
+        assertThat(read).hasSize(10_300);
+        assertThat(suffix.tryAdvance(read::add)).isFalse();
+    }
+
+    @Test
+    void shouldMatchFlatMapOnParallelStreams() {
+        final List<List<Integer>> skewed = skewed(100_000, 1000, 2);
+
+        final long sum = NestedStreams.parallelFlatStream(skewed)
+                .mapToLong(Integer::longValue)
+                .sum();
+        final List<Integer> collected = NestedStreams.<Integer>parallelFlatStream(skewed)
+                .collect(Collectors.toList());
+
+        assertThat(sum).isEqualTo(skewed.stream().flatMap(List::stream).mapToLong(Integer::longValue).sum());
+        assertThat(collected).isEqualTo(skewed.stream().flatMap(List::stream).collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldFlattenListsInsideCollector() {
+        final List<List<String>> names = Arrays.asList(Arrays.asList("Barcelona", "Girona"),
+                new LinkedList<>(Arrays.asList("LLeida", "Tarragona")), Arrays.asList("Badalona"));
+
+        final Map<Integer, List<String>> bySize = names.stream()
+                .collect(Collectors.groupingBy(List::size, NestedStreams.flattening(Collectors.toList())));
+        final int count = names.parallelStream()
+                .collect(NestedStreams.flattening(Collectors.summingInt(String::length)));
+
+        assertThat(bySize).containsOnlyKeys(1, 2);
+        assertThat(bySize.get(2)).containsExactly("Barcelona", "Girona", "LLeida", "Tarragona");
+        assertThat(bySize.get(1)).containsExactly("Badalona");
+        assertThat(count).isEqualTo(38);
+    }
+
+    // One list of hugeSize elements in the middle of smallCount lists of smallSize elements
+    private static List<List<Integer>> skewed(int hugeSize, int smallCount, int smallSize) {
+        final List<List<Integer>> lists = new ArrayList<>();
+        int next = 0;
+        for (int i = 0; i < smallCount; i++) {
+            if (i == smallCount / 2) {
+                lists.add(range(next, hugeSize));
+                next += hugeSize;
+            }
+            lists.add(range(next, smallSize));
+            next += smallSize;
+        }
+        return lists;
+    }
+
+    private static List<Integer> range(int from, int size) {
+        return IntStream.range(from, from + size).boxed().collect(Collectors.toList());
+    }
+}
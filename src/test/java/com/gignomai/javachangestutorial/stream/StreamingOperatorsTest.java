@@ -0,0 +1,120 @@
+package com.gignomai.javachangestutorial.stream;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class StreamingOperatorsTest {
+
+    private static final List<String> NAMES = Arrays.asList("Barcelona", "Barcelona", "Girona", "LLeida", "Tarragona");
+
+    @Test
+    void shouldReturnDistinctValuesFromCollection() {
+        assertThat(NAMES.stream().filter(StreamingOperators.distinct()).collect(Collectors.toList()))
+                .containsExactly("Barcelona", "Girona", "LLeida", "Tarragona");
+        assertThat(NAMES.stream().filter(StreamingOperators.approximateDistinct(100, 0.01))
+                .collect(Collectors.toList()))
+                .containsExactly("Barcelona", "Girona", "LLeida", "Tarragona");
+    }
+
+    @Test
+    void shouldDistinctByKeyOnAnUnboundedStream() {
+        final List<Long> onHeap = LongStream.iterate(0, i -> i + 1)
+                .map(i -> i % 1000)
+                .boxed()
+                .filter(StreamingOperators.distinctBy(Long::longValue))
+                .limit(1000)
+                .collect(Collectors.toList());
+        final long offHeapCount = LongStream.range(0, 100_000)
+                .map(i -> i % 1000)
+                .boxed()
+                .filter(StreamingOperators.distinctByOffHeap(Long::longValue))
+                .count();
+
+        assertThat(onHeap).isEqualTo(LongStream.range(0, 1000).boxed().collect(Collectors.toList()));
+        assertThat(offHeapCount).isEqualTo(1000);
+    }
+
+    @Test
+    void shouldKeepBloomFilterFalsePositivesUnderBound() {
+        final int distinct = 100_000;
+
+        final long kept = IntStream.range(0, distinct * 2)
+                .mapToObj(i -> "city-" + (i % distinct))
+                .filter(StreamingOperators.approximateDistinct(distinct, 0.01))
+                .count();
+
+        // Duplicates never pass; a false positive drops a first occurrence instead
+        assertThat(kept).isLessThanOrEqualTo(distinct).isGreaterThan((long) (distinct * 0.98));
+    }
+
+    @Test
+    void shouldEstimateDistinctCountWithinErrorBound() {
+        final int distinct = 1_000_000;
+        final HyperLogLog sketch = new HyperLogLog();
+
+        final long sequential = IntStream.range(0, distinct * 2)
+                .mapToObj(i -> "city-" + (i % distinct))
+                .collect(StreamingOperators.approximateDistinctCount());
+        final long parallel = IntStream.range(0, distinct * 2)
+                .parallel()
+                .mapToObj(i -> "city-" + (i % distinct))
+                .collect(StreamingOperators.approximateDistinctCount());
+
+        // Three standard errors
+        final double tolerance = 3 * sketch.standardError() * distinct;
+        assertThat((double) sequential).isCloseTo(distinct, within(tolerance));
+        assertThat(parallel).isEqualTo(sequential);
+        assertThat(Stream.of("Girona", "Girona", "LLeida").collect(StreamingOperators.approximateDistinctCount()))
+                .isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectInvalidSketchSizes() {
+        assertThatThrownBy(() -> new HyperLogLog(3)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(10, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(10).merge(new HyperLogLog(11)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldReturnTopKLikeSortedLimit() {
+        final Comparator<String> byLength = Comparator.comparingInt(String::length);
+        final List<String> names = IntStream.range(0, 10_000)
+                .mapToObj(i -> NAMES.get(i % NAMES.size()) + i)
+                .collect(Collectors.toList());
+
+        final List<String> expected = names.stream()
+                .sorted(byLength.thenComparing(Comparator.naturalOrder()).reversed())
+                .limit(10)
+                .collect(Collectors.toList());
+
+        assertThat(names.stream()
+                .collect(StreamingOperators.topK(byLength.thenComparing(Comparator.naturalOrder()), 10)))
+                .isEqualTo(expected);
+        assertThat(names.parallelStream()
+                .collect(StreamingOperators.topK(byLength.thenComparing(Comparator.naturalOrder()), 10)))
+                .isEqualTo(expected);
+    }
+
+    @Test
+    void shouldReduceToMaxStringLengthUsingTopK() {
+        // Barcelona and Tarragona tie on length, so the first one seen stays
+        assertThat(NAMES.stream().collect(StreamingOperators.topK(Comparator.comparingInt(String::length), 1)))
+                .containsExactly("Barcelona");
+        assertThat(NAMES.stream().collect(StreamingOperators.topK(Comparator.<String>naturalOrder(), 0))).isEmpty();
+        assertThat(NAMES.stream().collect(StreamingOperators.topK(Comparator.<String>naturalOrder(), 10)))
+                .containsExactly("Tarragona", "LLeida", "Girona", "Barcelona", "Barcelona");
+    }
+}
@@ -0,0 +1,74 @@
+package com.gignomai.javachangestutorial.stream;
+
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StripedAppendBufferTest {
+
+    private static final int THREADS = 16;
+    private static final int WRITES_PER_THREAD = 100_000;
+
+    // Few stripes on purpose, so many threads share a stripe and race for the same segment slots
+    @RepeatedTest(5)
+    void shouldNotLoseWritesUnderContention() throws InterruptedException {
+        final StripedAppendBuffer<Integer> buffer = new StripedAppendBuffer<>(2);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int offset = t * WRITES_PER_THREAD;
+            final Thread thread = new Thread(() -> {
+                await(start);
+                for (int i = 0; i < WRITES_PER_THREAD; i++) {
+                    buffer.add(offset + i);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEveryValueSeenOnce(buffer, THREADS * WRITES_PER_THREAD);
+    }
+
+    @Test
+    void shouldCollectFromParallelForEach() {
+        final StripedAppendBuffer<Integer> buffer = new StripedAppendBuffer<>();
+
+        IntStream.range(0, 1_000_000).boxed().parallel().forEach(buffer);
+
+        assertEveryValueSeenOnce(buffer, 1_000_000);
+    }
+
+    private void assertEveryValueSeenOnce(StripedAppendBuffer<Integer> buffer, int expected) {
+        final BitSet seen = new BitSet(expected);
+        final int[] duplicates = new int[1];
+        buffer.forEach(value -> {
+            if (seen.get(value)) {
+                duplicates[0]++;
+            }
+            seen.set(value);
+        });
+        assertThat(buffer.size()).isEqualTo(expected);
+        assertThat(seen.cardinality()).isEqualTo(expected);
+        assertThat(duplicates[0]).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.gignomai.javachangestutorial.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AhoCorasickTest {
+
+    @Test
+    void shouldFindStartOfLiteral() {
+        final AhoCorasick matcher = new AhoCorasick(List.of("test"));
+
+        assertThat(matcher.matchStarts("This is the test string").findFirst()).hasValue(12);
+    }
+
+    @Test
+    void shouldReportOverlappingMatchesOfSeveralPatterns() {
+        final AhoCorasick matcher = new AhoCorasick(Arrays.asList("he", "she", "his", "hers"));
+
+        final List<String> matches = new ArrayList<>();
+        matcher.forEachMatch("ushers", (pattern, start) -> matches.add(matcher.pattern(pattern) + "@" + start));
+
+        assertThat(matches).containsExactly("she@1", "he@2", "hers@2");
+    }
+
+    @Test
+    void shouldMatchNaiveSearchOnRandomText() {
+        final Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            final String text = randomString(random, 500);
+            final List<String> patterns = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(10); i++) {
+                patterns.add(randomString(random, 1 + random.nextInt(4)));
+            }
+            final AhoCorasick matcher = new AhoCorasick(patterns);
+
+            final List<Integer> expected = naiveStarts(patterns, text);
+            final List<Integer> actual = matcher.matchStarts(text).sorted().boxed().collect(Collectors.toList());
+
+            assertThat(actual).as("patterns %s", patterns).isEqualTo(expected);
+            assertThat(matcher.count(text)).isEqualTo(expected.size());
+        }
+    }
+
+    // Duplicated patterns are one entry in the automaton, and are reported once
+    private List<Integer> naiveStarts(List<String> patterns, String text) {
+        final List<Integer> starts = new ArrayList<>();
+        for (String pattern : patterns.stream().distinct().collect(Collectors.toList())) {
+            for (int start = text.indexOf(pattern); start >= 0; start = text.indexOf(pattern, start + 1)) {
+                starts.add(start);
+            }
+        }
+        starts.sort(null);
+        return starts;
+    }
+
+    private String randomString(Random random, int length) {
+        final StringBuilder builder = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            builder.append((char) ('a' + random.nextInt(3)));
+        }
+        return builder.toString();
+    }
+}
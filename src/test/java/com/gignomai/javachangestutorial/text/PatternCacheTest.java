@@ -0,0 +1,81 @@
+package com.gignomai.javachangestutorial.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PatternCacheTest {
+
+    @Test
+    void shouldCompileEachPatternOnce() {
+        final PatternCache cache = new PatternCache(10);
+
+        assertThat(cache.get("test")).isSameAs(cache.get("test"));
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedPattern() {
+        final PatternCache cache = new PatternCache(2);
+        cache.get("a");
+        cache.get("b");
+        cache.get("a");
+        cache.get("c");
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        cache.get("a");
+        assertThat(cache.getMisses()).isEqualTo(3);
+        cache.get("b");
+        assertThat(cache.getMisses()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldStreamMatchStarts() {
+        final PatternCache cache = new PatternCache(10);
+
+        assertThat(cache.matchStarts("test", "This is the test string").findFirst()).hasValue(12);
+        assertThat(cache.matchStarts("t\\w+", "This is the test string").toArray()).containsExactly(8, 12, 18);
+    }
+
+    @Test
+    void shouldSearchLiteralsAndRegexesTheSameWay() {
+        final PatternCache cache = new PatternCache(10);
+        final String text = "the test string tests the tester";
+
+        final List<Integer> literal = sorted(cache, Arrays.asList("test", "the", "est"), text);
+        final List<Integer> regex = sorted(cache, Arrays.asList("tes[t]", "th(e)", "est"), text);
+
+        assertThat(literal).isEqualTo(regex).containsExactly(0, 4, 5, 16, 17, 22, 26, 27);
+    }
+
+    @Test
+    void shouldCountLiteralSearchesApartFromPatterns() {
+        final PatternCache cache = new PatternCache(10);
+        cache.get("test");
+        cache.matchStarts(List.of("test", "the"), "the test").count();
+        cache.matchStarts(List.of("test", "the"), "the test").count();
+
+        assertThat(cache.getMisses()).isEqualTo(1);
+        assertThat(cache.getHits()).isZero();
+        assertThat(cache.getLiteralMisses()).isEqualTo(1);
+        assertThat(cache.getLiteralHits()).isEqualTo(1);
+        assertThat(cache.getLiteralEvictions()).isZero();
+    }
+
+    @Test
+    void shouldDetectLiterals() {
+        assertThat(PatternCache.isLiteral("Barcelona")).isTrue();
+        assertThat(PatternCache.isLiteral("Barcel.na")).isFalse();
+        assertThat(PatternCache.isLiteral("")).isFalse();
+    }
+
+    private List<Integer> sorted(PatternCache cache, List<String> patterns, String text) {
+        return cache.matchStarts(patterns, text).sorted().boxed().collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,132 @@
+package com.gignomai.javachangestutorial.text;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StringColumnTest {
+
+    private static final List<String> NAMES = Arrays.asList("Barcelona", "Barcelona", "Girona", "LLeida", "Tarragona");
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldFilterValuesFromColumn(boolean dictionaryEncoded) {
+        final StringColumn column = column(NAMES, dictionaryEncoded);
+
+        final BitSet endsWithOna = column.endsWith("ona");
+
+        assertThat(column.toList(endsWithOna)).containsExactly("Barcelona", "Barcelona", "Girona", "Tarragona");
+        assertThat(column.count(endsWithOna)).isEqualTo(4);
+        assertThat(column.toList(column.startsWith("Bar"))).containsExactly("Barcelona", "Barcelona");
+        assertThat(column.count(column.isEqualTo("LLeida"))).isEqualTo(1);
+        assertThat(column.count(column.endsWith("Barcelona!"))).isZero();
+        assertThat(column.isDictionaryEncoded()).isEqualTo(dictionaryEncoded);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldCombineSelections(boolean dictionaryEncoded) {
+        final StringColumn column = column(NAMES, dictionaryEncoded);
+
+        final BitSet selection = column.endsWith("ona");
+        selection.andNot(column.startsWith("Bar"));
+
+        assertThat(column.toList(selection)).containsExactly("Girona", "Tarragona");
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldMapAndDistinctLikeStreams(boolean dictionaryEncoded) {
+        final List<String> values = randomNames(new Random(5), 20_000);
+        final StringColumn column = column(values, dictionaryEncoded);
+
+        assertThat(column.size()).isEqualTo(values.size());
+        assertThat(column.toUpperCase().toList())
+                .isEqualTo(values.stream().map(value -> value.toUpperCase(Locale.ROOT)).collect(Collectors.toList()));
+        assertThat(column.distinct().toList()).isEqualTo(values.stream().distinct().collect(Collectors.toList()));
+        assertThat(column.countDistinct()).isEqualTo(values.stream().distinct().count());
+        for (String suffix : Arrays.asList("a", "ona", "\u00f3", "da1", "")) {
+            assertThat(column.toList(column.endsWith(suffix)))
+                    .isEqualTo(values.stream().filter(value -> value.endsWith(suffix)).collect(Collectors.toList()));
+            assertThat(column.count(column.startsWith(suffix)))
+                    .isEqualTo(values.stream().filter(value -> value.startsWith(suffix)).count());
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldMergeValuesThatOnlyDifferInCase(boolean dictionaryEncoded) {
+        final StringColumn ascii = column(List.of("girona", "GIRONA", "Reus", "girona"), dictionaryEncoded);
+        final StringColumn utf8 = column(List.of("matar\u00f3", "MATAR\u00d3", "Reus"), dictionaryEncoded);
+
+        final StringColumn upperAscii = ascii.toUpperCase();
+        final StringColumn upperUtf8 = utf8.toUpperCase();
+
+        assertThat(upperAscii.toList()).containsExactly("GIRONA", "GIRONA", "REUS", "GIRONA");
+        assertThat(upperAscii.distinct().toList()).containsExactly("GIRONA", "REUS");
+        assertThat(upperAscii.countDistinct()).isEqualTo(2);
+        assertThat(upperAscii.count(upperAscii.isEqualTo("GIRONA"))).isEqualTo(3);
+        assertThat(upperUtf8.distinct().toList()).containsExactly("MATAR\u00d3", "REUS");
+        assertThat(upperUtf8.countDistinct()).isEqualTo(2);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldBuildFromUtf8Bytes(boolean dictionaryEncoded) {
+        final byte[] lines = "Girona\nL\u00e9rida\nGirona".getBytes(StandardCharsets.UTF_8);
+        final StringColumn.Builder builder = StringColumn.builder();
+        if (dictionaryEncoded) {
+            builder.dictionaryEncoded();
+        }
+
+        final StringColumn column = builder.add(lines, 0, 6).add(lines, 7, 14).add(lines, 15, 21).build();
+
+        assertThat(column.toList()).containsExactly("Girona", "L\u00e9rida", "Girona");
+        assertThat(column.byteLength(1)).isEqualTo(7);
+        assertThat(column.sizeInBytes()).isLessThan(dictionaryEncoded ? 60 : 40);
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void shouldHandleEmptyColumn(boolean dictionaryEncoded) {
+        final StringColumn column = column(List.of(), dictionaryEncoded);
+
+        assertThat(column.size()).isZero();
+        assertThat(column.endsWith("ona").isEmpty()).isTrue();
+        assertThat(column.toUpperCase().toList()).isEmpty();
+        assertThat(column.distinct().size()).isZero();
+        assertThatThrownBy(() -> column.get(0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void shouldRejectLateDictionaryEncoding() {
+        final StringColumn.Builder builder = StringColumn.builder().add("Girona");
+
+        assertThatThrownBy(builder::dictionaryEncoded).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static StringColumn column(List<String> values, boolean dictionaryEncoded) {
+        return dictionaryEncoded ? StringColumn.dictionaryEncoded(values) : StringColumn.of(values);
+    }
+
+    private static List<String> randomNames(Random random, int count) {
+        final String[] cities = {"Barcelona", "Girona", "Lleida", "Tarragona", "Matar\u00f3", "Reus", ""};
+        final List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(cities[random.nextInt(cities.length)] + (random.nextInt(4) == 0 ? random.nextInt(100) : ""));
+        }
+        return names;
+    }
+}
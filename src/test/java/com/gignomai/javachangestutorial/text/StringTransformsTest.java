@@ -0,0 +1,120 @@
+package com.gignomai.javachangestutorial.text;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StringTransformsTest {
+
+    private static final List<String> NAMES = Arrays.asList("Barcelona", "Girona", "LLeida", "Tarragona");
+    private static final String ALPHABET = "abcxyzABCXYZ@[`{ \t\n019~\u0000\u007f";
+    private static final String NON_ASCII = "\u00df\u00e9\u00d1\u0130\u0131\u03a3\u00b5\ud83d\ude00\u2003";
+
+    @Test
+    void shouldUseMethodReferenceAsLambda() {
+        final TextArena arena = StringTransforms.toUpperCase(NAMES, new TextArena());
+
+        assertThat(arena.toList()).containsExactly("BARCELONA", "GIRONA", "LLEIDA", "TARRAGONA");
+        assertThat(arena.contentEquals(1, "GIRONA")).isTrue();
+        assertThat(arena.contentEquals(1, "Girona")).isFalse();
+    }
+
+    @Test
+    void shouldMatchTheJdkOnRandomStrings() {
+        final List<String> batch = randomStrings(new Random(3), 5_000);
+        final TextArena arena = new TextArena(16, 4);
+
+        for (Locale locale : Arrays.asList(Locale.ROOT, Locale.ENGLISH, new Locale("tr"), new Locale("lt"))) {
+            arena.clear();
+            assertThat(StringTransforms.toUpperCase(batch, locale, arena).toList())
+                    .isEqualTo(batch.stream().map(value -> value.toUpperCase(locale)).collect(Collectors.toList()));
+            arena.clear();
+            assertThat(StringTransforms.toLowerCase(batch, locale, arena).toList())
+                    .isEqualTo(batch.stream().map(value -> value.toLowerCase(locale)).collect(Collectors.toList()));
+        }
+        arena.clear();
+        assertThat(StringTransforms.strip(batch, arena).toList())
+                .isEqualTo(batch.stream().map(String::strip).collect(Collectors.toList()));
+        for (int count : new int[]{0, 1, 3, 17}) {
+            arena.clear();
+            assertThat(StringTransforms.repeat(batch, count, arena).toList())
+                    .isEqualTo(batch.stream().map(value -> value.repeat(count)).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void shouldRepeat() {
+        final TextArena arena = StringTransforms.repeat(List.of("yeah!", "\u00a1s\u00ed!"), 3, new TextArena());
+
+        assertThat(arena.toString(0)).isEqualTo("yeah!yeah!yeah!");
+        assertThat(arena.toString(1)).isEqualTo("\u00a1s\u00ed!\u00a1s\u00ed!\u00a1s\u00ed!");
+        assertThatThrownBy(() -> StringTransforms.repeat(NAMES, -1, arena))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldAppendToTheArenaUntilCleared() {
+        final TextArena arena = new TextArena();
+        StringTransforms.toLowerCase(NAMES, arena);
+        StringTransforms.strip(List.of("  Girona  "), arena);
+
+        assertThat(arena.size()).isEqualTo(5);
+        assertThat(arena.toString(4)).isEqualTo("Girona");
+        assertThat(arena.byteLength(4)).isEqualTo(6);
+
+        arena.clear();
+        assertThat(arena.size()).isZero();
+        assertThatThrownBy(() -> arena.toString(0)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void shouldMapCaseOfEveryAsciiByte() {
+        final byte[] all = new byte[256];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = (byte) i;
+        }
+        final byte[] upper = new byte[all.length];
+        final byte[] lower = new byte[all.length];
+
+        // Odd offsets so the words straddle the interesting ranges differently
+        AsciiKernel.toUpperCase(all, 1, all.length, upper, 1);
+        AsciiKernel.toLowerCase(all, 1, all.length, lower, 1);
+
+        for (int i = 1; i < all.length; i++) {
+            final char c = (char) i;
+            assertThat(upper[i]).as("upper of %d", i).isEqualTo(c < 0x80 ? (byte) Character.toUpperCase(c) : all[i]);
+            assertThat(lower[i]).as("lower of %d", i).isEqualTo(c < 0x80 ? (byte) Character.toLowerCase(c) : all[i]);
+            if (c < 0x80) {
+                assertThat(AsciiKernel.isWhitespace(c)).as("whitespace %d", i).isEqualTo(Character.isWhitespace(c));
+            }
+        }
+        assertThat(AsciiKernel.isAscii(all, 0, 128)).isTrue();
+        assertThat(AsciiKernel.isAscii(all, 0, 129)).isFalse();
+        assertThat(AsciiKernel.isAscii("Girona \u00e9".getBytes(StandardCharsets.UTF_8), 0, 7)).isTrue();
+    }
+
+    private static List<String> randomStrings(Random random, int count) {
+        final List<String> strings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final StringBuilder builder = new StringBuilder();
+            final int length = random.nextInt(40);
+            final boolean ascii = random.nextInt(4) != 0;
+            for (int j = 0; j < length; j++) {
+                final int[] source = ascii || random.nextBoolean() ? ALPHABET.codePoints().toArray()
+                        : NON_ASCII.codePoints().toArray();
+                builder.appendCodePoint(source[random.nextInt(source.length)]);
+            }
+            strings.add(builder.toString());
+        }
+        return strings;
+    }
+}
@@ -0,0 +1,34 @@
+package com.gignomai.javachangestutorial.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachedClockTest {
+
+    @Test
+    void shouldFollowSystemClock() throws InterruptedException {
+        try (CachedClock clock = new CachedClock(ZoneOffset.UTC, 1)) {
+            final Instant first = clock.instant();
+            Thread.sleep(50);
+            final Instant second = clock.instant();
+
+            assertThat(second).isAfter(first);
+            assertThat(Math.abs(System.currentTimeMillis() - clock.millis())).isLessThan(1000);
+        }
+    }
+
+    @Test
+    void shouldStopTickingWhenClosed() throws InterruptedException {
+        final CachedClock clock = new CachedClock(ZoneOffset.UTC, 1);
+        clock.close();
+        Thread.sleep(20);
+        final Instant stopped = clock.instant();
+        Thread.sleep(20);
+
+        assertThat(clock.instant()).isEqualTo(stopped);
+    }
+}
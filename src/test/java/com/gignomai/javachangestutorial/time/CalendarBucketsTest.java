@@ -0,0 +1,152 @@
+package com.gignomai.javachangestutorial.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CalendarBucketsTest {
+
+    private static final UnaryOperator<LocalDate> START_OF_WEEK =
+            date -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    private static final UnaryOperator<LocalDate> START_OF_MONTH =
+            date -> date.with(TemporalAdjusters.firstDayOfMonth());
+
+    @Test
+    void shouldBucketLikeLocalDate() {
+        final Random random = new Random(42);
+        final long from = LocalDate.of(1700, 1, 1).toEpochDay();
+        final long to = LocalDate.of(2400, 12, 31).toEpochDay();
+        for (int i = 0; i < 200_000; i++) {
+            assertSameBuckets(from + (long) (random.nextDouble() * (to - from)));
+        }
+    }
+
+    @Test
+    void shouldHandleLeapYearsAndTableEdges() {
+        final LocalDate[] dates = {
+                LocalDate.parse("2016-02-29"), LocalDate.parse("2016-03-01"), LocalDate.parse("2022-02-28"),
+                LocalDate.parse("2022-03-01"), LocalDate.parse("2000-02-29"), LocalDate.parse("1900-02-28"),
+                LocalDate.parse("1900-03-01"), LocalDate.parse("1900-01-01"), LocalDate.parse("1899-12-31"),
+                LocalDate.parse("2199-12-31"), LocalDate.parse("2200-01-01"), LocalDate.parse("1969-12-31"),
+                LocalDate.parse("1970-01-01")
+        };
+        for (LocalDate date : dates) {
+            assertSameBuckets(date.toEpochDay());
+        }
+    }
+
+    @Test
+    void shouldBucketEpochSecondsAtOffset() {
+        final LocalDateTime lateEvening = LocalDateTime.parse("2022-05-31T23:30:00");
+        final long epochSecond = lateEvening.toEpochSecond(ZoneOffset.UTC);
+
+        final CalendarBuckets utc = CalendarBuckets.of(BucketUnit.MONTH);
+        final CalendarBuckets madrid = CalendarBuckets.of(BucketUnit.MONTH, ZoneOffset.ofHours(2));
+
+        assertThat(utc.startDate(utc.bucketOfEpochSecond(epochSecond))).isEqualTo(LocalDate.parse("2022-05-01"));
+        assertThat(madrid.startDate(madrid.bucketOfEpochSecond(epochSecond))).isEqualTo(LocalDate.parse("2022-06-01"));
+        assertThat(utc.bucketOfEpochSecond(-1))
+                .isEqualTo(LocalDate.parse("1969-12-01").getLong(ChronoField.PROLEPTIC_MONTH));
+    }
+
+    @Test
+    void shouldCountLikeGroupingBy() {
+        final long[] epochSeconds = randomEpochSeconds(100_000);
+        final CalendarBuckets weeks = CalendarBuckets.of(BucketUnit.WEEK);
+
+        final Map<LocalDate, Long> expected = Arrays.stream(epochSeconds)
+                .mapToObj(second -> START_OF_WEEK.apply(LocalDateTime.ofEpochSecond(second, 0, ZoneOffset.UTC)
+                        .toLocalDate()))
+                .collect(Collectors.groupingBy(date -> date, TreeMap::new, Collectors.counting()));
+
+        final BucketAggregation aggregation = weeks.count(epochSeconds);
+
+        assertThat(aggregation.toCountMap()).isEqualTo(expected);
+        assertThat(aggregation.totalCount()).isEqualTo(epochSeconds.length);
+    }
+
+    @Test
+    void shouldAggregateTheSameInParallel() {
+        final long[] epochSeconds = randomEpochSeconds(500_000);
+        final long[] values = new long[epochSeconds.length];
+        Arrays.setAll(values, i -> i % 7);
+        final CalendarBuckets days = CalendarBuckets.of(BucketUnit.DAY);
+
+        final BucketAggregation sequential = days.sum(epochSeconds, values);
+        final BucketAggregation parallel = days.sumParallel(epochSeconds, values);
+
+        assertThat(parallel.size()).isEqualTo(sequential.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertThat(parallel.bucket(i)).isEqualTo(sequential.bucket(i));
+            assertThat(parallel.count(i)).isEqualTo(sequential.count(i));
+            assertThat(parallel.sum(i)).isEqualTo(sequential.sum(i));
+        }
+        assertThat(days.countParallel(epochSeconds).toCountMap()).isEqualTo(sequential.toCountMap());
+    }
+
+    @Test
+    void shouldKeepEmptyBucketsBetweenEvents() {
+        final CalendarBuckets months = CalendarBuckets.of(BucketUnit.MONTH);
+        final long[] epochSeconds = {
+                LocalDateTime.parse("2022-01-15T10:00:00").toEpochSecond(ZoneOffset.UTC),
+                LocalDateTime.parse("2022-04-02T10:00:00").toEpochSecond(ZoneOffset.UTC)
+        };
+
+        final BucketAggregation aggregation = months.count(epochSeconds);
+
+        assertThat(aggregation.size()).isEqualTo(4);
+        assertThat(aggregation.startDate(1)).isEqualTo(LocalDate.parse("2022-02-01"));
+        assertThat(aggregation.count(1)).isZero();
+        assertThat(aggregation.count(3)).isEqualTo(1);
+        assertThatThrownBy(() -> aggregation.sum(0)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldRejectTooManyBuckets() {
+        final long[] epochSeconds = {Long.MIN_VALUE / 2, Long.MAX_VALUE / 2};
+
+        assertThatThrownBy(() -> CalendarBuckets.of(BucketUnit.DAY).count(epochSeconds))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(CalendarBuckets.of(BucketUnit.DAY).count(new long[0]).size()).isZero();
+    }
+
+    private static void assertSameBuckets(long epochDay) {
+        final LocalDate date = LocalDate.ofEpochDay(epochDay);
+        assertStart(BucketUnit.DAY, epochDay, date);
+        assertStart(BucketUnit.WEEK, epochDay, START_OF_WEEK.apply(date));
+        assertStart(BucketUnit.MONTH, epochDay, START_OF_MONTH.apply(date));
+        assertThat(CalendarBuckets.of(BucketUnit.MONTH).bucketOfEpochDay(epochDay))
+                .isEqualTo(date.getLong(ChronoField.PROLEPTIC_MONTH));
+    }
+
+    private static void assertStart(BucketUnit unit, long epochDay, LocalDate expected) {
+        final CalendarBuckets buckets = CalendarBuckets.of(unit);
+        assertThat(buckets.startDate(buckets.bucketOfEpochDay(epochDay))).as("%s of %s", unit, epochDay)
+                .isEqualTo(expected);
+    }
+
+    private static long[] randomEpochSeconds(int size) {
+        final Random random = new Random(7);
+        final long from = LocalDate.parse("2020-01-01").toEpochDay() * 86_400;
+        final long span = 3L * 365 * 86_400;
+        final long[] epochSeconds = new long[size];
+        for (int i = 0; i < size; i++) {
+            epochSeconds[i] = from + (long) (random.nextDouble() * span);
+        }
+        return epochSeconds;
+    }
+}
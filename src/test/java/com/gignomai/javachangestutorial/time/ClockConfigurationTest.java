@@ -0,0 +1,32 @@
+package com.gignomai.javachangestutorial.time;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Clock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClockConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            // SpringApplication registers this conversion service; the bare runner needs it to bind ClockMode
+            .withInitializer(context -> context.getBeanFactory()
+                    .setConversionService(ApplicationConversionService.getSharedInstance()))
+            .withUserConfiguration(ClockConfiguration.class);
+
+    @Test
+    void shouldUseSystemClockByDefault() {
+        contextRunner.run(context -> assertThat(context.getBean(Clock.class).getClass().getName())
+                .isEqualTo(Clock.systemDefaultZone().getClass().getName()));
+    }
+
+    @Test
+    void shouldSelectClockFromProperty() {
+        contextRunner.withPropertyValues("clock.mode=cached")
+                .run(context -> assertThat(context.getBean(Clock.class)).isInstanceOf(CachedClock.class));
+        contextRunner.withPropertyValues("clock.mode=MUTABLE")
+                .run(context -> assertThat(context.getBean(Clock.class)).isInstanceOf(MutableClock.class));
+    }
+}
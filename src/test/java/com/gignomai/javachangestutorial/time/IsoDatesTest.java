@@ -0,0 +1,98 @@
+package com.gignomai.javachangestutorial.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IsoDatesTest {
+
+    public static final String TEST_DATE_STRING = "2022-05-16";
+
+    private static final long MIN_EPOCH_DAY = LocalDate.of(0, 1, 1).toEpochDay();
+    private static final long MAX_EPOCH_DAY = LocalDate.of(9999, 12, 31).toEpochDay();
+
+    @Test
+    void shouldParseLocalDate() {
+        assertThat(IsoDates.parseLocalDate(TEST_DATE_STRING)).isEqualTo(LocalDate.of(2022, 5, 16));
+        assertThat(IsoDates.parseLocalDate(TEST_DATE_STRING)).isSameAs(IsoDates.parseLocalDate(TEST_DATE_STRING));
+    }
+
+    @Test
+    void shouldParseLocalDateTime() {
+        assertThat(IsoDates.parseLocalDateTime(TEST_DATE_STRING + "T00:00:00"))
+                .isEqualTo(LocalDate.parse(TEST_DATE_STRING).atStartOfDay());
+        assertThat(IsoDates.parseLocalDateTime("2022-05-16T10:15"))
+                .isEqualTo(LocalDateTime.of(2022, 5, 16, 10, 15));
+        assertThat(IsoDates.parseLocalDateTime("2022-05-16T10:15:30.12"))
+                .isEqualTo(LocalDateTime.of(2022, 5, 16, 10, 15, 30, 120_000_000));
+    }
+
+    @Test
+    void shouldMatchIsoLocalDateOnRandomDates() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            final LocalDate date = LocalDate.ofEpochDay(MIN_EPOCH_DAY + (long) (random.nextDouble() * (MAX_EPOCH_DAY - MIN_EPOCH_DAY)));
+            final String iso = DateTimeFormatter.ISO_LOCAL_DATE.format(date);
+            final byte[] bytes = ("[" + iso + "]").getBytes(StandardCharsets.US_ASCII);
+
+            assertThat(IsoDates.parseLocalDate(iso)).isEqualTo(LocalDate.parse(iso, DateTimeFormatter.ISO_LOCAL_DATE));
+            assertThat(IsoDates.parseLocalDate(bytes, 1, iso.length())).isEqualTo(date);
+            assertThat(IsoDates.format(date)).isEqualTo(iso);
+            final byte[] out = new byte[10];
+            assertThat(IsoDates.formatTo(date, out, 0)).isEqualTo(10);
+            assertThat(new String(out, StandardCharsets.US_ASCII)).isEqualTo(iso);
+        }
+    }
+
+    @Test
+    void shouldMatchIsoLocalDateTimeOnRandomDateTimes() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            final LocalDateTime dateTime = LocalDate.ofEpochDay(MIN_EPOCH_DAY + (long) (random.nextDouble() * (MAX_EPOCH_DAY - MIN_EPOCH_DAY)))
+                    .atStartOfDay()
+                    .plusNanos((long) (random.nextDouble() * ChronoUnit.DAYS.getDuration().toNanos()))
+                    .truncatedTo(List.of(ChronoUnit.MINUTES, ChronoUnit.SECONDS, ChronoUnit.MILLIS, ChronoUnit.MICROS,
+                            ChronoUnit.NANOS).get(random.nextInt(5)));
+            final String iso = DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+            final String isoWithoutSeconds = iso.substring(0, 16);
+
+            assertThat(IsoDates.parseLocalDateTime(iso)).isEqualTo(LocalDateTime.parse(iso));
+            assertThat(IsoDates.parseLocalDateTime(isoWithoutSeconds)).isEqualTo(LocalDateTime.parse(isoWithoutSeconds));
+            assertThat(IsoDates.parseLocalDateTime(iso.getBytes(StandardCharsets.US_ASCII), 0, iso.length()))
+                    .isEqualTo(dateTime);
+            assertThat(IsoDates.format(dateTime)).isEqualTo(iso);
+        }
+    }
+
+    @Test
+    void shouldRejectWhatIsoLocalDateRejects() {
+        for (String invalid : List.of("2022-02-30", "2022-13-01", "2022-5-16", "2022/05/16", "20220516", "2022-05-1a",
+                "", "2022-00-10", "+2022-05-16")) {
+            assertThrows(DateTimeParseException.class, () -> LocalDate.parse(invalid), invalid);
+            assertThrows(DateTimeParseException.class, () -> IsoDates.parseLocalDate(invalid), invalid);
+        }
+        for (String invalid : List.of("2022-05-16T24:00", "2022-05-16T10:60", "2022-05-16 10:15",
+                "2022-05-16T10:15:30.1234567890", "2022-05-16T1:15")) {
+            assertThrows(DateTimeParseException.class, () -> LocalDateTime.parse(invalid), invalid);
+            assertThrows(DateTimeParseException.class, () -> IsoDates.parseLocalDateTime(invalid), invalid);
+        }
+    }
+
+    @Test
+    void shouldFallBackForYearsWithMoreThanFourDigits() {
+        final LocalDate date = LocalDate.of(12345, 1, 2);
+
+        assertThat(IsoDates.format(date)).isEqualTo("+12345-01-02");
+        assertThat(IsoDates.parseLocalDate("+12345-01-02")).isEqualTo(date);
+    }
+}
@@ -0,0 +1,38 @@
+package com.gignomai.javachangestutorial.time;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MutableClockTest {
+
+    private static final Instant START = Instant.parse("2022-05-16T10:15:30Z");
+
+    @Test
+    void shouldOnlyMoveWhenAdvanced() {
+        final MutableClock clock = new MutableClock(START, ZoneOffset.UTC);
+
+        assertThat(clock.instant()).isEqualTo(START);
+        clock.advance(Duration.ofMinutes(1));
+        assertThat(LocalTime.now(clock)).isEqualTo(LocalTime.of(10, 16, 30));
+        clock.setInstant(START);
+        assertThat(clock.millis()).isEqualTo(START.toEpochMilli());
+    }
+
+    @Test
+    void shouldShareInstantWithZonedCopies() {
+        final MutableClock clock = new MutableClock(START, ZoneOffset.UTC);
+        final Clock madrid = clock.withZone(ZoneId.of("Europe/Madrid"));
+
+        clock.advance(Duration.ofHours(1));
+
+        assertThat(LocalTime.now(madrid)).isEqualTo(LocalTime.of(13, 15, 30));
+    }
+}
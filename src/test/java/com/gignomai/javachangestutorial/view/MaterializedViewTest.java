@@ -0,0 +1,134 @@
+package com.gignomai.javachangestutorial.view;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MaterializedViewTest {
+
+    private static final List<String> NAMES = List.of("Barcelona", "Girona", "LLeida", "Tarragona");
+
+    @Test
+    void shouldAnswerStreamQueriesWithoutRescanning() {
+        final MaterializedView<String> view = stringView();
+
+        view.addAll(NAMES);
+
+        final ViewSnapshot<String> snapshot = view.snapshot();
+        assertThat(snapshot.size()).isEqualTo(4);
+        assertThat(snapshot.count("ona")).isEqualTo(3);
+        assertThat(snapshot.get("longest")).contains("Barcelona");
+        assertThat(snapshot.get("shortest")).contains("Girona");
+        assertThat(snapshot.get("first")).contains("Barcelona");
+    }
+
+    @Test
+    void shouldUpdateAggregationsOnRemove() {
+        final MaterializedView<String> view = stringView();
+        view.addAll(NAMES);
+
+        assertThat(view.remove("Girona")).isTrue();
+        assertThat(view.remove("Girona")).isFalse();
+
+        final ViewSnapshot<String> snapshot = view.snapshot();
+        assertThat(snapshot.count("ona")).isEqualTo(2);
+        assertThat(snapshot.get("shortest")).contains("LLeida");
+        assertThat(view.removeAll(List.of("Barcelona", "LLeida", "Tarragona", "Reus"))).isEqualTo(3);
+        assertThat(view.snapshot().size()).isZero();
+        assertThat(view.snapshot().get("shortest")).isEmpty();
+    }
+
+    @Test
+    void shouldMatchStreamsOverListAfterRandomUpdates() {
+        final MaterializedView<String> view = stringView();
+        final List<String> list = new ArrayList<>();
+        final SplittableRandom random = new SplittableRandom(11);
+
+        for (int i = 0; i < 5_000; i++) {
+            final String value = NAMES.get(random.nextInt(NAMES.size())).substring(random.nextInt(4))
+                    + random.nextInt(20);
+            if (random.nextInt(3) == 0) {
+                assertThat(view.remove(value)).isEqualTo(list.remove(value));
+            } else {
+                view.add(value);
+                list.add(value);
+            }
+
+            final ViewSnapshot<String> snapshot = view.snapshot();
+            assertThat(snapshot.size()).isEqualTo(list.size());
+            assertThat(snapshot.count("ona")).isEqualTo(list.stream().filter(name -> name.endsWith("ona")).count());
+            assertThat(snapshot.get("longest")).isEqualTo(list.stream().max(Comparator.comparingInt(String::length)));
+            assertThat(snapshot.get("shortest")).isEqualTo(list.stream().reduce(
+                    (word1, word2) -> word1.length() <= word2.length() ? word1 : word2));
+            assertThat(snapshot.get("first")).isEqualTo(list.stream().min(Comparator.naturalOrder()));
+        }
+    }
+
+    @Test
+    void shouldStartLateAggregationsFromCurrentElements() {
+        final MaterializedView<String> view = new MaterializedView<>();
+        view.addAll(NAMES);
+        final ViewSnapshot<String> before = view.snapshot();
+
+        view.count("bar", name -> name.startsWith("Bar")).max("last", Comparator.naturalOrder());
+
+        assertThat(view.snapshot().count("bar")).isEqualTo(1);
+        assertThat(view.snapshot().get("last")).contains("Tarragona");
+        assertThat(before.names()).isEmpty();
+    }
+
+    @Test
+    void shouldRejectUnknownAndDuplicateNames() {
+        final MaterializedView<String> view = stringView();
+
+        assertThatThrownBy(() -> view.count("ona", name -> true)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> view.snapshot().count("missing")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> view.snapshot().count("shortest")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> view.snapshot().get("ona")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldGiveReadersConsistentSnapshotsWhileWriting() throws Exception {
+        final MaterializedView<String> view = stringView();
+        final AtomicBoolean writing = new AtomicBoolean(true);
+        final CompletableFuture<Long> reader = CompletableFuture.supplyAsync(() -> {
+            long reads = 0;
+            while (writing.get()) {
+                final ViewSnapshot<String> snapshot = view.snapshot();
+                // Every batch adds or removes one name ending in "ona" and one that does not
+                assertThat(snapshot.count("ona") * 2).isEqualTo(snapshot.size());
+                reads++;
+            }
+            return reads;
+        });
+
+        for (int i = 0; i < 20_000; i++) {
+            final List<String> batch = List.of("Girona" + i % 100 + "ona", "LLeida" + i);
+            view.addAll(batch);
+            if (i % 2 == 1) {
+                view.removeAll(batch);
+            }
+        }
+        writing.set(false);
+
+        assertThat(reader.get(1, TimeUnit.MINUTES)).isPositive();
+        assertThat(view.snapshot().size()).isEqualTo(20_000);
+    }
+
+    private static MaterializedView<String> stringView() {
+        return new MaterializedView<String>()
+                .count("ona", name -> name.endsWith("ona"))
+                .shortest("shortest", String::length)
+                .longest("longest", String::length)
+                .min("first", Comparator.naturalOrder());
+    }
+}